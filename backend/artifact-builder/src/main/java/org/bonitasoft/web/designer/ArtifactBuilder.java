@@ -1,5 +1,6 @@
 package org.bonitasoft.web.designer;
 
+import org.bonitasoft.web.designer.controller.export.ExportArchive;
 import org.bonitasoft.web.designer.controller.export.ExportException;
 import org.bonitasoft.web.designer.controller.importer.report.ImportReport;
 import org.bonitasoft.web.designer.model.ModelException;
@@ -7,6 +8,7 @@ import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.rendering.GenerationException;
+import org.bonitasoft.web.designer.rendering.PreviewHtml;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.workspace.Workspace;
 
@@ -26,10 +28,32 @@ public interface ArtifactBuilder {
     byte[] buildWidget(String id) throws ModelException, ExportException, IOException;
     byte[] build(Widget widget) throws ModelException, ExportException, IOException;
 
+    /**
+     * Build the export zip of an artifact without holding it all in memory.
+     * Any export error is raised here, before anything is written: the returned archive is complete and only has to be
+     * written to an {@link java.io.OutputStream} or a {@link java.nio.channels.WritableByteChannel}, then closed.
+     */
+    ExportArchive export(Page page) throws ModelException, ExportException;
+
+    ExportArchive export(Fragment fragment) throws ModelException, ExportException;
+
+    ExportArchive export(Widget widget) throws ModelException, ExportException;
+
     String buildHtml(Page page, String context) throws GenerationException, NotFoundException;
 
     String buildHtml(Fragment fragment, String context) throws GenerationException, NotFoundException;
 
+    /**
+     * Html of the persisted page with the given id, built again only when the page or any widget, fragment or asset
+     * it uses was modified since it was last built for this context
+     */
+    PreviewHtml buildPagePreview(String id, String context) throws GenerationException, NotFoundException;
+
+    /**
+     * Same as {@link #buildPagePreview(String, String)} for a fragment
+     */
+    PreviewHtml buildFragmentPreview(String id, String context) throws GenerationException, NotFoundException;
+
     /**
      * Import an artifact
      *
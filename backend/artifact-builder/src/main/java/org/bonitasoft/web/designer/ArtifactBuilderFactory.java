@@ -39,13 +39,16 @@ import org.bonitasoft.web.designer.i18n.I18nInitializer;
 import org.bonitasoft.web.designer.i18n.LanguagePackBuilder;
 import org.bonitasoft.web.designer.i18n.LanguagePackFactory;
 import org.bonitasoft.web.designer.localization.LocalizationFactory;
+import org.bonitasoft.web.designer.livebuild.BuildManifest;
 import org.bonitasoft.web.designer.migration.LiveRepositoryUpdate;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.rendering.DirectiveBundleCache;
 import org.bonitasoft.web.designer.rendering.DirectiveFileGenerator;
 import org.bonitasoft.web.designer.rendering.DirectivesCollector;
 import org.bonitasoft.web.designer.rendering.HtmlGenerator;
+import org.bonitasoft.web.designer.rendering.PreviewHtmlCache;
 import org.bonitasoft.web.designer.rendering.angular.AngularAppGenerator;
 import org.bonitasoft.web.designer.rendering.angular.WidgetBundleFile;
 import org.bonitasoft.web.designer.repository.WidgetFileBasedLoader;
@@ -84,8 +87,7 @@ public class ArtifactBuilderFactory {
      */
     public ArtifactBuilder create() {
 
-        var fragmentIdVisitor = new FragmentIdVisitor(core.getFragmentRepository());
-        var widgetIdVisitor = new WidgetIdVisitor(core.getFragmentRepository());
+        var pageAnalyzer = new PageAnalyzer(core.getPageRepository(), core.getWidgetRepository(), core.getFragmentRepository());
 
         // == Export
         List<PageFactory> pageFactories = List.of(
@@ -95,23 +97,22 @@ public class ArtifactBuilderFactory {
                 new VariableModelVisitor(core.getFragmentRepository())
         );
 
-        var directiveFileGenerator = new DirectiveFileGenerator(uiDesignerProperties.getWorkspace(), core.getWidgetRepository(), widgetIdVisitor);
-        var assetVisitor = new AssetVisitor(core.getWidgetRepository(), core.getFragmentRepository());
-        var assetHtmlBuilder = new AssetHtmlBuilder(assetVisitor,core.getPageAssetRepository(), core.getWidgetAssetRepository(), uiDesignerProperties.getWorkspace());
+        var directiveBundleCache = new DirectiveBundleCache();
+        var directiveFileGenerator = new DirectiveFileGenerator(uiDesignerProperties.getWorkspace(), pageAnalyzer, directiveBundleCache);
+        var assetHtmlBuilder = new AssetHtmlBuilder(pageAnalyzer, core.getPageAssetRepository(), core.getWidgetAssetRepository(), uiDesignerProperties.getWorkspace());
         var htmlBuilderVisitor = new AngularJsBuilderVisitor(
                 pageFactories,
-                new RequiredModulesVisitor(core.getWidgetRepository(), core.getFragmentRepository()),
+                pageAnalyzer,
                 new DirectivesCollector(uiDesignerProperties.getWorkspaceUid(),
                         directiveFileGenerator,
-                        fragmentIdVisitor,
-                        core.getFragmentRepository()
+                        pageAnalyzer
                 ),
                 core.getFragmentRepository(),
                 assetHtmlBuilder
         );
 
         // Common export part
-        var pagePropertiesExportStep = new PagePropertiesExportStep(new PagePropertiesBuilder(uiDesignerProperties, core.getPageService()));
+        var pagePropertiesExportStep = new PagePropertiesExportStep(new PagePropertiesBuilder(uiDesignerProperties, core.getPageService(), pageAnalyzer));
 
         //AngularJs Page
         var angularJsHtmlGenerator = new HtmlGenerator(htmlBuilderVisitor);
@@ -120,9 +121,9 @@ public class ArtifactBuilderFactory {
         pageExportSteps = new ExportStep[]{
                 new HtmlExportStep(angularJsHtmlGenerator, uiDesignerProperties.getWorkspaceUid()),
                 pagePropertiesExportStep,
-                new WidgetsExportStep<Page>(uiDesignerProperties.getWorkspace().getWidgets().getDir(), widgetIdVisitor, directiveFileGenerator),
+                new WidgetsExportStep<Page>(uiDesignerProperties.getWorkspace().getWidgets().getDir(), pageAnalyzer, directiveFileGenerator),
                 new AssetExportStep(core.getPageAssetRepository()),
-                new FragmentsExportStep<Page>(fragmentIdVisitor, uiDesignerProperties.getWorkspace().getFragments().getDir())
+                new FragmentsExportStep<Page>(pageAnalyzer, uiDesignerProperties.getWorkspace().getFragments().getDir())
         };
 
         // Angular Part
@@ -133,7 +134,7 @@ public class ArtifactBuilderFactory {
 
         var angularPropertyValuesVisitor = new AngularPropertyValuesVisitor(core.getFragmentRepository());
         var angularVariableVisitor = new AngularVariableVisitor(core.getFragmentRepository());
-        var widgetBundleFile = new WidgetBundleFile(uiDesignerProperties.getWorkspace(),core.getWidgetRepository(),widgetIdVisitor);
+        var widgetBundleFile = new WidgetBundleFile(uiDesignerProperties.getWorkspace(), pageAnalyzer);
         var angularAppGenerator = new AngularAppGenerator<Page>(uiDesignerProperties.getWorkspaceUid(), angularHtmlGenerator, assetHtmlBuilder, angularPropertyValuesVisitor, angularVariableVisitor, widgetBundleFile);
 
         var angularPageExportSteps = new ExportStep[]{
@@ -144,8 +145,8 @@ public class ArtifactBuilderFactory {
 
         //Fragment
         var fragmentExportSteps = new ExportStep[]{
-                new WidgetsExportStep<Fragment>(uiDesignerProperties.getWorkspace().getWidgets().getDir(), widgetIdVisitor, directiveFileGenerator),
-                new FragmentsExportStep<Fragment>(fragmentIdVisitor, uiDesignerProperties.getWorkspace().getFragments().getDir()),
+                new WidgetsExportStep<Fragment>(uiDesignerProperties.getWorkspace().getWidgets().getDir(), pageAnalyzer, directiveFileGenerator),
+                new FragmentsExportStep<Fragment>(pageAnalyzer, uiDesignerProperties.getWorkspace().getFragments().getDir()),
                 new FragmentPropertiesExportStep(new FragmentPropertiesBuilder(uiDesignerProperties))
         };
 
@@ -155,9 +156,10 @@ public class ArtifactBuilderFactory {
         };
 
         // == Builder
-        var widgetExporter = new WidgetExporter(jsonHandler, core.getWidgetService(), widgetExportSteps);
-        var fragmentExporter = new FragmentExporter(jsonHandler, core.getFragmentService(), fragmentExportSteps);
-        var pageExporter = new PageExporter(jsonHandler, core.getPageService(), pageExportSteps, angularPageExportSteps);
+        var exportProperties = uiDesignerProperties.getExport();
+        var widgetExporter = new WidgetExporter(jsonHandler, core.getWidgetService(), exportProperties, widgetExportSteps);
+        var fragmentExporter = new FragmentExporter(jsonHandler, core.getFragmentService(), exportProperties, fragmentExportSteps);
+        var pageExporter = new PageExporter(jsonHandler, core.getPageService(), exportProperties, pageExportSteps, angularPageExportSteps);
 
 
         // Dependency importers
@@ -203,8 +205,10 @@ public class ArtifactBuilderFactory {
 
         // Init workspace now
         var htmlSanitizer = new HtmlSanitizer();
-        var widgetDirectiveBuilder = new WidgetDirectiveBuilder(core.getWatcher(), new WidgetFileBasedLoader(jsonHandler), htmlSanitizer);
-        var fragmentDirectiveBuilder = new FragmentDirectiveBuilder(core.getWatcher(), jsonHandler, htmlBuilderVisitor, htmlSanitizer);
+        var widgetDirectiveBuilder = new WidgetDirectiveBuilder(core.getWatcher(), new WidgetFileBasedLoader(jsonHandler), htmlSanitizer,
+                directiveBundleCache, buildManifest("widget-directives"));
+        var fragmentDirectiveBuilder = new FragmentDirectiveBuilder(core.getWatcher(), jsonHandler, htmlBuilderVisitor, htmlSanitizer,
+                buildManifest("fragment-directives"), uiDesignerProperties.getWorkspace().getWidgets().getDir());
 
         var resourcesCopier = new ResourcesCopier();
         var workspace = new Workspace(
@@ -215,9 +219,9 @@ public class ArtifactBuilderFactory {
                 core.getWidgetAssetDependencyImporter(),
                 resourcesCopier,
                 List.of(
-                        new LiveRepositoryUpdate<>(core.getPageRepository(), core.getPageMigrationStepsList()),
-                        new LiveRepositoryUpdate<>(core.getFragmentRepository(), core.getFragmentMigrationStepsList()),
-                        new LiveRepositoryUpdate<>(core.getWidgetRepository(), core.getWidgetMigrationStepsList())
+                        new LiveRepositoryUpdate<>(core.getPageRepository(), core.getPageMigrationStepsList(), buildManifest("page-metadata"), core.getLoadExecutor()),
+                        new LiveRepositoryUpdate<>(core.getFragmentRepository(), core.getFragmentMigrationStepsList(), null, core.getLoadExecutor()),
+                        new LiveRepositoryUpdate<>(core.getWidgetRepository(), core.getWidgetMigrationStepsList(), null, core.getLoadExecutor())
                 ),
                 jsonHandler,
                 angularAppGenerator
@@ -245,8 +249,12 @@ public class ArtifactBuilderFactory {
                 pageExporter,
                 fragmentExporter,
                 widgetExporter,
+                exportProperties,
                 angularJsHtmlGenerator,
+                // Preview
+                new HtmlGenerator(htmlBuilderVisitor, uiDesignerProperties.getPreview().isFormatHtml()),
                 angularAppGenerator,
+                new PreviewHtmlCache(core.getPageRepository(), core.getFragmentRepository(), core.getWidgetRepository(), pageAnalyzer),
                 // Import
                 new ImportStore(),
                 pageImporter,
@@ -255,4 +263,8 @@ public class ArtifactBuilderFactory {
         );
     }
 
+    private BuildManifest buildManifest(String name) {
+        return new BuildManifest(uiDesignerProperties.getWorkspaceUid().getBuildManifestPath(name), uiDesignerProperties.getVersion());
+    }
+
 }
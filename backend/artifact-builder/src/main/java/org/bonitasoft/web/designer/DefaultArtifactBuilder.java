@@ -2,6 +2,8 @@ package org.bonitasoft.web.designer;
 
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import org.bonitasoft.web.designer.config.UiDesignerProperties;
+import org.bonitasoft.web.designer.controller.export.ExportArchive;
 import org.bonitasoft.web.designer.controller.export.ExportException;
 import org.bonitasoft.web.designer.controller.export.FragmentExporter;
 import org.bonitasoft.web.designer.controller.export.PageExporter;
@@ -20,6 +22,8 @@ import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.rendering.GenerationException;
 import org.bonitasoft.web.designer.rendering.HtmlGenerator;
+import org.bonitasoft.web.designer.rendering.PreviewHtml;
+import org.bonitasoft.web.designer.rendering.PreviewHtmlCache;
 import org.bonitasoft.web.designer.rendering.angular.AngularAppGenerator;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.service.FragmentService;
@@ -27,7 +31,6 @@ import org.bonitasoft.web.designer.service.PageService;
 import org.bonitasoft.web.designer.service.WidgetService;
 import org.bonitasoft.web.designer.workspace.Workspace;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -51,8 +54,11 @@ public class DefaultArtifactBuilder implements ArtifactBuilder {
     private final PageExporter pageExporter;
     private final FragmentExporter fragmentExporter;
     private final WidgetExporter widgetExporter;
+    private final UiDesignerProperties.ExportProperties exportProperties;
     private final HtmlGenerator htmlGenerator;
+    private final HtmlGenerator previewHtmlGenerator;
     private final AngularAppGenerator<Page> angularAppGenerator;
+    private final PreviewHtmlCache previewHtmlCache;
     private final ImportStore importStore;
     private final PageImporter pageImporter;
     private final FragmentImporter fragmentImporter;
@@ -65,11 +71,14 @@ public class DefaultArtifactBuilder implements ArtifactBuilder {
 
     @Override
     public byte[] build(Page page) throws ModelException, ExportException, IOException {
-        var outputStream = new ByteArrayOutputStream();
-        try (outputStream) {
-            pageExporter.handleFileExport(page.getId(), outputStream);
+        try (var archive = export(page)) {
+            return archive.toByteArray();
         }
-        return outputStream.toByteArray();
+    }
+
+    @Override
+    public ExportArchive export(Page page) throws ModelException, ExportException {
+        return pageExporter.export(page.getId(), newArchive());
     }
 
     @Override
@@ -79,11 +88,14 @@ public class DefaultArtifactBuilder implements ArtifactBuilder {
 
     @Override
     public byte[] build(Fragment fragment) throws ModelException, ExportException, IOException {
-        var outputStream = new ByteArrayOutputStream();
-        try (outputStream) {
-            fragmentExporter.handleFileExport(fragment.getId(), outputStream);
+        try (var archive = export(fragment)) {
+            return archive.toByteArray();
         }
-        return outputStream.toByteArray();
+    }
+
+    @Override
+    public ExportArchive export(Fragment fragment) throws ModelException, ExportException {
+        return fragmentExporter.export(fragment.getId(), newArchive());
     }
 
     @Override
@@ -93,20 +105,31 @@ public class DefaultArtifactBuilder implements ArtifactBuilder {
 
     @Override
     public byte[] build(Widget widget) throws ModelException, ExportException, IOException {
-        var outputStream = new ByteArrayOutputStream();
-        try (outputStream) {
-            widgetExporter.handleFileExport(widget.getId(), outputStream);
+        try (var archive = export(widget)) {
+            return archive.toByteArray();
         }
-        return outputStream.toByteArray();
+    }
+
+    @Override
+    public ExportArchive export(Widget widget) throws ModelException, ExportException {
+        return widgetExporter.export(widget.getId(), newArchive());
+    }
+
+    private ExportArchive newArchive() {
+        return new ExportArchive(exportProperties);
     }
 
     @Override
     public String buildHtml(Page page, String context) throws GenerationException, NotFoundException {
+        return buildHtml(page, context, htmlGenerator);
+    }
+
+    private String buildHtml(Page page, String context, HtmlGenerator generator) {
         if (Version.isV3Version(page.getModelVersion())) {
             angularAppGenerator.generateAngularApp(page);
             return "Artifact is generated";
         } else {
-            return htmlGenerator.generateHtml(page, context);
+            return generator.generateHtml(page, context);
         }
 
     }
@@ -116,6 +139,16 @@ public class DefaultArtifactBuilder implements ArtifactBuilder {
         return htmlGenerator.generateHtml(fragment, context);
     }
 
+    @Override
+    public PreviewHtml buildPagePreview(String id, String context) throws GenerationException, NotFoundException {
+        return previewHtmlCache.getPage(id, context, (page, resourceContext) -> buildHtml(page, resourceContext, previewHtmlGenerator));
+    }
+
+    @Override
+    public PreviewHtml buildFragmentPreview(String id, String context) throws GenerationException, NotFoundException {
+        return previewHtmlCache.getFragment(id, context, previewHtmlGenerator::generateHtml);
+    }
+
     @Override
     public ImportReport importArtifact(Path path, boolean ignoreConflicts) {
 
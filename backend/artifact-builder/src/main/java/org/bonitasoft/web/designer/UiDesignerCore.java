@@ -11,6 +11,7 @@ import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.repository.AssetRepository;
 import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.LoadExecutor;
 import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.repository.WidgetRepository;
 import org.bonitasoft.web.designer.service.FragmentService;
@@ -41,4 +42,5 @@ public class UiDesignerCore {
     private final List<Migration<Fragment>> fragmentMigrationStepsList;
     private final List<Migration<Widget>> widgetMigrationStepsList;
     private final AssetDependencyImporter<Widget> widgetAssetDependencyImporter;
+    private final LoadExecutor loadExecutor;
 }
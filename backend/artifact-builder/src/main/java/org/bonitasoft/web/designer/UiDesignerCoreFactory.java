@@ -6,7 +6,10 @@ import org.apache.commons.io.monitor.FileAlterationMonitor;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.controller.asset.AssetService;
 import org.bonitasoft.web.designer.controller.importer.dependencies.AssetDependencyImporter;
+import org.bonitasoft.web.designer.livebuild.DebouncedWatcher;
+import org.bonitasoft.web.designer.livebuild.NativeWatcher;
 import org.bonitasoft.web.designer.livebuild.ObserverFactory;
+import org.bonitasoft.web.designer.livebuild.PollingWatcher;
 import org.bonitasoft.web.designer.livebuild.Watcher;
 import org.bonitasoft.web.designer.migration.AddModelVersionMigrationStep;
 import org.bonitasoft.web.designer.migration.AssetExternalMigrationStep;
@@ -36,6 +39,7 @@ import org.bonitasoft.web.designer.repository.AssetRepository;
 import org.bonitasoft.web.designer.repository.BeanValidator;
 import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.repository.JsonFileBasedLoader;
+import org.bonitasoft.web.designer.repository.LoadExecutor;
 import org.bonitasoft.web.designer.repository.JsonFileBasedPersister;
 import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.repository.WidgetFileBasedLoader;
@@ -46,6 +50,7 @@ import org.bonitasoft.web.designer.service.DefaultFragmentService;
 import org.bonitasoft.web.designer.service.DefaultPageService;
 import org.bonitasoft.web.designer.service.DefaultWidgetService;
 import org.bonitasoft.web.designer.service.FragmentMigrationApplyer;
+import org.bonitasoft.web.designer.service.MigrationStatusCache;
 import org.bonitasoft.web.designer.service.PageMigrationApplyer;
 import org.bonitasoft.web.designer.service.WidgetMigrationApplyer;
 import org.bonitasoft.web.designer.visitor.AssetVisitor;
@@ -68,12 +73,14 @@ public class UiDesignerCoreFactory {
     private final UiDesignerProperties uiDesignerProperties;
     private final JsonHandler jsonHandler;
     private final BeanValidator beanValidator;
+    private final LoadExecutor loadExecutor;
 
 
     public UiDesignerCoreFactory(UiDesignerProperties uiDesignerProperties, JsonHandler jsonHandler) {
         this.uiDesignerProperties = uiDesignerProperties;
         this.jsonHandler = jsonHandler;
         this.beanValidator = new BeanValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        this.loadExecutor = new LoadExecutor(uiDesignerProperties.getLoader().getParallelism());
     }
 
     /**
@@ -196,7 +203,8 @@ public class UiDesignerCoreFactory {
                 new FragmentChangeVisitor(),
                 new PageHasValidationErrorVisitor(),
                 assetVisitor,
-                uiDesignerProperties);
+                uiDesignerProperties,
+                new MigrationStatusCache(List.of(widgetRepository, fragmentRepository)));
 
         var pageMigrationApplyer = new PageMigrationApplyer(pageMigrationStepsList, widgetService, fragmentService);
         var pageService = new DefaultPageService(
@@ -229,7 +237,8 @@ public class UiDesignerCoreFactory {
                 pageMigrationStepsList,
                 fragmentMigrationStepsList,
                 widgetMigrationStepsList,
-                widgetAssetDependencyImporter
+                widgetAssetDependencyImporter,
+                loadExecutor
         );
     }
 
@@ -243,7 +252,7 @@ public class UiDesignerCoreFactory {
      * @return a new instance of apache common file monitor
      */
     public FileAlterationMonitor createFileMonitor(boolean managed) {
-        var monitor = new FileAlterationMonitor(1000);
+        var monitor = new FileAlterationMonitor(uiDesignerProperties.getWatcher().getPollingInterval());
 
         if (!managed) {
             try {
@@ -263,13 +272,19 @@ public class UiDesignerCoreFactory {
     }
 
     /**
-     * Factory method for a Watcher
+     * Factory method for a Watcher, relying on native file system events unless polling is configured or native events
+     * are not supported. Changes are debounced and processed on a worker pool.
      *
-     * @param monitor
+     * @param monitor file monitor used by the polling watcher
      * @return
      */
     public Watcher createWatcher(FileAlterationMonitor monitor) {
-        return new Watcher(new ObserverFactory(), monitor);
+        var properties = uiDesignerProperties.getWatcher();
+        Watcher watcher = new PollingWatcher(new ObserverFactory(), monitor);
+        if (properties.getType() != UiDesignerProperties.WatcherType.POLLING) {
+            watcher = NativeWatcher.create(watcher);
+        }
+        return new DebouncedWatcher(watcher, properties.getDebounceDelay(), properties.getWorkers());
     }
 
     /**
@@ -293,7 +308,7 @@ public class UiDesignerCoreFactory {
                 uiDesignerProperties.getWorkspace(),
                 uiDesignerProperties.getWorkspaceUid(),
                 new JsonFileBasedPersister<>(jsonHandler, beanValidator, this.uiDesignerProperties),
-                new JsonFileBasedLoader<>(jsonHandler, Page.class),
+                new JsonFileBasedLoader<>(jsonHandler, Page.class, loadExecutor),
                 beanValidator, watcher
         );
     }
@@ -309,7 +324,7 @@ public class UiDesignerCoreFactory {
                 uiDesignerProperties.getWorkspace(),
                 uiDesignerProperties.getWorkspaceUid(),
                 new JsonFileBasedPersister<>(jsonHandler, beanValidator, this.uiDesignerProperties),
-                new JsonFileBasedLoader<>(jsonHandler, Fragment.class),
+                new JsonFileBasedLoader<>(jsonHandler, Fragment.class, loadExecutor),
                 beanValidator, watcher
         );
     }
@@ -335,7 +350,7 @@ public class UiDesignerCoreFactory {
                 uiDesignerProperties.getWorkspace(),
                 uiDesignerProperties.getWorkspaceUid(),
                 new WidgetFileBasedPersister(jsonHandler, beanValidator, this.uiDesignerProperties),
-                new WidgetFileBasedLoader(jsonHandler),
+                new WidgetFileBasedLoader(jsonHandler, loadExecutor),
                 beanValidator, watcher
         );
     }
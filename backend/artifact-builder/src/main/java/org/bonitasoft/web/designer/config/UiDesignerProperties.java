@@ -18,6 +18,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.nio.file.Path;
+
 @Data
 @NoArgsConstructor
 @ConfigurationProperties(prefix = "designer")
@@ -45,6 +47,10 @@ public class UiDesignerProperties {
     private BonitaProperties bonita = new BonitaProperties();
     private WorkspaceProperties workspace = new WorkspaceProperties();
     private WorkspaceUidProperties workspaceUid = new WorkspaceUidProperties();
+    private ExportProperties export = new ExportProperties();
+    private WatcherProperties watcher = new WatcherProperties();
+    private LoaderProperties loader = new LoaderProperties();
+    private PreviewProperties preview = new PreviewProperties();
 
     @Data
     public static class BonitaProperties {
@@ -66,4 +72,62 @@ public class UiDesignerProperties {
         private String url;
     }
 
+    @Data
+    public static class ExportProperties {
+
+        public static final int DEFAULT_MEMORY_THRESHOLD = 8 * 1024 * 1024;
+
+        /**
+         * Size, in bytes, above which an export archive spills to a temporary file
+         */
+        private int memoryThreshold = DEFAULT_MEMORY_THRESHOLD;
+        /**
+         * Directory used for spilled export archives, system temp directory when not set
+         */
+        private Path tempDir;
+    }
+
+    @Data
+    public static class WatcherProperties {
+
+        /**
+         * How file changes are detected: native file system events, falling back to polling when not supported, or polling
+         */
+        private WatcherType type = WatcherType.NATIVE;
+        /**
+         * Delay, in milliseconds, between two scans of the polling watcher
+         */
+        private long pollingInterval = 1000;
+        /**
+         * Delay, in milliseconds, without any new change on a file before it gets processed
+         */
+        private long debounceDelay = 100;
+        /**
+         * Number of threads processing file changes
+         */
+        private int workers = 2;
+    }
+
+    @Data
+    public static class LoaderProperties {
+
+        /**
+         * Maximum number of artifacts loaded, or migrated, at the same time when a whole repository is read
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Data
+    public static class PreviewProperties {
+
+        /**
+         * Pretty print previewed html the same way exported html is, at the cost of parsing every generated page
+         */
+        private boolean formatHtml;
+    }
+
+    public enum WatcherType {
+        NATIVE, POLLING
+    }
+
 }
@@ -32,6 +32,7 @@ public class WorkspaceUidProperties {
     public static final String TEMPLATES_RESOURCES = "templates";
     private static final String PAGES_DEFAULT_DIRECTORY = "pages";
     private static final String ANGULAR_APP_FOLDER_DIRECTORY_NAME = "app";
+    private static final String BUILD_MANIFESTS_DIRECTORY = "build-manifests";
 
     private Path path = Path.of(System.getProperty("java.io.tmpdir")).resolve("workspace-uid");
 
@@ -51,6 +52,10 @@ public class WorkspaceUidProperties {
         return getPath().resolve(PAGES_DEFAULT_DIRECTORY).resolve(artifactId).resolve(ANGULAR_APP_FOLDER_DIRECTORY_NAME);
     }
 
+    public Path getBuildManifestPath(String name) {
+        return getPath().resolve(BUILD_MANIFESTS_DIRECTORY).resolve(name + ".json");
+    }
+
     public Path getTmpI18nPath() throws IOException {
         return createDirectories(getPath().resolve(I18N_RESOURCES));
     }
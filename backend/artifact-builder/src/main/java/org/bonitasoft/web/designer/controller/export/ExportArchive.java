@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.controller.export;
+
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.bonitasoft.web.designer.config.UiDesignerProperties.ExportProperties;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * A fully built export zip, waiting to be sent.
+ * <p>
+ * Content is kept in memory until it reaches the given threshold, then it spills to a temporary file. Since an archive is
+ * only handed out once the zip is complete, any export failure happens before the first byte reaches the client.
+ * Archive must be closed once sent to release its temporary file.
+ */
+public class ExportArchive implements Closeable {
+
+    private final DeferredFileOutputStream content;
+    private boolean sealed;
+
+    public ExportArchive() {
+        this(ExportProperties.DEFAULT_MEMORY_THRESHOLD, null);
+    }
+
+    public ExportArchive(ExportProperties exportProperties) {
+        this(exportProperties.getMemoryThreshold(), exportProperties.getTempDir());
+    }
+
+    /**
+     * @param memoryThreshold number of bytes kept in memory before spilling to disk
+     * @param tempDirectory   directory where spilled archives are written, system temp directory when null
+     */
+    public ExportArchive(int memoryThreshold, Path tempDirectory) {
+        this.content = new DeferredFileOutputStream(memoryThreshold, "export-", ".zip",
+                tempDirectory == null ? null : tempDirectory.toFile());
+    }
+
+    /**
+     * Stream the zip has to be written into. Closing it seals the archive.
+     */
+    public OutputStream getOutputStream() {
+        return new OutputStream() {
+
+            @Override
+            public void write(int b) throws IOException {
+                content.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                content.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                content.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                seal();
+            }
+        };
+    }
+
+    void seal() throws IOException {
+        if (!sealed) {
+            sealed = true;
+            content.close();
+        }
+    }
+
+    public long size() {
+        return content.getByteCount();
+    }
+
+    public boolean isInMemory() {
+        return content.isInMemory();
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        checkSealed();
+        content.writeTo(stream);
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        checkSealed();
+        if (content.isInMemory()) {
+            var buffer = ByteBuffer.wrap(content.getData());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            return;
+        }
+        try (var file = FileChannel.open(content.getFile().toPath(), READ)) {
+            long position = 0;
+            long size = file.size();
+            while (position < size) {
+                position += file.transferTo(position, size - position, channel);
+            }
+        }
+    }
+
+    public byte[] toByteArray() throws IOException {
+        checkSealed();
+        return content.isInMemory() ? content.getData() : Files.readAllBytes(content.getFile().toPath());
+    }
+
+    private void checkSealed() {
+        if (!sealed) {
+            throw new IllegalStateException("Export archive is not complete yet");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        seal();
+        if (!content.isInMemory()) {
+            Files.deleteIfExists(content.getFile().toPath());
+        }
+    }
+}
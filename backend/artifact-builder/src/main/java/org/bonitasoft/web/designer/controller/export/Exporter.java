@@ -14,6 +14,7 @@
  */
 package org.bonitasoft.web.designer.controller.export;
 
+import org.bonitasoft.web.designer.config.UiDesignerProperties.ExportProperties;
 import org.bonitasoft.web.designer.controller.export.steps.ExportStep;
 import org.bonitasoft.web.designer.migration.Version;
 import org.bonitasoft.web.designer.model.DesignerArtifact;
@@ -23,13 +24,11 @@ import org.bonitasoft.web.designer.model.ModelException;
 import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.service.ArtifactService;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 
 import static java.lang.String.format;
-import static org.apache.commons.io.IOUtils.copy;
+import static org.apache.commons.io.IOUtils.closeQuietly;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.bonitasoft.web.designer.controller.export.steps.ExportStep.RESOURCES;
 
@@ -40,12 +39,16 @@ public abstract class Exporter<T extends DesignerArtifact> {
     protected final ArtifactService<T> artifactService;
     protected final ExportStep<T>[] angularExportSteps;
 
+    protected final ExportProperties exportProperties;
+
     protected JsonHandler jsonHandler;
 
     @SafeVarargs
-    protected Exporter(JsonHandler jsonHandler, ArtifactService<T> artifactService, ExportStep<T>[] exportSteps, ExportStep<T>... angularExportSteps) {
+    protected Exporter(JsonHandler jsonHandler, ArtifactService<T> artifactService, ExportProperties exportProperties,
+                       ExportStep<T>[] exportSteps, ExportStep<T>... angularExportSteps) {
         this.jsonHandler = jsonHandler;
         this.artifactService = artifactService;
+        this.exportProperties = exportProperties;
         this.exportSteps = exportSteps;
         this.angularExportSteps = angularExportSteps;
     }
@@ -53,18 +56,27 @@ public abstract class Exporter<T extends DesignerArtifact> {
     protected abstract String getComponentType();
 
     public void handleFileExport(String id, OutputStream stream) throws ModelException, ExportException, IOException {
+        try (var archive = export(id, new ExportArchive(exportProperties))) {
+            archive.writeTo(stream);
+        } catch (IOException e) {
+            throw new ExportException(format("Technical error when exporting %s with id %s", getComponentType(), id), e);
+        }
+    }
+
+    /**
+     * Builds the whole zip of the given artifact into the given archive.
+     * <p>
+     * We can't write directly in response outputstream. When you start to write a message, you can't remove it after the
+     * first flush. If an error occurs you can't prevent a partial file loading, so the archive is completed before being
+     * returned and released if anything goes wrong.
+     */
+    public ExportArchive export(String id, ExportArchive archive) throws ModelException, ExportException {
         if (isBlank(id)) {
+            closeQuietly(archive);
             throw new IllegalArgumentException("Id is needed to successfully export a component");
         }
 
-        //We can't write directly in response outputstream. When you start to write a message, you can't remove it after the first flush.
-        // If an error occurs you can't prevent a partial file loading. So we need to use a temp stream.
-        ByteArrayOutputStream zipStream;
-        //In the first step the zipStream is created
-        try (var outputStream = new ByteArrayOutputStream(); Zipper zipper = new Zipper(outputStream)) {
-            //The outputStream scope is local in the try-with-resource-block
-            zipStream = outputStream;
-
+        try (Zipper zipper = new Zipper(archive.getOutputStream())) {
             var identifiable = artifactService.get(id);
             if (identifiable.getStatus() == null) {
                 identifiable.setStatus(artifactService.getStatus(identifiable));
@@ -92,17 +104,13 @@ public abstract class Exporter<T extends DesignerArtifact> {
                 }
             }
         } catch (ModelException e) {
+            closeQuietly(archive);
             throw e;
         } catch (Exception e) {
+            closeQuietly(archive);
             throw new ExportException(format("Technical error on zip creation %s with id %s", getComponentType(), id), e);
         }
-
-        //Copy work/zip stream content to response stream (we can't do that in the first block, because the zip has to be closed before to be able to read it)
-        try (var inputStream = new ByteArrayInputStream(zipStream.toByteArray())) {
-            copy(inputStream, stream);
-        } catch (Exception e) {
-            throw new ExportException(format("Technical error when exporting %s with id %s", getComponentType(), id), e);
-        }
+        return archive;
     }
 
 }
@@ -1,5 +1,6 @@
 package org.bonitasoft.web.designer.controller.export;
 
+import org.bonitasoft.web.designer.config.UiDesignerProperties.ExportProperties;
 import org.bonitasoft.web.designer.controller.export.steps.ExportStep;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
@@ -8,8 +9,8 @@ import org.bonitasoft.web.designer.service.FragmentService;
 public class FragmentExporter extends Exporter<Fragment> {
 
     @SafeVarargs
-    public FragmentExporter(JsonHandler jsonHandler, FragmentService service, ExportStep<Fragment>... exportSteps) {
-        super(jsonHandler, service, exportSteps);
+    public FragmentExporter(JsonHandler jsonHandler, FragmentService service, ExportProperties exportProperties, ExportStep<Fragment>... exportSteps) {
+        super(jsonHandler, service, exportProperties, exportSteps);
     }
 
     @Override
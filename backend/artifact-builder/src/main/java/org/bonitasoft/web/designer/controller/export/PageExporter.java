@@ -1,5 +1,6 @@
 package org.bonitasoft.web.designer.controller.export;
 
+import org.bonitasoft.web.designer.config.UiDesignerProperties.ExportProperties;
 import org.bonitasoft.web.designer.controller.export.steps.ExportStep;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.page.Page;
@@ -10,8 +11,9 @@ import java.util.List;
 public class PageExporter extends Exporter<Page> {
 
     @SafeVarargs
-    public PageExporter(JsonHandler jsonHandler, PageService pageService, ExportStep<Page>[] exportSteps, ExportStep<Page>... angularExportSteps) {
-        super(jsonHandler, pageService, exportSteps, angularExportSteps);
+    public PageExporter(JsonHandler jsonHandler, PageService pageService, ExportProperties exportProperties, ExportStep<Page>[] exportSteps,
+                        ExportStep<Page>... angularExportSteps) {
+        super(jsonHandler, pageService, exportProperties, exportSteps, angularExportSteps);
     }
 
     @Override
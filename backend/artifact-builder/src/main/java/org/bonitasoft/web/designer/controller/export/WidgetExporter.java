@@ -1,5 +1,6 @@
 package org.bonitasoft.web.designer.controller.export;
 
+import org.bonitasoft.web.designer.config.UiDesignerProperties.ExportProperties;
 import org.bonitasoft.web.designer.controller.export.steps.ExportStep;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.widget.Widget;
@@ -8,8 +9,8 @@ import org.bonitasoft.web.designer.service.WidgetService;
 public class WidgetExporter extends Exporter<Widget> {
 
     @SafeVarargs
-    public WidgetExporter(JsonHandler jsonHandler, WidgetService service, ExportStep<Widget>... exportSteps) {
-        super(jsonHandler, service, exportSteps);
+    public WidgetExporter(JsonHandler jsonHandler, WidgetService service, ExportProperties exportProperties, ExportStep<Widget>... exportSteps) {
+        super(jsonHandler, service, exportProperties, exportSteps);
     }
 
     @Override
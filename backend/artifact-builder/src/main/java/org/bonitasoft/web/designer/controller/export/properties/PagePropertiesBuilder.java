@@ -20,6 +20,7 @@ import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.rendering.GenerationException;
 import org.bonitasoft.web.designer.service.PageService;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -32,9 +33,10 @@ public class PagePropertiesBuilder {
 
     private final UiDesignerProperties uiDesignerProperties;
     private final PageService pageService;
+    private final PageAnalyzer pageAnalyzer;
 
     public byte[] build(Page page) throws GenerationException, IOException {
-        List<String> resources = pageService.getResources(page);
+        List<String> resources = pageService.getResources(page, pageAnalyzer.analyze(page).getComponents());
 
         var properties = new Properties();
         properties.put("name", "custompage_" + page.getName());
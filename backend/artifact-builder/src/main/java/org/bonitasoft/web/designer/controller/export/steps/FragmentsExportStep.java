@@ -18,7 +18,7 @@ import org.bonitasoft.web.designer.controller.export.IncludeChildDirectoryPredic
 import org.bonitasoft.web.designer.controller.export.Zipper;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.AbstractPage;
-import org.bonitasoft.web.designer.visitor.FragmentIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -27,11 +27,11 @@ import static org.bonitasoft.web.designer.controller.export.Zipper.ALL_FILES;
 
 public class FragmentsExportStep <T extends AbstractPage> implements ExportStep<T> {
 
-    private final FragmentIdVisitor fragmentIdVisitor;
+    private final PageAnalyzer pageAnalyzer;
     private final Path fragmentsPath;
 
-    public FragmentsExportStep(FragmentIdVisitor fragmentIdVisitor, Path fragmentsPath) {
-        this.fragmentIdVisitor = fragmentIdVisitor;
+    public FragmentsExportStep(PageAnalyzer pageAnalyzer, Path fragmentsPath) {
+        this.pageAnalyzer = pageAnalyzer;
         this.fragmentsPath = fragmentsPath;
     }
 
@@ -39,7 +39,7 @@ public class FragmentsExportStep <T extends AbstractPage> implements ExportStep<
     public void execute(Zipper zipper, T artifact) throws IOException {
         zipper.addDirectoryToZip(
                 fragmentsPath,
-                new IncludeChildDirectoryPredicate(fragmentsPath, fragmentIdVisitor.visit(artifact)),
+                new IncludeChildDirectoryPredicate(fragmentsPath, pageAnalyzer.analyze(artifact).getFragmentIds()),
                 ALL_FILES,
                 RESOURCES + "/fragments");
     }
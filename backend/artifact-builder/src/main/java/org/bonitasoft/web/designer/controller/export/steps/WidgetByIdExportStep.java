@@ -25,6 +25,7 @@ import java.io.IOException;
 
 import static java.lang.String.format;
 import static org.bonitasoft.web.designer.controller.export.Zipper.ALL_DIRECTORIES;
+import static org.bonitasoft.web.designer.rendering.MinifiedDirectives.isMinifiedDirective;
 
 @RequiredArgsConstructor
 public class WidgetByIdExportStep implements ExportStep<Widget> {
@@ -36,10 +37,11 @@ public class WidgetByIdExportStep implements ExportStep<Widget> {
     public void execute(Zipper zipper, Widget widget) throws IOException {
         byte[] widgetProperties = widgetPropertiesBuilder.build(widget);
         zipper.addToZip(widgetProperties, "widget.properties");
+        var excludeDescriptor = new ExcludeDescriptorFilePredicate(format("%s.json", widget.getId()));
         zipper.addDirectoryToZip(
                 widgetRepository.resolvePath(widget.getId()),
                 ALL_DIRECTORIES,
-                new ExcludeDescriptorFilePredicate(format("%s.json", widget.getId())),
+                file -> excludeDescriptor.accept(file) && !isMinifiedDirective(file),
                 RESOURCES);
     }
 }
@@ -14,30 +14,27 @@
  */
 package org.bonitasoft.web.designer.controller.export.steps;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.bonitasoft.web.designer.controller.export.IncludeChildDirectoryPredicate;
 import org.bonitasoft.web.designer.controller.export.Zipper;
 import org.bonitasoft.web.designer.model.page.AbstractPage;
 import org.bonitasoft.web.designer.rendering.DirectiveFileGenerator;
-import org.bonitasoft.web.designer.rendering.Minifier;
-import org.bonitasoft.web.designer.visitor.WidgetIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.List;
 
-import static org.bonitasoft.web.designer.controller.export.Zipper.ALL_FILES;
+import static org.bonitasoft.web.designer.rendering.MinifiedDirectives.isMinifiedDirective;
 
 public class WidgetsExportStep<T extends AbstractPage> implements ExportStep<T> {
 
     private final Path widgetsPath;
-    private final WidgetIdVisitor widgetIdVisitor;
+    private final PageAnalyzer pageAnalyzer;
     private final DirectiveFileGenerator directiveFileGenerator;
 
-    public WidgetsExportStep(Path widgetsPath, WidgetIdVisitor widgetIdVisitor,
+    public WidgetsExportStep(Path widgetsPath, PageAnalyzer pageAnalyzer,
                              DirectiveFileGenerator directiveFileGenerator) {
         this.widgetsPath = widgetsPath;
-        this.widgetIdVisitor = widgetIdVisitor;
+        this.pageAnalyzer = pageAnalyzer;
         this.directiveFileGenerator = directiveFileGenerator;
     }
 
@@ -45,14 +42,12 @@ public class WidgetsExportStep<T extends AbstractPage> implements ExportStep<T>
     public void execute(Zipper zipper, T page) throws IOException {
         zipper.addDirectoryToZip(
                 widgetsPath,
-                new IncludeChildDirectoryPredicate(widgetsPath, widgetIdVisitor.visit(page)),
-                ALL_FILES,
+                new IncludeChildDirectoryPredicate(widgetsPath, pageAnalyzer.analyze(page).getWidgetIds()),
+                file -> !isMinifiedDirective(file),
                 RESOURCES + "/widgets");
 
         // Export widgets.js
-        List<Path> files = directiveFileGenerator.getWidgetsFilesUsedInPage(page);
-        byte[] content = directiveFileGenerator.concatenate(files);
-        content = Minifier.minify(content);
-        zipper.addToZip(content, RESOURCES + "/js/widgets-" + DigestUtils.sha1Hex(content) + ".min.js");
+        var bundle = directiveFileGenerator.getBundle(page);
+        zipper.addToZip(bundle.getContent(), RESOURCES + "/js/" + bundle.getFileName());
     }
 }
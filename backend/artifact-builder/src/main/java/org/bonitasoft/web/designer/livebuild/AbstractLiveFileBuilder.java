@@ -22,6 +22,7 @@ import java.nio.file.FileVisitResult;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.nio.file.FileVisitResult.CONTINUE;
 import static java.nio.file.Files.walkFileTree;
@@ -30,19 +31,48 @@ import static java.nio.file.Files.walkFileTree;
 public abstract class AbstractLiveFileBuilder {
 
     private final Watcher watcher;
+    private final BuildManifest manifest;
 
     protected AbstractLiveFileBuilder(Watcher watcher) {
+        this(watcher, null);
+    }
+
+    /**
+     * @param manifest when given, files whose output is still the one recorded in the manifest are not rebuilt on start
+     */
+    protected AbstractLiveFileBuilder(Watcher watcher, BuildManifest manifest) {
         this.watcher = watcher;
+        this.manifest = manifest;
     }
 
     public void start(final Path root) throws IOException {
+        var startTime = System.currentTimeMillis();
+        if (manifest != null) {
+            manifest.load(getBuildFingerprint(root));
+        }
+        var built = new AtomicInteger();
+        var skipped = new AtomicInteger();
         walkFileTree(root, new SimpleFileVisitor<>() {
             @Override
             public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
-                buildIfNeeded(path);
+                if (!isBuildable(path.toFile().getPath())) {
+                    return CONTINUE;
+                }
+                if (manifest != null && manifest.isUpToDate(path, getOutputPath(path))) {
+                    skipped.incrementAndGet();
+                } else {
+                    buildAndRecord(path);
+                    built.incrementAndGet();
+                }
                 return CONTINUE;
             }
         });
+        if (manifest != null) {
+            manifest.prune();
+            manifest.save();
+        }
+        log.info("{} built {} file(s) and skipped {} up to date file(s) of {} in {} ms", getClass().getSimpleName(),
+                built.get(), skipped.get(), root, System.currentTimeMillis() - startTime);
 
         // now on build on change
         watcher.watch(root, this::buildIfNeeded);
@@ -50,14 +80,42 @@ public abstract class AbstractLiveFileBuilder {
 
     private void buildIfNeeded(Path path) {
         if (isBuildable(path.toFile().getPath())) {
-            try {
-                build(path);
-            } catch (Exception ex) {
-                throw new GenerationException("Build error for " + path.getFileName(), ex);
+            buildAndRecord(path);
+            if (manifest != null) {
+                manifest.save();
             }
         }
     }
 
+    private void buildAndRecord(Path path) {
+        try {
+            build(path);
+        } catch (Exception ex) {
+            if (manifest != null) {
+                manifest.forget(path);
+            }
+            throw new GenerationException("Build error for " + path.getFileName(), ex);
+        }
+        var output = getOutputPath(path);
+        if (manifest != null && output != null) {
+            manifest.record(path, output);
+        }
+    }
+
+    /**
+     * File produced by the build of the given source, builds without a known output are never skipped.
+     */
+    protected Path getOutputPath(Path source) {
+        return null;
+    }
+
+    /**
+     * Fingerprint of build inputs other than the source files themselves, all outputs are rebuilt when it changes.
+     */
+    protected String getBuildFingerprint(Path root) throws IOException {
+        return "";
+    }
+
     public abstract void build(Path path) throws IOException;
 
     public abstract boolean isBuildable(String path);
@@ -0,0 +1,193 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.livebuild;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bonitasoft.web.designer.repository.AtomicFiles;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import static java.nio.file.FileVisitResult.CONTINUE;
+
+/**
+ * Persisted record of what has been built from which source: for each source file, the hash of the source and the hash of
+ * the output it produced.
+ * <p>
+ * An output is up to date when both its source and itself still have the recorded hashes, so it is safe to skip its build
+ * even if files have been modified while the designer was stopped. Whole manifest is discarded when it was written by
+ * another version of the designer or when the given fingerprint of other build inputs changed.
+ */
+@Slf4j
+public class BuildManifest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final String version;
+    private String fingerprint = "";
+    private Map<String, Entry> entries = new HashMap<>();
+    private final Set<String> touched = new HashSet<>();
+    private boolean dirty;
+
+    public BuildManifest(Path file, String version) {
+        this.file = file;
+        this.version = String.valueOf(version);
+    }
+
+    /**
+     * Load manifest from disk, starting from an empty one when missing, unreadable or built with another fingerprint.
+     *
+     * @param fingerprint identifies other inputs of the build, outputs are all considered outdated when it changes
+     */
+    public synchronized void load(String fingerprint) {
+        this.fingerprint = version + ":" + fingerprint;
+        this.entries = new HashMap<>();
+        this.touched.clear();
+        this.dirty = true;
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            Manifest manifest = MAPPER.readValue(file.toFile(), new TypeReference<>() {
+            });
+            if (this.fingerprint.equals(manifest.getFingerprint()) && manifest.getEntries() != null) {
+                this.entries = new HashMap<>(manifest.getEntries());
+                this.dirty = false;
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read build manifest {}, everything will be rebuilt", file, e);
+        }
+    }
+
+    public synchronized boolean isUpToDate(Path source, Path output) {
+        var key = key(source);
+        touched.add(key);
+        var entry = entries.get(key);
+        if (entry == null || output == null || !Files.exists(output)) {
+            return false;
+        }
+        try {
+            return entry.getSource().equals(hash(source)) && entry.getOutput().equals(hash(output));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public synchronized void record(Path source, Path output) {
+        var key = key(source);
+        touched.add(key);
+        try {
+            var entry = new Entry(hash(source), hash(output));
+            if (!entry.equals(entries.put(key, entry))) {
+                dirty = true;
+            }
+        } catch (IOException e) {
+            forget(source);
+        }
+    }
+
+    public synchronized void forget(Path source) {
+        if (entries.remove(key(source)) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Drop entries whose source has been neither checked nor recorded since the manifest was loaded
+     */
+    public synchronized void prune() {
+        if (entries.keySet().retainAll(touched)) {
+            dirty = true;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            AtomicFiles.write(file, staged -> MAPPER.writeValue(staged.toFile(), new Manifest(fingerprint, new TreeMap<>(entries))));
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("Unable to write build manifest {}", file, e);
+        }
+    }
+
+    /**
+     * Cheap fingerprint of a file tree, based on the name, size and last modification time of the matching files.
+     */
+    public static String fingerprint(Path root, Predicate<Path> filter) throws IOException {
+        var stamps = new TreeMap<String, String>();
+        if (Files.exists(root)) {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
+                    if (filter.test(path)) {
+                        stamps.put(root.relativize(path).toString(), attrs.size() + "@" + attrs.lastModifiedTime().toMillis());
+                    }
+                    return CONTINUE;
+                }
+            });
+        }
+        return DigestUtils.sha1Hex(stamps.toString());
+    }
+
+    private static String key(Path source) {
+        return source.toAbsolutePath().normalize().toString();
+    }
+
+    private static String hash(Path path) throws IOException {
+        try (var input = Files.newInputStream(path)) {
+            return DigestUtils.sha1Hex(input);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Entry {
+        private String source;
+        private String output;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Manifest {
+        private String fingerprint;
+        private Map<String, Entry> entries;
+    }
+}
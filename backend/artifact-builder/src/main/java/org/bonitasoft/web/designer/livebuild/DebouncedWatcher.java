@@ -0,0 +1,271 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.livebuild;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline between a watcher and its listeners, so that a burst of file events (a git checkout, a copy of a whole
+ * directory...) does not end up in as many serial rebuilds on the watcher thread.
+ * <p>
+ * Events are debounced per path: a path is notified once no new event was received for it during the debounce delay,
+ * events superseded by later ones on the same path are dropped. Paths ready to be notified are batched per listener,
+ * and batches are processed on a bounded worker pool. A listener only processes one batch at a time, in the order its
+ * paths were first changed.
+ */
+@Slf4j
+public class DebouncedWatcher implements Watcher, Closeable {
+
+    private static final int MAX_QUEUED_BATCHES = 1000;
+
+    private final Watcher delegate;
+    private final long debounceDelay;
+    private final ThreadPoolExecutor workers;
+    private final Thread dispatcher;
+
+    private final Map<PendingKey, PendingEvent> pending = new LinkedHashMap<>();
+    private final Map<PathListener, Object> listenerLocks = new LinkedHashMap<>();
+
+    private final AtomicLong receivedEvents = new AtomicLong();
+    private final AtomicLong coalescedEvents = new AtomicLong();
+    private final AtomicLong processedEvents = new AtomicLong();
+    private final AtomicLong lastLag = new AtomicLong();
+    private final AtomicLong maxLag = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * @param delegate      the watcher producing file events
+     * @param debounceDelay time, in milliseconds, without any event on a path before it gets notified
+     * @param workerCount   number of threads processing batches
+     */
+    public DebouncedWatcher(Watcher delegate, long debounceDelay, int workerCount) {
+        this.delegate = delegate;
+        this.debounceDelay = debounceDelay;
+        var threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_BATCHES),
+                runnable -> {
+                    var thread = new Thread(runnable, "ui-designer-watcher-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // slow down dispatch rather than dropping changes when workers can't keep up
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.dispatcher = new Thread(this::dispatch, "ui-designer-watcher-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public void watch(Path path, PathListener listener) throws IOException {
+        delegate.watch(path, changedPath -> onEvent(listener, changedPath));
+    }
+
+    private void onEvent(PathListener listener, Path path) {
+        receivedEvents.incrementAndGet();
+        var now = System.currentTimeMillis();
+        synchronized (pending) {
+            var key = new PendingKey(listener, path);
+            var previous = pending.get(key);
+            if (previous != null) {
+                coalescedEvents.incrementAndGet();
+                previous.lastEventTime = now;
+            } else {
+                pending.put(key, new PendingEvent(listener, path, now));
+            }
+            pending.notifyAll();
+        }
+    }
+
+    private void dispatch() {
+        while (!closed) {
+            Map<PathListener, List<PendingEvent>> batches;
+            try {
+                batches = awaitDueEvents();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batches.forEach((listener, events) -> {
+                try {
+                    workers.execute(() -> process(listener, events));
+                } catch (RuntimeException e) {
+                    log.error("Unable to process changes of {} files", events.size(), e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Wait until some events are older than debounce delay, then remove them from pending ones
+     */
+    private Map<PathListener, List<PendingEvent>> awaitDueEvents() throws InterruptedException {
+        synchronized (pending) {
+            while (true) {
+                if (closed) {
+                    return Map.of();
+                }
+                var now = System.currentTimeMillis();
+                var nextDueTime = Long.MAX_VALUE;
+                var batches = new LinkedHashMap<PathListener, List<PendingEvent>>();
+                var iterator = pending.values().iterator();
+                while (iterator.hasNext()) {
+                    var event = iterator.next();
+                    var dueTime = event.lastEventTime + debounceDelay;
+                    if (dueTime <= now) {
+                        batches.computeIfAbsent(event.listener, l -> new ArrayList<>()).add(event);
+                        iterator.remove();
+                    } else {
+                        nextDueTime = Math.min(nextDueTime, dueTime);
+                    }
+                }
+                if (!batches.isEmpty()) {
+                    return batches;
+                }
+                if (nextDueTime == Long.MAX_VALUE) {
+                    pending.wait();
+                } else {
+                    pending.wait(Math.max(1L, nextDueTime - now));
+                }
+            }
+        }
+    }
+
+    private void process(PathListener listener, List<PendingEvent> events) {
+        synchronized (lockOf(listener)) {
+            for (PendingEvent event : events) {
+                var lag = System.currentTimeMillis() - event.firstEventTime;
+                lastLag.set(lag);
+                maxLag.accumulateAndGet(lag, Math::max);
+                try {
+                    listener.onChange(event.path);
+                } catch (Exception e) {
+                    log.error("Unexpected exception while processing file {}", event.path, e);
+                }
+                processedEvents.incrementAndGet();
+            }
+        }
+    }
+
+    private Object lockOf(PathListener listener) {
+        synchronized (listenerLocks) {
+            return listenerLocks.computeIfAbsent(listener, l -> new Object());
+        }
+    }
+
+    /**
+     * Number of changed paths waiting for their debounce delay to expire
+     */
+    public int getPendingEvents() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Number of batches waiting for a worker
+     */
+    public int getQueuedBatches() {
+        return workers.getQueue().size();
+    }
+
+    public long getReceivedEvents() {
+        return receivedEvents.get();
+    }
+
+    /**
+     * Number of events dropped because superseded by a later event on the same path
+     */
+    public long getCoalescedEvents() {
+        return coalescedEvents.get();
+    }
+
+    public long getProcessedEvents() {
+        return processedEvents.get();
+    }
+
+    /**
+     * Time, in milliseconds, between the first event on the last processed path and its processing
+     */
+    public long getLastLag() {
+        return lastLag.get();
+    }
+
+    public long getMaxLag() {
+        return maxLag.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        synchronized (pending) {
+            pending.notifyAll();
+        }
+        workers.shutdown();
+        if (delegate instanceof Closeable) {
+            ((Closeable) delegate).close();
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingKey {
+        private final PathListener listener;
+        private final Path path;
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PendingKey)) {
+                return false;
+            }
+            var other = (PendingKey) o;
+            // listeners are compared by identity, they are usually lambdas
+            return listener == other.listener && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(listener) + path.hashCode();
+        }
+    }
+
+    private static class PendingEvent {
+        private final PathListener listener;
+        private final Path path;
+        private final long firstEventTime;
+        private long lastEventTime;
+
+        PendingEvent(PathListener listener, Path path, long eventTime) {
+            this.listener = listener;
+            this.path = path;
+            this.firstEventTime = eventTime;
+            this.lastEventTime = eventTime;
+        }
+    }
+}
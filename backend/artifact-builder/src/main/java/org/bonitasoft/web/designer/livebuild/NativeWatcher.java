@@ -0,0 +1,243 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.livebuild;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bonitasoft.web.designer.repository.AtomicFiles;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderMismatchException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.nio.file.Files.walkFileTree;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watcher relying on file system native events through a {@link WatchService}, so that nothing is done until a file
+ * actually changes.
+ * <p>
+ * A {@link WatchService} only watches a single directory: every directory of a watched tree is registered, including the
+ * ones created afterwards. When events are lost (overflow), the whole tree is scanned again and files modified since the
+ * last processed event are notified. Trees on file systems without native events are handed to the fallback watcher.
+ * <p>
+ * Registering an already watched directory gives back the same {@link WatchKey}: every tree watching a directory is kept
+ * for its key and notified of its events.
+ */
+@Slf4j
+public class NativeWatcher implements Watcher, Closeable {
+
+    /**
+     * Margin taken on last event time when scanning a tree again, since some file systems only store modification time
+     * with a 1 or 2 seconds precision
+     */
+    private static final long RESCAN_MARGIN_MILLIS = 2000;
+
+    private final WatchService watchService;
+    private final Watcher fallback;
+    private final boolean nativeEvents;
+    private final Map<WatchKey, WatchedDirectory> directories = new ConcurrentHashMap<>();
+    private Thread thread;
+    private volatile boolean closed;
+
+    public NativeWatcher(WatchService watchService, Watcher fallback) {
+        this.watchService = watchService;
+        this.fallback = fallback;
+        this.nativeEvents = !watchService.getClass().getSimpleName().startsWith("Polling");
+    }
+
+    /**
+     * Create a watcher on default file system, using given fallback when native events are not supported at all
+     */
+    public static Watcher create(Watcher fallback) {
+        try {
+            var watcher = new NativeWatcher(FileSystems.getDefault().newWatchService(), fallback);
+            if (watcher.nativeEvents) {
+                return watcher;
+            }
+            watcher.close();
+            log.info("File system does not support native file events, falling back to polling watcher");
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Unable to create a native file watcher, falling back to polling watcher", e);
+        }
+        return fallback;
+    }
+
+    @Override
+    public void watch(Path path, PathListener listener) throws IOException {
+        if (!nativeEvents) {
+            fallback.watch(path, listener);
+            return;
+        }
+        try {
+            registerTree(path, new WatchedTree(path, listener));
+        } catch (UnsupportedOperationException | ProviderMismatchException e) {
+            log.info("Native file events are not supported for {}, falling back to polling watcher", path);
+            fallback.watch(path, listener);
+            return;
+        }
+        startIfNeeded();
+    }
+
+    private synchronized void startIfNeeded() {
+        if (thread == null) {
+            thread = new Thread(this::processEvents, "ui-designer-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private void registerTree(Path root, WatchedTree tree) throws IOException {
+        walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                register(dir, tree);
+                return CONTINUE;
+            }
+        });
+    }
+
+    private void register(Path directory, WatchedTree tree) throws IOException {
+        var key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        directories.computeIfAbsent(key, k -> new WatchedDirectory(directory)).trees.addIfAbsent(tree);
+    }
+
+    private void processEvents() {
+        while (!closed) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            var directory = directories.get(key);
+            if (directory != null) {
+                processEvents(directory, key);
+            }
+            if (!key.reset()) {
+                directories.remove(key);
+            }
+        }
+    }
+
+    private void processEvents(WatchedDirectory directory, WatchKey key) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            for (var tree : directory.trees) {
+                processEvent(directory, tree, event);
+            }
+        }
+    }
+
+    private void processEvent(WatchedDirectory directory, WatchedTree tree, WatchEvent<?> event) {
+        if (event.kind() == OVERFLOW) {
+            rescan(tree);
+            return;
+        }
+        var path = directory.path.resolve((Path) event.context());
+        if (AtomicFiles.isStagedFile(path)) {
+            // content being written, its change is notified once moved in place
+            return;
+        }
+        if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+            // files may have been created before the new directory got registered
+            onDirectoryCreated(path, tree);
+        } else if (event.kind() == ENTRY_CREATE) {
+            tree.notifyChange(path);
+        } else if (Files.isRegularFile(path)) {
+            tree.notifyChange(path);
+        }
+    }
+
+    private void onDirectoryCreated(Path directory, WatchedTree tree) {
+        try {
+            registerTree(directory, tree);
+            notifyFiles(directory, tree, Long.MIN_VALUE);
+        } catch (IOException e) {
+            log.error("Unable to watch directory {}", directory, e);
+        }
+    }
+
+    /**
+     * Some events were lost: watch again the whole tree and notify files modified since the last processed event.
+     */
+    private void rescan(WatchedTree tree) {
+        log.warn("File events were lost under {}, scanning it again", tree.root);
+        try {
+            registerTree(tree.root, tree);
+            notifyFiles(tree.root, tree, tree.lastEventTime - RESCAN_MARGIN_MILLIS);
+        } catch (IOException e) {
+            log.error("Unable to scan directory {}", tree.root, e);
+        }
+    }
+
+    private void notifyFiles(Path directory, WatchedTree tree, long modifiedSince) throws IOException {
+        walkFileTree(directory, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.lastModifiedTime().toMillis() >= modifiedSince && !AtomicFiles.isStagedFile(file)) {
+                    tree.notifyChange(file);
+                }
+                return CONTINUE;
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+    }
+
+    @RequiredArgsConstructor
+    private static class WatchedDirectory {
+        private final Path path;
+        private final CopyOnWriteArrayList<WatchedTree> trees = new CopyOnWriteArrayList<>();
+    }
+
+    @RequiredArgsConstructor
+    private static class WatchedTree {
+        private final Path root;
+        private final PathListener listener;
+        private volatile long lastEventTime = System.currentTimeMillis();
+
+        void notifyChange(Path path) {
+            lastEventTime = System.currentTimeMillis();
+            try {
+                listener.onChange(path);
+            } catch (Exception e) {
+                log.error("Unexpected exception while processing file {}", path, e);
+            }
+        }
+    }
+}
@@ -14,25 +14,14 @@
  */
 package org.bonitasoft.web.designer.livebuild;
 
-import org.apache.commons.io.monitor.FileAlterationMonitor;
-import org.apache.commons.io.monitor.FileAlterationObserver;
-
 import java.io.IOException;
 import java.nio.file.Path;
 
-public class Watcher {
-
-    private final ObserverFactory observerFactory;
-    private final FileAlterationMonitor monitor;
-
-    public Watcher(ObserverFactory observerFactory, FileAlterationMonitor monitor) {
-        this.observerFactory = observerFactory;
-        this.monitor = monitor;
-    }
+/**
+ * Notifies listeners of files created or modified under watched directories.
+ */
+public interface Watcher {
 
-    public void watch(Path path, final PathListener listener) throws IOException {
-        FileAlterationObserver observer = observerFactory.create(path, listener);
-        monitor.addObserver(observer);
-    }
+    void watch(Path path, PathListener listener) throws IOException;
 
 }
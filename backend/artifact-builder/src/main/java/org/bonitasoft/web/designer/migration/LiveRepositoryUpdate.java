@@ -15,11 +15,23 @@
 
 package org.bonitasoft.web.designer.migration;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import org.apache.commons.lang3.StringUtils;
+import org.bonitasoft.web.designer.livebuild.BuildManifest;
 import org.bonitasoft.web.designer.model.DesignerArtifact;
+import org.bonitasoft.web.designer.model.migrationReport.MigrationReport;
+import org.bonitasoft.web.designer.model.migrationReport.MigrationResult;
+import org.bonitasoft.web.designer.model.migrationReport.MigrationStatus;
+import org.bonitasoft.web.designer.model.migrationReport.MigrationStepReport;
+import org.bonitasoft.web.designer.repository.AbstractLoader;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.LoadExecutor;
 import org.bonitasoft.web.designer.repository.RefreshingRepository;
 import org.bonitasoft.web.designer.repository.Repository;
 import org.bonitasoft.web.designer.repository.WidgetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
@@ -27,60 +39,224 @@ import java.nio.file.FileVisitResult;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.nio.file.FileVisitResult.CONTINUE;
+import static java.util.Collections.emptySet;
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.contains;
 
 
-public class LiveRepositoryUpdate<A extends DesignerArtifact> implements Comparable<LiveRepositoryUpdate<A>> {
+public class LiveRepositoryUpdate<A extends DesignerArtifact> implements Comparable<LiveRepositoryUpdate<?>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveRepositoryUpdate.class);
+
+    /**
+     * Maximum number of artifacts migrated and then saved together
+     */
+    static final int BATCH_SIZE = 50;
 
     private final Repository<A> repository;
     private final List<Migration<A>> migrationList;
+    private final BuildManifest manifest;
+    private final LoadExecutor loadExecutor;
 
     public LiveRepositoryUpdate(Repository<A> repository, List<Migration<A>> migrationList) {
+        this(repository, migrationList, null);
+    }
+
+    /**
+     * @param manifest when given, artifacts whose metadata is still the one recorded in the manifest are not refreshed on start
+     */
+    public LiveRepositoryUpdate(Repository<A> repository, List<Migration<A>> migrationList, BuildManifest manifest) {
+        this(repository, migrationList, manifest, LoadExecutor.serial());
+    }
+
+    /**
+     * @param loadExecutor executor on which artifacts are migrated
+     */
+    public LiveRepositoryUpdate(Repository<A> repository, List<Migration<A>> migrationList, BuildManifest manifest, LoadExecutor loadExecutor) {
         this.repository = repository;
         this.migrationList = migrationList;
+        this.manifest = manifest;
+        this.loadExecutor = loadExecutor;
     }
 
     public void start() throws IOException {
-
+        var startTime = System.currentTimeMillis();
+        if (manifest != null) {
+            manifest.load("");
+        }
+        var refreshed = new AtomicInteger();
+        var skipped = new AtomicInteger();
         repository.walk(new SimpleFileVisitor<>() {
             @Override
             public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
-                refresh(repository, path.toFile().toPath());
+                if (!(repository instanceof RefreshingRepository) || !isArtifactDescriptor(path)) {
+                    return CONTINUE;
+                }
+                if (manifest != null && manifest.isUpToDate(path, AbstractLoader.metadataPath(path))) {
+                    skipped.incrementAndGet();
+                } else {
+                    refresh(repository, path);
+                    refreshed.incrementAndGet();
+                }
                 return CONTINUE;
             }
         });
+        if (manifest != null) {
+            manifest.prune();
+            manifest.save();
+        }
+        if (repository instanceof RefreshingRepository) {
+            logger.info("{} refreshed {} artifact(s) and skipped {} up to date artifact(s) in {} ms", repository.getComponentName(),
+                    refreshed.get(), skipped.get(), System.currentTimeMillis() - startTime);
+        }
 
-        repository.watch(path -> refresh(repository, path));
+        repository.watch(path -> {
+            refresh(repository, path);
+            if (manifest != null) {
+                manifest.save();
+            }
+        });
     }
 
+    /**
+     * Migrate all the artifacts of the repository. An artifact which cannot be read does not stop the migration of
+     * the others, see {@link #migrate(List, MigrationTracker)}.
+     */
     public void migrate() throws IOException {
+        var descriptors = descriptors();
+        migrate(descriptors, new MigrationTracker(descriptors.size(), MigrationListener.NONE));
+    }
+
+    /**
+     * Descriptors of the artifacts of the repository
+     */
+    public List<Path> descriptors() throws IOException {
+        List<Path> descriptors = new ArrayList<>();
         repository.walk(new SimpleFileVisitor<>() {
 
             @Override
             public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) {
                 if (isArtifactDescriptor(path)) {
-                    final var artifact = repository.get(path);
-                    String formerArtifactVersion = artifact.getArtifactVersion();
-                    for (Migration<A> migration : migrationList) {
-                        migration.migrate(artifact);
-                    }
-                    if (!StringUtils.equals(formerArtifactVersion, artifact.getArtifactVersion())) {
-                        artifact.setPreviousArtifactVersion(formerArtifactVersion);
-                        repository.updateLastUpdateAndSave(artifact);
-                    }
+                    descriptors.add(path);
                 }
                 return CONTINUE;
             }
         });
+        return descriptors;
+    }
+
+    /**
+     * Migrate the artifacts of the given descriptors, reporting each of them to the tracker.
+     * <p>
+     * Artifacts are migrated in dependency order, an artifact after the ones of the repository it uses, and artifacts
+     * which do not depend on each other are migrated in parallel. Migrated artifacts are saved by batches.
+     * <p>
+     * An artifact which cannot be read is left untouched and reported with an {@link MigrationStatus#ERROR} status,
+     * so that one corrupted file does not prevent the rest of the workspace from being migrated.
+     */
+    public void migrate(List<Path> descriptors, MigrationTracker tracker) throws IOException {
+        for (var level : dependencyLevels(descriptors)) {
+            for (var i = 0; i < level.size(); i += BATCH_SIZE) {
+                var results = loadExecutor.map(level.subList(i, Math.min(i + BATCH_SIZE, level.size())), this::migrate);
+                var migrated = results.stream().filter(MigrationOutcome::isChanged).map(MigrationOutcome::getArtifact).collect(toList());
+                if (!migrated.isEmpty()) {
+                    repository.updateLastUpdateAndSaveBatch(migrated);
+                }
+                results.forEach(result -> tracker.migrated(result.getReport()));
+            }
+        }
+    }
+
+    private MigrationOutcome<A> migrate(Path path) {
+        final A artifact;
+        try {
+            artifact = repository.get(path);
+        } catch (RuntimeException e) {
+            logger.error("[MIGRATION] Artifact [{}] cannot be read", path, e);
+            var report = new MigrationReport(MigrationStatus.ERROR, removeExtension(path.getFileName().toString()));
+            report.setComments("Artifact cannot be read");
+            return new MigrationOutcome<>(null, false, report);
+        }
+        String formerArtifactVersion = artifact.getArtifactVersion();
+        List<MigrationStepReport> stepReports = new ArrayList<>();
+        for (Migration<A> migration : migrationList) {
+            stepReports.addAll(migration.migrate(artifact));
+        }
+        if (StringUtils.equals(formerArtifactVersion, artifact.getArtifactVersion())) {
+            var report = new MigrationReport(MigrationStatus.NONE, artifact.getId());
+            report.setType(artifact.getType());
+            return new MigrationOutcome<>(artifact, false, report);
+        }
+        artifact.setPreviousArtifactVersion(formerArtifactVersion);
+        var result = new MigrationResult<>(artifact, stepReports);
+        var report = new MigrationReport(result.getFinalStatus(), artifact.getId(), artifact.getType(), formerArtifactVersion,
+                artifact.getArtifactVersion(), result.getMigrationStepReportListFilterByFinalStatus());
+        return new MigrationOutcome<>(artifact, true, report);
+    }
+
+    /**
+     * Descriptors grouped by dependency level: artifacts of a level only use artifacts of the repository from lower levels.
+     * Only fragments can use artifacts of their own repository.
+     */
+    private Collection<List<Path>> dependencyLevels(List<Path> descriptors) {
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        if (repository instanceof FragmentRepository) {
+            for (var summary : ((FragmentRepository) repository).getAllSummaries()) {
+                dependencies.put(summary.getId(), summary.getFragmentIds());
+            }
+        }
+        Map<String, Integer> levels = new HashMap<>();
+        SortedMap<Integer, List<Path>> descriptorsByLevel = new TreeMap<>();
+        for (var descriptor : descriptors) {
+            var level = level(removeExtension(descriptor.getFileName().toString()), dependencies, levels, new HashSet<>());
+            descriptorsByLevel.computeIfAbsent(level, l -> new ArrayList<>()).add(descriptor);
+        }
+        return descriptorsByLevel.values();
+    }
+
+    private int level(String id, Map<String, Set<String>> dependencies, Map<String, Integer> levels, Set<String> visiting) {
+        if (levels.containsKey(id)) {
+            return levels.get(id);
+        }
+        // An artifact using itself, even indirectly, would otherwise be visited endlessly
+        if (!visiting.add(id)) {
+            return 0;
+        }
+        var level = 0;
+        for (var dependency : dependencies.getOrDefault(id, emptySet())) {
+            if (!dependency.equals(id) && dependencies.containsKey(dependency)) {
+                level = Math.max(level, level(dependency, dependencies, levels, visiting) + 1);
+            }
+        }
+        visiting.remove(id);
+        levels.put(id, level);
+        return level;
+    }
+
+    private static String removeExtension(String fileName) {
+        return fileName.replaceAll("\\.json$", "");
     }
 
     private void refresh(Repository<A> repository, Path path) {
         if (repository instanceof RefreshingRepository && isArtifactDescriptor(path)) {
             final var page = repository.get(path);
             ((RefreshingRepository) repository).refresh(page.getId());
+            var metadata = AbstractLoader.metadataPath(path);
+            if (manifest != null && metadata.toFile().exists()) {
+                manifest.record(path, metadata);
+            }
         }
     }
 
@@ -91,8 +267,30 @@ public class LiveRepositoryUpdate<A extends DesignerArtifact> implements Compara
                 && !contains(path.toString(), File.separator + "assets" + File.separator);
     }
 
+    /**
+     * Widgets first, then fragments and pages, the order in which repositories are to be migrated
+     */
     @Override
-    public int compareTo(LiveRepositoryUpdate o) {
-        return repository instanceof WidgetRepository ? -1 : 1;
+    public int compareTo(LiveRepositoryUpdate<?> o) {
+        return Integer.compare(rank(), o.rank());
+    }
+
+    private int rank() {
+        if (repository instanceof WidgetRepository) {
+            return 0;
+        }
+        if (repository instanceof FragmentRepository) {
+            return 1;
+        }
+        return 2;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class MigrationOutcome<A> {
+        // null when the artifact cannot be read
+        private final A artifact;
+        private final boolean changed;
+        private final MigrationReport report;
     }
 }
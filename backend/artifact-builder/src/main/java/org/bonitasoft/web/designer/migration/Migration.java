@@ -49,7 +49,7 @@ public class Migration<A extends DesignerArtifact> {
         var msr = new ArrayList<MigrationStepReport>();
 
         var artifactVersion = artifact.getArtifactVersion();
-        if (artifactVersion == null || newArtifactVersion.isGreaterThan(artifactVersion)) {
+        if (isNeeded(artifactVersion)) {
             logger.info(
                     "[MIGRATION] {} <{}> with id <{}> is being migrated from version <{}> to <{}>...",
                     artifact.getClass().getSimpleName(),
@@ -81,6 +81,17 @@ public class Migration<A extends DesignerArtifact> {
         return msr;
     }
 
+    /**
+     * Number of migration steps executed on an artifact of the given version, without migrating it
+     */
+    public int getStepCount(String artifactVersion) {
+        return isNeeded(artifactVersion) ? migrationSteps.length : 0;
+    }
+
+    private boolean isNeeded(String artifactVersion) {
+        return artifactVersion == null || newArtifactVersion.isGreaterThan(artifactVersion);
+    }
+
     private String getDisplayVersion(String artifactVersion) {
         if (artifactVersion == null) {
             return "null";
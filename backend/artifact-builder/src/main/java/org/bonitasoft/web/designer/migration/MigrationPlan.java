@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Artifacts of a workspace to be migrated and artifacts which cannot be opened with this version of the designer,
+ * computed without migrating nor reading them
+ */
+@Data
+public class MigrationPlan {
+
+    private List<PlannedArtifact> toMigrate = new ArrayList<>();
+
+    private List<PlannedArtifact> incompatible = new ArrayList<>();
+
+    /**
+     * Number of migration steps to be executed on the artifacts to migrate
+     */
+    private int stepCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PlannedArtifact {
+
+        private String id;
+        private String name;
+        private String type;
+        private String artifactVersion;
+
+        /**
+         * Number of migration steps to be executed on the artifact itself, none when only the artifacts it uses
+         * need migration
+         */
+        private int stepCount;
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.migration;
+
+import org.bonitasoft.web.designer.controller.MigrationStatusReport;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.model.widget.Widget;
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
+import org.bonitasoft.web.designer.service.FragmentService;
+import org.bonitasoft.web.designer.service.PageService;
+import org.bonitasoft.web.designer.service.WidgetService;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plan the migration of a whole workspace from the summaries of its artifacts: their version and the artifacts they
+ * use are enough to know whether they need migration, so no artifact is read nor migrated.
+ */
+public class MigrationPlanner {
+
+    private final WidgetRepository widgetRepository;
+    private final FragmentRepository fragmentRepository;
+    private final WidgetService widgetService;
+    private final FragmentService fragmentService;
+    private final PageService pageService;
+    private final List<Migration<Widget>> widgetMigrationList;
+    private final List<Migration<Fragment>> fragmentMigrationList;
+    private final List<Migration<Page>> pageMigrationList;
+
+    public MigrationPlanner(WidgetRepository widgetRepository, FragmentRepository fragmentRepository,
+                            WidgetService widgetService, FragmentService fragmentService, PageService pageService,
+                            List<Migration<Widget>> widgetMigrationList, List<Migration<Fragment>> fragmentMigrationList,
+                            List<Migration<Page>> pageMigrationList) {
+        this.widgetRepository = widgetRepository;
+        this.fragmentRepository = fragmentRepository;
+        this.widgetService = widgetService;
+        this.fragmentService = fragmentService;
+        this.pageService = pageService;
+        this.widgetMigrationList = widgetMigrationList;
+        this.fragmentMigrationList = fragmentMigrationList;
+        this.pageMigrationList = pageMigrationList;
+    }
+
+    /**
+     * Widgets first, then fragments and pages, in the order in which the workspace migration processes them.
+     * Light pages are built from summaries too, but light widgets and fragments also list their usages, which
+     * planning does not need, hence their summaries and statuses are read directly.
+     */
+    public MigrationPlan plan() {
+        var plan = new MigrationPlan();
+        addAll(plan, widgetRepository.getAllSummaries(), widgetService.getMigrationStatusById(), widgetMigrationList);
+        addAll(plan, fragmentRepository.getAllSummaries(), fragmentService.getMigrationStatusById(), fragmentMigrationList);
+        for (var page : pageService.getAllLight()) {
+            add(plan, ArtifactSummary.of(page), page.getStatus(), pageMigrationList);
+        }
+        return plan;
+    }
+
+    private <A> void addAll(MigrationPlan plan, List<ArtifactSummary> summaries, Map<String, MigrationStatusReport> statuses,
+                            List<Migration<A>> migrationList) {
+        for (var summary : summaries) {
+            add(plan, summary, statuses.get(summary.getId()), migrationList);
+        }
+    }
+
+    private <A> void add(MigrationPlan plan, ArtifactSummary summary, MigrationStatusReport status, List<Migration<A>> migrationList) {
+        if (status == null) {
+            return;
+        }
+        if (!status.isCompatible()) {
+            plan.getIncompatible().add(plannedArtifact(summary, 0));
+        } else if (status.isMigration()) {
+            var stepCount = migrationList.stream().mapToInt(migration -> migration.getStepCount(summary.getArtifactVersion())).sum();
+            plan.getToMigrate().add(plannedArtifact(summary, stepCount));
+            plan.setStepCount(plan.getStepCount() + stepCount);
+        }
+    }
+
+    private MigrationPlan.PlannedArtifact plannedArtifact(ArtifactSummary summary, int stepCount) {
+        return new MigrationPlan.PlannedArtifact(summary.getId(), summary.getName(), summary.getType(),
+                summary.getArtifactVersion(), stepCount);
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.bonitasoft.web.designer.model.migrationReport.MigrationReport;
+
+/**
+ * Progress of a workspace migration, sent each time an artifact has been migrated and once the migration is finished
+ */
+@Data
+@AllArgsConstructor
+public class MigrationProgress {
+
+    /**
+     * Number of artifacts migrated so far
+     */
+    private int done;
+
+    /**
+     * Number of artifacts of the workspace to be migrated
+     */
+    private int total;
+
+    /**
+     * Report of the artifact just migrated, null when the migration starts or is finished
+     */
+    private MigrationReport report;
+
+    private boolean finished;
+}
@@ -0,0 +1,49 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.migration;
+
+import org.bonitasoft.web.designer.model.migrationReport.MigrationReport;
+
+/**
+ * Counts the artifacts migrated among all the artifacts of a workspace and notifies a listener of the progress
+ */
+public class MigrationTracker {
+
+    private final int total;
+    private final MigrationListener listener;
+    private int done;
+
+    public MigrationTracker(int total, MigrationListener listener) {
+        this.total = total;
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        listener.onProgress(new MigrationProgress(done, total, null, false));
+    }
+
+    public synchronized void migrated(MigrationReport report) {
+        done++;
+        listener.onProgress(new MigrationProgress(done, total, report, false));
+    }
+
+    public synchronized void finish() {
+        listener.onProgress(new MigrationProgress(done, total, null, true));
+    }
+
+    public synchronized int getDone() {
+        return done;
+    }
+}
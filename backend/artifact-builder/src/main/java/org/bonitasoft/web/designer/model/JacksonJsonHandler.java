@@ -18,8 +18,11 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.util.DefaultIndenter;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import lombok.Getter;
 import org.bonitasoft.web.designer.controller.asset.MalformedJsonException;
 
@@ -135,4 +138,39 @@ public class JacksonJsonHandler implements JsonHandler {
     public <T> T assign(T target, byte[] source) throws IOException {
         return objectMapper.readerForUpdating(target).readValue(source);
     }
+
+    @Override
+    public TokenBuffer tokenize(byte[] bytes) throws IOException {
+        try (var parser = objectMapper.getFactory().createParser(bytes)) {
+            var tokens = new TokenBuffer(parser);
+            parser.nextToken();
+            tokens.copyCurrentStructure(parser);
+            return tokens;
+        }
+    }
+
+    @Override
+    public <T> T fromJson(TokenBuffer tokens, Class<T> type) throws IOException {
+        return objectMapper.readValue(tokens.asParser(objectMapper), type);
+    }
+
+    @Override
+    public <T> T assign(T target, TokenBuffer source) throws IOException {
+        return objectMapper.readerForUpdating(target).readValue(source.asParser(objectMapper));
+    }
+
+    @Override
+    public byte[] toJson(Object object, FilterProvider filters) throws IOException {
+        return objectMapper.writer(filters).writeValueAsBytes(object);
+    }
+
+    @Override
+    public JsonNode toJsonTree(byte[] bytes) throws IOException {
+        return objectMapper.readTree(bytes);
+    }
+
+    @Override
+    public <T> T fromJson(JsonNode tree, Class<T> type) throws IOException {
+        return objectMapper.treeToValue(tree, type);
+    }
 }
@@ -14,6 +14,10 @@
  */
 package org.bonitasoft.web.designer.model;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Map;
@@ -49,4 +53,22 @@ public interface JsonHandler {
     void checkValidJson(byte[] bytes) throws IOException;
 
     <T> T assign(T target, byte[] source) throws IOException;
+
+    /**
+     * Tokenize json content once, so that it can be bound several times afterwards without parsing the bytes again
+     */
+    TokenBuffer tokenize(byte[] bytes) throws IOException;
+
+    <T> T fromJson(TokenBuffer tokens, Class<T> type) throws IOException;
+
+    <T> T assign(T target, TokenBuffer source) throws IOException;
+
+    /**
+     * Serialize an object applying the given Jackson filters
+     */
+    byte[] toJson(Object object, FilterProvider filters) throws IOException;
+
+    JsonNode toJsonTree(byte[] bytes) throws IOException;
+
+    <T> T fromJson(JsonNode tree, Class<T> type) throws IOException;
 }
@@ -0,0 +1,203 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.model;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * JSON patch, as defined by RFC 6902, applied to Jackson trees.
+ * <p>
+ * A patch is a list of operations (add, remove, replace, move, copy and test) applied in sequence. Patches are checked
+ * when built, a malformed one is rejected with an {@link IllegalArgumentException}. Applying a patch leaves the given
+ * document untouched and fails with a {@link JsonPatchException} as soon as one of its operations cannot be applied.
+ */
+public class JsonPatch {
+
+    private static final Set<String> OPERATIONS = Set.of("add", "remove", "replace", "move", "copy", "test");
+    private static final String END_OF_ARRAY = "-";
+
+    private final List<Operation> operations;
+
+    private JsonPatch(List<Operation> operations) {
+        this.operations = operations;
+    }
+
+    public static JsonPatch of(JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new IllegalArgumentException("A JSON patch must be an array of operations");
+        }
+        var operations = new ArrayList<Operation>();
+        for (JsonNode operation : patch) {
+            operations.add(Operation.of(operation));
+        }
+        return new JsonPatch(operations);
+    }
+
+    public int size() {
+        return operations.size();
+    }
+
+    /**
+     * Apply this patch to a copy of the given document
+     */
+    public JsonNode apply(JsonNode document) {
+        var patched = document.deepCopy();
+        for (Operation operation : operations) {
+            patched = operation.apply(patched);
+        }
+        return patched;
+    }
+
+    private static class Operation {
+
+        private final String op;
+        private final JsonPointer path;
+        private final JsonPointer from;
+        private final JsonNode value;
+
+        private Operation(String op, JsonPointer path, JsonPointer from, JsonNode value) {
+            this.op = op;
+            this.path = path;
+            this.from = from;
+            this.value = value;
+        }
+
+        static Operation of(JsonNode operation) {
+            if (!operation.isObject()) {
+                throw new IllegalArgumentException(format("Invalid JSON patch operation %s", operation));
+            }
+            var op = operation.path("op").asText(null);
+            if (!OPERATIONS.contains(op)) {
+                throw new IllegalArgumentException(format("Unknown JSON patch operation %s", operation.get("op")));
+            }
+            var path = pointer(operation, "path");
+            var from = "move".equals(op) || "copy".equals(op) ? pointer(operation, "from") : null;
+            JsonNode value = null;
+            if ("add".equals(op) || "replace".equals(op) || "test".equals(op)) {
+                if (!operation.has("value")) {
+                    throw new IllegalArgumentException(format("Missing value in JSON patch operation %s", operation));
+                }
+                value = operation.get("value");
+            }
+            if ("move".equals(op) && isProperPrefix(from, path)) {
+                throw new IllegalArgumentException(format("Cannot move a location into one of its children in %s", operation));
+            }
+            return new Operation(op, path, from, value);
+        }
+
+        private static JsonPointer pointer(JsonNode operation, String member) {
+            var pointer = operation.get(member);
+            if (pointer == null || !pointer.isTextual()) {
+                throw new IllegalArgumentException(format("Missing %s in JSON patch operation %s", member, operation));
+            }
+            // throws IllegalArgumentException when not a valid pointer
+            return JsonPointer.compile(pointer.asText());
+        }
+
+        private static boolean isProperPrefix(JsonPointer prefix, JsonPointer pointer) {
+            var prefixValue = prefix.toString();
+            return pointer.toString().startsWith(prefixValue + "/");
+        }
+
+        JsonNode apply(JsonNode document) {
+            switch (op) {
+                case "add":
+                    return add(document, path, value.deepCopy());
+                case "remove":
+                    remove(document, path);
+                    return document;
+                case "replace":
+                    get(document, path);
+                    if (!path.matches()) {
+                        remove(document, path);
+                    }
+                    return add(document, path, value.deepCopy());
+                case "move":
+                    var moved = get(document, from);
+                    remove(document, from);
+                    return add(document, path, moved);
+                case "copy":
+                    return add(document, path, get(document, from).deepCopy());
+                default:
+                    if (!get(document, path).equals(value)) {
+                        throw new JsonPatchException(format("Test failed, %s is not equal to %s", path, value));
+                    }
+                    return document;
+            }
+        }
+
+        private static JsonNode get(JsonNode document, JsonPointer pointer) {
+            var node = document.at(pointer);
+            if (node.isMissingNode()) {
+                throw new JsonPatchException(format("No value at %s", pointer));
+            }
+            return node;
+        }
+
+        private static JsonNode add(JsonNode document, JsonPointer pointer, JsonNode value) {
+            if (pointer.matches()) {
+                return value;
+            }
+            var parent = get(document, pointer.head());
+            var member = pointer.last().getMatchingProperty();
+            if (parent.isObject()) {
+                ((ObjectNode) parent).set(member, value);
+            } else if (parent.isArray()) {
+                var array = (ArrayNode) parent;
+                if (END_OF_ARRAY.equals(member)) {
+                    array.add(value);
+                } else {
+                    array.insert(index(array, pointer, array.size()), value);
+                }
+            } else {
+                throw new JsonPatchException(format("Cannot add a value at %s, parent is not a container", pointer));
+            }
+            return document;
+        }
+
+        private static void remove(JsonNode document, JsonPointer pointer) {
+            if (pointer.matches()) {
+                throw new JsonPatchException("Cannot remove the whole document");
+            }
+            var parent = get(document, pointer.head());
+            var member = pointer.last().getMatchingProperty();
+            if (parent.isObject() && parent.has(member)) {
+                ((ObjectNode) parent).remove(member);
+            } else if (parent.isArray()) {
+                var array = (ArrayNode) parent;
+                array.remove(index(array, pointer, array.size() - 1));
+            } else {
+                throw new JsonPatchException(format("No value at %s", pointer));
+            }
+        }
+
+        private static int index(ArrayNode array, JsonPointer pointer, int max) {
+            var index = pointer.last().getMatchingIndex();
+            if (index < 0 || index > max) {
+                throw new JsonPatchException(format("Invalid index at %s for an array of %d elements", pointer, array.size()));
+            }
+            return index;
+        }
+    }
+}
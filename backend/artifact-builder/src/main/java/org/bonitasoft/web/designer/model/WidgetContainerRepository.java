@@ -14,6 +14,7 @@
  */
 package org.bonitasoft.web.designer.model;
 
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
 import org.bonitasoft.web.designer.repository.Repository;
 
 import java.util.List;
@@ -24,4 +25,8 @@ public interface WidgetContainerRepository<T extends Identifiable> extends Repos
     List<T> getArtifactsUsingWidget(String widgetId);
 
     Map<String, List<T>> getArtifactsUsingWidgets(List<String> widgetIds);
+
+    List<ArtifactSummary> getAllSummaries();
+
+    T toLightArtifact(ArtifactSummary summary);
 }
@@ -12,7 +12,7 @@ import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.model.page.Previewable;
 import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.repository.AssetRepository;
-import org.bonitasoft.web.designer.visitor.AssetVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -26,7 +26,7 @@ import static org.bonitasoft.web.designer.model.asset.Asset.getComparatorByOrder
 @Slf4j
 public class AssetHtmlBuilder {
 
-    private final AssetVisitor assetVisitor;
+    private final PageAnalyzer pageAnalyzer;
     private final AssetRepository<Page> pageAssetRepository;
     private final AssetRepository<Widget> widgetAssetRepository;
     private final WorkspaceProperties workspaceProperties;
@@ -35,7 +35,7 @@ public class AssetHtmlBuilder {
      * Return the list of the previewable assets sorted with only active assets
      */
     public <P extends Previewable & Identifiable> List<Asset> getSortedAssets(P previewable) {
-        return assetVisitor.visit(previewable).stream().filter(Asset::isActive)
+        return pageAnalyzer.analyze(previewable).getAssets().stream().filter(Asset::isActive)
                 .sorted(getComparatorByComponentId().thenComparing(getComparatorByOrder())
                 ).collect(Collectors.toList());
     }
@@ -0,0 +1,37 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import lombok.Getter;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Concatenated and minified widget directives of a page or a fragment, named after a hash of its content.
+ */
+@Getter
+public class DirectiveBundle {
+
+    private final byte[] content;
+    private final String hash;
+
+    public DirectiveBundle(byte[] content) {
+        this.content = content;
+        this.hash = DigestUtils.sha1Hex(content);
+    }
+
+    public String getFileName() {
+        return "widgets-" + hash + ".min.js";
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import lombok.RequiredArgsConstructor;
+import org.bonitasoft.web.designer.repository.FileStamp;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Keeps widget directive bundles in memory so that a given set of widgets is concatenated and minified only once,
+ * whether it is previewed or exported.
+ * <p>
+ * Bundles are keyed by the sorted set of widget directive files they are made of. An entry is served only while all
+ * those files are unchanged on disk (same last modified time and size), and is dropped as soon as one of its directives
+ * is rebuilt. Least recently used entries are evicted once the cache holds more than its maximum size.
+ */
+public class DirectiveBundleCache {
+
+    public static final int DEFAULT_MAX_SIZE = 200;
+
+    private final Map<List<Path>, Entry> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public DirectiveBundleCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public DirectiveBundleCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Path>, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the bundle of the given directive files, using the bundler to build it from the sorted files on cache miss
+     */
+    public DirectiveBundle get(Collection<Path> files, Function<List<Path>, byte[]> bundler) {
+        List<Path> key = files.stream().distinct().sorted().collect(toList());
+        var stamps = stampsOf(key);
+
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.stamps.equals(stamps)) {
+            hits.incrementAndGet();
+            return entry.bundle;
+        }
+
+        misses.incrementAndGet();
+        var bundle = new DirectiveBundle(bundler.apply(key));
+        synchronized (entries) {
+            entries.put(key, new Entry(stamps, bundle));
+        }
+        return bundle;
+    }
+
+    /**
+     * Drop every bundle containing the given directive file
+     */
+    public void invalidate(Path file) {
+        var normalized = file.toAbsolutePath().normalize();
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.stream().anyMatch(path -> path.toAbsolutePath().normalize().equals(normalized)));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private static List<FileStamp> stampsOf(List<Path> files) {
+        var stamps = new ArrayList<FileStamp>(files.size());
+        for (Path file : files) {
+            try {
+                stamps.add(FileStamp.of(file));
+            } catch (IOException e) {
+                throw new GenerationException(format("Error while reading attributes of %s", file), e);
+            }
+        }
+        return stamps;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final List<FileStamp> stamps;
+        private final DirectiveBundle bundle;
+    }
+}
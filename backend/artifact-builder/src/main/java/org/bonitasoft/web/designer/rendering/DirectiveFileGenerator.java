@@ -14,11 +14,10 @@
  */
 package org.bonitasoft.web.designer.rendering;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
+import org.bonitasoft.web.designer.model.Identifiable;
 import org.bonitasoft.web.designer.model.page.Previewable;
-import org.bonitasoft.web.designer.repository.WidgetRepository;
-import org.bonitasoft.web.designer.visitor.WidgetIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -31,18 +30,17 @@ import java.util.stream.Collectors;
 public class DirectiveFileGenerator {
 
     private final Path widgetPath;
-    private final WidgetRepository widgetRepository;
-    private final WidgetIdVisitor widgetIdVisitor;
+    private final PageAnalyzer pageAnalyzer;
+    private final DirectiveBundleCache bundleCache;
 
-    public DirectiveFileGenerator(WorkspaceProperties workspaceProperties, WidgetRepository widgetRepository,
-                                  WidgetIdVisitor widgetIdVisitor) {
+    public DirectiveFileGenerator(WorkspaceProperties workspaceProperties, PageAnalyzer pageAnalyzer, DirectiveBundleCache bundleCache) {
         this.widgetPath = workspaceProperties.getWidgets().getDir();
-        this.widgetRepository = widgetRepository;
-        this.widgetIdVisitor = widgetIdVisitor;
+        this.pageAnalyzer = pageAnalyzer;
+        this.bundleCache = bundleCache;
     }
 
-    public List<Path> getWidgetsFilesUsedInPage(Previewable previewable) {
-        return widgetRepository.getByIds(widgetIdVisitor.visit(previewable)).stream()
+    public <P extends Previewable & Identifiable> List<Path> getWidgetsFilesUsedInPage(P previewable) {
+        return pageAnalyzer.analyze(previewable).getWidgets().stream()
                 .filter(widget -> !"pbContainer".equals(widget.getId()))
                 .map(w -> Paths.get(w.getId()).resolve(w.getId() + ".js"))
                 .map(widgetPath::resolve)
@@ -57,13 +55,19 @@ public class DirectiveFileGenerator {
         return Minifier.minify(content);
     }
 
-    public String generateAllDirectivesFilesInOne(Previewable previewable, Path path) {
-        var filename = getWidgetsFilesUsedInPage(previewable);
-        byte[] content = concatenate(filename);
-        content = minify(content);
-        String fileHash = DigestUtils.sha1Hex(content);
-        WidgetFileHelper.deleteOldConcatenateFiles(path, fileHash);
-        Path file = WidgetFileHelper.writeFile(content, path, fileHash + ".min");
+    /**
+     * Concatenated and minified directives of the widgets used in the given previewable, shared between all
+     * previewables using the same widgets as long as their directives are unchanged. Bundle is made of the directives
+     * minified when they were built, so nothing is minified here.
+     */
+    public <P extends Previewable & Identifiable> DirectiveBundle getBundle(P previewable) {
+        return bundleCache.get(getWidgetsFilesUsedInPage(previewable), MinifiedDirectives::concat);
+    }
+
+    public <P extends Previewable & Identifiable> String generateAllDirectivesFilesInOne(P previewable, Path path) {
+        var bundle = getBundle(previewable);
+        WidgetFileHelper.deleteOldConcatenateFiles(path, bundle.getHash());
+        Path file = WidgetFileHelper.writeFile(bundle.getContent(), path, bundle.getHash() + ".min");
         return file.getFileName().toString();
     }
 }
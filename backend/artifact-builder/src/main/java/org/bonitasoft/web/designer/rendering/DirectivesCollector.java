@@ -15,10 +15,10 @@
 package org.bonitasoft.web.designer.rendering;
 
 import org.bonitasoft.web.designer.config.WorkspaceUidProperties;
+import org.bonitasoft.web.designer.model.Identifiable;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.Previewable;
-import org.bonitasoft.web.designer.repository.FragmentRepository;
-import org.bonitasoft.web.designer.visitor.FragmentIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 
 import java.io.IOException;
 import java.nio.file.Path;
@@ -37,20 +37,18 @@ public class DirectivesCollector {
 
     public static final String JS_FOLDER = "js";
 
-    private final FragmentRepository fragmentRepository;
-    private final FragmentIdVisitor fragmentIdVisitor;
     private final WorkspaceUidProperties workspaceUidProperties;
     private final DirectiveFileGenerator directiveFileGenerator;
+    private final PageAnalyzer pageAnalyzer;
 
     public DirectivesCollector(WorkspaceUidProperties workspaceUidProperties, DirectiveFileGenerator directiveFileGenerator,
-                               FragmentIdVisitor fragmentIdVisitor, FragmentRepository fragmentRepository) {
+                               PageAnalyzer pageAnalyzer) {
         this.workspaceUidProperties = workspaceUidProperties;
         this.directiveFileGenerator = directiveFileGenerator;
-        this.fragmentRepository = fragmentRepository;
-        this.fragmentIdVisitor = fragmentIdVisitor;
+        this.pageAnalyzer = pageAnalyzer;
     }
 
-    public List<String> buildUniqueDirectivesFiles(Previewable previewable, String pageId) {
+    public <P extends Previewable & Identifiable> List<String> buildUniqueDirectivesFiles(P previewable, String pageId) {
         if (previewable instanceof Fragment) {
             var filename = directiveFileGenerator.generateAllDirectivesFilesInOne(previewable, getDestinationFolderPath(workspaceUidProperties.getTmpFragmentsRepositoryPath().resolve(pageId)));
             return List.of(filename);
@@ -75,9 +73,9 @@ public class DirectivesCollector {
         }
     }
 
-    private List<String> collectFragment(Previewable previewable) {
-        return fragmentRepository.getByIds(fragmentIdVisitor.visit(previewable)).stream()
-                .map(fragment -> format("fragments/%s/%s.js", fragment.getId(), fragment.getId()))
+    private <P extends Previewable & Identifiable> List<String> collectFragment(P previewable) {
+        return pageAnalyzer.analyze(previewable).getFragmentIds().stream()
+                .map(fragmentId -> format("fragments/%s/%s.js", fragmentId, fragmentId))
                 .collect(Collectors.toList());
     }
 }
@@ -19,7 +19,6 @@ import org.bonitasoft.web.designer.model.page.Previewable;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.repository.exception.RepositoryException;
 import org.bonitasoft.web.designer.visitor.AbstractBuilderVisitor;
-import org.jsoup.Jsoup;
 import org.jsoup.parser.ParseSettings;
 import org.jsoup.parser.Parser;
 
@@ -27,8 +26,19 @@ public class HtmlGenerator {
 
     private final AbstractBuilderVisitor<String> htmlBuilderVisitor;
 
+    private final boolean formatted;
+
     public HtmlGenerator(AbstractBuilderVisitor htmlBuilderVisitor) {
+        this(htmlBuilderVisitor, true);
+    }
+
+    /**
+     * @param formatted whether generated html is parsed and pretty printed. Templates already produce a well formed
+     *                  document, so html only read by a browser, like a preview, can skip this costly DOM round trip.
+     */
+    public HtmlGenerator(AbstractBuilderVisitor htmlBuilderVisitor, boolean formatted) {
         this.htmlBuilderVisitor = htmlBuilderVisitor;
+        this.formatted = formatted;
     }
 
     public <P extends Previewable & Identifiable> String generateHtml(P previewable) throws GenerationException, NotFoundException {
@@ -37,7 +47,8 @@ public class HtmlGenerator {
 
     public <P extends Previewable & Identifiable> String generateHtml(P previewable, String resourceContext) throws GenerationException, NotFoundException {
         try {
-            return format(htmlBuilderVisitor.build(previewable, resourceContext));
+            var html = htmlBuilderVisitor.build(previewable, resourceContext);
+            return formatted ? format(html) : html;
         } catch (RepositoryException e) {
             throw new GenerationException("Error while generating page", e);
         }
@@ -0,0 +1,112 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.repository.AtomicFiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Minified version of each widget directive, stored next to the directive as {@code <widgetId>.min.js}.
+ * <p>
+ * Directives are minified once, when they are built, so that bundles of widget directives are plain concatenations of
+ * already minified pieces whatever the combination of widgets.
+ */
+public final class MinifiedDirectives {
+
+    private static final String EXTENSION = ".js";
+    private static final String MINIFIED_EXTENSION = ".min.js";
+
+    private MinifiedDirectives() {
+    }
+
+    public static Path minifiedPath(Path directive) {
+        var fileName = directive.getFileName().toString();
+        return directive.resolveSibling(fileName.substring(0, fileName.length() - EXTENSION.length()) + MINIFIED_EXTENSION);
+    }
+
+    /**
+     * Whether the given file is the minified directive of the widget stored in its parent directory
+     */
+    public static boolean isMinifiedDirective(File file) {
+        var parent = file.getParentFile();
+        return parent != null && file.getName().equals(parent.getName() + MINIFIED_EXTENSION);
+    }
+
+    /**
+     * Minifies the given directive content and stores it next to the directive
+     */
+    public static Path write(Path directive, byte[] content) {
+        var minified = minifiedPath(directive);
+        try {
+            AtomicFiles.write(minified, Minifier.minify(content));
+        } catch (IOException e) {
+            throw new GenerationException(format("Error while writing minified directive %s", minified), e);
+        }
+        return minified;
+    }
+
+    /**
+     * Get the up to date minified version of the given directive, minifying it when missing or older than the directive
+     */
+    public static Path resolve(Path directive) {
+        var minified = minifiedPath(directive);
+        try {
+            if (Files.exists(minified)
+                    && Files.getLastModifiedTime(minified).compareTo(Files.getLastModifiedTime(directive)) >= 0) {
+                return minified;
+            }
+            return write(directive, Files.readAllBytes(directive));
+        } catch (IOException e) {
+            throw new GenerationException(format("Error while reading directive %s", directive), e);
+        }
+    }
+
+    /**
+     * Concatenates minified versions of the given directives
+     */
+    public static byte[] concat(List<Path> directives) {
+        var output = new ByteArrayOutputStream();
+        try (var channel = Channels.newChannel(output)) {
+            for (Path directive : directives) {
+                transfer(resolve(directive), channel);
+            }
+        } catch (IOException e) {
+            throw new GenerationException("Error while concatenating minified directives", e);
+        }
+        return output.toByteArray();
+    }
+
+    private static void transfer(Path file, WritableByteChannel target) throws IOException {
+        try (var source = FileChannel.open(file, READ)) {
+            long position = 0;
+            long size = source.size();
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import lombok.Getter;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Html of a previewed page or fragment, along with a hash of it telling whether a client already has it
+ */
+@Getter
+public class PreviewHtml {
+
+    private final String html;
+    private final String hash;
+
+    public PreviewHtml(String html) {
+        this.html = html;
+        this.hash = DigestUtils.sha1Hex(html.getBytes(StandardCharsets.UTF_8));
+    }
+}
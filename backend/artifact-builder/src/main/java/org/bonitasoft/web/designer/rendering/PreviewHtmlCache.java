@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.model.page.Previewable;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.Repository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
+import org.bonitasoft.web.designer.repository.exception.NotFoundException;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the html of previewed pages and fragments so that reloading a preview does not build it again.
+ * <p>
+ * Html is keyed by artifact and resource context. Along with it are kept the modification counts, at the time it was
+ * built, of the artifact and of every fragment and widget it uses. An entry is served only while none of them was
+ * modified since: as assets are stored in the folder of their artifact, a modified asset counts as a modification of
+ * its artifact. Least recently used entries are evicted once the cache holds more than its maximum size.
+ */
+public class PreviewHtmlCache {
+
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private final PageRepository pageRepository;
+    private final FragmentRepository fragmentRepository;
+    private final WidgetRepository widgetRepository;
+    private final PageAnalyzer pageAnalyzer;
+
+    private final Map<String, Entry> entries;
+
+    public PreviewHtmlCache(PageRepository pageRepository, FragmentRepository fragmentRepository, WidgetRepository widgetRepository,
+                            PageAnalyzer pageAnalyzer) {
+        this(pageRepository, fragmentRepository, widgetRepository, pageAnalyzer, DEFAULT_MAX_SIZE);
+    }
+
+    public PreviewHtmlCache(PageRepository pageRepository, FragmentRepository fragmentRepository, WidgetRepository widgetRepository,
+                            PageAnalyzer pageAnalyzer, int maxSize) {
+        this.pageRepository = pageRepository;
+        this.fragmentRepository = fragmentRepository;
+        this.widgetRepository = widgetRepository;
+        this.pageAnalyzer = pageAnalyzer;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the html of the persisted page with the given id, using the generator to build it on cache miss
+     */
+    public PreviewHtml getPage(String id, String resourceContext, BiFunction<Page, String, String> generator) throws NotFoundException {
+        return get(pageRepository, id, resourceContext, generator);
+    }
+
+    /**
+     * Get the html of the persisted fragment with the given id, using the generator to build it on cache miss
+     */
+    public PreviewHtml getFragment(String id, String resourceContext, BiFunction<Fragment, String, String> generator) throws NotFoundException {
+        return get(fragmentRepository, id, resourceContext, generator);
+    }
+
+    private <P extends Previewable & Identifiable> PreviewHtml get(Repository<P> repository, String id, String resourceContext,
+                                                                   BiFunction<P, String, String> generator) {
+        var key = repository.getComponentName() + "/" + id + "@" + resourceContext;
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry != null && entry.isUpToDate()) {
+            return entry.preview;
+        }
+
+        // Counts are read before the artifacts, so that a modification made meanwhile outdates the entry
+        List<Dependency> dependencies = new ArrayList<>();
+        dependencies.add(new Dependency(repository, id));
+        var previewable = repository.get(id);
+        var analysis = pageAnalyzer.analyze(previewable);
+        analysis.getFragmentIds().forEach(fragmentId -> dependencies.add(new Dependency(fragmentRepository, fragmentId)));
+        analysis.getWidgetIds().forEach(widgetId -> dependencies.add(new Dependency(widgetRepository, widgetId)));
+
+        var preview = new PreviewHtml(generator.apply(previewable, resourceContext));
+        synchronized (entries) {
+            entries.put(key, new Entry(preview, dependencies));
+        }
+        return preview;
+    }
+
+    private static class Dependency {
+
+        private final Repository<?> repository;
+        private final String id;
+        private final long modificationCount;
+
+        Dependency(Repository<?> repository, String id) {
+            this.repository = repository;
+            this.id = id;
+            this.modificationCount = repository.getModificationCount(id);
+        }
+
+        boolean isUpToDate() {
+            return repository.getModificationCount(id) == modificationCount;
+        }
+    }
+
+    private static class Entry {
+
+        private final PreviewHtml preview;
+        private final List<Dependency> dependencies;
+
+        Entry(PreviewHtml preview, List<Dependency> dependencies) {
+            this.preview = preview;
+            this.dependencies = dependencies;
+        }
+
+        boolean isUpToDate() {
+            return dependencies.stream().allMatch(Dependency::isUpToDate);
+        }
+    }
+}
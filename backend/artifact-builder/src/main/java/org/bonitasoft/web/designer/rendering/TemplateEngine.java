@@ -14,36 +14,33 @@
  */
 package org.bonitasoft.web.designer.rendering;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.github.jknack.handlebars.Context;
-import com.github.jknack.handlebars.Handlebars;
-import com.github.jknack.handlebars.Jackson2Helper;
-import com.github.jknack.handlebars.helper.StringHelpers;
-import com.github.jknack.handlebars.io.ClassPathTemplateLoader;
 
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class TemplateEngine {
 
-    private final Handlebars handlebars;
+    /**
+     * Value to give to the keys whose content is written apart from the template output, see
+     * {@link #buildAround(Object, int)}
+     */
+    public static final String SLOT = "\u0000slot\u0000";
+
+    private static final Pattern SLOT_PATTERN = Pattern.compile(SLOT, Pattern.LITERAL);
+
+    private final TemplateRegistry registry;
     private final String location;
     private final Map<String, Object> model = new HashMap<>();
 
     public TemplateEngine(String template) {
-        var simpleFilterProvider = new SimpleFilterProvider();
-        simpleFilterProvider.setFailOnUnknownId(false);
-        var objectMapper = new ObjectMapper();
-        objectMapper.setFilters(simpleFilterProvider);
-
-        handlebars = new Handlebars(new ClassPathTemplateLoader("/", ""));
-        handlebars.registerHelper("json", new Jackson2Helper(objectMapper));
-        handlebars.registerHelper("join", StringHelpers.join);
-        handlebars.registerHelper("ifequal", IfEqualHelper.INSTANCE);
-        handlebars.prettyPrint(true);
+        this(template, TemplateRegistry.getDefault());
+    }
 
+    public TemplateEngine(String template, TemplateRegistry registry) {
+        this.registry = registry;
         location = "templates/" + template;
     }
 
@@ -54,11 +51,27 @@ public class TemplateEngine {
 
     public String build(Object context) throws GenerationException {
         try {
-            return handlebars
-                    .compile(location)
+            return registry
+                    .get(location)
                     .apply(Context.newBuilder(context).combine(model).build());
         } catch (IOException e) {
             throw new GenerationException("Error applying context to template <" + location + ">", e);
         }
     }
+
+    /**
+     * Build the template, some keys being given {@link #SLOT} as value, and split the output around these slots. Contents
+     * of the slots can then be written in between the returned parts instead of being copied into the template output.
+     *
+     * @param slotCount number of slots the output is expected to hold
+     * @return the slotCount + 1 parts of the output surrounding the slots
+     */
+    public String[] buildAround(Object context, int slotCount) throws GenerationException {
+        var parts = SLOT_PATTERN.split(build(context), -1);
+        if (parts.length != slotCount + 1) {
+            throw new GenerationException("Template <" + location + "> output holds " + (parts.length - 1)
+                    + " slots, " + slotCount + " expected", null);
+        }
+        return parts;
+    }
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Jackson2Helper;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.helper.StringHelpers;
+import com.github.jknack.handlebars.io.ClassPathTemplateLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles each classpath template once and shares it across {@link TemplateEngine} instances.
+ * <p>
+ * Templates are packaged with the application and never change at runtime, so compiled templates are kept for the
+ * lifetime of the registry. A {@link Template} is immutable once compiled and can be applied concurrently.
+ */
+public class TemplateRegistry {
+
+    private static final TemplateRegistry DEFAULT = new TemplateRegistry();
+
+    private final Handlebars handlebars;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    public TemplateRegistry() {
+        var simpleFilterProvider = new SimpleFilterProvider();
+        simpleFilterProvider.setFailOnUnknownId(false);
+        var objectMapper = new ObjectMapper();
+        objectMapper.setFilters(simpleFilterProvider);
+
+        handlebars = new Handlebars(new ClassPathTemplateLoader("/", ""));
+        handlebars.registerHelper("json", new Jackson2Helper(objectMapper));
+        handlebars.registerHelper("join", StringHelpers.join);
+        handlebars.registerHelper("ifequal", IfEqualHelper.INSTANCE);
+        handlebars.prettyPrint(true);
+    }
+
+    /**
+     * The registry used by default by {@link TemplateEngine}
+     */
+    public static TemplateRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Get the compiled template at the given classpath location, compiling it on first use
+     */
+    public Template get(String location) throws IOException {
+        try {
+            return templates.computeIfAbsent(location, this::compile);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    private Template compile(String location) {
+        try {
+            return handlebars.compile(location);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -14,13 +14,17 @@
  */
 package org.bonitasoft.web.designer.rendering;
 
+import org.bonitasoft.web.designer.repository.AtomicFiles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import static java.lang.String.format;
 
@@ -30,16 +34,26 @@ public final class WidgetFileHelper {
 
     private static final String FILENAME_PREFIX = "widgets-";
 
+    private static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * Write the file, along with a gzipped copy of it so that it is compressed once instead of on each request.
+     * Both are moved in place once complete, so that an existing file can be trusted not to be truncated.
+     */
     public static Path writeFile(byte[] content, Path folderPath, String suffix) {
         var path = folderPath.resolve(FILENAME_PREFIX + suffix + ".js");
         if (!Files.exists(path)) {
             writeFile(content, path);
         }
+        var gzipped = path.resolveSibling(path.getFileName() + GZIP_EXTENSION);
+        if (!Files.exists(gzipped)) {
+            writeGzippedFile(content, gzipped);
+        }
         return path;
     }
 
     public static void deleteOldConcatenateFiles(Path path, String suffix) {
-        String regex = "^" + FILENAME_PREFIX + "(?:(?!" + suffix + ").)*\\.min\\.js$";
+        String regex = "^" + FILENAME_PREFIX + "(?:(?!" + suffix + ").)*\\.min\\.js(?:\\" + GZIP_EXTENSION + ")?$";
         try (Stream<Path> files = Files.list(path)) {
             files.filter(p -> p.getFileName().toString().matches(regex) && !Files.isDirectory(p))
                     .forEach(WidgetFileHelper::deleteFile);
@@ -61,12 +75,39 @@ public final class WidgetFileHelper {
 
     private static void writeFile(byte[] content, Path path) {
         try {
-            Files.write(path, content);
+            replace(path, file -> Files.write(file, content));
+        } catch (IOException e) {
+            throw new GenerationException(format("Error while write file %s", path), e);
+        }
+    }
+
+    private static void writeGzippedFile(byte[] content, Path path) {
+        try {
+            replace(path, file -> {
+                try (OutputStream out = new BestCompressionGZIPOutputStream(Files.newOutputStream(file))) {
+                    out.write(content);
+                }
+            });
         } catch (IOException e) {
             throw new GenerationException(format("Error while write file %s", path), e);
         }
     }
 
+    /**
+     * Unlike {@link AtomicFiles#write(Path, AtomicFiles.ContentWriter)}, the folder is expected to exist
+     */
+    private static void replace(Path path, AtomicFiles.ContentWriter writer) throws IOException {
+        var staged = AtomicFiles.createStagedFile(path);
+        try {
+            writer.writeTo(staged);
+            AtomicFiles.force(staged);
+            AtomicFiles.move(staged, path);
+            AtomicFiles.syncDirectory(path.toAbsolutePath().getParent());
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
     private static void deleteFile(Path p) {
         try {
             Files.delete(p);
@@ -74,4 +115,15 @@ public final class WidgetFileHelper {
             throw new GenerationException(format("Error while deleted file %s",p), e);
         }
     }
+
+    /**
+     * Files are compressed once for all the requests, so it is worth the time
+     */
+    private static class BestCompressionGZIPOutputStream extends GZIPOutputStream {
+
+        BestCompressionGZIPOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
 }
@@ -16,10 +16,10 @@ package org.bonitasoft.web.designer.rendering.angular;
 
 import lombok.extern.slf4j.Slf4j;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
+import org.bonitasoft.web.designer.model.Identifiable;
 import org.bonitasoft.web.designer.model.page.Previewable;
 import org.bonitasoft.web.designer.model.widget.Widget;
-import org.bonitasoft.web.designer.repository.WidgetRepository;
-import org.bonitasoft.web.designer.visitor.WidgetIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -30,19 +30,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class WidgetBundleFile {
 
-    private final WidgetRepository widgetRepository;
-    private final WidgetIdVisitor widgetIdVisitor;
+    private final PageAnalyzer pageAnalyzer;
     private final WorkspaceProperties workspaceProperties;
 
-    public WidgetBundleFile(WorkspaceProperties workspaceProperties, WidgetRepository widgetRepository,
-                            WidgetIdVisitor widgetIdVisitor) {
+    public WidgetBundleFile(WorkspaceProperties workspaceProperties, PageAnalyzer pageAnalyzer) {
         this.workspaceProperties= workspaceProperties;
-        this.widgetRepository = widgetRepository;
-        this.widgetIdVisitor = widgetIdVisitor;
+        this.pageAnalyzer = pageAnalyzer;
     }
 
-    public List<String> getWidgetsBundlePathUsedInArtifact(Previewable previewable) {
-        return widgetRepository.getByIds(widgetIdVisitor.visit(previewable)).stream()
+    public <P extends Previewable & Identifiable> List<String> getWidgetsBundlePathUsedInArtifact(P previewable) {
+        return pageAnalyzer.analyze(previewable).getWidgets().stream()
                 .filter(widget ->!"uidContainer".equals(widget.getId()))
                 .map(this::getBundlePath)
                 .filter(this::isBundleFileExist)
@@ -15,6 +15,7 @@
 package org.bonitasoft.web.designer.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.bonitasoft.web.designer.model.Identifiable;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.JsonViewPersistence;
@@ -34,6 +35,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.regex.Matcher;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -48,16 +50,29 @@ public abstract class AbstractLoader<T extends Identifiable> implements Loader<T
     private static final Logger logger = LoggerFactory.getLogger(AbstractLoader.class);
     private final Class<T> type;
     protected JsonHandler jsonHandler;
+    protected final LoadExecutor loadExecutor;
 
     protected AbstractLoader(JsonHandler jsonHandler, Class<T> type) {
+        this(jsonHandler, type, LoadExecutor.serial());
+    }
+
+    protected AbstractLoader(JsonHandler jsonHandler, Class<T> type, LoadExecutor loadExecutor) {
         this.jsonHandler = jsonHandler;
         this.type = type;
+        this.loadExecutor = loadExecutor;
+    }
+
+    /**
+     * Metadata of a component are stored apart from its descriptor, in a .metadata folder shared by all the components of the repository
+     */
+    public static Path metadataPath(Path path) {
+        return path.getParent().getParent().resolve(format(".metadata/%s.json", path.getParent().getFileName()));
     }
 
     public T get(Path path) {
         try {
             var artifact = jsonHandler.fromJson(readAllBytes(path), type);
-            var metadata = path.getParent().getParent().resolve(format(".metadata/%s.json", path.getParent().getFileName()));
+            var metadata = metadataPath(path);
             if (exists(metadata)) {
                 artifact = jsonHandler.assign(artifact, readAllBytes(metadata));
             }
@@ -71,6 +86,51 @@ public abstract class AbstractLoader<T extends Identifiable> implements Loader<T
         }
     }
 
+    @Override
+    public Supplier<T> parse(Path path) {
+        try {
+            var content = jsonHandler.tokenize(readAllBytes(path));
+            var metadataPath = metadataPath(path);
+            var metadata = exists(metadataPath) ? jsonHandler.tokenize(readAllBytes(metadataPath)) : null;
+            return () -> {
+                try {
+                    return bind(path, content, metadata);
+                } catch (IOException e) {
+                    throw new RepositoryException(format("Error while getting component (on file [%s])", path.getFileName()), e);
+                }
+            };
+        } catch (JsonProcessingException e) {
+            throw new JsonReadException(format("Could not read json file [%s]", path.getFileName()), e);
+        } catch (NoSuchFileException e) {
+            throw new NotFoundException(format("File not found: [%s]", path.getFileName()));
+        } catch (IOException e) {
+            throw new RepositoryException(format("Error while getting component (on file [%s])", path.getFileName()), e);
+        }
+    }
+
+    /**
+     * Bind a new component instance from its already parsed content and metadata
+     */
+    protected T bind(Path path, TokenBuffer content, TokenBuffer metadata) throws IOException {
+        var artifact = jsonHandler.fromJson(content, type);
+        if (metadata != null) {
+            artifact = jsonHandler.assign(artifact, metadata);
+        }
+        return artifact;
+    }
+
+    /**
+     * Summarize a component from its descriptor, or returns null when it cannot be read
+     */
+    protected ArtifactSummary summarize(Path path) {
+        var artifact = tryGet(path);
+        if (artifact.isEmpty()) {
+            logger.error("{} {} cannot be loaded, your repository may be corrupted", type.getSimpleName(), path.getParent().getFileName());
+            return null;
+        }
+        return ArtifactSummary.of(artifact.get());
+    }
+
     private Optional<T> tryGet(Path path) {
         try {
             return Optional.of(get(path));
@@ -85,17 +145,20 @@ public abstract class AbstractLoader<T extends Identifiable> implements Loader<T
     }
 
     protected List<T> getAll(Path directory, String glob) throws IOException {
-        List<T> objects = new ArrayList<>();
-
+        List<String> ids = new ArrayList<>();
         try (DirectoryStream<Path> directoryStream = newDirectoryStream(directory, glob)) {
             for (Path path : directoryStream) {
-                String id = getComponentId(path);
-                java.util.Optional<T> e = tryGet(directory.resolve(format("%s/%s.json", id, id)));
-                if (e.isPresent()) {
-                    objects.add(e.get());
-                } else {
-                    logger.error("{} {} cannot be loaded, your repository may be corrupted", type.getSimpleName(), id);
-                }
+                ids.add(getComponentId(path));
+            }
+        }
+
+        var loaded = loadExecutor.map(ids, id -> tryGet(directory.resolve(format("%s/%s.json", id, id))));
+        List<T> objects = new ArrayList<>();
+        for (var i = 0; i < ids.size(); i++) {
+            if (loaded.get(i).isPresent()) {
+                objects.add(loaded.get(i).get());
+            } else {
+                logger.error("{} {} cannot be loaded, your repository may be corrupted", type.getSimpleName(), ids.get(i));
             }
         }
         return objects;
@@ -160,12 +223,11 @@ public abstract class AbstractLoader<T extends Identifiable> implements Loader<T
         return objects;
     }
 
-    private List<T> loadAll(Path directory, DirectoryStream<Path> directoryStream) {
-        List<T> objects = new ArrayList<>();
+    private List<T> loadAll(Path directory, DirectoryStream<Path> directoryStream) throws IOException {
+        List<Path> paths = new ArrayList<>();
         for (Path path : directoryStream) {
-            String id = getComponentId(path);
-            objects.add(load(resolve(directory, id)));
+            paths.add(resolve(directory, getComponentId(path)));
         }
-        return objects;
+        return loadExecutor.map(paths, this::load);
     }
 }
@@ -20,6 +20,8 @@ import org.bonitasoft.web.designer.livebuild.Watcher;
 import org.bonitasoft.web.designer.model.Identifiable;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.repository.exception.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.time.Instant;
 
 import java.io.IOException;
@@ -28,12 +30,18 @@ import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.lang.String.format;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.walkFileTree;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static org.apache.commons.io.FileUtils.copyDirectory;
 
 /**
@@ -43,6 +51,8 @@ import static org.apache.commons.io.FileUtils.copyDirectory;
  */
 public abstract class AbstractRepository<T extends Identifiable> implements Repository<T> {
 
+    private static final Logger logger = LoggerFactory.getLogger(AbstractRepository.class);
+
     private final Watcher watcher;
 
     private final Path templatePath;
@@ -55,6 +65,14 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
 
     protected Loader<T> loader;
 
+    protected final ArtifactCache<T> cache = new ArtifactCache<>(ArtifactCache.DEFAULT_MAX_SIZE);
+
+    private final Map<String, Long> writeCounts = new ConcurrentHashMap<>();
+
+    private final AtomicLong modificationCount = new AtomicLong();
+
+    private final Map<String, Long> modificationCounts = new ConcurrentHashMap<>();
+
     protected AbstractRepository(Path path, JsonFileBasedPersister<T> persister, Loader<T> loader, BeanValidator validator, Watcher watcher, Path templatePath) {
         this.path = path;
         this.persister = persister;
@@ -70,7 +88,7 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
             throw new IllegalArgumentException("Id can not be null when loading a component");
         }
         try {
-            return loader.get(path.resolve(format("%s/%s.json", id, id)));
+            return cache.get(id, path.resolve(format("%s/%s.json", id, id)), loader);
         } catch (NoSuchFileException e) {
             throw new NotFoundException(format("Non existing %s [%s]", getComponentName(), id));
         } catch (IOException e) {
@@ -80,11 +98,11 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
 
     @Override
     public T getByUUID(String uuid) throws RepositoryException {
-        try {
-            return loader.getByUUID(path, uuid);
-        } catch (IOException e) {
-            throw new RepositoryException(format("Error while getting %s with UUID %s", getComponentName(), uuid), e);
+        var id = persister.getIdByUUID(path.resolve(PageRepository.METADATA), uuid);
+        if (id == null || !exists(id)) {
+            return null;
         }
+        return get(id);
     }
 
     public T get(Path path) {
@@ -104,8 +122,30 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
         }
     }
 
+    /**
+     * Summaries of all the components, kept up to date without reading the components which did not change
+     */
+    public List<ArtifactSummary> getAllSummaries() throws RepositoryException {
+        try {
+            return loader.getSummaries(path);
+        } catch (IOException e) {
+            throw new RepositoryException(format("Error while getting %ss", getComponentName()), e);
+        }
+    }
+
+    /**
+     * Build a component holding only the fields of the light view from its summary
+     */
+    public abstract T toLightArtifact(ArtifactSummary summary);
+
+    /**
+     * Save a component, updating its last update date, unless it is identical to its persisted version
+     */
     @Override
     public T updateLastUpdateAndSave(T component) throws RepositoryException {
+        if (isUnchanged(component)) {
+            return component;
+        }
         component.setLastUpdate(Instant.now());
         return save(component);
     }
@@ -119,20 +159,111 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
         validator.validate(component);
         createComponentDirectory(component);
 
+        var written = true;
         try {
-            persister.save(resolvePathFolder(component.getId()), component);
+            written = persister.save(resolvePathFolder(component.getId()), component);
             return component;
         } catch (IOException e) {
             throw new RepositoryException(format("Error while saving %s [%s]", getComponentName(), component.getId()), e);
+        } finally {
+            if (written) {
+                written(component.getId());
+            }
         }
     }
 
     @Override
     public void saveAll(List<T> toBeSaved) throws RepositoryException {
         if (toBeSaved != null) {
-            for (T component : toBeSaved) {
-                updateLastUpdateAndSave(component);
+            updateLastUpdateAndSaveBatch(toBeSaved);
+        }
+    }
+
+    @Override
+    public List<T> updateLastUpdateAndSaveBatch(List<T> components) throws RepositoryException {
+        var changed = components.stream().filter(component -> !isUnchanged(component)).collect(toList());
+        changed.forEach(component -> component.setLastUpdate(Instant.now()));
+        write(changed);
+        return components;
+    }
+
+    @Override
+    public List<T> saveBatch(List<T> components) throws RepositoryException {
+        return write(components);
+    }
+
+    /**
+     * Number of times the component with the given id was actually written, saves of unchanged components excluded
+     */
+    public long getWriteCount(String id) {
+        return writeCounts.getOrDefault(id, 0L);
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    @Override
+    public long getModificationCount(String id) {
+        return modificationCounts.getOrDefault(id, 0L);
+    }
+
+    /**
+     * Write the given components all at once, the files of any of them are only replaced when all of them are valid
+     */
+    private List<T> write(List<T> components) {
+        var contents = new LinkedHashMap<Path, T>();
+        for (T component : components) {
+            if (StringUtils.isBlank(component.getId())) {
+                throw new IllegalArgumentException(format("Error while saving %s: No id set.", getComponentName()));
             }
+            validator.validate(component);
+            createComponentDirectory(component);
+            contents.put(resolvePathFolder(component.getId()), component);
+        }
+        if (contents.isEmpty()) {
+            return components;
+        }
+
+        Set<Path> written = contents.keySet();
+        try {
+            written = persister.saveAll(contents);
+            return components;
+        } catch (IOException e) {
+            var ids = components.stream().map(Identifiable::getId).collect(joining(", "));
+            throw new RepositoryException(format("Error while saving %ss [%s]", getComponentName(), ids), e);
+        } finally {
+            written.forEach(directory -> written(contents.get(directory).getId()));
+        }
+    }
+
+    private boolean isUnchanged(T component) {
+        if (component == null || StringUtils.isBlank(component.getId())) {
+            return false;
+        }
+        try {
+            return persister.skipIfUnchanged(resolvePathFolder(component.getId()), component);
+        } catch (IOException e) {
+            // let the save report the error
+            return false;
+        }
+    }
+
+    private void written(String id) {
+        writeCounts.merge(id, 1L, Long::sum);
+        invalidate(id);
+    }
+
+    private void invalidate(String id) {
+        modificationCounts.merge(id, 1L, Long::sum);
+        modificationCount.incrementAndGet();
+        cache.invalidate(id);
+        loader.invalidateSummary(path, id);
+        try {
+            loader.invalidateUsages(path, id);
+        } catch (IOException e) {
+            logger.warn("Unable to index usages of {} [{}]", getComponentName(), id, e);
         }
     }
 
@@ -154,6 +285,17 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
         }
     }
 
+    /**
+     * Rebuild from scratch the index used to find the components using another one
+     */
+    public void refreshUsageIndex() throws RepositoryException {
+        try {
+            loader.rebuildUsageIndex(path);
+        } catch (IOException e) {
+            throw new RepositoryException(format("Error while indexing %ss", getComponentName()), e);
+        }
+    }
+
     @Override
     public Path resolvePath(String id) {
         return path.resolve(id);
@@ -164,8 +306,11 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
         var component = get(id);
         try {
             persister.delete(resolvePathFolder(component.getId()), component);
+            writeCounts.remove(component.getId());
         } catch (IOException e) {
             throw new RepositoryException(format("Error while deleting %s [%s]", getComponentName(), id), e);
+        } finally {
+            invalidate(component.getId());
         }
     }
 
@@ -213,7 +358,29 @@ public abstract class AbstractRepository<T extends Identifiable> implements Repo
 
     @Override
     public void watch(final PathListener pathListener) throws IOException {
-        watcher.watch(path, pathListener);
+        watcher.watch(path, changedPath -> {
+            if (persister.isIndexFile(changedPath)) {
+                persister.reloadIndex(changedPath.getParent());
+            }
+            invalidate(changedPath);
+            pathListener.onChange(changedPath);
+        });
+    }
+
+    /**
+     * Drop cached component and summary owning a file changed on the file system, either in its own folder or in the
+     * metadata one
+     */
+    private void invalidate(Path changedPath) {
+        if (!changedPath.startsWith(path) || changedPath.equals(path)) {
+            return;
+        }
+        var relativePath = path.relativize(changedPath);
+        var id = relativePath.getName(0).toString();
+        if (PageRepository.METADATA.equals(id) && relativePath.getNameCount() > 1) {
+            id = relativePath.getName(1).toString().replaceAll("\\.json$", "");
+        }
+        invalidate(id);
     }
 
     @Override
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bonitasoft.web.designer.model.Identifiable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps parsed components in memory so that they are not read and parsed again each time they are requested.
+ * <p>
+ * An entry is served only while the component descriptor and its metadata are unchanged on disk (same last modified
+ * time and size). Each call returns a new instance, so callers may alter what they get without corrupting the cache.
+ * Least recently used entries are evicted once the cache holds more than its maximum size.
+ */
+public class ArtifactCache<T extends Identifiable> {
+
+    public static final int DEFAULT_MAX_SIZE = 500;
+
+    private final Map<String, Entry<T>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ArtifactCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Get the component with the given id, stored in the given descriptor file, using the loader on cache miss
+     */
+    public T get(String id, Path path, Loader<T> loader) throws IOException {
+        var stamps = List.of(FileStamp.of(path), FileStamp.of(AbstractLoader.metadataPath(path)));
+        if (stamps.get(0) == FileStamp.MISSING) {
+            invalidate(id);
+            return loader.get(path);
+        }
+
+        Entry<T> entry;
+        synchronized (entries) {
+            entry = entries.get(id);
+        }
+        if (entry != null && entry.stamps.equals(stamps)) {
+            hits.incrementAndGet();
+            return entry.parsed.get();
+        }
+
+        misses.incrementAndGet();
+        var parsed = loader.parse(path);
+        if (parsed == null) {
+            return loader.get(path);
+        }
+        var artifact = parsed.get();
+        synchronized (entries) {
+            entries.put(id, new Entry<>(stamps, parsed));
+        }
+        return artifact;
+    }
+
+    public void invalidate(String id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry<T> {
+        private final List<FileStamp> stamps;
+        private final Supplier<T> parsed;
+    }
+}
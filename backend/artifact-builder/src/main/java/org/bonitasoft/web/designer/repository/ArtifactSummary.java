@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bonitasoft.web.designer.model.DesignerArtifact;
+import org.bonitasoft.web.designer.model.HasUUID;
+import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.model.page.AbstractPage;
+import org.bonitasoft.web.designer.model.page.Component;
+import org.bonitasoft.web.designer.model.page.Container;
+import org.bonitasoft.web.designer.model.page.Element;
+import org.bonitasoft.web.designer.model.page.FormContainer;
+import org.bonitasoft.web.designer.model.page.FragmentElement;
+import org.bonitasoft.web.designer.model.page.ModalContainer;
+import org.bonitasoft.web.designer.model.page.Previewable;
+import org.bonitasoft.web.designer.model.page.TabContainer;
+import org.bonitasoft.web.designer.model.page.TabsContainer;
+import org.bonitasoft.web.designer.model.widget.Widget;
+import org.bonitasoft.web.designer.visitor.ElementVisitor;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What is needed to list a component without reading it: the fields of the light view, the versions used to compute
+ * its migration status, and the ids of the widgets and fragments it directly references.
+ */
+@Data
+@NoArgsConstructor
+public class ArtifactSummary {
+
+    private String id;
+    private String name;
+    private String type;
+    private String uuid;
+    private String modelVersion;
+    private String designerVersion;
+    private Instant lastUpdate;
+    private boolean favorite;
+    private boolean hasValidationError;
+    private boolean custom;
+    private Set<String> widgetIds = new HashSet<>();
+    private Set<String> fragmentIds = new HashSet<>();
+
+    public static ArtifactSummary of(Identifiable artifact) {
+        var summary = new ArtifactSummary();
+        summary.setId(artifact.getId());
+        summary.setName(artifact.getName());
+        summary.setType(artifact.getType());
+        summary.setModelVersion(artifact.getModelVersion());
+        summary.setDesignerVersion(artifact.getDesignerVersion());
+        summary.setFavorite(artifact.isFavorite());
+        if (artifact instanceof HasUUID) {
+            summary.setUuid(((HasUUID) artifact).getUUID());
+        }
+        if (artifact instanceof AbstractPage) {
+            var page = (AbstractPage) artifact;
+            summary.setLastUpdate(page.getLastUpdate());
+            summary.setHasValidationError(page.getHasValidationError());
+            new ReferenceCollector(summary).visitRows(page.getRows());
+        }
+        if (artifact instanceof Widget) {
+            var widget = (Widget) artifact;
+            summary.setLastUpdate(widget.getLastUpdate());
+            summary.setCustom(widget.isCustom());
+        }
+        return summary;
+    }
+
+    /**
+     * Version of the summarized artifact (either model version if any, or designer version)
+     */
+    @JsonIgnore
+    public String getArtifactVersion() {
+        return modelVersion != null ? modelVersion : designerVersion;
+    }
+
+    /**
+     * Copy the fields shared by all the artifacts to a new light one
+     */
+    public <T extends DesignerArtifact> T assignTo(T artifact) {
+        artifact.setModelVersion(modelVersion);
+        artifact.setDesignerVersion(designerVersion);
+        artifact.setFavorite(favorite);
+        return artifact;
+    }
+
+    /**
+     * Collect the ids of the widgets and fragments directly used in rows, without going through used fragments
+     */
+    private static class ReferenceCollector implements ElementVisitor<Void> {
+
+        private final ArtifactSummary summary;
+
+        ReferenceCollector(ArtifactSummary summary) {
+            this.summary = summary;
+        }
+
+        void visitRows(List<List<Element>> rows) {
+            if (rows == null) {
+                return;
+            }
+            for (var row : rows) {
+                for (var element : row) {
+                    element.accept(this);
+                }
+            }
+        }
+
+        @Override
+        public Void visit(Container container) {
+            summary.getWidgetIds().add(container.getId());
+            visitRows(container.getRows());
+            return null;
+        }
+
+        @Override
+        public Void visit(FormContainer formContainer) {
+            summary.getWidgetIds().add(formContainer.getId());
+            return formContainer.getContainer().accept(this);
+        }
+
+        @Override
+        public Void visit(TabsContainer tabsContainer) {
+            summary.getWidgetIds().add(tabsContainer.getId());
+            for (var tabContainer : tabsContainer.getTabList()) {
+                tabContainer.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(TabContainer tabContainer) {
+            summary.getWidgetIds().add(tabContainer.getId());
+            return tabContainer.getContainer().accept(this);
+        }
+
+        @Override
+        public Void visit(ModalContainer modalContainer) {
+            summary.getWidgetIds().add(modalContainer.getId());
+            return modalContainer.getContainer().accept(this);
+        }
+
+        @Override
+        public Void visit(Component component) {
+            summary.getWidgetIds().add(component.getId());
+            return null;
+        }
+
+        @Override
+        public Void visit(FragmentElement fragmentElement) {
+            summary.getFragmentIds().add(fragmentElement.getId());
+            return null;
+        }
+
+        @Override
+        public <P extends Previewable & Identifiable> Void visit(P previewable) {
+            visitRows(previewable.getRows());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Replaces files by writing their content next to them then moving it in place, so that a reader never sees a partially
+ * written file.
+ * <p>
+ * Staged content is forced to disk before being moved, and the directory is synced after the move, so that after a
+ * crash or a power loss the file holds either its former or its new content, never a truncated one.
+ * <p>
+ * Unlike {@link Files#createTempFile}, which restricts permissions to the owner, staged files are created with the
+ * permissions of the file they replace, or the default ones of the process for a new file.
+ */
+public final class AtomicFiles {
+
+    private static final Logger logger = LoggerFactory.getLogger(AtomicFiles.class);
+
+    /** {@code <target name>.<random base 36 number>.tmp}, see {@link #createStagedFile(Path)} */
+    private static final Pattern STAGED_FILE_NAME = Pattern.compile(".+\\.[0-9a-z]{1,13}\\.tmp");
+
+    private AtomicFiles() {
+    }
+
+    @FunctionalInterface
+    public interface ContentWriter {
+        void writeTo(Path file) throws IOException;
+    }
+
+    public static void write(Path target, byte[] content) throws IOException {
+        replace(target, staged -> writeAndForce(staged, content));
+    }
+
+    /**
+     * Write the target file through the given writer, into a staged file moved in place once complete
+     */
+    public static void write(Path target, ContentWriter writer) throws IOException {
+        replace(target, staged -> {
+            writer.writeTo(staged);
+            force(staged);
+        });
+    }
+
+    private static void replace(Path target, ContentWriter durableWriter) throws IOException {
+        var directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var staged = createStagedFile(target);
+        try {
+            durableWriter.writeTo(staged);
+            move(staged, target);
+            syncDirectory(directory);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /**
+     * Write the given content to a staged file and force it to disk
+     */
+    public static void writeAndForce(Path staged, byte[] content) throws IOException {
+        try (var channel = FileChannel.open(staged, WRITE, TRUNCATE_EXISTING)) {
+            var buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Force to disk the content of a staged file written by other means
+     */
+    public static void force(Path staged) throws IOException {
+        try (var channel = FileChannel.open(staged, WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Sync a directory so that the files moved into it survive a crash
+     */
+    public static void syncDirectory(Path directory) {
+        try (var channel = FileChannel.open(directory, READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // some platforms, e.g. Windows, cannot open a directory. Moves are still atomic there.
+            logger.debug("Cannot sync directory {}", directory, e);
+        }
+    }
+
+    /**
+     * Create an empty file next to the target, with the permissions of the target when it exists
+     */
+    public static Path createStagedFile(Path target) throws IOException {
+        var directory = target.toAbsolutePath().getParent();
+        Path staged;
+        while (true) {
+            var name = target.getFileName() + "." + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp";
+            try {
+                // created with default permissions, i.e. subject to process umask
+                staged = Files.createFile(directory.resolve(name));
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+        try {
+            copyPermissions(target, staged);
+        } catch (IOException e) {
+            Files.deleteIfExists(staged);
+            throw e;
+        }
+        return staged;
+    }
+
+    /**
+     * Whether the path is a file staged by {@link #createStagedFile(Path)}, i.e. not a workspace file of its own
+     */
+    public static boolean isStagedFile(Path path) {
+        var name = path.getFileName();
+        return name != null && STAGED_FILE_NAME.matcher(name.toString()).matches();
+    }
+
+    /**
+     * Move the source file in place of the target, atomically when the file system supports it
+     */
+    public static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, REPLACE_EXISTING);
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        if (!Files.exists(from)) {
+            return;
+        }
+        var view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (view != null) {
+            Files.setPosixFilePermissions(to, view.readAttributes().permissions());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Digests of the files written by a persister, used to skip writing a content identical to the one already on disk.
+ * <p>
+ * Digests are kept in memory along with the stamp of their file. A file changed by someone else since its digest was
+ * recorded is digested again from the disk, and so is a file modified shortly before its stamp was read, since a
+ * later change within the same timestamp tick would leave its stamp unchanged.
+ */
+public class ContentHashes {
+
+    /**
+     * Coarsest modification time granularity of the usual file systems (FAT)
+     */
+    static final Duration TIMESTAMP_GRANULARITY = Duration.ofSeconds(2);
+
+    private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+
+    public static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this JVM", e);
+        }
+    }
+
+    /**
+     * Whether the given file exists with a content having the given digest
+     */
+    public boolean matches(Path file, byte[] digest) throws IOException {
+        var readAt = Instant.now();
+        var stamp = FileStamp.of(file);
+        if (stamp.equals(FileStamp.MISSING)) {
+            entries.remove(file);
+            return false;
+        }
+        var entry = entries.get(file);
+        if (entry == null || !entry.stamp.equals(stamp) || entry.stamp.isAmbiguousAt(entry.readAt, TIMESTAMP_GRANULARITY)) {
+            entry = new Entry(stamp, readAt, digest(Files.readAllBytes(file)));
+            entries.put(file, entry);
+        }
+        return Arrays.equals(entry.digest, digest);
+    }
+
+    /**
+     * Record the digest of a content just written to the given file
+     */
+    public void record(Path file, byte[] digest) {
+        try {
+            var readAt = Instant.now();
+            entries.put(file, new Entry(FileStamp.of(file), readAt, digest));
+        } catch (IOException e) {
+            // file will be digested again from the disk
+            entries.remove(file);
+        }
+    }
+
+    /**
+     * Forget the digests of the files of a deleted directory
+     */
+    public void forget(Path directory) {
+        entries.keySet().removeIf(file -> file.startsWith(directory));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final FileStamp stamp;
+        private final Instant readAt;
+        private final byte[] digest;
+    }
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static java.nio.file.Files.readAttributes;
+
+/**
+ * Last modified time and size of a file, used to tell whether a file changed since something was computed from it.
+ */
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class FileStamp {
+
+    public static final FileStamp MISSING = new FileStamp(FileTime.fromMillis(0), -1);
+
+    private final FileTime lastModifiedTime;
+    private final long size;
+
+    public static FileStamp of(Path path) throws IOException {
+        try {
+            var attributes = readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(attributes.lastModifiedTime(), attributes.size());
+        } catch (NoSuchFileException e) {
+            return MISSING;
+        }
+    }
+
+    /**
+     * Whether the file may have been modified again after this stamp was read without its stamp changing, file
+     * systems only recording modification times up to the given granularity
+     */
+    public boolean isAmbiguousAt(Instant readAt, Duration granularity) {
+        return !lastModifiedTime.toInstant().plus(granularity).isBefore(readAt);
+    }
+}
@@ -44,6 +44,16 @@ public class FragmentRepository extends AbstractRepository<Fragment> implements
         return "fragment";
     }
 
+    @Override
+    public Fragment toLightArtifact(ArtifactSummary summary) {
+        var fragment = summary.assignTo(new Fragment());
+        fragment.setId(summary.getId());
+        fragment.setName(summary.getName());
+        fragment.setLastUpdate(summary.getLastUpdate());
+        fragment.setHasValidationError(summary.isHasValidationError());
+        return fragment;
+    }
+
     /**
      * Get fragment that don't use element with id given in argument
      * Check recursively to not get element that use element that use .... that use id
@@ -20,20 +20,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.DirectoryStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
-import static java.lang.String.format;
 import static java.nio.file.Files.exists;
 import static java.nio.file.Files.readAllBytes;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toList;
 
 /**
  * This Persister is used to manage the persistence logic for a component. Each of them are serialized in a json file
@@ -44,8 +44,16 @@ public class JsonFileBasedLoader<T extends Identifiable> extends AbstractLoader<
 
     protected Class<T> type;
 
+    private final Map<Path, UsageIndex> usageIndexes = new ConcurrentHashMap<>();
+
+    private final Map<Path, SummaryIndex> summaryIndexes = new ConcurrentHashMap<>();
+
     public JsonFileBasedLoader(JsonHandler jsonHandler, Class<T> type) {
-        super(jsonHandler, type);
+        this(jsonHandler, type, LoadExecutor.serial());
+    }
+
+    public JsonFileBasedLoader(JsonHandler jsonHandler, Class<T> type, LoadExecutor loadExecutor) {
+        super(jsonHandler, type, loadExecutor);
         this.type = type;
     }
 
@@ -67,107 +75,63 @@ public class JsonFileBasedLoader<T extends Identifiable> extends AbstractLoader<
         }
         Map<String, List<T>> map = new HashMap<>();
 
-        //Each component has its own files in a directory named with its id
-        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "[!.]*")) {
-            for (Path componentDirectory : directoryStream) {
-                //The directory name is the component id
-                var id = componentDirectory.getFileName().toString();
-                Path componentFile = componentDirectory.resolve(id + ".json");
-                if (!exists(componentFile)) {
-                    continue;
-                }
-
-                var content = new String(readAllBytes(componentFile));
-                String contentWithoutSpaces = removeSpaces(content);
-                T object;
-                try {
-                    object = jsonHandler.fromJson(content.getBytes(), type);
-                } catch (IOException ex) {
-                    throw new IOException("Json mapping error for " + componentFile, ex);
-                }
-
-                for (String objectId : objectIds) {
-                    //We consider only another objects
-                    var objectPath = resolve(directory, objectId);
-                    if (objectPath == null || !objectPath.equals(componentFile) && exists(componentFile)
-                            && contentWithoutSpaces.contains(format("\"id\":\"%s\"", objectId))) {
-                        List<T> objects = map.computeIfAbsent(objectId, k -> new ArrayList<>());
-                        objects.add(object);
-                    }
-                }
+        var usages = usageIndex(directory).findUsages(objectIds);
+        List<String> ids = usages.values().stream().flatMap(Collection::stream).distinct().collect(toList());
+        var read = loadExecutor.map(ids, id -> read(resolve(directory, id)));
+        Map<String, T> objects = new HashMap<>();
+        for (var i = 0; i < ids.size(); i++) {
+            objects.put(ids.get(i), read.get(i));
+        }
+
+        for (var usage : usages.entrySet()) {
+            for (String id : usage.getValue()) {
+                map.computeIfAbsent(usage.getKey(), k -> new ArrayList<>()).add(objects.get(id));
             }
         }
         return map;
     }
 
     @Override
-    public T getByUUID(Path directory, String uuid) throws IOException {
-        var indexPath = directory.resolve(".metadata/.index.json");
-        if (indexPath.toFile().exists()) {
-            var indexFileContent = readAllBytes(indexPath);
-            var index = jsonHandler.fromJsonToMap(indexFileContent);
-            var objectId = index.get(uuid);
-            if (objectId != null) {
-                var componentFile = directory.resolve(format("%s/%s.json", objectId, objectId));
-                if (componentFile.toFile().exists()) {
-                    return jsonHandler.fromJson(readAllBytes(componentFile), type);
-                }
-            }
-        } else {
-            logger.info("index file not found [{}]. It will be created when needed of by the migration.", indexPath);
-        }
-        return null;
+    public void rebuildUsageIndex(Path directory) throws IOException {
+        usageIndex(directory).rebuild();
     }
 
     @Override
-    public boolean contains(Path directory, String objectId) throws IOException {
-        //Object can be of type <E>
-        var objectPath = resolve(directory, objectId);
-
-        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, "*")) {
-            for (Path componentDirectory : directoryStream) {
-                //The directory name is the component id
-                var id = componentDirectory.getFileName().toString();
-                var componentFile = componentDirectory.resolve(id + ".json");
-
-                //We consider only another objects
-                if (objectPath == null || !objectPath.equals(componentFile)) {
-                    var content = readAllBytes(componentFile);
-                    if (indexOf(content, objectId.getBytes()) >= 0) {
-                        return true;
-                    }
-                }
-            }
+    public void invalidateUsages(Path directory, String id) throws IOException {
+        var usageIndex = usageIndexes.get(directory);
+        if (usageIndex != null) {
+            usageIndex.update(id);
         }
+    }
 
-        return false;
+    private UsageIndex usageIndex(Path directory) {
+        return usageIndexes.computeIfAbsent(directory, d -> new UsageIndex(d, jsonHandler));
     }
 
+    @Override
+    public List<ArtifactSummary> getSummaries(Path directory) throws IOException {
+        return summaryIndex(directory).getAll();
+    }
 
-    /**
-     * Returns the start position of the first occurrence of the specified target within array, or -1 if there is
-     * no such occurrence.
-     */
-    protected int indexOf(byte[] file, byte[] occurence) {
-        if (file != null && occurence != null) {
-            int len = occurence.length;
-            int limit = file.length - len;
-            for (var i = 0; i <= limit; i++) {
-                var k = 0;
-                for (; k < len; k++) {
-                    if (occurence[k] != file[i + k]) {
-                        break;
-                    }
-                }
-                if (k == len) {
-                    return i;
-                }
-            }
+    @Override
+    public void invalidateSummary(Path directory, String id) {
+        summaryIndex(directory).invalidate(id);
+    }
+
+    private SummaryIndex summaryIndex(Path directory) {
+        return summaryIndexes.computeIfAbsent(directory, d -> new SummaryIndex(d, jsonHandler, loadExecutor, this::summarize));
+    }
+
+    private T read(Path componentFile) throws IOException {
+        try {
+            return jsonHandler.fromJson(readAllBytes(componentFile), type);
+        } catch (IOException ex) {
+            throw new IOException("Json mapping error for " + componentFile, ex);
         }
-        return -1;
     }
 
-    private String removeSpaces(String text) {
-        return text.replaceAll("\\s+", "");
+    @Override
+    public boolean contains(Path directory, String objectId) throws IOException {
+        return exists(directory) && usageIndex(directory).findUsages(List.of(objectId)).containsKey(objectId);
     }
 }
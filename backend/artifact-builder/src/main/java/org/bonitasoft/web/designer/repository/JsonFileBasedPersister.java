@@ -14,9 +14,7 @@
  */
 package org.bonitasoft.web.designer.repository;
 
-import com.fasterxml.jackson.core.JsonGenerationException;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.migration.Version;
 import org.bonitasoft.web.designer.model.HasUUID;
@@ -29,14 +27,17 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static java.lang.String.format;
-import static java.nio.file.Files.readAllBytes;
-import static java.nio.file.Files.write;
-import static org.apache.commons.io.FileUtils.forceMkdir;
 
 /**
  * This Persister is used to manage the persistence logic for a component. Each of them are serialized in a json file
@@ -48,6 +49,9 @@ public class JsonFileBasedPersister<T extends Identifiable> {
     protected JsonHandler jsonHandler;
     protected BeanValidator validator;
     protected UiDesignerProperties uiDesignerProperties;
+    private final Map<Path, UuidIndex> indexes = new ConcurrentHashMap<>();
+    private final ContentHashes contentHashes = new ContentHashes();
+    private final AtomicLong skippedWrites = new AtomicLong();
 
     public JsonFileBasedPersister(JsonHandler jsonHandler, BeanValidator validator, UiDesignerProperties uiDesignerProperties) {
         this.jsonHandler = jsonHandler;
@@ -58,84 +62,173 @@ public class JsonFileBasedPersister<T extends Identifiable> {
     /**
      * Save an identifiable object in a json file
      *
+     * @return false when the object was left as is because its files already hold the same content
      * @throws IOException
      */
-    public void save(Path directory, T content) throws IOException {
-        var versionToSet = uiDesignerProperties.getVersion();
-        // Split version before '_' to avoid patch tagged version compatible
-        if (versionToSet != null) {
-            var currentVersion = versionToSet.split("_");
-            versionToSet = currentVersion[0];
+    public boolean save(Path directory, T content) throws IOException {
+        return !saveAll(Collections.singletonMap(directory, content)).isEmpty();
+    }
+
+    /**
+     * Save several identifiable objects, each in the json file of its directory, all at once. Files are only replaced
+     * when all the objects have been validated and serialized, and only when their content changed.
+     *
+     * @return directories of the objects actually written
+     * @throws IOException
+     */
+    public Set<Path> saveAll(Map<Path, T> contents) throws IOException {
+        contents.values().forEach(this::prepare);
+        var written = new LinkedHashSet<Path>();
+        try (var batch = new WriteBatch()) {
+            var digests = new HashMap<Path, byte[]>();
+            for (Map.Entry<Path, T> entry : contents.entrySet()) {
+                if (stageChanges(batch, serialize(entry.getKey(), entry.getValue()), digests)) {
+                    written.add(entry.getKey());
+                } else {
+                    skippedWrites.incrementAndGet();
+                }
+            }
+            batch.commit();
+            digests.forEach(contentHashes::record);
+            for (Map.Entry<Path, T> entry : contents.entrySet()) {
+                if (entry.getValue() instanceof HasUUID) {
+                    //update index used by the studio to find artifacts given their UUID
+                    saveInIndex(metadataFolder(entry.getKey()), entry.getValue());
+                }
+            }
+        } catch (RuntimeException e) {
+            //Jackson can sent Runtime exception. We change this one to IO because this exception is caught higher
+            throw new IOException(e);
         }
+        return written;
+    }
 
-        content.setDesignerVersionIfEmpty(versionToSet);
+    /**
+     * Tell whether saving an object would leave its files as they are, counting it as a skipped write if so. Used to
+     * avoid touching the last update date of an object which did not change.
+     *
+     * @throws IOException
+     */
+    public boolean skipIfUnchanged(Path directory, T content) throws IOException {
+        prepare(content);
+        try {
+            for (Map.Entry<Path, byte[]> file : serialize(directory, content).entrySet()) {
+                if (!contentHashes.matches(file.getKey(), ContentHashes.digest(file.getValue()))) {
+                    return false;
+                }
+            }
+        } catch (RuntimeException e) {
+            //Jackson can sent Runtime exception. We change this one to IO because this exception is caught higher
+            throw new IOException(e);
+        }
+        skippedWrites.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Number of objects saves skipped because their files already held the same content
+     */
+    public long getSkippedWrites() {
+        return skippedWrites.get();
+    }
+
+    /**
+     * Set the versions of an object about to be saved and validate it
+     */
+    protected void prepare(T content) {
+        content.setDesignerVersionIfEmpty(getDesignerVersion());
         var artifactVersion = content.getArtifactVersion();
         if (artifactVersion == null || Version.isSupportingModelVersion(artifactVersion)) {
             // Typical cases: rename, or set as favorite a legacy artifact without model version
             // (e.g. git checkout without migration)
             content.setModelVersionIfEmpty(Version.getCurrentModelVersion(artifactVersion, uiDesignerProperties));
         }
-
         validator.validate(content);
-        try {
-            write(jsonFile(directory, content.getId()), jsonHandler.toPrettyJson(content, JsonViewPersistence.class));
-            var metadataPath = updateMetadata(directory, content);
-            if (content instanceof HasUUID && !StringUtils.isEmpty(((HasUUID) content).getUUID())) {
-                //update index used by the studio to find artifacts given their UUID
-                saveInIndex(metadataPath, content);
+    }
+
+    /**
+     * Serialize an object in the files holding it, its json file and its metadata
+     */
+    protected Map<Path, byte[]> serialize(Path directory, T content) throws IOException {
+        var files = new LinkedHashMap<Path, byte[]>();
+        files.put(jsonFile(directory, content.getId()), jsonHandler.toPrettyJson(content, JsonViewPersistence.class));
+        files.put(jsonFile(metadataFolder(directory), content.getId()), jsonHandler.toJson(content, JsonViewMetadata.class));
+        return files;
+    }
+
+    /**
+     * Stage the given files whose content changed, along with their digest
+     *
+     * @return whether any of the files changed
+     */
+    private boolean stageChanges(WriteBatch batch, Map<Path, byte[]> files, Map<Path, byte[]> digests) throws IOException {
+        var changed = false;
+        for (Map.Entry<Path, byte[]> file : files.entrySet()) {
+            var digest = ContentHashes.digest(file.getValue());
+            if (!contentHashes.matches(file.getKey(), digest)) {
+                batch.write(file.getKey(), file.getValue());
+                digests.put(file.getKey(), digest);
+                changed = true;
             }
-        } catch (RuntimeException e) {
-            //Jackson can sent Runtime exception. We change this one to IO because this exception is caught higher
-            throw new IOException(e);
         }
+        return changed;
+    }
+
+    protected String getDesignerVersion() {
+        var versionToSet = uiDesignerProperties.getVersion();
+        // Split version before '_' to avoid patch tagged version compatible
+        if (versionToSet != null) {
+            versionToSet = versionToSet.split("_")[0];
+        }
+        return versionToSet;
     }
 
     public Path updateMetadata(Path directory, T content) throws IOException {
-        var metadataPath = directory.getParent().resolve(PageRepository.METADATA);
-        forceMkdir(metadataPath.toFile());
-        write(jsonFile(metadataPath, content.getId()), jsonHandler.toJson(content, JsonViewMetadata.class));
+        var metadataPath = metadataFolder(directory);
+        var metadata = Collections.singletonMap(jsonFile(metadataPath, content.getId()), jsonHandler.toJson(content, JsonViewMetadata.class));
+        try (var batch = new WriteBatch()) {
+            var digests = new HashMap<Path, byte[]>();
+            stageChanges(batch, metadata, digests);
+            batch.commit();
+            digests.forEach(contentHashes::record);
+        }
         return metadataPath;
     }
 
-    public synchronized void saveInIndex(Path metadataPath, T content) throws IOException {
-        var indexPath = jsonFile(metadataPath, INDEX_METADATA);
-        var index = loadIndex(indexPath);
-        try {
-            if (getUUIDIfExist(content) != null) {
-                index.put(getUUIDIfExist(content), content.getId());
-            }
-            writeIndexFile(indexPath, index);
-        } catch (JsonGenerationException e) {
-            logger.error("Cannot generate index for file {}. Maybe a migration is required.", content.getId());
-        }
+    protected Path metadataFolder(Path directory) {
+        return directory.getParent().resolve(PageRepository.METADATA);
     }
 
-    private synchronized void writeIndexFile(Path indexPath, Map<String, String> index) throws IOException {
-        try {
-            if (!indexPath.getParent().toFile().exists()) {
-                forceMkdir(indexPath.getParent().toFile());
-            }
-            write(indexPath, jsonHandler.toJson(index));
-        } catch (JsonGenerationException e) {
-            logger.error("Cannot generate index. Maybe a migration is required.");
+    public void saveInIndex(Path metadataPath, T content) throws IOException {
+        var uuid = getUUIDIfExist(content);
+        if (uuid != null) {
+            index(metadataPath).put(uuid, content.getId());
         }
     }
 
-    private synchronized Map<String, String> loadIndex(Path indexPath) throws IOException {
-        Map<String, String> index = new HashMap<>();
-        if (indexPath.toFile().exists()) {
-            byte[] indexFileContent = readAllBytes(indexPath);
-            try {
-                index = jsonHandler.fromJsonToMap(indexFileContent);
-            } catch (Exception e) {
-                if (indexFileContent.length > 0) { //file is not empty and cannot be parsed
-                    logger.error("Failed to parse '{}' file with content:\n{}",
-                            indexPath, new String(indexFileContent), e);
-                }
-                //else file is empty, ignore exception
-            }
+    /**
+     * Id of the artifact bound to the given UUID, served from the in memory index of the given metadata folder
+     */
+    public String getIdByUUID(Path metadataPath, String uuid) {
+        return index(metadataPath).get(uuid);
+    }
+
+    /**
+     * Reload the index of the given metadata folder after it changed on the file system
+     */
+    public void reloadIndex(Path metadataPath) {
+        var index = indexes.get(metadataPath);
+        if (index != null) {
+            index.reload();
         }
-        return index;
+    }
+
+    public boolean isIndexFile(Path path) {
+        return path.getFileName() != null && path.getFileName().toString().equals(INDEX_METADATA + ".json");
+    }
+
+    protected UuidIndex index(Path metadataPath) {
+        return indexes.computeIfAbsent(metadataPath, folder -> new UuidIndex(jsonFile(folder, INDEX_METADATA), jsonHandler));
     }
 
     private String getUUIDIfExist(T content) {
@@ -147,18 +240,10 @@ public class JsonFileBasedPersister<T extends Identifiable> {
     }
 
     protected void removeFromIndex(Path metadataPath, T content) throws IOException {
-        var indexPath = jsonFile(metadataPath, INDEX_METADATA);
-        Map<String, String> index;
-        if (indexPath.toFile().exists()) {
-            var indexFileContent = readAllBytes(indexPath);
-            index = jsonHandler.fromJsonToMap(indexFileContent);
-            var uuidInIndex = ((HasUUID) content).getUUID();
-            var idInIndex = index.get(uuidInIndex);
+        var uuid = ((HasUUID) content).getUUID();
+        if (uuid != null) {
             //only remove from index if the ID bound to the UUID matches the id of the content to delete
-            if (content.getId().equals(idInIndex)) {
-                index.remove(uuidInIndex);
-            }
-            write(indexPath, jsonHandler.toJson(index));
+            index(metadataPath).remove(uuid, content.getId());
         }
     }
 
@@ -172,6 +257,7 @@ public class JsonFileBasedPersister<T extends Identifiable> {
             var metadataPath = directory.getParent().resolve(PageRepository.METADATA);
             FileUtils.deleteQuietly(metadataPath.resolve(format("%s.json", content.getId())).toFile());
             FileUtils.deleteDirectory(directory.toFile());
+            contentHashes.forget(directory);
             if (content instanceof HasUUID) {
                 //update index used by the studio to find artifacts given their UUID
                 removeFromIndex(metadataPath, content);
@@ -186,8 +272,7 @@ public class JsonFileBasedPersister<T extends Identifiable> {
         return directory.resolve(id + ".json");
     }
 
-    public synchronized void refreshIndexing(Path metadataFolder, List<T> pages) throws IOException {
-        var indexPath = jsonFile(metadataFolder, INDEX_METADATA);
+    public void refreshIndexing(Path metadataFolder, List<T> pages) throws IOException {
         Map<String, String> refreshingIndex = new HashMap<>();
         pages.forEach(page -> {
             String uuidIfExist = getUUIDIfExist(page);
@@ -195,6 +280,6 @@ public class JsonFileBasedPersister<T extends Identifiable> {
                 refreshingIndex.put(uuidIfExist, page.getId());
             }
         });
-        writeIndexFile(indexPath, refreshingIndex);
+        index(metadataFolder).replaceAll(refreshingIndex);
     }
 }
@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the loading of several artifacts on a bounded pool of threads.
+ * <p>
+ * Results are returned in the order of the given items, whatever the order in which they are loaded, and a failure is
+ * reported as if items had been loaded one after the other: the failure of the first failing item is thrown.
+ * Loads requested from a loading thread are run on the calling thread, so that nested loads (a page loading its
+ * fragments...) can't starve the pool.
+ */
+public class LoadExecutor implements Closeable {
+
+    private static final LoadExecutor SERIAL = new LoadExecutor(1);
+
+    private static final ThreadLocal<Boolean> LOADING = ThreadLocal.withInitial(() -> false);
+
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    /**
+     * @param parallelism maximum number of artifacts loaded at the same time, artifacts are loaded on the calling thread
+     *                    when lower than 2
+     */
+    public LoadExecutor(int parallelism) {
+        this.parallelism = Math.max(parallelism, 1);
+        if (this.parallelism > 1) {
+            var threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(this.parallelism, runnable -> {
+                var thread = new Thread(runnable, "ui-designer-loader-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Executor loading artifacts one after the other on the calling thread
+     */
+    public static LoadExecutor serial() {
+        return SERIAL;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public <I, O> List<O> map(List<I> items, LoadFunction<I, O> function) throws IOException {
+        if (executor == null || items.size() < 2 || LOADING.get()) {
+            List<O> results = new ArrayList<>(items.size());
+            for (I item : items) {
+                results.add(function.apply(item));
+            }
+            return results;
+        }
+
+        List<Future<O>> futures = new ArrayList<>(items.size());
+        for (I item : items) {
+            futures.add(executor.submit(() -> {
+                LOADING.set(true);
+                try {
+                    return function.apply(item);
+                } finally {
+                    LOADING.remove();
+                }
+            }));
+        }
+        try {
+            List<O> results = new ArrayList<>(items.size());
+            for (Future<O> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading artifacts");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private static IOException rethrow(Throwable cause) throws IOException {
+        if (cause instanceof IOException) {
+            throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        throw new IOException(cause);
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    public interface LoadFunction<I, O> {
+        O apply(I item) throws IOException;
+    }
+}
@@ -21,6 +21,8 @@ import java.nio.file.DirectoryStream;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Depending on the nature of a component we can have several directory where elements
@@ -30,11 +32,39 @@ public interface Loader<T extends Identifiable> {
 
     T get(Path path) throws IOException;
 
+    /**
+     * Parse a component once. Each call to the returned supplier binds a new and independent instance of the component
+     * without reading nor parsing the files again, which allows repositories to cache components safely.
+     * Returns null when the loader is not able to do so.
+     */
+    default Supplier<T> parse(Path path) throws IOException {
+        return null;
+    }
+
     List<T> getAll(Path directory) throws IOException;
 
-    String getNextAvailableObjectId(Path directory, String objectName) throws IOException;
+    /**
+     * Summaries of all the components of the directory, enough to list them in the light view
+     */
+    default List<ArtifactSummary> getSummaries(Path directory) throws IOException {
+        return getAll(directory).stream().map(ArtifactSummary::of).collect(Collectors.toList());
+    }
+
+    /**
+     * Forget what is known about a component which has just been saved, deleted or changed on the file system
+     */
+    default void invalidateSummary(Path directory, String id) {
+        // nothing is kept by default
+    }
+
+    /**
+     * Index again the objects used by a component which has just been saved, deleted or changed on the file system
+     */
+    default void invalidateUsages(Path directory, String id) throws IOException {
+        // nothing is kept by default
+    }
 
-    T getByUUID(Path directory, String uuid) throws IOException;
+    String getNextAvailableObjectId(Path directory, String objectName) throws IOException;
 
     /**
      * Find all the objects which contain an object id. Each object (widget, page, ...) has its
@@ -54,10 +84,19 @@ public interface Loader<T extends Identifiable> {
      */
     Map<String, List<T>> findByObjectIds(Path directory, List<String> objectIds) throws IOException;
 
+    /**
+     * Rebuild from scratch the index used to find the objects which contain an object id
+     *
+     * @throws IOException
+     */
+    default void rebuildUsageIndex(Path directory) throws IOException {
+        // nothing to rebuild by default
+    }
+
     /**
      * Find if an object is used in another objects. Each object (widget, page, ...) has its
-     * own id. To increase performances, we just search if the id is in the text
-     * files. Only files which contain a reference are deserialized
+     * own id. To increase performances, the answer comes from an index of the ids referenced
+     * by each file, without deserializing any of them
      *
      * @throws IOException
      */
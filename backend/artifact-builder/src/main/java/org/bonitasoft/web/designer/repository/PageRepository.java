@@ -47,6 +47,18 @@ public class PageRepository extends AbstractRepository<Page> implements Refreshi
         return "page";
     }
 
+    @Override
+    public Page toLightArtifact(ArtifactSummary summary) {
+        var page = summary.assignTo(new Page());
+        page.setId(summary.getId());
+        page.setName(summary.getName());
+        page.setType(summary.getType());
+        page.setUUID(summary.getUuid());
+        page.setLastUpdate(summary.getLastUpdate());
+        page.setHasValidationError(summary.isHasValidationError());
+        return page;
+    }
+
     public List<Page> getArtifactsUsingWidget(String widgetId) {
         return this.findByObjectId(widgetId);
     }
@@ -71,6 +83,7 @@ public class PageRepository extends AbstractRepository<Page> implements Refreshi
     public void refreshIndexing(List<Page> pages) {
         try {
             persister.refreshIndexing(this.path.resolve(METADATA), pages);
+            refreshUsageIndex();
         } catch (Exception e) {
             logger.error("Cannot refresh workspace indexing.", e);
         }
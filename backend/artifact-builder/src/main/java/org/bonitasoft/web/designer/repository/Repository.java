@@ -69,6 +69,28 @@ public interface Repository<T extends Identifiable> {
      */
     void saveAll(List<T> toBeSaved) throws RepositoryException;
 
+    /**
+     * Save a list of components all at once, updating their last update date
+     */
+    List<T> updateLastUpdateAndSaveBatch(List<T> toBeSaved) throws RepositoryException;
+
+    /**
+     * Save a list of components all at once but without updating their last update date
+     */
+    List<T> saveBatch(List<T> toBeSaved) throws RepositoryException;
+
+    /**
+     * Number of modifications of the repository content: components written, deleted or changed on the file system.
+     * Used to know whether something computed from the components may be outdated.
+     */
+    long getModificationCount();
+
+    /**
+     * Number of modifications of the component with the given id, including the files of its folder changed on the
+     * file system
+     */
+    long getModificationCount(String id);
+
     /**
      * Deletes component by its id
      */
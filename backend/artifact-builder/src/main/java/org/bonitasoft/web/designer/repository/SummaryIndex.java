@@ -0,0 +1,206 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.readAttributes;
+
+/**
+ * Summaries of the components stored in a directory, used to list them without reading nor parsing their descriptors.
+ * <p>
+ * The index is persisted in the metadata folder, next to the usage index. Each entry remembers the last modified time
+ * and size of the component descriptor and metadata it was computed from, so that only components changed since are
+ * summarized again before answering. Components saved or deleted through the repository, or reported by the watcher,
+ * are invalidated right away.
+ */
+public class SummaryIndex {
+
+    public static final String FILE_NAME = ".summaries.json";
+    private static final Logger logger = LoggerFactory.getLogger(SummaryIndex.class);
+
+    private final Path directory;
+    private final JsonHandler jsonHandler;
+    private final LoadExecutor loadExecutor;
+    private final LoadExecutor.LoadFunction<Path, ArtifactSummary> summarizer;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private boolean loaded = false;
+
+    /**
+     * @param summarizer summarizes a component from its descriptor path, returns null when it cannot be read
+     */
+    public SummaryIndex(Path directory, JsonHandler jsonHandler, LoadExecutor loadExecutor, LoadExecutor.LoadFunction<Path, ArtifactSummary> summarizer) {
+        this.directory = directory;
+        this.jsonHandler = jsonHandler;
+        this.loadExecutor = loadExecutor;
+        this.summarizer = summarizer;
+    }
+
+    /**
+     * Returns the summaries of all the readable components of the directory
+     */
+    public synchronized List<ArtifactSummary> getAll() throws IOException {
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+        var changed = false;
+        Map<String, Stamp> stamps = new LinkedHashMap<>();
+        List<String> outdated = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = newDirectoryStream(directory, "[!.]*")) {
+            for (Path componentDirectory : directoryStream) {
+                //The directory name is the component id
+                var id = componentDirectory.getFileName().toString();
+                var stamp = stamp(id);
+                stamps.put(id, stamp);
+                var entry = entries.get(id);
+                if (entry == null || !entry.getStamp().equals(stamp)) {
+                    outdated.add(id);
+                }
+            }
+        }
+        var summaries = loadExecutor.map(outdated, id -> summarizer.apply(descriptor(id)));
+        for (var i = 0; i < outdated.size(); i++) {
+            var id = outdated.get(i);
+            entries.put(id, new Entry(stamps.get(id), summaries.get(i)));
+            changed = true;
+        }
+        for (String id : new HashSet<>(entries.keySet())) {
+            if (!stamps.containsKey(id)) {
+                entries.remove(id);
+                changed = true;
+            }
+        }
+        if (changed) {
+            persist();
+        }
+
+        List<ArtifactSummary> result = new ArrayList<>();
+        for (String id : stamps.keySet()) {
+            var summary = entries.get(id).getSummary();
+            if (summary != null) {
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forget the summary of a component, it will be computed again the next time the index is used
+     */
+    public synchronized void invalidate(String id) {
+        entries.remove(id);
+    }
+
+    private Stamp stamp(String id) throws IOException {
+        var stamp = new Stamp();
+        try {
+            var attributes = readAttributes(descriptor(id), BasicFileAttributes.class);
+            stamp.setLastModified(lastModified(attributes));
+            stamp.setSize(attributes.size());
+        } catch (NoSuchFileException e) {
+            stamp.setSize(-1);
+        }
+        try {
+            var attributes = readAttributes(AbstractLoader.metadataPath(descriptor(id)), BasicFileAttributes.class);
+            stamp.setMetadataLastModified(lastModified(attributes));
+            stamp.setMetadataSize(attributes.size());
+        } catch (NoSuchFileException e) {
+            stamp.setMetadataSize(-1);
+        }
+        return stamp;
+    }
+
+    private Path descriptor(String id) {
+        return directory.resolve(id).resolve(id + ".json");
+    }
+
+    private void load() {
+        var indexFile = indexFile();
+        if (!exists(indexFile)) {
+            return;
+        }
+        try {
+            var content = jsonHandler.fromJson(readAllBytes(indexFile), Content.class);
+            entries.putAll(content.getComponents());
+        } catch (IOException e) {
+            logger.warn("Summary index [{}] cannot be read, it will be rebuilt.", indexFile, e);
+            entries.clear();
+        }
+    }
+
+    private void persist() {
+        var indexFile = indexFile();
+        try {
+            AtomicFiles.write(indexFile, jsonHandler.toJson(new Content(entries)));
+        } catch (IOException e) {
+            logger.error("Cannot write summary index [{}].", indexFile, e);
+        }
+    }
+
+    private Path indexFile() {
+        return directory.resolve(PageRepository.METADATA).resolve(FILE_NAME);
+    }
+
+    private static long lastModified(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Content {
+        private Map<String, Entry> components = new HashMap<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Stamp stamp;
+        // null when the component cannot be read
+        private ArtifactSummary summary;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class Stamp {
+        private long lastModified;
+        private long size;
+        private long metadataLastModified;
+        private long metadataSize;
+    }
+}
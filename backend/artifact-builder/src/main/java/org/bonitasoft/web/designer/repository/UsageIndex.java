@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.newDirectoryStream;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.readAttributes;
+import static java.util.Collections.emptySet;
+
+/**
+ * Reverse dependency index of the components stored in a directory: for each object id (widget, fragment...),
+ * the ids of the components which reference it.
+ * <p>
+ * The index is persisted in the metadata folder, next to the UUID index. Each entry remembers the last modified time
+ * and size of the component descriptor it was computed from, so that when the index is first used only components
+ * changed since it was persisted are scanned again. It is then kept up to date component by component through
+ * {@link #update(String)}, called when a component is saved, renamed, deleted or modified outside of the designer, so
+ * that queries are simple lookups.
+ */
+public class UsageIndex {
+
+    public static final String FILE_NAME = ".usages.json";
+    private static final Logger logger = LoggerFactory.getLogger(UsageIndex.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Path directory;
+    private final JsonHandler jsonHandler;
+    // component id -> ids referenced in the component
+    private final Map<String, Usage> usages = new HashMap<>();
+    // object id -> components referencing it
+    private final Map<String, Set<String>> usedBy = new HashMap<>();
+    private boolean loaded = false;
+
+    public UsageIndex(Path directory, JsonHandler jsonHandler) {
+        this.directory = directory;
+        this.jsonHandler = jsonHandler;
+    }
+
+    /**
+     * Returns, for each object id, the ids of the other components referencing it
+     */
+    public synchronized Map<String, Set<String>> findUsages(Collection<String> objectIds) throws IOException {
+        if (!loaded) {
+            load();
+            loaded = true;
+            refresh();
+        }
+        Map<String, Set<String>> result = new HashMap<>();
+        for (String objectId : objectIds) {
+            var componentIds = new TreeSet<>(usedBy.getOrDefault(objectId, emptySet()));
+            // We consider only another objects
+            componentIds.remove(objectId);
+            if (!componentIds.isEmpty()) {
+                result.put(objectId, componentIds);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop everything known and scan all the components again
+     */
+    public synchronized void rebuild() throws IOException {
+        usages.clear();
+        usedBy.clear();
+        loaded = true;
+        refresh();
+    }
+
+    /**
+     * Index again a component which has just been saved, deleted or changed on the file system. Nothing is done until the
+     * index is first used, since it is then checked against all the components. Unlike that check, which relies on the
+     * stamps of the component descriptors, the component is always scanned again.
+     */
+    public synchronized void update(String componentId) throws IOException {
+        if (!loaded || componentId.startsWith(".")) {
+            return;
+        }
+        var componentFile = directory.resolve(componentId).resolve(componentId + ".json");
+        BasicFileAttributes attributes;
+        try {
+            attributes = readAttributes(componentFile, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            if (usages.containsKey(componentId)) {
+                index(componentId, null);
+                persist();
+            }
+            return;
+        }
+        // scanned whatever its stamp: an edit keeping the same size within one modification time tick leaves it unchanged
+        var usage = new Usage(lastModified(attributes), attributes.size(), scan(componentFile));
+        var previous = usages.get(componentId);
+        index(componentId, usage);
+        if (previous == null || !previous.equals(usage)) {
+            persist();
+        }
+    }
+
+    private void refresh() throws IOException {
+        var changed = false;
+        Set<String> componentIds = new HashSet<>();
+        try (DirectoryStream<Path> directoryStream = newDirectoryStream(directory, "[!.]*")) {
+            for (Path componentDirectory : directoryStream) {
+                //The directory name is the component id
+                var id = componentDirectory.getFileName().toString();
+                var componentFile = componentDirectory.resolve(id + ".json");
+                BasicFileAttributes attributes;
+                try {
+                    attributes = readAttributes(componentFile, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                componentIds.add(id);
+                var usage = usages.get(id);
+                if (usage == null || !usage.isComputedFrom(attributes)) {
+                    index(id, new Usage(lastModified(attributes), attributes.size(), scan(componentFile)));
+                    changed = true;
+                }
+            }
+        }
+        for (String id : new HashSet<>(usages.keySet())) {
+            if (!componentIds.contains(id)) {
+                index(id, null);
+                changed = true;
+            }
+        }
+        if (changed) {
+            persist();
+        }
+    }
+
+    private void index(String componentId, Usage usage) {
+        var previous = usage == null ? usages.remove(componentId) : usages.put(componentId, usage);
+        if (previous != null) {
+            previous.getIds().forEach(id -> {
+                var componentIds = usedBy.get(id);
+                componentIds.remove(componentId);
+                if (componentIds.isEmpty()) {
+                    usedBy.remove(id);
+                }
+            });
+        }
+        if (usage != null) {
+            usage.getIds().forEach(id -> usedBy.computeIfAbsent(id, k -> new HashSet<>()).add(componentId));
+        }
+    }
+
+    /**
+     * Collect all the ids referenced in a component descriptor, reading it as a stream of tokens
+     */
+    private Set<String> scan(Path componentFile) throws IOException {
+        Set<String> ids = new HashSet<>();
+        try (var parser = jsonFactory.createParser(componentFile.toFile())) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && "id".equals(parser.getCurrentName())
+                        && parser.nextToken() == JsonToken.VALUE_STRING) {
+                    ids.add(parser.getText());
+                }
+            }
+        } catch (IOException e) {
+            throw new IOException("Json mapping error for " + componentFile, e);
+        }
+        return ids;
+    }
+
+    private void load() {
+        var indexFile = indexFile();
+        if (!exists(indexFile)) {
+            return;
+        }
+        try {
+            var content = jsonHandler.fromJson(readAllBytes(indexFile), Content.class);
+            content.getComponents().forEach(this::index);
+        } catch (IOException e) {
+            logger.warn("Usage index [{}] cannot be read, it will be rebuilt.", indexFile, e);
+            usages.clear();
+            usedBy.clear();
+        }
+    }
+
+    private void persist() {
+        var indexFile = indexFile();
+        try {
+            AtomicFiles.write(indexFile, jsonHandler.toJson(new Content(usages)));
+        } catch (IOException e) {
+            logger.error("Cannot write usage index [{}].", indexFile, e);
+        }
+    }
+
+    private Path indexFile() {
+        return directory.resolve(PageRepository.METADATA).resolve(FILE_NAME);
+    }
+
+    private static long lastModified(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Content {
+        private Map<String, Usage> components = new HashMap<>();
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Usage {
+        private long lastModified;
+        private long size;
+        private Set<String> ids = new HashSet<>();
+
+        boolean isComputedFrom(BasicFileAttributes attributes) {
+            return lastModified == lastModified(attributes) && size == attributes.size();
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * UUID to id index of the artifacts of a repository, used by the studio to find artifacts given their UUID.
+ * <p>
+ * Index is loaded once from its file and then served from memory. Changes are written behind: all the changes made
+ * while a write is pending are persisted at once, atomically, a short delay after the first one. {@link #reload()} is
+ * expected to be called when the index file changes on the file system, changes made by the index itself are ignored.
+ */
+public class UuidIndex {
+
+    public static final long DEFAULT_WRITE_DELAY = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(UuidIndex.class);
+
+    private final Path file;
+    private final JsonHandler jsonHandler;
+    private final long writeDelay;
+
+    private volatile Map<String, String> entries;
+    // changes not written yet, replayed on a reloaded index, an empty id stands for a removal
+    private final Map<String, Optional<String>> pendingChanges = new ConcurrentHashMap<>();
+    private final AtomicBoolean writePending = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private FileStamp lastWritten = FileStamp.MISSING;
+
+    public UuidIndex(Path file, JsonHandler jsonHandler) {
+        this(file, jsonHandler, DEFAULT_WRITE_DELAY);
+    }
+
+    public UuidIndex(Path file, JsonHandler jsonHandler, long writeDelay) {
+        this.file = file;
+        this.jsonHandler = jsonHandler;
+        this.writeDelay = writeDelay;
+        Writer.register(this);
+    }
+
+    public String get(String uuid) {
+        return entries().get(uuid);
+    }
+
+    public void put(String uuid, String id) {
+        if (!id.equals(entries().put(uuid, id))) {
+            pendingChanges.put(uuid, Optional.of(id));
+            scheduleWrite();
+        }
+    }
+
+    /**
+     * Remove the given UUID from the index, only if it is still bound to the given id
+     */
+    public void remove(String uuid, String id) {
+        if (entries().remove(uuid, id)) {
+            pendingChanges.put(uuid, Optional.empty());
+            scheduleWrite();
+        }
+    }
+
+    public void replaceAll(Map<String, String> index) {
+        synchronized (this) {
+            entries().keySet().forEach(uuid -> pendingChanges.put(uuid, Optional.empty()));
+            index.forEach((uuid, id) -> pendingChanges.put(uuid, Optional.of(id)));
+            entries = new ConcurrentHashMap<>(index);
+        }
+        scheduleWrite();
+    }
+
+    public Map<String, String> snapshot() {
+        return new TreeMap<>(entries());
+    }
+
+    /**
+     * Reload the index from its file when it has been changed by someone else. Changes made in memory and not yet
+     * written, additions as well as removals, are applied again on the reloaded entries.
+     */
+    public void reload() {
+        synchronized (writeLock) {
+            try {
+                if (FileStamp.of(file).equals(lastWritten)) {
+                    return;
+                }
+            } catch (IOException e) {
+                logger.warn("Cannot read index file {}", file, e);
+            }
+            var fromDisk = new ConcurrentHashMap<>(read());
+            synchronized (this) {
+                pendingChanges.forEach((uuid, id) -> {
+                    if (id.isPresent()) {
+                        fromDisk.put(uuid, id.get());
+                    } else {
+                        fromDisk.remove(uuid);
+                    }
+                });
+                entries = fromDisk;
+            }
+        }
+    }
+
+    /**
+     * Write pending changes now
+     */
+    public void flush() {
+        if (writePending.compareAndSet(true, false)) {
+            write();
+        }
+    }
+
+    private Map<String, String> entries() {
+        var current = entries;
+        if (current == null) {
+            synchronized (this) {
+                if (entries == null) {
+                    entries = new ConcurrentHashMap<>(read());
+                }
+                current = entries;
+            }
+        }
+        return current;
+    }
+
+    private void scheduleWrite() {
+        if (writePending.compareAndSet(false, true)) {
+            Writer.schedule(this::flush, writeDelay);
+        }
+    }
+
+    private void write() {
+        synchronized (writeLock) {
+            // taken before the snapshot, so that every change it holds is in the written content
+            var written = new HashMap<>(pendingChanges);
+            try {
+                AtomicFiles.write(file, jsonHandler.toJson(snapshot()));
+                lastWritten = FileStamp.of(file);
+                written.forEach(pendingChanges::remove);
+            } catch (IOException e) {
+                logger.error("Cannot write index {}. Maybe a migration is required.", file, e);
+            }
+        }
+    }
+
+    private Map<String, String> read() {
+        if (!Files.exists(file)) {
+            return Collections.emptyMap();
+        }
+        byte[] content = new byte[0];
+        try {
+            content = Files.readAllBytes(file);
+            return jsonHandler.fromJsonToMap(content);
+        } catch (Exception e) {
+            if (content.length > 0) { //file is not empty and cannot be parsed
+                logger.error("Failed to parse '{}' file with content:\n{}", file, new String(content), e);
+            }
+            //else file is empty, ignore exception
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Single background thread shared by all the indexes, pending writes are flushed when the JVM stops.
+     */
+    private static final class Writer {
+
+        private static final Set<UuidIndex> INDEXES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+        private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "ui-designer-index-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(Writer::flushAll, "ui-designer-index-flush"));
+        }
+
+        private Writer() {
+        }
+
+        static void register(UuidIndex index) {
+            INDEXES.add(index);
+        }
+
+        static void schedule(Runnable write, long delay) {
+            EXECUTOR.schedule(write, delay, TimeUnit.MILLISECONDS);
+        }
+
+        private static void flushAll() {
+            synchronized (INDEXES) {
+                INDEXES.forEach(UuidIndex::flush);
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@
 package org.bonitasoft.web.designer.repository;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.JsonViewPersistence;
 import org.bonitasoft.web.designer.model.widget.Widget;
@@ -46,11 +47,15 @@ public class WidgetFileBasedLoader extends JsonFileBasedLoader<Widget> {
         super(jsonHandler, Widget.class);
     }
 
+    public WidgetFileBasedLoader(JsonHandler jsonHandler, LoadExecutor loadExecutor) {
+        super(jsonHandler, Widget.class, loadExecutor);
+    }
+
     @Override
     public Widget get(Path path) {
         try {
             var widget = getWidgetWithView(path, null);
-            var metadata = path.getParent().getParent().resolve(format(".metadata/%s.json", path.getParent().getFileName()));
+            var metadata = metadataPath(path);
             if (exists(metadata)) {
                 widget = jsonHandler.assign(widget, readAllBytes(metadata));
             }
@@ -60,6 +65,17 @@ public class WidgetFileBasedLoader extends JsonFileBasedLoader<Widget> {
         }
     }
 
+    @Override
+    protected Widget bind(Path path, TokenBuffer content, TokenBuffer metadata) throws IOException {
+        var widget = jsonHandler.fromJson(content, type);
+        // template and controller are stored in their own files, they are read again each time to stay up to date
+        widget.prepareWidgetToDeserialize(path.getParent());
+        if (metadata != null) {
+            widget = jsonHandler.assign(widget, metadata);
+        }
+        return widget;
+    }
+
     private Widget getWidgetWithView(Path path, Class<?> view) {
         try {
              var widget = (view == null)
@@ -94,11 +110,6 @@ public class WidgetFileBasedLoader extends JsonFileBasedLoader<Widget> {
         return Files.exists(directory.resolve(widgetId).resolve(widgetId + ".json"));
     }
 
-    @Override
-    public Widget getByUUID(Path directory, String uuid) throws IOException {
-        return null;
-    }
-
     @Override
     public Widget load(Path path) {
         return getWidgetWithView(path, JsonViewPersistence.class);
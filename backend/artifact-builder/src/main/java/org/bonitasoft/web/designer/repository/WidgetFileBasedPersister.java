@@ -14,12 +14,9 @@
  */
 package org.bonitasoft.web.designer.repository;
 
-import org.apache.commons.lang3.StringUtils;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.migration.Version;
-import org.bonitasoft.web.designer.model.HasUUID;
 import org.bonitasoft.web.designer.model.JsonHandler;
-import org.bonitasoft.web.designer.model.JsonViewPersistence;
 import org.bonitasoft.web.designer.model.widget.Widget;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,8 +24,8 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-
-import static java.nio.file.Files.write;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * This Persister is used to manage the persistence logic for a widget. Each of them are serialized in a json file
@@ -41,52 +38,38 @@ public class WidgetFileBasedPersister extends JsonFileBasedPersister<Widget> {
         super(jsonHandler, validator, uiDesignerProperties);
     }
 
-    /**
-     * Save an identifiable object in a json file
-     *
-     * @throws IOException
-     */
     @Override
-    public void save(Path directory, Widget content) throws IOException {
-        var versionToSet = this.uiDesignerProperties.getVersion();
-        // Split version before '_' to avoid patch tagged version compatible
-        String[] currentVersion;
-        if (versionToSet != null) {
-            currentVersion = versionToSet.split("_");
-            versionToSet = currentVersion[0];
-        }
-        content.setDesignerVersionIfEmpty(versionToSet);
-        var artifactVersion = content.getArtifactVersion();
-        setModelVersion(content, artifactVersion);
+    protected void prepare(Widget content) {
+        content.setDesignerVersionIfEmpty(getDesignerVersion());
+        setModelVersion(content, content.getArtifactVersion());
         validator.validate(content);
+    }
 
+    /**
+     * Serialize the template and the controller of a widget in their own files, next to its json file
+     */
+    @Override
+    protected Map<Path, byte[]> serialize(Path directory, Widget content) throws IOException {
+        var files = new LinkedHashMap<Path, byte[]>();
         var templateFileName = content.getId() + ".tpl.html";
-        var templatePath = getFilePath(directory, templateFileName);
         var templateValue = content.getTemplate();
         var controllerFileName = content.getId() + ".ctrl.js";
-        var controllerPath = getFilePath(directory, controllerFileName);
         var controllerValue = content.getController();
         try {
             if (templateValue != null && !templateValue.startsWith("@")) {
-                write(templatePath, templateValue.getBytes(StandardCharsets.UTF_8));
+                files.put(getFilePath(directory, templateFileName), templateValue.getBytes(StandardCharsets.UTF_8));
                 content.setTemplate("@" + templateFileName);
             }
             if (controllerValue != null && !controllerValue.startsWith("@")) {
-                write(controllerPath, controllerValue.getBytes(StandardCharsets.UTF_8));
+                files.put(getFilePath(directory, controllerFileName), controllerValue.getBytes(StandardCharsets.UTF_8));
                 content.setController("@" + controllerFileName);
             }
-            write(jsonFile(directory, content.getId()), jsonHandler.toPrettyJson(content, JsonViewPersistence.class));
-            // restore template and controller memory values once the widget has been persisted
+            files.putAll(super.serialize(directory, content));
+            return files;
+        } finally {
+            // restore template and controller memory values once the widget has been serialized
             content.setTemplate(templateValue);
             content.setController(controllerValue);
-            var metadataPath = updateMetadata(directory, content);
-            if (content instanceof HasUUID && !StringUtils.isEmpty(((HasUUID) content).getUUID())) {
-                //update index used by the studio to find artifacts given their UUID
-                saveInIndex(metadataPath, content);
-            }
-        } catch (RuntimeException e) {
-            //Jackson can sent Runtime exception. We change this one to IO because this exception is caught higher
-            throw new IOException(e);
         }
     }
 
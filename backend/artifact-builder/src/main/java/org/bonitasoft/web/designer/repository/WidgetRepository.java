@@ -53,6 +53,17 @@ public class WidgetRepository extends AbstractRepository<Widget> {
         return "widget";
     }
 
+    @Override
+    public Widget toLightArtifact(ArtifactSummary summary) {
+        var widget = summary.assignTo(new Widget());
+        widget.setId(summary.getId());
+        widget.setName(summary.getName());
+        widget.setType(summary.getType());
+        widget.setLastUpdate(summary.getLastUpdate());
+        widget.setCustom(summary.isCustom());
+        return widget;
+    }
+
     @Override
     public void delete(String widgetId) throws RepositoryException, NotAllowedException, InUseException {
         var widget = get(widgetId);
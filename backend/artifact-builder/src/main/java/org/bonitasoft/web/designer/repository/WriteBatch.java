@@ -0,0 +1,82 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+/**
+ * Set of file writes applied on commit.
+ * <p>
+ * Each content is staged in a file next to its target and forced to disk, see {@link AtomicFiles}. {@link #commit()}
+ * then atomically moves the staged files in place one after the other and syncs each of the touched directories once.
+ * A reader never sees a partially written file, but may see some files of the batch already replaced while others are
+ * not yet: the batch as a whole is not atomic. Contents still staged when the batch is closed are discarded.
+ */
+public class WriteBatch implements Closeable {
+
+    private final Map<Path, Path> staged = new LinkedHashMap<>();
+
+    /**
+     * Stage the content of the given file, replacing any content previously staged for it
+     */
+    public void write(Path file, byte[] content) throws IOException {
+        var directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        var temp = AtomicFiles.createStagedFile(file);
+        try {
+            AtomicFiles.writeAndForce(temp, content);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        var previous = staged.put(file, temp);
+        if (previous != null) {
+            Files.deleteIfExists(previous);
+        }
+    }
+
+    public boolean isEmpty() {
+        return staged.isEmpty();
+    }
+
+    /**
+     * Move all the staged files in place then sync their directories
+     */
+    public void commit() throws IOException {
+        var directories = new LinkedHashSet<Path>();
+        var iterator = staged.entrySet().iterator();
+        while (iterator.hasNext()) {
+            var entry = iterator.next();
+            AtomicFiles.move(entry.getValue(), entry.getKey());
+            iterator.remove();
+            directories.add(entry.getKey().toAbsolutePath().getParent());
+        }
+        directories.forEach(AtomicFiles::syncDirectory);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Path temp : staged.values()) {
+            Files.deleteIfExists(temp);
+        }
+        staged.clear();
+    }
+}
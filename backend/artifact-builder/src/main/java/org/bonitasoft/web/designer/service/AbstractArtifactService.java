@@ -18,8 +18,19 @@ import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.controller.MigrationStatusReport;
 import org.bonitasoft.web.designer.migration.Version;
 import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.model.WidgetContainerRepository;
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
 import org.bonitasoft.web.designer.repository.Repository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Comparator.comparing;
+
 public abstract class AbstractArtifactService<R extends Repository<T>, T extends Identifiable> implements ArtifactService<T> {
 
     protected UiDesignerProperties uiDesignerProperties;
@@ -50,7 +61,16 @@ public abstract class AbstractArtifactService<R extends Repository<T>, T extends
      */
     public MigrationStatusReport getStatusWithoutDependencies(T artifact) {
         // Check status of this artifact
-        var artifactVersion = artifact.getArtifactVersion();
+        return getStatusWithoutDependencies(artifact.getArtifactVersion());
+    }
+
+    /**
+     * Return status of an artifact version without checking dependencies
+     *
+     * @param artifactVersion
+     * @return MigrationStatusReport
+     */
+    public MigrationStatusReport getStatusWithoutDependencies(String artifactVersion) {
         if (artifactVersion == null) {
             return new MigrationStatusReport(true, true);
         }
@@ -70,4 +90,43 @@ public abstract class AbstractArtifactService<R extends Repository<T>, T extends
 
         return new MigrationStatusReport(isCompatible, needMigration);
     }
+
+    /**
+     * Return status of an artifact from its summary, the status of the widgets and fragments it uses being already known.
+     * Unknown widgets and fragments are ignored.
+     */
+    protected MigrationStatusReport getStatus(ArtifactSummary summary, Map<String, MigrationStatusReport> widgetStatuses,
+                                              Map<String, MigrationStatusReport> fragmentStatuses) {
+        var report = getStatusWithoutDependencies(summary.getArtifactVersion());
+        for (var widgetId : summary.getWidgetIds()) {
+            if (widgetStatuses.containsKey(widgetId)) {
+                report = mergeStatusReport(report, widgetStatuses.get(widgetId));
+            }
+        }
+        for (var fragmentId : summary.getFragmentIds()) {
+            if (fragmentStatuses.containsKey(fragmentId)) {
+                report = mergeStatusReport(report, fragmentStatuses.get(fragmentId));
+            }
+        }
+        return report;
+    }
+
+    /**
+     * For each id, the light artifacts of a repository referencing it, computed from the summaries of the repository
+     */
+    protected Map<String, List<Identifiable>> findUsages(WidgetContainerRepository<?> usedByRepository,
+                                                         Function<ArtifactSummary, Set<String>> references) {
+        Map<String, List<Identifiable>> usages = new HashMap<>();
+        var summaries = new ArrayList<>(usedByRepository.getAllSummaries());
+        summaries.sort(comparing(ArtifactSummary::getId));
+        for (var summary : summaries) {
+            for (var id : references.apply(summary)) {
+                // We consider only another objects
+                if (!id.equals(summary.getId())) {
+                    usages.computeIfAbsent(id, k -> new ArrayList<>()).add(usedByRepository.toLightArtifact(summary));
+                }
+            }
+        }
+        return usages;
+    }
 }
@@ -35,7 +35,7 @@ public class BondsTypesFixer<T extends Identifiable & Previewable> {
         var fixBondsTypesVisitor = new FixBondsTypesVisitor(properties);
         for (var artifactUsingWidget : artifactsUsingWidget) {
             fixBondsTypesVisitor.visit(artifactUsingWidget);
-            repository.save(artifactUsingWidget);
         }
+        repository.saveBatch(artifactsUsingWidget);
     }
 }
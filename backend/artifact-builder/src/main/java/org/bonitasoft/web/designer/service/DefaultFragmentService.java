@@ -22,6 +22,7 @@ import org.bonitasoft.web.designer.controller.Predicates;
 import org.bonitasoft.web.designer.controller.asset.PageAssetPredicate;
 import org.bonitasoft.web.designer.model.Identifiable;
 import org.bonitasoft.web.designer.model.ModelException;
+import org.bonitasoft.web.designer.model.WidgetContainerRepository;
 import org.bonitasoft.web.designer.model.asset.Asset;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.migrationReport.MigrationResult;
@@ -34,6 +35,7 @@ import org.bonitasoft.web.designer.model.page.FragmentElement;
 import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.model.page.Previewable;
 import org.bonitasoft.web.designer.repository.AbstractRepository;
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
 import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.repository.Repository;
@@ -44,15 +46,21 @@ import org.bonitasoft.web.designer.visitor.FragmentChangeVisitor;
 import org.bonitasoft.web.designer.visitor.FragmentIdVisitor;
 import org.bonitasoft.web.designer.visitor.PageHasValidationErrorVisitor;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.*;
 import static org.bonitasoft.web.designer.repository.exception.NotAllowedException.checkNotAllowed;
 import static org.springframework.util.StringUtils.hasText;
@@ -73,12 +81,16 @@ public class DefaultFragmentService extends AbstractArtifactService<FragmentRepo
 
     private final List<Repository<?>> usedByRepositories;
 
+    private final MigrationStatusCache migrationStatusCache;
+
     public DefaultFragmentService(FragmentRepository fragmentRepository, PageRepository pageRepository,
                                   FragmentMigrationApplyer fragmentMigrationApplyer,
                                   FragmentIdVisitor fragmentIdVisitor, FragmentChangeVisitor fragmentChangeVisitor, PageHasValidationErrorVisitor pageHasValidationErrorVisitor,
                                   AssetVisitor assetVisitor,
-                                  UiDesignerProperties uiDesignerProperties) {
+                                  UiDesignerProperties uiDesignerProperties,
+                                  MigrationStatusCache migrationStatusCache) {
         super(uiDesignerProperties, fragmentRepository);
+        this.migrationStatusCache = migrationStatusCache;
         this.pageRepository = pageRepository;
         this.fragmentMigrationApplyer = fragmentMigrationApplyer;
         this.fragmentIdVisitor = fragmentIdVisitor;
@@ -111,7 +123,7 @@ public class DefaultFragmentService extends AbstractArtifactService<FragmentRepo
             fragments = repository.getAll();
         }
         fragments = fragments.stream().map(f -> {
-            f.setStatus(this.getStatus(f));
+            f.setStatus(migrationStatusCache.get(f, this::getStatus));
             return f;
         }).collect(toList());
 
@@ -120,6 +132,81 @@ public class DefaultFragmentService extends AbstractArtifactService<FragmentRepo
         return fragments;
     }
 
+    @Override
+    public List<Fragment> getAllLightNotUsingFragment(String elementId) {
+        var summaries = repository.getAllSummaries();
+        var statuses = getMigrationStatusById(summaries);
+        Set<String> excluded = hasText(elementId) ? getFragmentsUsingElement(elementId, summaries) : emptySet();
+
+        List<Fragment> fragments = new ArrayList<>();
+        for (var summary : summaries) {
+            if (!excluded.contains(summary.getId())) {
+                var fragment = repository.toLightArtifact(summary);
+                fragment.setStatus(statuses.get(summary.getId()));
+                fragments.add(fragment);
+            }
+        }
+
+        for (var repo : List.<WidgetContainerRepository<?>>of(pageRepository, repository)) {
+            var usages = findUsages(repo, ArtifactSummary::getFragmentIds);
+            for (Fragment fragment : fragments) {
+                fragment.addUsedBy(repo.getComponentName(), usages.get(fragment.getId()));
+            }
+        }
+        return fragments;
+    }
+
+    @Override
+    public Map<String, MigrationStatusReport> getMigrationStatusById() {
+        return getMigrationStatusById(repository.getAllSummaries());
+    }
+
+    private Map<String, MigrationStatusReport> getMigrationStatusById(List<ArtifactSummary> summaries) {
+        var widgetStatuses = fragmentMigrationApplyer.getMigrationStatusOfWidgets();
+        Map<String, ArtifactSummary> summariesById = summaries.stream().collect(toMap(ArtifactSummary::getId, identity()));
+        Map<String, MigrationStatusReport> statuses = new HashMap<>();
+        for (var id : summariesById.keySet()) {
+            resolveStatus(id, summariesById, widgetStatuses, statuses);
+        }
+        return statuses;
+    }
+
+    /**
+     * Resolve the status of the fragments used before the one of the fragment using them
+     */
+    private void resolveStatus(String id, Map<String, ArtifactSummary> summaries, Map<String, MigrationStatusReport> widgetStatuses,
+                               Map<String, MigrationStatusReport> statuses) {
+        var summary = summaries.get(id);
+        if (summary == null || statuses.containsKey(id)) {
+            return;
+        }
+        // A fragment using itself, even indirectly, would otherwise be resolved endlessly
+        statuses.put(id, getStatusWithoutDependencies(summary.getArtifactVersion()));
+        for (var fragmentId : summary.getFragmentIds()) {
+            resolveStatus(fragmentId, summaries, widgetStatuses, statuses);
+        }
+        statuses.put(id, getStatus(summary, widgetStatuses, statuses));
+    }
+
+    /**
+     * Same as {@link FragmentRepository#getAllNotUsingElement(String)} computed from the summaries: ids of the
+     * element and of the fragments using it, directly or not
+     */
+    private Set<String> getFragmentsUsingElement(String elementId, List<ArtifactSummary> summaries) {
+        Set<String> fragmentIds = new HashSet<>();
+        Deque<String> toVisit = new ArrayDeque<>();
+        toVisit.push(elementId);
+        while (!toVisit.isEmpty()) {
+            var id = toVisit.pop();
+            if (fragmentIds.add(id)) {
+                summaries.stream()
+                        .filter(summary -> summary.getWidgetIds().contains(id) || summary.getFragmentIds().contains(id))
+                        .forEach(summary -> toVisit.push(summary.getId()));
+            }
+        }
+        return fragmentIds;
+    }
+
     @Override
     public Fragment getWithAsset(String id) {
         var fragment = repository.get(id);
@@ -180,8 +267,9 @@ public class DefaultFragmentService extends AbstractArtifactService<FragmentRepo
     @Override
     public MigrationStatusReport getMigrationStatusOfFragmentUsed(Previewable previewable) {
         List<MigrationStatusReport> reports = new ArrayList<>();
+        // Used fragments are the persisted ones, their status is computed once until a widget or fragment is modified
         repository.getByIds(fragmentIdVisitor.visit(previewable))
-                .forEach(fragment -> reports.add(getStatus(fragment)));
+                .forEach(fragment -> reports.add(migrationStatusCache.get(fragment, this::getStatus)));
 
         var migration = false;
         for (var report : reports) {
@@ -346,6 +434,7 @@ public class DefaultFragmentService extends AbstractArtifactService<FragmentRepo
         fragmentChangeVisitor.setNewFragmentId(newFragmentId);
         fragmentChangeVisitor.setFragmentToReplace(oldFragmentId);
 
+        List<T> updatedArtifacts = new ArrayList<>();
         // set the has valid error
         artifacts.forEach(identifiable -> {
             var artifact = (T) repo.get(identifiable.getId());
@@ -361,8 +450,11 @@ public class DefaultFragmentService extends AbstractArtifactService<FragmentRepo
             List<List<Element>> rows = artifact.getRows();
             fragmentChangeVisitor.visitRows(rows);
 
-            repo.updateLastUpdateAndSave(artifact);
+            updatedArtifacts.add(artifact);
         });
+        if (!updatedArtifacts.isEmpty()) {
+            repo.updateLastUpdateAndSaveBatch(updatedArtifacts);
+        }
     }
 
     private void updateArtifactValidationError(AbstractPage artifact, boolean newHasValidationError, String newFragmentId) {
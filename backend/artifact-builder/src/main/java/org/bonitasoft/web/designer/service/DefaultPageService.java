@@ -93,6 +93,17 @@ public class DefaultPageService extends AbstractAssetableArtifactService<PageRep
         }).collect(toList());
     }
 
+    @Override
+    public List<Page> getAllLight() {
+        var widgetStatuses = pageMigrationApplyer.getMigrationStatusOfWidgets();
+        var fragmentStatuses = pageMigrationApplyer.getMigrationStatusOfFragments();
+        return repository.getAllSummaries().stream().map(summary -> {
+            var page = repository.toLightArtifact(summary);
+            page.setStatus(getStatus(summary, widgetStatuses, fragmentStatuses));
+            return page;
+        }).collect(toList());
+    }
+
     @Override
     public ArtifactInfo getInfo(String id) {
         Page page = repository.get(id);
@@ -184,6 +195,13 @@ public class DefaultPageService extends AbstractAssetableArtifactService<PageRep
 
     @Override
     public List<String> getResources(Page page) {
+        var componentList = new ArrayList<Component>();
+        componentVisitor.visit(page).forEach(componentList::add);
+        return getResources(page, componentList);
+    }
+
+    @Override
+    public List<String> getResources(Page page, List<Component> componentList) {
         List<String> resources = page.getVariables().values().stream()
                 .filter(new BonitaVariableResourcePredicate(BONITA_RESOURCE_REGEX))
                 .map(new BonitaResourceTransformer(BONITA_RESOURCE_REGEX))
@@ -196,9 +214,6 @@ public class DefaultPageService extends AbstractAssetableArtifactService<PageRep
 
         resources.addAll(extension);
 
-        var componentList = new ArrayList<Component>();
-        componentVisitor.visit(page).forEach(componentList::add);
-
         if (componentList.stream()
                 .anyMatch(withAction("Start process"))) {
             resources.add("POST|bpm/process");
@@ -26,6 +26,7 @@ import org.bonitasoft.web.designer.model.migrationReport.MigrationStepReport;
 import org.bonitasoft.web.designer.model.page.Previewable;
 import org.bonitasoft.web.designer.model.widget.Property;
 import org.bonitasoft.web.designer.model.widget.Widget;
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
 import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.repository.WidgetRepository;
@@ -37,7 +38,9 @@ import org.bonitasoft.web.designer.visitor.WidgetIdVisitor;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
@@ -183,6 +186,33 @@ public class DefaultWidgetService extends AbstractAssetableArtifactService<Widge
         return widgets;
     }
 
+    @Override
+    public List<Widget> getAllLight() {
+        List<Widget> widgets = new ArrayList<>();
+        for (var summary : repository.getAllSummaries()) {
+            var widget = repository.toLightArtifact(summary);
+            widget.setStatus(getStatusWithoutDependencies(summary.getArtifactVersion()));
+            widgets.add(widget);
+        }
+
+        for (var containerRepository : widgetContainerRepositories) {
+            var usages = findUsages(containerRepository, ArtifactSummary::getWidgetIds);
+            for (Widget widget : widgets) {
+                widget.addUsedBy(containerRepository.getComponentName(), usages.get(widget.getId()));
+            }
+        }
+        return widgets;
+    }
+
+    @Override
+    public Map<String, MigrationStatusReport> getMigrationStatusById() {
+        Map<String, MigrationStatusReport> statuses = new HashMap<>();
+        for (var summary : repository.getAllSummaries()) {
+            statuses.put(summary.getId(), getStatusWithoutDependencies(summary.getArtifactVersion()));
+        }
+        return statuses;
+    }
+
     @Override
     public void delete(String id) {
         var widget = repository.get(id);
@@ -27,6 +27,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 public class FragmentMigrationApplyer {
 
@@ -65,6 +66,10 @@ public class FragmentMigrationApplyer {
         return widgetService.getMigrationStatusOfCustomWidgetUsed(fragment);
     }
 
+    public Map<String, MigrationStatusReport> getMigrationStatusOfWidgets() {
+        return widgetService.getMigrationStatusById();
+    }
+
     private List<MigrationStepReport> migrateAllCustomWidgetUsed(Fragment fragment) {
         return widgetService.migrateAllCustomWidgetUsedInPreviewable(fragment);
     }
@@ -10,6 +10,7 @@ import org.bonitasoft.web.designer.model.migrationReport.MigrationStepReport;
 import org.bonitasoft.web.designer.model.page.Previewable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface FragmentService extends ArtifactService<Fragment> {
@@ -22,6 +23,20 @@ public interface FragmentService extends ArtifactService<Fragment> {
      */
     List<Fragment> getAllNotUsingFragment(String elementId);
 
+    /**
+     * Same as {@link #getAllNotUsingFragment(String)} with only the fields of the light view, without reading the
+     * fragments nor the artifacts using them
+     *
+     * @param elementId if null, return all fragments
+     * @return a list of {@link Fragment}
+     */
+    List<Fragment> getAllLightNotUsingFragment(String elementId);
+
+    /**
+     * Migration status of each fragment, including the widgets and fragments it uses, computed without reading them
+     */
+    Map<String, MigrationStatusReport> getMigrationStatusById();
+
     /**
      * Migrate a fragment. Most of the time, we would not migrate the fragments and the widgets used in the current
      * fragment. (As this is done at the page level, so 'migrateChildren' will be false)
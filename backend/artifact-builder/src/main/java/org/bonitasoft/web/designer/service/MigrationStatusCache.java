@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.service;
+
+import lombok.RequiredArgsConstructor;
+import org.bonitasoft.web.designer.controller.MigrationStatusReport;
+import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.repository.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the migration status of persisted artifacts so that the status of an artifact used by many others, like a
+ * shared fragment, is computed once instead of once per artifact using it.
+ * <p>
+ * Statuses are kept per artifact id and version. As the status of an artifact also depends on the artifacts it uses,
+ * all of them are dropped as soon as one of the watched repositories is modified, whatever the modified component.
+ * Each status is tagged with the modification count read before computing it, so that a status computed before the
+ * statuses were dropped is neither stored nor served afterwards.
+ */
+public class MigrationStatusCache {
+
+    private final List<Repository<?>> repositories;
+    private final Map<String, Entry> statuses = new ConcurrentHashMap<>();
+    private long modificationCount = -1;
+
+    public MigrationStatusCache(List<Repository<?>> repositories) {
+        this.repositories = repositories;
+    }
+
+    /**
+     * Get the status of an artifact as stored in its repository, computing it on cache miss. The computation may itself
+     * use the cache for the artifacts the artifact depends on.
+     */
+    public <T extends Identifiable> MigrationStatusReport get(T artifact, Function<T, MigrationStatusReport> computation) {
+        var modifications = checkModifications();
+        var key = artifact.getClass().getName() + ":" + artifact.getId() + "@" + artifact.getArtifactVersion();
+        var entry = statuses.get(key);
+        if (entry != null && entry.modifications == modifications) {
+            return entry.status;
+        }
+        var status = computation.apply(artifact);
+        store(key, new Entry(modifications, status));
+        return status;
+    }
+
+    public int size() {
+        return statuses.size();
+    }
+
+    private synchronized long checkModifications() {
+        var modifications = modificationCount();
+        if (modifications != modificationCount) {
+            statuses.clear();
+            modificationCount = modifications;
+        }
+        return modifications;
+    }
+
+    /**
+     * Store a status unless a repository was modified since its computation started, the statuses being dropped
+     * under the same lock
+     */
+    private synchronized void store(String key, Entry entry) {
+        if (entry.modifications == modificationCount && entry.modifications == modificationCount()) {
+            statuses.put(key, entry);
+        }
+    }
+
+    private long modificationCount() {
+        return repositories.stream().mapToLong(Repository::getModificationCount).sum();
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final long modifications;
+        private final MigrationStatusReport status;
+    }
+}
@@ -28,6 +28,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 public class PageMigrationApplyer {
@@ -69,6 +70,14 @@ public class PageMigrationApplyer {
         return new MigrationStatusReport(true, false);
     }
 
+    public Map<String, MigrationStatusReport> getMigrationStatusOfWidgets() {
+        return widgetService.getMigrationStatusById();
+    }
+
+    public Map<String, MigrationStatusReport> getMigrationStatusOfFragments() {
+        return fragmentService.getMigrationStatusById();
+    }
+
     protected void updatePreviousArtifactVersionIfMigrationDone(Page page, String formerArtifactVersion, Instant startTime) {
         if (!StringUtils.equals(formerArtifactVersion, page.getArtifactVersion())) {
             page.setPreviousArtifactVersion(formerArtifactVersion);
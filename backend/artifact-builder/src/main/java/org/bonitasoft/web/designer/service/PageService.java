@@ -2,6 +2,7 @@ package org.bonitasoft.web.designer.service;
 
 import org.bonitasoft.web.designer.controller.ArtifactInfo;
 import org.bonitasoft.web.designer.model.asset.Asset;
+import org.bonitasoft.web.designer.model.page.Component;
 import org.bonitasoft.web.designer.model.page.Page;
 
 import java.util.List;
@@ -15,6 +16,11 @@ public interface PageService extends AssetableArtifactService<Page> {
 
     Page create(Page page);
 
+    /**
+     * All the pages with only the fields of the light view and their migration status, without reading them
+     */
+    List<Page> getAllLight();
+
     Page createFrom(String sourcePageId, Page page);
 
     Page save(String pageId, Page page);
@@ -25,5 +31,10 @@ public interface PageService extends AssetableArtifactService<Page> {
 
     List<String> getResources(Page page);
 
+    /**
+     * Same as {@link #getResources(Page)} for already collected page components
+     */
+    List<String> getResources(Page page, List<Component> components);
+
     Set<Asset> listAsset(Page page);
 }
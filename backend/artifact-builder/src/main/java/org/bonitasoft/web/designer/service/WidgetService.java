@@ -7,6 +7,7 @@ import org.bonitasoft.web.designer.model.widget.Property;
 import org.bonitasoft.web.designer.model.widget.Widget;
 
 import java.util.List;
+import java.util.Map;
 
 public interface WidgetService extends AssetableArtifactService<Widget> {
     Widget create(Widget widget);
@@ -29,6 +30,17 @@ public interface WidgetService extends AssetableArtifactService<Widget> {
 
     List<Widget> getAllWithUsedBy();
 
+    /**
+     * Same as {@link #getAllWithUsedBy()} with only the fields of the light view, without reading the widgets nor the
+     * artifacts using them
+     */
+    List<Widget> getAllLight();
+
+    /**
+     * Migration status of each widget, computed without reading the widgets
+     */
+    Map<String, MigrationStatusReport> getMigrationStatusById();
+
     void delete(String id);
 
     List<MigrationStepReport> migrateAllCustomWidgetUsedInPreviewable(Previewable previewable);
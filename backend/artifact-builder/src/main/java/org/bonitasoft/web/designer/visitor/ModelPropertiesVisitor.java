@@ -95,8 +95,15 @@ public class ModelPropertiesVisitor implements ElementVisitor<Map<String, Map<St
     }
 
     public <P extends Previewable & Identifiable> String generate(P previewable) {
+        return buildFactory(this.visit(previewable));
+    }
+
+    @Override
+    public <P extends Previewable & Identifiable> String generate(P previewable, PageAnalysis analysis) {
+        return buildFactory(analysis.getModelProperties());
+    }
 
-        var resources = this.visit(previewable);
+    private String buildFactory(Map<String, Map<String, PropertyValue>> resources) {
         return new TemplateEngine("factory.hbs.js")
                 .with("name", "modelProperties")
                 .with("resources", resources == null ? resources : new TreeMap<>(resources))
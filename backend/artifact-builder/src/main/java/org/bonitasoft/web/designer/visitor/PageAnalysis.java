@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.visitor;
+
+import org.bonitasoft.web.designer.model.asset.Asset;
+import org.bonitasoft.web.designer.model.data.Variable;
+import org.bonitasoft.web.designer.model.page.Component;
+import org.bonitasoft.web.designer.model.page.PropertyValue;
+import org.bonitasoft.web.designer.model.widget.Widget;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Collections.unmodifiableCollection;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * Everything the rendering and export steps need to know about a previewable, collected in a single traversal of its
+ * element tree by {@link PageAnalyzer}.
+ * <p>
+ * Each accessor returns the same result as the dedicated visitor it replaces ({@link WidgetIdVisitor},
+ * {@link FragmentIdVisitor}, {@link AssetVisitor}, {@link RequiredModulesVisitor}, {@link ComponentVisitor},
+ * {@link ModelPropertiesVisitor} and the angularJS property values and variable model visitors).
+ */
+public class PageAnalysis {
+
+    private final Set<String> widgetIds;
+    private final Collection<Widget> widgets;
+    private final Set<String> fragmentIds;
+    private final Set<Asset> assets;
+    private final Set<String> requiredModules;
+    private final List<Component> components;
+    private final Map<String, Map<String, PropertyValue>> propertyValues;
+    private final Map<String, Map<String, PropertyValue>> modelProperties;
+    private final Map<String, Map<String, Variable>> variables;
+
+    PageAnalysis(Set<String> widgetIds, Collection<Widget> widgets, Set<String> fragmentIds, Set<Asset> assets,
+                 Set<String> requiredModules, List<Component> components,
+                 Map<String, Map<String, PropertyValue>> propertyValues,
+                 Map<String, Map<String, PropertyValue>> modelProperties,
+                 Map<String, Map<String, Variable>> variables) {
+        this.widgetIds = unmodifiableSet(widgetIds);
+        this.widgets = unmodifiableCollection(widgets);
+        this.fragmentIds = unmodifiableSet(fragmentIds);
+        this.assets = unmodifiableSet(assets);
+        this.requiredModules = unmodifiableSet(requiredModules);
+        this.components = unmodifiableList(components);
+        this.propertyValues = unmodifiableMap(propertyValues);
+        this.modelProperties = unmodifiableMap(modelProperties);
+        this.variables = unmodifiableMap(variables);
+    }
+
+    /**
+     * Ids of the widgets used in the previewable, including containers and the content of its fragments
+     */
+    public Set<String> getWidgetIds() {
+        return widgetIds;
+    }
+
+    /**
+     * Widgets used in the previewable, each one loaded once
+     */
+    public Collection<Widget> getWidgets() {
+        return widgets;
+    }
+
+    /**
+     * Ids of the fragments used in the previewable, including nested fragments
+     */
+    public Set<String> getFragmentIds() {
+        return fragmentIds;
+    }
+
+    /**
+     * Page and widget assets, with their scope, component id and active flag set
+     */
+    public Set<Asset> getAssets() {
+        return assets;
+    }
+
+    public Set<String> getRequiredModules() {
+        return requiredModules;
+    }
+
+    /**
+     * Components of the previewable and of its fragments, in document order
+     */
+    public List<Component> getComponents() {
+        return components;
+    }
+
+    public Map<String, Map<String, PropertyValue>> getPropertyValues() {
+        return propertyValues;
+    }
+
+    public Map<String, Map<String, PropertyValue>> getModelProperties() {
+        return modelProperties;
+    }
+
+    public Map<String, Map<String, Variable>> getVariables() {
+        return variables;
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.visitor;
+
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.bonitasoft.web.designer.model.Assetable;
+import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.model.asset.Asset;
+import org.bonitasoft.web.designer.model.data.Variable;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.bonitasoft.web.designer.model.page.Component;
+import org.bonitasoft.web.designer.model.page.Container;
+import org.bonitasoft.web.designer.model.page.Element;
+import org.bonitasoft.web.designer.model.page.FormContainer;
+import org.bonitasoft.web.designer.model.page.FragmentElement;
+import org.bonitasoft.web.designer.model.page.ModalContainer;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.model.page.Previewable;
+import org.bonitasoft.web.designer.model.page.PropertyValue;
+import org.bonitasoft.web.designer.model.page.TabContainer;
+import org.bonitasoft.web.designer.model.page.TabsContainer;
+import org.bonitasoft.web.designer.model.widget.Widget;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.Repository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.stream.Collectors.toMap;
+import static org.bonitasoft.web.designer.model.asset.AssetScope.PAGE;
+import static org.bonitasoft.web.designer.model.asset.AssetScope.WIDGET;
+
+/**
+ * Builds a {@link PageAnalysis} of a previewable by traversing its element tree once, resolving each fragment and
+ * each widget a single time.
+ * <p>
+ * Analyses of pages and fragments are cached per artifact version: previews and exports read the artifact from its
+ * repository, so every step rendering a version shares the same analysis. A version is told by the modification count
+ * of the artifact in its repository, along with the ones of the widget and fragment repositories since the analysis
+ * also depends on the widgets and fragments used.
+ */
+public class PageAnalyzer {
+
+    private final PageRepository pageRepository;
+    private final WidgetRepository widgetRepository;
+    private final FragmentRepository fragmentRepository;
+
+    // artifact kind and id -> analysis of its last analysed version
+    private final Map<String, CachedAnalysis> analyses = new ConcurrentHashMap<>();
+
+    public PageAnalyzer(PageRepository pageRepository, WidgetRepository widgetRepository, FragmentRepository fragmentRepository) {
+        this.pageRepository = pageRepository;
+        this.widgetRepository = widgetRepository;
+        this.fragmentRepository = fragmentRepository;
+    }
+
+    public <P extends Previewable & Identifiable> PageAnalysis analyze(P previewable) {
+        var repository = repositoryOf(previewable);
+        if (repository == null || previewable.getId() == null) {
+            return new Traversal().analyze(previewable);
+        }
+        var key = previewable.getClass().getName() + ":" + previewable.getId();
+        // read before the traversal, so that a version modified meanwhile is analysed again
+        var version = new Version(repository.getModificationCount(previewable.getId()),
+                widgetRepository.getModificationCount(), fragmentRepository.getModificationCount());
+        var cached = analyses.get(key);
+        if (cached != null && cached.version.equals(version)) {
+            return cached.analysis;
+        }
+        var analysis = new Traversal().analyze(previewable);
+        analyses.put(key, new CachedAnalysis(version, analysis));
+        return analysis;
+    }
+
+    private Repository<?> repositoryOf(Previewable previewable) {
+        if (previewable instanceof Page) {
+            return pageRepository;
+        }
+        if (previewable instanceof Fragment) {
+            return fragmentRepository;
+        }
+        return null;
+    }
+
+    /**
+     * Accumulates everything in one depth first walk. Entries are put in the same order as the dedicated visitors
+     * did, so that a reference used twice resolves to the same value.
+     */
+    private class Traversal implements ElementVisitor<Void> {
+
+        private final Map<String, Fragment> fragments = new HashMap<>();
+        private final Set<String> widgetIds = new HashSet<>();
+        // Tab containers do not contribute assets nor modules
+        private final Set<String> resourceWidgetIds = new HashSet<>();
+        private final Set<String> fragmentIds = new HashSet<>();
+        private final List<Component> components = new ArrayList<>();
+        private final Map<String, Map<String, PropertyValue>> propertyValues = new HashMap<>();
+        private final Map<String, Map<String, PropertyValue>> modelProperties = new HashMap<>();
+        private final Map<String, Map<String, Variable>> variables = new HashMap<>();
+
+        <P extends Previewable & Identifiable> PageAnalysis analyze(P previewable) {
+            visit(previewable);
+
+            Map<String, Widget> widgets = new LinkedHashMap<>();
+            for (var widgetId : widgetIds) {
+                widgets.put(widgetId, widgetRepository.get(widgetId));
+            }
+            Set<String> requiredModules = new HashSet<>();
+            for (var widgetId : resourceWidgetIds) {
+                requiredModules.addAll(widgets.get(widgetId).getRequiredModules());
+            }
+            return new PageAnalysis(widgetIds, widgets.values(), fragmentIds, collectAssets(previewable, widgets),
+                    requiredModules, components, propertyValues, modelProperties, variables);
+        }
+
+        private Set<Asset> collectAssets(Previewable previewable, Map<String, Widget> widgets) {
+            Set<Asset> assets = new HashSet<>();
+            if (previewable instanceof Assetable) {
+                for (var asset : ((Assetable) previewable).getAssets()) {
+                    assets.add(asset.setScope(PAGE));
+                }
+                for (var widgetId : resourceWidgetIds) {
+                    var widget = widgets.get(widgetId);
+                    //Component id and scope are not persisted
+                    for (var asset : widget.getAssets()) {
+                        asset.setComponentId(widget.getId());
+                        asset.setScope(WIDGET);
+                        assets.add(asset);
+                    }
+                }
+                //User can exclude assets or specify a specific order in the page
+                for (var asset : assets) {
+                    var key = asset.getId() != null ? asset.getId() : asset.getName();
+                    asset.setActive(!previewable.getInactiveAssets().contains(key));
+                }
+            }
+            return assets;
+        }
+
+        @Override
+        public Void visit(Container container) {
+            addWidget(container.getId(), true);
+            visitRows(container.getRows());
+            propertyValues.put(container.getReference(), container.getPropertyValues());
+            return null;
+        }
+
+        @Override
+        public Void visit(FormContainer formContainer) {
+            addWidget(formContainer.getId(), true);
+            formContainer.getContainer().accept(this);
+            propertyValues.put(formContainer.getReference(), formContainer.getPropertyValues());
+            return null;
+        }
+
+        @Override
+        public Void visit(TabsContainer tabsContainer) {
+            addWidget(tabsContainer.getId(), true);
+            propertyValues.put(tabsContainer.getReference(), tabsContainer.getPropertyValues());
+            for (var tabContainer : tabsContainer.getTabList()) {
+                tabContainer.accept(this);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(TabContainer tabContainer) {
+            addWidget(tabContainer.getId(), false);
+            tabContainer.getContainer().accept(this);
+            propertyValues.put(tabContainer.getReference(), tabContainer.getPropertyValues());
+            return null;
+        }
+
+        @Override
+        public Void visit(ModalContainer modalContainer) {
+            addWidget(modalContainer.getId(), true);
+            modalContainer.getContainer().accept(this);
+            propertyValues.put(modalContainer.getReference(), modalContainer.getPropertyValues());
+            return null;
+        }
+
+        @Override
+        public Void visit(Component component) {
+            addWidget(component.getId(), true);
+            components.add(component);
+            propertyValues.put(component.getReference(), component.getPropertyValues());
+            return null;
+        }
+
+        @Override
+        public Void visit(FragmentElement fragmentElement) {
+            var fragment = fragments.computeIfAbsent(fragmentElement.getId(), fragmentRepository::get);
+            fragmentIds.add(fragmentElement.getId());
+            modelProperties.put(fragmentElement.getReference(), getBindings(fragmentElement, fragment));
+            variables.put(fragment.getId(), fragment.getVariables());
+            visitRows(fragment.getRows());
+            propertyValues.put(fragmentElement.getReference(), fragmentElement.getPropertyValues());
+            return null;
+        }
+
+        @Override
+        public <P extends Previewable & Identifiable> Void visit(P previewable) {
+            variables.put(previewable.getId(), previewable.getVariables());
+            visitRows(previewable.getRows());
+            return null;
+        }
+
+        private void addWidget(String widgetId, boolean providesResources) {
+            widgetIds.add(widgetId);
+            if (providesResources) {
+                resourceWidgetIds.add(widgetId);
+            }
+        }
+
+        private void visitRows(List<List<Element>> rows) {
+            for (var row : rows) {
+                for (var element : row) {
+                    element.accept(this);
+                }
+            }
+        }
+
+        private Map<String, PropertyValue> getBindings(FragmentElement fragmentElement, Fragment fragment) {
+            var exposedData = fragment.getExposedVariables();
+            return fragmentElement.getBinding().entrySet().stream()
+                    .filter(entry -> exposedData.containsKey(entry.getKey()))
+                    .collect(toMap(Map.Entry::getKey, new FragmentBindingValueTransformer()));
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Version {
+        private final long artifactModifications;
+        private final long widgetModifications;
+        private final long fragmentModifications;
+    }
+
+    private static class CachedAnalysis {
+
+        private final Version version;
+        private final PageAnalysis analysis;
+
+        CachedAnalysis(Version version, PageAnalysis analysis) {
+            this.version = version;
+            this.analysis = analysis;
+        }
+    }
+}
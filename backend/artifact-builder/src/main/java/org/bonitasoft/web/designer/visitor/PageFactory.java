@@ -20,4 +20,11 @@ import org.bonitasoft.web.designer.model.page.Previewable;
 public interface PageFactory {
 
     <P extends Previewable & Identifiable> String generate(P previewable);
+
+    /**
+     * Same as {@link #generate(Previewable)}, reusing an analysis of the previewable when the factory needs one
+     */
+    default <P extends Previewable & Identifiable> String generate(P previewable, PageAnalysis analysis) {
+        return generate(previewable);
+    }
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.visitor;
+
+import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.model.page.Previewable;
+import org.bonitasoft.web.designer.rendering.GenerationException;
+
+/**
+ * A builder visitor writing the html of a previewable into a single output, so that the html of each element is written
+ * once whatever its depth in the page instead of being copied into the html of each of its ancestors
+ */
+public interface StreamingBuilderVisitor extends AbstractBuilderVisitor<String> {
+
+    <P extends Previewable & Identifiable> void build(P previewable, String resourceContext, Appendable out) throws GenerationException;
+
+    @Override
+    default <P extends Previewable & Identifiable> String build(P previewable, String resourceContext) throws GenerationException {
+        var out = new StringBuilder();
+        build(previewable, resourceContext, out);
+        return out.toString();
+    }
+}
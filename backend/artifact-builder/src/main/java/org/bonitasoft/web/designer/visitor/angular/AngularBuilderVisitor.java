@@ -23,8 +23,9 @@ import org.bonitasoft.web.designer.model.page.*;
 import org.bonitasoft.web.designer.rendering.GenerationException;
 import org.bonitasoft.web.designer.rendering.TemplateEngine;
 import org.bonitasoft.web.designer.service.WidgetService;
-import org.bonitasoft.web.designer.visitor.AbstractBuilderVisitor;
 import org.bonitasoft.web.designer.visitor.ElementVisitor;
+import org.bonitasoft.web.designer.visitor.HtmlWriter;
+import org.bonitasoft.web.designer.visitor.StreamingBuilderVisitor;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -32,93 +33,169 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 
-import static java.util.stream.Collectors.joining;
-import static java.util.stream.Collectors.toList;
+import static java.util.Collections.nCopies;
+import static org.bonitasoft.web.designer.rendering.TemplateEngine.SLOT;
 
 /**
- * An element visitor which traverses the tree of elements recursively to collect html parts of a page
+ * An element visitor which traverses the tree of elements recursively to collect html parts of a page.
+ * Html is written element after element into a single output, templates of containers being split around the place of
+ * their content.
  */
 @RequiredArgsConstructor
 @Slf4j
-public class AngularBuilderVisitor implements ElementVisitor<String>, AbstractBuilderVisitor<String> {
+public class AngularBuilderVisitor implements ElementVisitor<String>, StreamingBuilderVisitor {
 
     private final WorkspaceProperties workspaceProperties;
     private final WidgetService widgetService;
 
     @Override
-    public <P extends Previewable & Identifiable> String build(final P previewable, String resourceContext) {
-        var template = new TemplateEngine(Paths.get("angular/page.hbs.html").toString())
-                .with("rowsHtml", build(previewable.getRows()));
-        return template.build(previewable);
+    public <P extends Previewable & Identifiable> void build(final P previewable, String resourceContext, Appendable out) {
+        var parts = new TemplateEngine(Paths.get("angular/page.hbs.html").toString())
+                .with("rowsHtml", SLOT)
+                .buildAround(previewable, 1);
+        var writer = new ElementWriter(out);
+        writer.html.append(parts[0]);
+        writer.writeRows(previewable.getRows());
+        writer.html.append(parts[1]);
     }
 
     @Override
     public String visit(FragmentElement fragmentElement) {
-        return "";
+        return write(fragmentElement);
     }
 
     @Override
     public String visit(Container container) {
-        return new TemplateEngine("angular/container.hbs.html")
-                .with("rowsHtml", build(container.getRows()))
-                .build(container);
+        return write(container);
     }
 
     @Override
     public String visit(FormContainer formContainer) {
-        return "";
+        return write(formContainer);
     }
 
     @Override
     public String visit(TabsContainer tabsContainer) {
-        //Todo
-        return "";
+        return write(tabsContainer);
     }
 
     @Override
     public String visit(TabContainer tabContainer) {
-        //Todo
-        return "";
+        return write(tabContainer);
     }
 
     @Override
     public String visit(ModalContainer modalContainer) {
-        //Todo
-        return "";
+        return write(modalContainer);
     }
 
     @Override
     public String visit(Component component) {
-        // Load widget from component
-        var widget = widgetService.get(component.getId());
-
-        Path htmlTemplate = workspaceProperties.getWidgets().getDir().resolve(widget.getId()).resolve(widget.getHtmlBundle());
-        try {
-            // Write content in template
-            return new TemplateEngine(Paths.get("angular/component.hbs.html").toString())
-                    .with("template", Files.readString(htmlTemplate))
-                    .build(component);
-        } catch (IOException e) {
-            throw new GenerationException(String.format("Error on %s component generation template", component.getId()),e);
-        }
+        return write(component);
     }
 
     public String build(List<List<Element>> rows) {
-        return new TemplateEngine(Paths.get("angular/rows.hbs.html").toString())
-                .with("rows",
-                        rows.stream()
-                                .map(elements -> elements.stream()
-                                        .map(element -> element.accept(AngularBuilderVisitor.this))
-                                        .collect(joining(""))
-                                ).collect(toList())
-                )
-                .build(new Object());
+        var out = new StringBuilder();
+        new ElementWriter(out).writeRows(rows);
+        return out.toString();
     }
 
-
     @Override
     public String visit(Previewable previewable) {
         throw new ArtifactBuilderException("Can't build previewable html by visiting it. Need to call " +
                 "HtmlBuilderVisitor#build.");
     }
+
+    private String write(Element element) {
+        var out = new StringBuilder();
+        element.accept(new ElementWriter(out));
+        return out.toString();
+    }
+
+    /**
+     * Writes the html of the visited elements, and of their content, into a shared output
+     */
+    private class ElementWriter implements ElementVisitor<Void> {
+
+        private final HtmlWriter html;
+
+        ElementWriter(Appendable out) {
+            this.html = new HtmlWriter(out);
+        }
+
+        @Override
+        public Void visit(FragmentElement fragmentElement) {
+            return null;
+        }
+
+        @Override
+        public Void visit(Container container) {
+            var parts = new TemplateEngine("angular/container.hbs.html")
+                    .with("rowsHtml", SLOT)
+                    .buildAround(container, 1);
+            html.append(parts[0]);
+            writeRows(container.getRows());
+            html.append(parts[1]);
+            return null;
+        }
+
+        @Override
+        public Void visit(FormContainer formContainer) {
+            return null;
+        }
+
+        @Override
+        public Void visit(TabsContainer tabsContainer) {
+            //Todo
+            return null;
+        }
+
+        @Override
+        public Void visit(TabContainer tabContainer) {
+            //Todo
+            return null;
+        }
+
+        @Override
+        public Void visit(ModalContainer modalContainer) {
+            //Todo
+            return null;
+        }
+
+        @Override
+        public Void visit(Component component) {
+            // Load widget from component
+            var widget = widgetService.get(component.getId());
+
+            Path htmlTemplate = workspaceProperties.getWidgets().getDir().resolve(widget.getId()).resolve(widget.getHtmlBundle());
+            try {
+                // Write content in template
+                html.append(new TemplateEngine(Paths.get("angular/component.hbs.html").toString())
+                        .with("template", Files.readString(htmlTemplate))
+                        .build(component));
+                return null;
+            } catch (IOException e) {
+                throw new GenerationException(String.format("Error on %s component generation template", component.getId()),e);
+            }
+        }
+
+        @Override
+        public Void visit(Previewable previewable) {
+            throw new ArtifactBuilderException("Can't build previewable html by visiting it. Need to call " +
+                    "HtmlBuilderVisitor#build.");
+        }
+
+        void writeRows(List<List<Element>> rows) {
+            var parts = new TemplateEngine(Paths.get("angular/rows.hbs.html").toString())
+                    .with("rows", nCopies(rows.size(), SLOT))
+                    .buildAround(new Object(), rows.size());
+            html.append(parts[0]);
+            for (var i = 0; i < rows.size(); i++) {
+                for (var element : rows.get(i)) {
+                    element.accept(this);
+                }
+                html.append(parts[i + 1]);
+            }
+        }
+    }
 }
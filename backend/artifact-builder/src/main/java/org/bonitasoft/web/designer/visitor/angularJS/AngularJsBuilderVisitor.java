@@ -30,91 +30,61 @@ import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.repository.exception.RepositoryException;
 import org.bonitasoft.web.designer.visitor.*;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import static java.util.stream.Collectors.joining;
+import static java.util.Collections.nCopies;
 import static java.util.stream.Collectors.toList;
 import static org.bonitasoft.web.designer.model.widget.Widget.spinalCase;
+import static org.bonitasoft.web.designer.rendering.TemplateEngine.SLOT;
 
 /**
- * An element visitor which traverses the tree of elements recursively to collect html parts of a page
+ * An element visitor which traverses the tree of elements recursively to collect html parts of a page.
+ * Html is written element after element into a single output, templates of containers being split around the place of
+ * their content.
  */
 @RequiredArgsConstructor
 @Slf4j
-public class AngularJsBuilderVisitor implements ElementVisitor<String>, AbstractBuilderVisitor<String> {
+public class AngularJsBuilderVisitor implements ElementVisitor<String>, StreamingBuilderVisitor {
 
     private final List<PageFactory> pageFactories;
-    private final RequiredModulesVisitor requiredModulesVisitor;
+    private final PageAnalyzer pageAnalyzer;
     private final DirectivesCollector directivesCollector;
     private final FragmentRepository fragmentRepository;
     private final AssetHtmlBuilder assetHtmlBuilder;
 
     @Override
     public String visit(FragmentElement fragmentElement) {
-
-        try {
-            var fragment = fragmentRepository.get(fragmentElement.getId());
-            return new TemplateEngine("fragment.hbs.html")
-                    .with("reference", fragmentElement.getReference())
-                    .with("dimensionAsCssClasses", fragmentElement.getDimensionAsCssClasses())
-                    .with("tagName", spinalCase(fragment.getDirectiveName()))
-                    .build(fragment);
-
-        } catch (RepositoryException | NotFoundException e) {
-            throw new GenerationException("Error while generating html for fragment " + fragmentElement.getId(), e);
-        }
+        return write(fragmentElement);
     }
 
     @Override
     public String visit(Container container) {
-        return new TemplateEngine("container.hbs.html")
-                .with("rowsHtml", build(container.getRows()))
-                .build(container);
+        return write(container);
     }
 
     @Override
     public String visit(FormContainer formContainer) {
-        return new TemplateEngine("formContainer.hbs.html")
-                .with("content", formContainer.getContainer().accept(this))
-                .build(formContainer);
+        return write(formContainer);
     }
 
     @Override
     public String visit(TabsContainer tabsContainer) {
-
-        var tabTemplates = new ArrayList<TabContainerTemplate>();
-        for (var tab : tabsContainer.getTabList()) {
-            tabTemplates.add(new TabContainerTemplate(tab.accept(this)));
-        }
-
-        return new TemplateEngine("tabsContainer.hbs.html")
-                .with("tabTemplates", tabTemplates)
-                .build(tabsContainer);
+        return write(tabsContainer);
     }
 
-
     @Override
     public String visit(TabContainer tabContainer) {
-        return new TemplateEngine("tabContainer.hbs.html")
-                .with("content", tabContainer.getContainer().accept(this))
-                .build(tabContainer);
+        return write(tabContainer);
     }
 
     @Override
     public String visit(ModalContainer modalContainer) {
-        return new TemplateEngine("modalContainer.hbs.html")
-                .with("content", modalContainer.getContainer().accept(this))
-                .with("modalidHtml", modalContainer.getPropertyValues().get("modalId").getValue())
-                .build(modalContainer);
+        return write(modalContainer);
     }
 
     @Override
     public String visit(Component component) {
-        return new TemplateEngine("component.hbs.html")
-                .with("template", "<" + Widget.spinalCase(component.getId()) + "></" + Widget.spinalCase(component
-                        .getId()) + ">")
-                .build(component);
+        return write(component);
     }
 
     @Override
@@ -129,35 +99,155 @@ public class AngularJsBuilderVisitor implements ElementVisitor<String>, Abstract
      *
      * @param previewable     to build
      * @param resourceContext the URL context can change on export or preview...
+     * @param out             where the html is written
      */
     @Override
-    public <P extends Previewable & Identifiable> String build(final P previewable, String resourceContext) {
+    public <P extends Previewable & Identifiable> void build(final P previewable, String resourceContext, Appendable out) {
+        var analysis = pageAnalyzer.analyze(previewable);
         var sortedAssets = assetHtmlBuilder.getSortedAssets(previewable);
         var template = new TemplateEngine("page.hbs.html")
                 .with("resourceContext", resourceContext == null ? "" : resourceContext)
                 .with("directives", directivesCollector.buildUniqueDirectivesFiles(previewable, previewable.getId()))
-                .with("rowsHtml", build(previewable.getRows()))
+                .with("rowsHtml", SLOT)
                 .with("jsAsset", assetHtmlBuilder.getAssetHtmlSrcList(previewable.getId(),AssetType.JAVASCRIPT, sortedAssets))
                 .with("cssAsset", assetHtmlBuilder.getAssetHtmlSrcList(previewable.getId(), AssetType.CSS, sortedAssets))
-                .with("factories", pageFactories.stream().map(factory -> factory.generate(previewable)).collect(toList()));
+                .with("factories", pageFactories.stream().map(factory -> factory.generate(previewable, analysis)).collect(toList()));
 
-        var modules = requiredModulesVisitor.visit(previewable);
+        var modules = analysis.getRequiredModules();
         if (!modules.isEmpty()) {
             template = template.with("modules", modules);
         }
-        return template.build(previewable);
+        var parts = template.buildAround(previewable, 1);
+        var writer = new ElementWriter(out);
+        writer.html.append(parts[0]);
+        writer.writeRows(previewable.getRows());
+        writer.html.append(parts[1]);
     }
 
     public String build(List<List<Element>> rows) {
-        return new TemplateEngine("rows.hbs.html")
-                .with("rows",
-                        rows.stream()
-                                .map(elements -> elements.stream()
-                                        .map(element -> element.accept(AngularJsBuilderVisitor.this))
-                                        .collect(joining(""))
-                                ).collect(toList())
-                )
-                .build(new Object());
+        var out = new StringBuilder();
+        new ElementWriter(out).writeRows(rows);
+        return out.toString();
+    }
+
+    private String write(Element element) {
+        var out = new StringBuilder();
+        element.accept(new ElementWriter(out));
+        return out.toString();
+    }
+
+    /**
+     * Writes the html of the visited elements, and of their content, into a shared output
+     */
+    private class ElementWriter implements ElementVisitor<Void> {
+
+        private final HtmlWriter html;
+
+        ElementWriter(Appendable out) {
+            this.html = new HtmlWriter(out);
+        }
+
+        @Override
+        public Void visit(FragmentElement fragmentElement) {
+            try {
+                var fragment = fragmentRepository.get(fragmentElement.getId());
+                html.append(new TemplateEngine("fragment.hbs.html")
+                        .with("reference", fragmentElement.getReference())
+                        .with("dimensionAsCssClasses", fragmentElement.getDimensionAsCssClasses())
+                        .with("tagName", spinalCase(fragment.getDirectiveName()))
+                        .build(fragment));
+                return null;
+            } catch (RepositoryException | NotFoundException e) {
+                throw new GenerationException("Error while generating html for fragment " + fragmentElement.getId(), e);
+            }
+        }
+
+        @Override
+        public Void visit(Container container) {
+            var parts = new TemplateEngine("container.hbs.html")
+                    .with("rowsHtml", SLOT)
+                    .buildAround(container, 1);
+            html.append(parts[0]);
+            writeRows(container.getRows());
+            html.append(parts[1]);
+            return null;
+        }
+
+        @Override
+        public Void visit(FormContainer formContainer) {
+            var parts = new TemplateEngine("formContainer.hbs.html")
+                    .with("content", SLOT)
+                    .buildAround(formContainer, 1);
+            html.append(parts[0]);
+            formContainer.getContainer().accept(this);
+            html.append(parts[1]);
+            return null;
+        }
+
+        @Override
+        public Void visit(TabsContainer tabsContainer) {
+            var tabs = tabsContainer.getTabList();
+            var parts = new TemplateEngine("tabsContainer.hbs.html")
+                    .with("tabTemplates", nCopies(tabs.size(), new TabContainerTemplate(SLOT)))
+                    .buildAround(tabsContainer, tabs.size());
+            html.append(parts[0]);
+            for (var i = 0; i < tabs.size(); i++) {
+                tabs.get(i).accept(this);
+                html.append(parts[i + 1]);
+            }
+            return null;
+        }
+
+        @Override
+        public Void visit(TabContainer tabContainer) {
+            var parts = new TemplateEngine("tabContainer.hbs.html")
+                    .with("content", SLOT)
+                    .buildAround(tabContainer, 1);
+            html.append(parts[0]);
+            tabContainer.getContainer().accept(this);
+            html.append(parts[1]);
+            return null;
+        }
+
+        @Override
+        public Void visit(ModalContainer modalContainer) {
+            var parts = new TemplateEngine("modalContainer.hbs.html")
+                    .with("content", SLOT)
+                    .with("modalidHtml", modalContainer.getPropertyValues().get("modalId").getValue())
+                    .buildAround(modalContainer, 1);
+            html.append(parts[0]);
+            modalContainer.getContainer().accept(this);
+            html.append(parts[1]);
+            return null;
+        }
+
+        @Override
+        public Void visit(Component component) {
+            html.append(new TemplateEngine("component.hbs.html")
+                    .with("template", "<" + Widget.spinalCase(component.getId()) + "></" + Widget.spinalCase(component
+                            .getId()) + ">")
+                    .build(component));
+            return null;
+        }
+
+        @Override
+        public Void visit(Previewable previewable) {
+            throw new ArtifactBuilderException("Can't build previewable html by visiting it. Need to call " +
+                    "HtmlBuilderVisitor#build.");
+        }
+
+        void writeRows(List<List<Element>> rows) {
+            var parts = new TemplateEngine("rows.hbs.html")
+                    .with("rows", nCopies(rows.size(), SLOT))
+                    .buildAround(new Object(), rows.size());
+            html.append(parts[0]);
+            for (var i = 0; i < rows.size(); i++) {
+                for (var element : rows.get(i)) {
+                    element.accept(this);
+                }
+                html.append(parts[i + 1]);
+            }
+        }
     }
 
     static class TabContainerTemplate {
@@ -32,6 +32,7 @@ import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.repository.exception.RepositoryException;
 import org.bonitasoft.web.designer.visitor.ElementVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
 import org.bonitasoft.web.designer.visitor.PageFactory;
 
 import java.util.HashMap;
@@ -106,9 +107,18 @@ public class PropertyValuesVisitor implements ElementVisitor<Map<String, Map<Str
     }
 
     public <P extends Previewable & Identifiable> String generate(P previewable) {
+        return buildFactory(this.visit(previewable));
+    }
+
+    @Override
+    public <P extends Previewable & Identifiable> String generate(P previewable, PageAnalysis analysis) {
+        return buildFactory(analysis.getPropertyValues());
+    }
+
+    private String buildFactory(Map<String, Map<String, PropertyValue>> resources) {
         return new TemplateEngine("factory.hbs.js")
                 .with("name", "propertyValues")
-                .with("resources", this.visit(previewable))
+                .with("resources", resources)
                 .build(this);
     }
 
@@ -31,6 +31,7 @@ import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.repository.exception.RepositoryException;
 import org.bonitasoft.web.designer.visitor.ElementVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
 import org.bonitasoft.web.designer.visitor.PageFactory;
 
 import java.util.HashMap;
@@ -107,7 +108,15 @@ public class VariableModelVisitor implements ElementVisitor<Map<String, Map<Stri
     }
 
     public <P extends Previewable & Identifiable> String generate(P previewable) {
-        var resources = this.visit(previewable);
+        return buildFactory(this.visit(previewable));
+    }
+
+    @Override
+    public <P extends Previewable & Identifiable> String generate(P previewable, PageAnalysis analysis) {
+        return buildFactory(analysis.getVariables());
+    }
+
+    private String buildFactory(Map<String, Map<String, Variable>> resources) {
         return new TemplateEngine("factory.hbs.js")
                 .with("name", "variableModel")
                 .with("resources", resources == null ? resources : new TreeMap<>(resources))
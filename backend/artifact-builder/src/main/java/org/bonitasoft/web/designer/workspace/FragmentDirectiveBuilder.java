@@ -16,6 +16,7 @@
 package org.bonitasoft.web.designer.workspace;
 
 import org.bonitasoft.web.designer.livebuild.AbstractLiveFileBuilder;
+import org.bonitasoft.web.designer.livebuild.BuildManifest;
 import org.bonitasoft.web.designer.livebuild.Watcher;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
@@ -36,12 +37,27 @@ public class FragmentDirectiveBuilder extends AbstractLiveFileBuilder {
     private final AngularJsBuilderVisitor angularJsHtmlBuilderVisitor;
     private final HtmlSanitizer htmlSanitizer;
     private final TemplateEngine htmlBuilder = new TemplateEngine("fragmentDirectiveTemplate.hbs.js");
+    private final Path widgetsPath;
 
     public FragmentDirectiveBuilder(Watcher watcher,
                                     JsonHandler jsonHandler,
                                     AngularJsBuilderVisitor angularJsHtmlBuilderVisitor,
                                     HtmlSanitizer htmlSanitizer) {
-        super(watcher);
+        this(watcher, jsonHandler, angularJsHtmlBuilderVisitor, htmlSanitizer, null, null);
+    }
+
+    /**
+     * @param widgetsPath widget repository, fragment directives embed widget templates so they are all rebuilt when a
+     *                    widget changed since the manifest was written
+     */
+    public FragmentDirectiveBuilder(Watcher watcher,
+                                    JsonHandler jsonHandler,
+                                    AngularJsBuilderVisitor angularJsHtmlBuilderVisitor,
+                                    HtmlSanitizer htmlSanitizer,
+                                    BuildManifest manifest,
+                                    Path widgetsPath) {
+        super(watcher, manifest);
+        this.widgetsPath = widgetsPath;
         this.jsonHandler = jsonHandler;
         this.angularJsHtmlBuilderVisitor = angularJsHtmlBuilderVisitor;
         this.htmlSanitizer = htmlSanitizer;
@@ -60,12 +76,25 @@ public class FragmentDirectiveBuilder extends AbstractLiveFileBuilder {
         var bytes = readAllBytes(get(path));
         var fragment = jsonHandler.fromJson(bytes, Fragment.class);
         write(
-                get(path.replace(".json", ".js")),
+                getOutputPath(jsonPath),
                 htmlBuilder
                         .with("rowsHtml", htmlSanitizer.escapeSingleQuotesAndNewLines(angularJsHtmlBuilderVisitor.build(fragment.getRows())))
                         .build(fragment).getBytes(StandardCharsets.UTF_8));
     }
 
+    @Override
+    protected Path getOutputPath(Path jsonPath) {
+        return get(jsonPath.toString().replace(".json", ".js"));
+    }
+
+    @Override
+    protected String getBuildFingerprint(Path root) throws IOException {
+        if (widgetsPath == null) {
+            return "";
+        }
+        return BuildManifest.fingerprint(widgetsPath, path -> path.toString().endsWith(".json") && !path.toString().contains(".metadata"));
+    }
+
     @Override
     public boolean isBuildable(String path) {
         return path.endsWith(".json") && !path.contains(".metadata");
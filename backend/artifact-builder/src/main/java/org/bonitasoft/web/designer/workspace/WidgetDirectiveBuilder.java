@@ -15,7 +15,10 @@
 package org.bonitasoft.web.designer.workspace;
 
 import org.bonitasoft.web.designer.livebuild.AbstractLiveFileBuilder;
+import org.bonitasoft.web.designer.livebuild.BuildManifest;
 import org.bonitasoft.web.designer.livebuild.Watcher;
+import org.bonitasoft.web.designer.rendering.DirectiveBundleCache;
+import org.bonitasoft.web.designer.rendering.MinifiedDirectives;
 import org.bonitasoft.web.designer.rendering.TemplateEngine;
 import org.bonitasoft.web.designer.repository.WidgetFileBasedLoader;
 import org.bonitasoft.web.designer.repository.WidgetRepository;
@@ -33,17 +36,25 @@ public class WidgetDirectiveBuilder extends AbstractLiveFileBuilder {
 
     private final WidgetFileBasedLoader widgetLoader;
     private final HtmlSanitizer htmlSanitizer;
+    private final DirectiveBundleCache bundleCache;
     private final TemplateEngine htmlBuilder = new TemplateEngine("widgetDirectiveTemplate.hbs.js");
 
-    public WidgetDirectiveBuilder(Watcher watcher, WidgetFileBasedLoader widgetLoader, HtmlSanitizer htmlSanitizer) {
-        super(watcher);
+    public WidgetDirectiveBuilder(Watcher watcher, WidgetFileBasedLoader widgetLoader, HtmlSanitizer htmlSanitizer, DirectiveBundleCache bundleCache) {
+        this(watcher, widgetLoader, htmlSanitizer, bundleCache, null);
+    }
+
+    public WidgetDirectiveBuilder(Watcher watcher, WidgetFileBasedLoader widgetLoader, HtmlSanitizer htmlSanitizer,
+                                  DirectiveBundleCache bundleCache, BuildManifest manifest) {
+        super(watcher, manifest);
         this.widgetLoader = widgetLoader;
         this.htmlSanitizer = htmlSanitizer;
+        this.bundleCache = bundleCache;
     }
 
     /**
      * Build directive corresponding to the widget descriptive json file which has changed.
-     * Resulting js file is created in the same directory than the json file overriding previous build.
+     * Resulting js file, and its minified version, are created in the same directory than the json file overriding
+     * previous build, bundles containing it are dropped.
      *
      * @param jsonPath is the path to the widget file to build.
      * @throws IOException
@@ -51,11 +62,18 @@ public class WidgetDirectiveBuilder extends AbstractLiveFileBuilder {
     @Override
     public void build(Path jsonPath) throws IOException {
         var widget = widgetLoader.get(jsonPath);
-        write(
-                get(valueOf(jsonPath).replace(".json", ".js")),
-                htmlBuilder
-                        .with("escapedTemplate", htmlSanitizer.escapeSingleQuotesAndNewLines(widget.getTemplate()))
-                        .build(widget).getBytes(StandardCharsets.UTF_8));
+        var directivePath = getOutputPath(jsonPath);
+        var directive = htmlBuilder
+                .with("escapedTemplate", htmlSanitizer.escapeSingleQuotesAndNewLines(widget.getTemplate()))
+                .build(widget).getBytes(StandardCharsets.UTF_8);
+        write(directivePath, directive);
+        MinifiedDirectives.write(directivePath, directive);
+        bundleCache.invalidate(directivePath);
+    }
+
+    @Override
+    protected Path getOutputPath(Path jsonPath) {
+        return get(valueOf(jsonPath).replace(".json", ".js"));
     }
 
     @Override
@@ -22,6 +22,8 @@ import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.config.WorkspaceUidProperties;
 import org.bonitasoft.web.designer.controller.importer.dependencies.AssetDependencyImporter;
 import org.bonitasoft.web.designer.migration.LiveRepositoryUpdate;
+import org.bonitasoft.web.designer.migration.MigrationListener;
+import org.bonitasoft.web.designer.migration.MigrationTracker;
 import org.bonitasoft.web.designer.migration.Version;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.page.Page;
@@ -29,6 +31,8 @@ import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.rendering.WidgetFileHelper;
 import org.bonitasoft.web.designer.rendering.angular.AngularAppGenerator;
 import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.SummaryIndex;
+import org.bonitasoft.web.designer.repository.UsageIndex;
 import org.bonitasoft.web.designer.repository.WidgetFileBasedLoader;
 import org.bonitasoft.web.designer.repository.WidgetRepository;
 import org.slf4j.Logger;
@@ -41,11 +45,16 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.nio.file.Files.createDirectories;
 import static java.util.Arrays.stream;
+import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -85,6 +94,8 @@ public class Workspace {
 
     protected AtomicBoolean initialized = new AtomicBoolean(false);
 
+    private final Map<String, Long> startupTimings = new LinkedHashMap<>();
+
     public Workspace(UiDesignerProperties uiDesignerProperties, WidgetRepository widgetRepository, PageRepository pageRepository,
                      WidgetDirectiveBuilder widgetDirectiveBuilder, FragmentDirectiveBuilder fragmentDirectiveBuilder,
                      AssetDependencyImporter<Widget> widgetAssetDependencyImporter, ResourcesCopier resourcesCopier,
@@ -106,42 +117,92 @@ public class Workspace {
 
     protected void doInitialize() throws IOException {
         // First, clean up the extractPath temp dir
-        FileSystemUtils.deleteRecursively(extractPath);
-        ensureTemplateRepositoryPresent();
-        ensureTemplateRepositoryFilled();
+        timed("clean extract path", () -> FileSystemUtils.deleteRecursively(extractPath));
+        timed("templates", () -> {
+            ensureTemplateRepositoryPresent();
+            ensureTemplateRepositoryFilled();
+        });
         ensurePageRepositoryPresent();
         ensureWidgetRepositoryPresent();
-        ensureWidgetRepositoryFilled();
-        ensureFragmentRepositoryPresent();
-        cleanFragmentWorkspace();
-        extractResourcesForExport();
-        initializeAngularApplication();
+        timed("widgets", this::ensureWidgetRepositoryFilled);
+        timed("fragments", () -> {
+            ensureFragmentRepositoryPresent();
+            cleanFragmentWorkspace();
+        });
+        timed("export resources", this::extractResourcesForExport);
+        timed("angular application", this::initializeAngularApplication);
     }
 
     public void initialize() {
         if (!initialized.get()) {
             try {
+                var startTime = System.currentTimeMillis();
                 doInitialize();
-                for (LiveRepositoryUpdate<?> migration : migrations) {
-                    migration.start();
-                }
-                cleanPageWorkspace();
+                timed("repositories", () -> {
+                    for (LiveRepositoryUpdate<?> migration : migrations) {
+                        migration.start();
+                    }
+                });
+                timed("clean pages", this::cleanPageWorkspace);
                 initialized.set(true);
+                logger.info("Workspace initialized in {} ms {}", System.currentTimeMillis() - startTime, startupTimings);
             } catch (IOException e) {
                 throw new DesignerInitializerException("Unable to initialize workspace", e);
             }
         }
     }
 
+    /**
+     * Duration in milliseconds of each workspace initialization step, in execution order
+     */
+    public Map<String, Long> getStartupTimings() {
+        return unmodifiableMap(startupTimings);
+    }
+
+    private void timed(String step, StartupStep action) throws IOException {
+        var startTime = System.currentTimeMillis();
+        try {
+            action.run();
+        } finally {
+            startupTimings.merge(step, System.currentTimeMillis() - startTime, Long::sum);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StartupStep {
+        void run() throws IOException;
+    }
+
     public void migrateWorkspace() {
+        migrateWorkspace(MigrationListener.NONE);
+    }
+
+    /**
+     * Migrate widgets, then fragments and pages, notifying the listener each time an artifact has been migrated
+     */
+    public void migrateWorkspace(MigrationListener listener) {
         initialize(); //Ensure that the workspace initialization is ended
-        migrations.stream().forEachOrdered(migration -> {
-            try {
-                migration.migrate();
-            } catch (IOException e) {
-                throw new DesignerInitializerException("Unable to migrate workspace", e);
+        try {
+            Map<LiveRepositoryUpdate<?>, List<Path>> descriptors = new LinkedHashMap<>();
+            for (LiveRepositoryUpdate<?> migration : sortedMigrations()) {
+                descriptors.put(migration, migration.descriptors());
             }
-        });
+            var tracker = new MigrationTracker(descriptors.values().stream().mapToInt(List::size).sum(), listener);
+            tracker.start();
+            for (var migration : descriptors.entrySet()) {
+                migration.getKey().migrate(migration.getValue(), tracker);
+            }
+            tracker.finish();
+        } catch (IOException e) {
+            throw new DesignerInitializerException("Unable to migrate workspace", e);
+        }
+    }
+
+    private List<LiveRepositoryUpdate<?>> sortedMigrations() {
+        List<LiveRepositoryUpdate<?>> sorted = new ArrayList<>();
+        migrations.forEach(sorted::add);
+        sorted.sort(Comparator.naturalOrder());
+        return sorted;
     }
 
     public void indexingArtifacts(List<Page> pages) {
@@ -194,6 +255,10 @@ public class Workspace {
         var metadataFolder = new File(workspace.resolve(METADATA_FOLDER_NAME).toString());
         stream(requireNonNull(metadataFolder.listFiles())).forEach(page -> {
             var pageFileName = page.getName();
+            // usage and summary indexes are kept across restarts, they are checked against artifacts when loaded
+            if (UsageIndex.FILE_NAME.equals(pageFileName) || SummaryIndex.FILE_NAME.equals(pageFileName)) {
+                return;
+            }
             if (!pageExists(workspace, pageFileName)) {
                 deleteMissingPageMetadata(workspace, pageFileName);
             }
@@ -16,6 +16,7 @@ package org.bonitasoft.web.designer;
 
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
+import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.controller.export.FragmentExporter;
 import org.bonitasoft.web.designer.controller.export.PageExporter;
 import org.bonitasoft.web.designer.controller.export.WidgetExporter;
@@ -25,6 +26,7 @@ import org.bonitasoft.web.designer.controller.importer.ImportStore;
 import org.bonitasoft.web.designer.controller.importer.PageImporter;
 import org.bonitasoft.web.designer.controller.importer.WidgetImporter;
 import org.bonitasoft.web.designer.rendering.HtmlGenerator;
+import org.bonitasoft.web.designer.rendering.PreviewHtmlCache;
 import org.bonitasoft.web.designer.rendering.angular.AngularAppGenerator;
 import org.bonitasoft.web.designer.service.FragmentService;
 import org.bonitasoft.web.designer.service.PageService;
@@ -79,7 +81,7 @@ public class AngularJsArtifactImporterTest {
                 mock(WidgetService.class),
                 mock(FragmentService.class),
                 mock(PageService.class),
-                pageExporter, fragmentExporter, widgetExporter, htmlGenerator, mock(AngularAppGenerator.class),
+                pageExporter, fragmentExporter, widgetExporter, new UiDesignerProperties.ExportProperties(), htmlGenerator, htmlGenerator, mock(AngularAppGenerator.class), mock(PreviewHtmlCache.class),
                 importStore, pageImporter, fragmentImporter, widgetImporter
         ));
 
@@ -1,5 +1,8 @@
 package org.bonitasoft.web.designer;
 
+import org.bonitasoft.web.designer.config.UiDesignerProperties;
+import org.bonitasoft.web.designer.controller.export.ExportArchive;
+import org.bonitasoft.web.designer.controller.export.Exporter;
 import org.bonitasoft.web.designer.controller.export.FragmentExporter;
 import org.bonitasoft.web.designer.controller.export.PageExporter;
 import org.bonitasoft.web.designer.controller.export.WidgetExporter;
@@ -8,7 +11,10 @@ import org.bonitasoft.web.designer.controller.importer.ImportStore;
 import org.bonitasoft.web.designer.controller.importer.PageImporter;
 import org.bonitasoft.web.designer.controller.importer.WidgetImporter;
 import org.bonitasoft.web.designer.model.ModelException;
+import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.rendering.HtmlGenerator;
+import org.bonitasoft.web.designer.rendering.PreviewHtml;
+import org.bonitasoft.web.designer.rendering.PreviewHtmlCache;
 import org.bonitasoft.web.designer.rendering.angular.AngularAppGenerator;
 import org.bonitasoft.web.designer.service.FragmentService;
 import org.bonitasoft.web.designer.service.PageService;
@@ -24,7 +30,9 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.IOException;
 import java.util.UUID;
+import java.util.function.BiFunction;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
@@ -46,6 +54,12 @@ public class DefaultArtifactBuilderTest {
     private WidgetService widgetService;
     @Mock
     private AngularAppGenerator angularAppGenerator;
+    @Mock
+    private PreviewHtmlCache previewHtmlCache;
+    @Mock
+    private HtmlGenerator htmlGenerator;
+    @Mock
+    private HtmlGenerator previewHtmlGenerator;
 
     @Before
     public void setUp() throws Exception {
@@ -57,11 +71,14 @@ public class DefaultArtifactBuilderTest {
                 fragmentService,
                 pageService,
                 // Export
-                mock(PageExporter.class),
-                mock(FragmentExporter.class),
-                mock(WidgetExporter.class),
-                mock(HtmlGenerator.class),
+                exporter(PageExporter.class),
+                exporter(FragmentExporter.class),
+                exporter(WidgetExporter.class),
+                new UiDesignerProperties.ExportProperties(),
+                htmlGenerator,
+                previewHtmlGenerator,
                 angularAppGenerator,
+                previewHtmlCache,
                 // Import
                 new ImportStore(),
                 mock(PageImporter.class),
@@ -70,6 +87,19 @@ public class DefaultArtifactBuilderTest {
         );
     }
 
+    /**
+     * Exporter mock that completes an empty archive
+     */
+    private <T extends Exporter<?>> T exporter(Class<T> type) throws Exception {
+        T exporter = mock(type);
+        lenient().when(exporter.export(any(), any())).thenAnswer(invocation -> {
+            ExportArchive archive = invocation.getArgument(1);
+            archive.getOutputStream().close();
+            return archive;
+        });
+        return exporter;
+    }
+
     @Test
     public void build_page_should_call_page_service() throws ModelException, IOException {
         // Given
@@ -134,4 +164,36 @@ public class DefaultArtifactBuilderTest {
         // Then
         verify(angularAppGenerator).generateAngularApp(page);
     }
+
+    @Test
+    public void build_page_preview_should_go_through_the_preview_cache() throws Exception {
+        var preview = new PreviewHtml("<html></html>");
+        when(previewHtmlCache.getPage(eq("myPage"), eq("/runtime/"), any())).thenReturn(preview);
+
+        var result = artifactBuilder.buildPagePreview("myPage", "/runtime/");
+
+        assertThat(result).isSameAs(preview);
+    }
+
+    @Test
+    public void build_html_should_be_formatted_while_preview_is_generated_as_configured() throws Exception {
+        var page = aPage().withId("myPage").withModelVersion("2.0").build();
+        when(htmlGenerator.generateHtml(page, "/runtime/")).thenReturn("<html>\n</html>");
+        when(previewHtmlGenerator.generateHtml(page, "/runtime/")).thenReturn("<html></html>");
+        when(previewHtmlCache.getPage(eq("myPage"), eq("/runtime/"), any())).thenAnswer(invocation ->
+                new PreviewHtml(invocation.<BiFunction<Page, String, String>>getArgument(2).apply(page, "/runtime/")));
+
+        assertThat(artifactBuilder.buildHtml(page, "/runtime/")).isEqualTo("<html>\n</html>");
+        assertThat(artifactBuilder.buildPagePreview("myPage", "/runtime/").getHtml()).isEqualTo("<html></html>");
+    }
+
+    @Test
+    public void build_fragment_preview_should_go_through_the_preview_cache() throws Exception {
+        var preview = new PreviewHtml("<div></div>");
+        when(previewHtmlCache.getFragment(eq("myFragment"), eq("/runtime/"), any())).thenReturn(preview);
+
+        var result = artifactBuilder.buildFragmentPreview("myFragment", "/runtime/");
+
+        assertThat(result).isSameAs(preview);
+    }
 }
@@ -14,6 +14,7 @@
  */
 package org.bonitasoft.web.designer;
 
+import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.controller.export.FragmentExporter;
 import org.bonitasoft.web.designer.controller.export.PageExporter;
 import org.bonitasoft.web.designer.controller.export.WidgetExporter;
@@ -25,6 +26,7 @@ import org.bonitasoft.web.designer.controller.importer.ImportStore;
 import org.bonitasoft.web.designer.controller.importer.PageImporter;
 import org.bonitasoft.web.designer.controller.importer.WidgetImporter;
 import org.bonitasoft.web.designer.rendering.HtmlGenerator;
+import org.bonitasoft.web.designer.rendering.PreviewHtmlCache;
 import org.bonitasoft.web.designer.rendering.angular.AngularAppGenerator;
 import org.bonitasoft.web.designer.service.FragmentService;
 import org.bonitasoft.web.designer.service.PageService;
@@ -85,8 +87,11 @@ public class ImporterResolverTest {
                 mock(PageExporter.class),
                 mock(FragmentExporter.class),
                 mock(WidgetExporter.class),
+                new UiDesignerProperties.ExportProperties(),
+                mock(HtmlGenerator.class),
                 mock(HtmlGenerator.class),
                 mock(AngularAppGenerator.class),
+                mock(PreviewHtmlCache.class),
                 importStore,
                 pageImporter,
                 fragmentImporter,
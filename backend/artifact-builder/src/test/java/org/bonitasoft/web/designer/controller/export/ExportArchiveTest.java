@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.controller.export;
+
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExportArchiveTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final byte[] CONTENT = "some zip content".getBytes();
+
+    private ExportArchive write(ExportArchive archive) throws IOException {
+        try (var stream = archive.getOutputStream()) {
+            stream.write(CONTENT);
+        }
+        return archive;
+    }
+
+    @Test
+    public void should_keep_small_archive_in_memory() throws Exception {
+        Path tempDir = temporaryFolder.newFolderPath("export");
+
+        try (var archive = write(new ExportArchive(1024, tempDir))) {
+            var out = new ByteArrayOutputStream();
+            archive.writeTo(out);
+
+            assertThat(archive.isInMemory()).isTrue();
+            assertThat(archive.size()).isEqualTo(CONTENT.length);
+            assertThat(out.toByteArray()).isEqualTo(CONTENT);
+            assertThat(tempDir).isEmptyDirectory();
+        }
+    }
+
+    @Test
+    public void should_spill_archive_to_disk_above_threshold() throws Exception {
+        Path tempDir = temporaryFolder.newFolderPath("export");
+
+        try (var archive = write(new ExportArchive(4, tempDir))) {
+            var out = new ByteArrayOutputStream();
+            archive.writeTo(out);
+
+            assertThat(archive.isInMemory()).isFalse();
+            assertThat(tempDir).isNotEmptyDirectory();
+            assertThat(out.toByteArray()).isEqualTo(CONTENT);
+            assertThat(archive.toByteArray()).isEqualTo(CONTENT);
+        }
+        assertThat(tempDir).isEmptyDirectory();
+    }
+
+    @Test
+    public void should_write_archive_to_a_channel() throws Exception {
+        Path tempDir = temporaryFolder.newFolderPath("export");
+
+        for (int threshold : new int[]{4, 1024}) {
+            try (var archive = write(new ExportArchive(threshold, tempDir))) {
+                var out = new ByteArrayOutputStream();
+                archive.writeTo(Channels.newChannel(out));
+
+                assertThat(out.toByteArray()).isEqualTo(CONTENT);
+            }
+        }
+    }
+
+    @Test
+    public void should_not_be_sent_before_being_complete() {
+        var archive = new ExportArchive();
+
+        assertThatThrownBy(() -> archive.writeTo(new ByteArrayOutputStream())).isInstanceOf(IllegalStateException.class);
+    }
+}
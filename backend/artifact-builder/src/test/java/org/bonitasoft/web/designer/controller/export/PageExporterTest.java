@@ -16,6 +16,7 @@ package org.bonitasoft.web.designer.controller.export;
 
 import org.assertj.core.util.Arrays;
 import org.bonitasoft.web.designer.JsonHandlerFactory;
+import org.bonitasoft.web.designer.config.UiDesignerProperties.ExportProperties;
 import org.bonitasoft.web.designer.controller.export.steps.ExportStep;
 import org.bonitasoft.web.designer.controller.utils.Unzipper;
 import org.bonitasoft.web.designer.model.JsonHandler;
@@ -35,6 +36,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Path;
 
 import static java.lang.String.format;
@@ -44,7 +46,11 @@ import static org.apache.commons.io.FileUtils.deleteDirectory;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -65,7 +71,7 @@ public class PageExporterTest {
     @Before
     public void setUp() throws Exception {
         artifactStream = new ByteArrayOutputStream();
-        exporter = new PageExporter(jsonHandler, pageService, Arrays.array(mock(ExportStep.class)), mock(ExportStep.class));
+        exporter = new PageExporter(jsonHandler, pageService, new ExportProperties(), Arrays.array(mock(ExportStep.class)), mock(ExportStep.class));
     }
 
     private Page create(Page page) throws IOException {
@@ -125,6 +131,24 @@ public class PageExporterTest {
         assertThat(stream.size()).isGreaterThan(0);
     }
 
+    @Test
+    public void should_spill_archive_in_configured_temp_directory_and_release_it_once_sent() throws Exception {
+        Page page = create(aPage().withType("layout").withName("thelayout").build());
+        ExportProperties exportProperties = new ExportProperties();
+        exportProperties.setMemoryThreshold(0);
+        exportProperties.setTempDir(repositoryFolder.newFolderPath("export"));
+        exporter = new PageExporter(jsonHandler, pageService, exportProperties, Arrays.array(mock(ExportStep.class)), mock(ExportStep.class));
+        OutputStream stream = spy(new ByteArrayOutputStream());
+        doAnswer(invocation -> {
+            assertThat(exportProperties.getTempDir()).isNotEmptyDirectory();
+            return invocation.callRealMethod();
+        }).when(stream).write(any(byte[].class), anyInt(), anyInt());
+
+        exporter.handleFileExport(page.getId(), stream);
+
+        assertThat(exportProperties.getTempDir()).isEmptyDirectory();
+    }
+
     @Test
     public void should_export_json_model_of_the_exported_artefact() throws Exception {
         Page page = create(aPage().withId("myPage").build());
@@ -142,7 +166,7 @@ public class PageExporterTest {
     public void should_execute_export_steps() throws Exception {
         FakeStep fakeStep1 = new FakeStep("This is some content", "resources/file1.json");
         FakeStep fakeStep2 = new FakeStep("This is another content", "resources/deep/file2.json");
-        Exporter<Page> exporter = new PageExporter(jsonHandler, pageService, Arrays.array(fakeStep1, fakeStep2),Arrays.array());
+        Exporter<Page> exporter = new PageExporter(jsonHandler, pageService, new ExportProperties(), Arrays.array(fakeStep1, fakeStep2),Arrays.array());
         Page page = create(aPage().build());
 
         exporter.handleFileExport(page.getId(), artifactStream);
@@ -153,6 +177,21 @@ public class PageExporterTest {
         deleteDirectory(unzipped.toFile());
     }
 
+    @Test
+    public void should_release_spilled_archive_when_export_fails() throws Exception {
+        ExportStep<Page> failingStep = (zipper, page) -> {
+            throw new IOException("disk full");
+        };
+        Exporter<Page> exporter = new PageExporter(jsonHandler, pageService, new ExportProperties(), Arrays.array(new FakeStep("This is some content", "resources/file1.json"), failingStep), Arrays.array());
+        Page page = create(aPage().build());
+        Path tempDir = repositoryFolder.newFolderPath("export");
+
+        Throwable throwable = catchThrowable(() -> exporter.export(page.getId(), new ExportArchive(0, tempDir)));
+
+        assertThat(throwable).isInstanceOf(ExportException.class);
+        assertThat(tempDir).isEmptyDirectory();
+    }
+
     /**
      * Fake step that add things to zip
      */
@@ -16,6 +16,7 @@ package org.bonitasoft.web.designer.controller.export;
 
 import org.bonitasoft.web.designer.JsonHandlerFactory;
 import org.bonitasoft.web.designer.builder.WidgetBuilder;
+import org.bonitasoft.web.designer.config.UiDesignerProperties.ExportProperties;
 import org.bonitasoft.web.designer.controller.export.steps.ExportStep;
 import org.bonitasoft.web.designer.controller.utils.Unzipper;
 import org.bonitasoft.web.designer.model.JsonHandler;
@@ -67,7 +68,7 @@ public class WidgetExporterTest {
     @Before
     public void setUp() throws Exception {
         artifactStream = new ByteArrayOutputStream();
-        exporter = new WidgetExporter(jsonHandler, widgetService, mock(ExportStep.class));
+        exporter = new WidgetExporter(jsonHandler, widgetService, new ExportProperties(), mock(ExportStep.class));
     }
 
     private Widget create(Widget widget) throws IOException {
@@ -18,7 +18,11 @@ import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.config.UiDesignerPropertiesBuilder;
 import org.bonitasoft.web.designer.model.data.Data;
 import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
 import org.bonitasoft.web.designer.service.DefaultPageService;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -31,7 +35,10 @@ import java.util.TreeMap;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.model.data.DataType.URL;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -55,7 +62,8 @@ public class PagePropertiesBuilderTest {
         page.setName("myPage");
         uiDesignerProperties = new UiDesignerPropertiesBuilder().build();
         uiDesignerProperties.setVersion(DESIGNER_VERSION);
-        pagePropertiesBuilder = new PagePropertiesBuilder(uiDesignerProperties, pageService);
+        pagePropertiesBuilder = new PagePropertiesBuilder(uiDesignerProperties, pageService,
+                new PageAnalyzer(mock(PageRepository.class), mock(WidgetRepository.class), mock(FragmentRepository.class)));
     }
 
     private Data anApiData(String value) {
@@ -69,7 +77,7 @@ public class PagePropertiesBuilderTest {
         page.setDescription("a page description with special characters &'\"é");
         page.setDisplayName("a display name with special characters &'\"é");
 
-        when(pageService.getResources(page)).thenReturn(Arrays.asList(""));
+        when(pageService.getResources(eq(page), anyList())).thenReturn(Arrays.asList(""));
         String properties = new String(pagePropertiesBuilder.build(page));
 
         assertThat(properties).contains("contentType=page");
@@ -86,7 +94,7 @@ public class PagePropertiesBuilderTest {
         page.setDesignerVersion("1.12.1");
 
         String properties = new String(pagePropertiesBuilder.build(page));
-        lenient().when(pageService.getResources(page)).thenReturn(Arrays.asList(""));
+        lenient().when(pageService.getResources(eq(page), anyList())).thenReturn(Arrays.asList(""));
         assertThat(properties).contains("contentType=page");
         assertThat(properties).contains("name=custompage_aPageName");
         assertThat(properties).contains("displayName=aPageName");
@@ -106,7 +114,7 @@ public class PagePropertiesBuilderTest {
     @Test
     public void should_add_bonita_resource_found_in_page_data() throws Exception {
         page.setData(singletonMap("foo", anApiData("/bonita/API/living/application-menu")));
-        when(pageService.getResources(page)).thenReturn(Arrays.asList("GET|living/application-menu"));
+        when(pageService.getResources(eq(page), anyList())).thenReturn(Arrays.asList("GET|living/application-menu"));
         String properties = new String(pagePropertiesBuilder.build(page));
 
         assertThat(properties).contains("resources=[GET|living/application-menu]");
@@ -121,7 +129,7 @@ public class PagePropertiesBuilderTest {
         dataMap.put("archived", anApiData("../API/bpm/archivedUserTask?filter=mine&o=name DESC"));
 
         page.setData(dataMap);
-        when(pageService.getResources(page)).thenReturn(Arrays.asList("GET|bpm/archivedUserTask", "GET|identity/user", "GET|bpm/userTask", "GET|identity/group"));
+        when(pageService.getResources(eq(page), anyList())).thenReturn(Arrays.asList("GET|bpm/archivedUserTask", "GET|identity/user", "GET|bpm/userTask", "GET|identity/group"));
 
         String properties = new String(pagePropertiesBuilder.build(page));
 
@@ -132,7 +140,7 @@ public class PagePropertiesBuilderTest {
     @Test
     public void should_not_add_a_resource_which_is_not_a_bonita_resource() throws Exception {
         page.setData(singletonMap("foo", anApiData("../API/path/to/wathever/resource")));
-        when(pageService.getResources(page)).thenReturn(Arrays.asList(""));
+        when(pageService.getResources(eq(page), anyList())).thenReturn(Arrays.asList(""));
 
         String properties = new String(pagePropertiesBuilder.build(page));
 
@@ -143,7 +151,7 @@ public class PagePropertiesBuilderTest {
     @Test
     public void should_add_contentType() throws Exception {
         page.setType("layout");
-        when(pageService.getResources(page)).thenReturn(Arrays.asList(""));
+        when(pageService.getResources(eq(page), anyList())).thenReturn(Arrays.asList(""));
 
         String properties = new String(pagePropertiesBuilder.build(page));
 
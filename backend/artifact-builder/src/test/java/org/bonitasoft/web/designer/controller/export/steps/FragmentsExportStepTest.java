@@ -19,8 +19,10 @@ import org.bonitasoft.web.designer.controller.export.IncludeChildDirectoryPredic
 import org.bonitasoft.web.designer.controller.export.Zipper;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
 import org.bonitasoft.web.designer.utils.rule.TemporaryFragmentRepository;
-import org.bonitasoft.web.designer.visitor.FragmentIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -57,7 +59,7 @@ public class FragmentsExportStepTest {
     public void beforeEach() {
         fragmentRepository = repositoryFactory.toRepository();
         step = new FragmentsExportStep(
-                new FragmentIdVisitor(fragmentRepository),
+                new PageAnalyzer(mock(PageRepository.class), mock(WidgetRepository.class), fragmentRepository),
                 workspaceProperties.getFragments().getDir());
         zipper = spy(new Zipper(mock(OutputStream.class)));
     }
@@ -18,11 +18,12 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
 import org.bonitasoft.web.designer.controller.export.Zipper;
 import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.rendering.DirectiveBundle;
 import org.bonitasoft.web.designer.rendering.DirectiveFileGenerator;
 import org.bonitasoft.web.designer.rendering.Minifier;
-import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.utils.rule.TemporaryWidgetRepository;
-import org.bonitasoft.web.designer.visitor.WidgetIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -31,9 +32,10 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.OutputStream;
-import java.nio.file.Paths;
-import java.util.Arrays;
+import java.nio.file.Path;
+import java.util.Set;
 
+import static java.nio.file.Files.write;
 import static org.bonitasoft.web.designer.builder.ComponentBuilder.aComponent;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
@@ -43,7 +45,10 @@ import static org.mockito.Mockito.*;
 public class WidgetsExportStepTest {
 
     @Mock
-    private FragmentRepository fragmentRepository;
+    private PageAnalyzer pageAnalyzer;
+
+    @Mock
+    private PageAnalysis pageAnalysis;
 
     private final WorkspaceProperties workspaceProperties = new WorkspaceProperties();
 
@@ -62,7 +67,7 @@ public class WidgetsExportStepTest {
     public void beforeEach() {
         step = new WidgetsExportStep(
                 workspaceProperties.getWidgets().getDir(),
-                new WidgetIdVisitor(fragmentRepository), directiveFileGenerator);
+                pageAnalyzer, directiveFileGenerator);
         zipper = spy(new Zipper(mock(OutputStream.class)));
     }
 
@@ -75,12 +80,10 @@ public class WidgetsExportStepTest {
                 aComponent("widget1"),
                 aComponent("widget2"))
                 .build();
-        String content = "Mon   content   to                 minify";
-        byte[] expected = Minifier.minify(content.getBytes());
-        when(directiveFileGenerator.getWidgetsFilesUsedInPage(page)).thenReturn(Arrays.asList(Paths.get("widget1"),Paths
-                .get("widget2")));
-        when(directiveFileGenerator.concatenate(Arrays.asList(Paths.get("widget1"),Paths
-                .get("widget2")))).thenReturn(content.getBytes());
+        when(pageAnalyzer.analyze(page)).thenReturn(pageAnalysis);
+        when(pageAnalysis.getWidgetIds()).thenReturn(Set.of("widget1", "widget2"));
+        byte[] expected = Minifier.minify("Mon   content   to                 minify".getBytes());
+        when(directiveFileGenerator.getBundle(page)).thenReturn(new DirectiveBundle(expected));
 
         step.execute(zipper, page);
 
@@ -93,13 +96,27 @@ public class WidgetsExportStepTest {
     public void should_not_add_widget_metadata_to_zip() throws Exception {
         repository.addWidget(aWidget().withId("widget"));
         Page page = aPage().with(aComponent("widget")).build();
-        String content = "content";
-        when(directiveFileGenerator.getWidgetsFilesUsedInPage(page)).thenReturn(Arrays.asList(Paths.get("widget")));
-        when(directiveFileGenerator.concatenate(Arrays.asList(Paths.get("widget")))).thenReturn(content.getBytes());
+        when(pageAnalyzer.analyze(page)).thenReturn(pageAnalysis);
+        when(pageAnalysis.getWidgetIds()).thenReturn(Set.of("widget"));
+        when(directiveFileGenerator.getBundle(page)).thenReturn(new DirectiveBundle("content".getBytes()));
 
         step.execute(zipper, page);
 
         verify(zipper, never()).addToZip(repository.resolveWidgetMetadata("widget"), "resources/widgets/widget/widget" +
                 ".metadata.json");
     }
+
+    @Test
+    public void should_not_add_minified_widget_directive_to_zip() throws Exception {
+        repository.addWidget(aWidget().withId("widget"));
+        Path minifiedDirective = write(repository.resolveWidgetJson("widget").resolveSibling("widget.min.js"), "minified".getBytes());
+        Page page = aPage().with(aComponent("widget")).build();
+        when(pageAnalyzer.analyze(page)).thenReturn(pageAnalysis);
+        when(pageAnalysis.getWidgetIds()).thenReturn(Set.of("widget"));
+        when(directiveFileGenerator.getBundle(page)).thenReturn(new DirectiveBundle("content".getBytes()));
+
+        step.execute(zipper, page);
+
+        verify(zipper, never()).addToZip(minifiedDirective, "resources/widgets/widget/widget.min.js");
+    }
 }
@@ -17,11 +17,13 @@ package org.bonitasoft.web.designer.controller.importer;
 import org.bonitasoft.web.designer.DefaultArtifactBuilder;
 import org.bonitasoft.web.designer.ArtifactBuilder;
 import org.bonitasoft.web.designer.builder.WidgetBuilder;
+import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.controller.export.FragmentExporter;
 import org.bonitasoft.web.designer.controller.export.PageExporter;
 import org.bonitasoft.web.designer.controller.export.WidgetExporter;
 import org.bonitasoft.web.designer.controller.importer.report.ImportReport;
 import org.bonitasoft.web.designer.rendering.HtmlGenerator;
+import org.bonitasoft.web.designer.rendering.PreviewHtmlCache;
 import org.bonitasoft.web.designer.rendering.angular.AngularAppGenerator;
 import org.bonitasoft.web.designer.service.FragmentService;
 import org.bonitasoft.web.designer.service.PageService;
@@ -78,8 +80,11 @@ public class PathImporterTest {
                 mock(PageExporter.class),
                 mock(FragmentExporter.class),
                 mock(WidgetExporter.class),
+                new UiDesignerProperties.ExportProperties(),
+                mock(HtmlGenerator.class),
                 mock(HtmlGenerator.class),
                 mock(AngularAppGenerator.class),
+                mock(PreviewHtmlCache.class),
                 importStore,
                 pageImporter,
                 fragmentImporter,
@@ -0,0 +1,170 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.livebuild;
+
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuildManifestTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path manifestFile;
+    private Path source;
+    private Path output;
+
+    @Before
+    public void setUp() throws Exception {
+        manifestFile = folder.toPath().resolve("manifests").resolve("manifest.json");
+        source = Files.writeString(folder.toPath().resolve("widget.json"), "{\"id\":\"widget\"}");
+        output = Files.writeString(folder.toPath().resolve("widget.js"), "directive");
+    }
+
+    @Test
+    public void should_consider_an_output_up_to_date_once_recorded_and_saved() {
+        var manifest = new BuildManifest(manifestFile, "1.0.0");
+        manifest.load("");
+        manifest.record(source, output);
+        manifest.save();
+
+        var reloaded = new BuildManifest(manifestFile, "1.0.0");
+        reloaded.load("");
+
+        assertThat(reloaded.isUpToDate(source, output)).isTrue();
+    }
+
+    @Test
+    public void should_not_consider_an_unknown_source_up_to_date() {
+        var manifest = new BuildManifest(manifestFile, "1.0.0");
+        manifest.load("");
+
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+    }
+
+    @Test
+    public void should_consider_output_outdated_when_source_changed() throws Exception {
+        var manifest = recordedManifest("1.0.0", "");
+        Files.writeString(source, "{\"id\":\"widget\",\"name\":\"changed\"}");
+
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+    }
+
+    @Test
+    public void should_consider_output_outdated_when_output_changed_or_removed() throws Exception {
+        var manifest = recordedManifest("1.0.0", "");
+
+        Files.writeString(output, "altered directive");
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+
+        Files.delete(output);
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+    }
+
+    @Test
+    public void should_not_rely_on_modification_time_only() throws Exception {
+        var manifest = recordedManifest("1.0.0", "");
+        Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        assertThat(manifest.isUpToDate(source, output)).isTrue();
+    }
+
+    @Test
+    public void should_discard_manifest_written_by_another_version() {
+        recordedManifest("1.0.0", "");
+
+        var manifest = new BuildManifest(manifestFile, "1.1.0");
+        manifest.load("");
+
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+    }
+
+    @Test
+    public void should_discard_manifest_written_with_another_fingerprint() {
+        recordedManifest("1.0.0", "widgets-v1");
+
+        var manifest = new BuildManifest(manifestFile, "1.0.0");
+        manifest.load("widgets-v2");
+
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+    }
+
+    @Test
+    public void should_start_from_an_empty_manifest_when_file_is_corrupted() throws Exception {
+        Files.createDirectories(manifestFile.getParent());
+        Files.writeString(manifestFile, "{not json");
+
+        var manifest = new BuildManifest(manifestFile, "1.0.0");
+        manifest.load("");
+
+        assertThat(manifest.size()).isZero();
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+    }
+
+    @Test
+    public void should_prune_entries_of_sources_not_seen_since_load() throws Exception {
+        var otherSource = Files.writeString(folder.toPath().resolve("other.json"), "{}");
+        var manifest = new BuildManifest(manifestFile, "1.0.0");
+        manifest.load("");
+        manifest.record(source, output);
+        manifest.record(otherSource, output);
+        manifest.save();
+
+        var reloaded = new BuildManifest(manifestFile, "1.0.0");
+        reloaded.load("");
+        reloaded.isUpToDate(source, output);
+        reloaded.prune();
+
+        assertThat(reloaded.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_forget_a_source() {
+        var manifest = recordedManifest("1.0.0", "");
+
+        manifest.forget(source);
+
+        assertThat(manifest.isUpToDate(source, output)).isFalse();
+    }
+
+    @Test
+    public void should_change_tree_fingerprint_when_a_matching_file_changes() throws Exception {
+        var before = BuildManifest.fingerprint(folder.toPath(), path -> path.toString().endsWith(".json"));
+
+        Files.writeString(folder.toPath().resolve("widget.js"), "ignored change");
+        var unchanged = BuildManifest.fingerprint(folder.toPath(), path -> path.toString().endsWith(".json"));
+        Files.writeString(folder.toPath().resolve("new.json"), "{}");
+        var changed = BuildManifest.fingerprint(folder.toPath(), path -> path.toString().endsWith(".json"));
+
+        assertThat(unchanged).isEqualTo(before);
+        assertThat(changed).isNotEqualTo(before);
+    }
+
+    private BuildManifest recordedManifest(String version, String fingerprint) {
+        var manifest = new BuildManifest(manifestFile, version);
+        manifest.load(fingerprint);
+        manifest.record(source, output);
+        manifest.save();
+        return manifest;
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.livebuild;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class DebouncedWatcherTest {
+
+    private static final long DEBOUNCE_DELAY = 50;
+
+    private final FakeWatcher delegate = new FakeWatcher();
+
+    private DebouncedWatcher watcher;
+
+    @Before
+    public void setUp() {
+        watcher = new DebouncedWatcher(delegate, DEBOUNCE_DELAY, 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        watcher.close();
+    }
+
+    @Test
+    public void should_notify_a_path_once_for_a_burst_of_events() throws Exception {
+        List<Path> changed = new CopyOnWriteArrayList<>();
+        watcher.watch(Paths.get("root"), changed::add);
+
+        for (int i = 0; i < 10; i++) {
+            delegate.fire(Paths.get("root/file"));
+        }
+
+        await().until(() -> watcher.getProcessedEvents() == 1);
+        assertThat(changed).containsExactly(Paths.get("root/file"));
+        assertThat(watcher.getReceivedEvents()).isEqualTo(10);
+        assertThat(watcher.getCoalescedEvents()).isEqualTo(9);
+    }
+
+    @Test
+    public void should_notify_paths_in_the_order_they_first_changed() throws Exception {
+        List<Path> changed = new CopyOnWriteArrayList<>();
+        watcher.watch(Paths.get("root"), changed::add);
+
+        delegate.fire(Paths.get("root/file1"));
+        delegate.fire(Paths.get("root/file2"));
+        delegate.fire(Paths.get("root/file1"));
+        delegate.fire(Paths.get("root/file3"));
+
+        await().until(() -> watcher.getProcessedEvents() == 3);
+        assertThat(changed).containsExactly(Paths.get("root/file1"), Paths.get("root/file2"), Paths.get("root/file3"));
+        assertThat(watcher.getPendingEvents()).isZero();
+    }
+
+    @Test
+    public void should_wait_for_debounce_delay_before_notifying() throws Exception {
+        List<Path> changed = new CopyOnWriteArrayList<>();
+        watcher.watch(Paths.get("root"), changed::add);
+
+        delegate.fire(Paths.get("root/file"));
+
+        assertThat(changed).isEmpty();
+        assertThat(watcher.getPendingEvents()).isEqualTo(1);
+        await().until(() -> changed.size() == 1);
+        assertThat(watcher.getLastLag()).isGreaterThanOrEqualTo(DEBOUNCE_DELAY);
+    }
+
+    @Test
+    public void should_keep_processing_when_a_listener_fails() throws Exception {
+        List<Path> changed = new CopyOnWriteArrayList<>();
+        watcher.watch(Paths.get("root"), path -> {
+            if (path.endsWith("broken")) {
+                throw new IllegalStateException("Build failed");
+            }
+            changed.add(path);
+        });
+
+        delegate.fire(Paths.get("root/broken"));
+        delegate.fire(Paths.get("root/file"));
+
+        await().until(() -> watcher.getProcessedEvents() == 2);
+        assertThat(changed).containsExactly(Paths.get("root/file"));
+    }
+
+    @Test
+    public void should_not_block_other_listeners_while_a_listener_is_busy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Path> changed = new CopyOnWriteArrayList<>();
+        watcher.watch(Paths.get("slow"), path -> release.await(5, SECONDS));
+        watcher.watch(Paths.get("fast"), changed::add);
+
+        delegate.fire(Paths.get("slow/file"));
+        delegate.fire(Paths.get("fast/file"));
+
+        await().until(() -> changed.size() == 1);
+        release.countDown();
+    }
+
+    /**
+     * Watcher firing events on demand to every listener watching a parent of the changed path
+     */
+    private static class FakeWatcher implements Watcher {
+
+        private final List<Path> roots = new CopyOnWriteArrayList<>();
+        private final List<PathListener> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void watch(Path path, PathListener listener) {
+            roots.add(path);
+            listeners.add(listener);
+        }
+
+        void fire(Path path) throws Exception {
+            for (int i = 0; i < roots.size(); i++) {
+                if (path.startsWith(roots.get(i))) {
+                    listeners.get(i).onChange(path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.livebuild;
+
+import org.bonitasoft.web.designer.repository.AtomicFiles;
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class NativeWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Watcher fallback = mock(Watcher.class);
+
+    private NativeWatcher watcher;
+    private Path subDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        subDirectory = Files.createDirectory(folder.toPath().resolve("un répertoire"));
+        watcher = new NativeWatcher(FileSystems.getDefault().newWatchService(), fallback);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        watcher.close();
+    }
+
+    @Test
+    public void should_trigger_a_created_event_when_a_file_is_created() throws Exception {
+        PathListenerStub listener = new PathListenerStub();
+        watcher.watch(folder.toPath(), listener);
+
+        Path file = Files.createFile(subDirectory.resolve("file"));
+
+        await().until(changedFilesContainsExactly(listener, file));
+    }
+
+    @Test
+    public void should_trigger_a_modified_event_when_a_file_is_modified() throws Exception {
+        Path existingFile = Files.createFile(subDirectory.resolve("file"));
+        PathListenerStub listener = new PathListenerStub();
+        watcher.watch(folder.toPath(), listener);
+
+        Files.write(existingFile, "hello".getBytes(), StandardOpenOption.APPEND);
+
+        await().until(changedFilesContainsExactly(listener, existingFile));
+    }
+
+    @Test
+    public void should_not_trigger_an_event_for_a_staged_file() throws Exception {
+        Path existingFile = Files.createFile(subDirectory.resolve("file.json"));
+        PathListenerStub listener = new PathListenerStub();
+        watcher.watch(folder.toPath(), listener);
+
+        AtomicFiles.write(existingFile, "hello".getBytes());
+
+        await().until(changedFilesContainsExactly(listener, existingFile));
+    }
+
+    @Test
+    public void should_watch_directories_created_after_watch_started() throws Exception {
+        PathListenerStub listener = new PathListenerStub();
+        watcher.watch(folder.toPath(), listener);
+
+        Path newDirectory = Files.createDirectories(subDirectory.resolve("new").resolve("directory"));
+        Path file = Files.createFile(newDirectory.resolve("file"));
+        await().until(() -> listener.getChanged().contains(file));
+
+        listener.getChanged().clear();
+        Files.write(file, "hello".getBytes(), StandardOpenOption.APPEND);
+
+        await().until(changedFilesContainsExactly(listener, file));
+    }
+
+    @Test
+    public void should_notify_every_listener_watching_a_same_directory() throws Exception {
+        PathListenerStub listener = new PathListenerStub();
+        PathListenerStub otherListener = new PathListenerStub();
+        watcher.watch(folder.toPath(), listener);
+        watcher.watch(subDirectory, otherListener);
+
+        Path file = Files.createFile(subDirectory.resolve("file"));
+
+        await().until(changedFilesContainsExactly(listener, file));
+        await().until(changedFilesContainsExactly(otherListener, file));
+    }
+
+    @Test
+    public void should_fall_back_on_given_watcher_when_native_events_are_not_supported_for_a_path() throws Exception {
+        watcher.close();
+        watcher = new NativeWatcher(mock(WatchService.class), fallback);
+        PathListenerStub listener = new PathListenerStub();
+
+        watcher.watch(folder.toPath(), listener);
+
+        verify(fallback).watch(folder.toPath(), listener);
+    }
+
+    private Callable<Boolean> changedFilesContainsExactly(PathListenerStub listener, Path expectedFile) {
+        return () -> {
+            Set<Path> changed = listener.getChanged();
+            return changed.size() == 1
+                    && changed.contains(expectedFile);
+        };
+    }
+}
@@ -15,12 +15,12 @@
 package org.bonitasoft.web.designer.livebuild;
 
 import java.nio.file.Path;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class PathListenerStub implements PathListener {
-    final Set<Path> changed = new HashSet<>();
+    final Set<Path> changed = ConcurrentHashMap.newKeySet();
 
     @Override
     public void onChange(Path path) throws Exception {
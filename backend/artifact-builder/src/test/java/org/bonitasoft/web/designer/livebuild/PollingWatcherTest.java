@@ -30,7 +30,7 @@ import java.util.concurrent.Callable;
 
 import static org.awaitility.Awaitility.await;
 
-public class WatcherTest {
+public class PollingWatcherTest {
 
     private final static long POLLING_DELAY = 10;
 
@@ -39,7 +39,7 @@ public class WatcherTest {
 
     private static FileAlterationMonitor monitor = new FileAlterationMonitor(POLLING_DELAY);
 
-    private Watcher watcher;
+    private PollingWatcher watcher;
     private Path subDirectory;
 
     @BeforeClass
@@ -55,7 +55,7 @@ public class WatcherTest {
     @Before
     public void setUp() throws Exception {
         subDirectory = Files.createDirectory(folder.toPath().resolve("un répertoire"));
-        watcher = new Watcher(new ObserverFactory(), monitor);
+        watcher = new PollingWatcher(new ObserverFactory(), monitor);
     }
 
     @Test
@@ -20,15 +20,19 @@ import org.bonitasoft.web.designer.JsonHandlerFactory;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
 import org.bonitasoft.web.designer.config.WorkspaceUidProperties;
+import org.bonitasoft.web.designer.livebuild.BuildManifest;
 import org.bonitasoft.web.designer.livebuild.Watcher;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.migrationReport.MigrationStatus;
 import org.bonitasoft.web.designer.model.migrationReport.MigrationStepReport;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.repository.BeanValidator;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.repository.JsonFileBasedLoader;
 import org.bonitasoft.web.designer.repository.JsonFileBasedPersister;
+import org.bonitasoft.web.designer.repository.LoadExecutor;
 import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.repository.Repository;
 import org.bonitasoft.web.designer.repository.WidgetFileBasedLoader;
@@ -38,6 +42,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -46,6 +51,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -53,6 +59,8 @@ import static java.lang.String.format;
 import static java.nio.file.Files.write;
 import static java.util.Collections.EMPTY_LIST;
 import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.*;
 
@@ -62,6 +70,9 @@ public class LiveRepositoryUpdateTest {
     @Rule
     public TemporaryFolder folder = new TemporaryFolder();
 
+    @Rule
+    public TemporaryFolder manifestFolder = new TemporaryFolder();
+
     JsonHandler jsonHandler = new JsonHandlerFactory().create();
 
     @Mock
@@ -96,7 +107,102 @@ public class LiveRepositoryUpdateTest {
         liveRepositoryUpdate.migrate();
 
         page.setModelVersion("2.1");
-        verify(persister).save(folder.getRoot().toPath().resolve("pageJson"), page);
+        verify(persister).saveAll(Map.of(folder.getRoot().toPath().resolve("pageJson"), page));
+    }
+
+    @Test
+    public void should_save_migrated_artifacts_together() throws Exception {
+        Migration<Page> migration = new Migration<>("2.1", mock(MigrationStep.class));
+        LiveRepositoryUpdate<Page> liveRepositoryUpdate = new LiveRepositoryUpdate<>(repository, singletonList(migration),
+                null, new LoadExecutor(2));
+        createPage("page1", "2.0");
+        createPage("page2", "2.0");
+        createPage("page3", "2.1");
+
+        liveRepositoryUpdate.migrate();
+
+        ArgumentCaptor<Map<Path, Page>> saved = ArgumentCaptor.forClass(Map.class);
+        verify(persister).saveAll(saved.capture());
+        assertThat(saved.getValue().keySet()).containsOnly(folder.toPath().resolve("page1"), folder.toPath().resolve("page2"));
+    }
+
+    @Test
+    public void should_report_each_artifact_to_the_tracker() throws Exception {
+        Migration<Page> migration = new Migration<>("2.1", mock(MigrationStep.class));
+        LiveRepositoryUpdate<Page> liveRepositoryUpdate = new LiveRepositoryUpdate<>(repository, singletonList(migration));
+        createPage("page1", "2.0");
+        createPage("page2", "2.1");
+        List<MigrationProgress> progresses = new ArrayList<>();
+        List<Path> descriptors = liveRepositoryUpdate.descriptors();
+
+        liveRepositoryUpdate.migrate(descriptors, new MigrationTracker(descriptors.size(), progresses::add));
+
+        assertThat(progresses).extracting(MigrationProgress::getDone).containsExactly(1, 2);
+        assertThat(progresses).extracting(progress -> progress.getReport().getElementId(), progress -> progress.getReport().getStatus())
+                .containsOnly(tuple("page1", "success"), tuple("page2", "none"));
+    }
+
+    @Test
+    public void should_report_an_error_for_an_artifact_which_cannot_be_read() throws Exception {
+        Migration<Page> migration = new Migration<>("2.1", mock(MigrationStep.class));
+        LiveRepositoryUpdate<Page> liveRepositoryUpdate = new LiveRepositoryUpdate<>(repository, singletonList(migration));
+        createPage("page1", "2.0");
+        folder.newFolder("broken");
+        write(folder.toPath().resolve("broken").resolve("broken.json"), "{ not json".getBytes());
+        List<MigrationProgress> progresses = new ArrayList<>();
+        List<Path> descriptors = liveRepositoryUpdate.descriptors();
+
+        liveRepositoryUpdate.migrate(descriptors, new MigrationTracker(descriptors.size(), progresses::add));
+
+        assertThat(progresses).extracting(progress -> progress.getReport().getElementId(), progress -> progress.getReport().getStatus())
+                .containsOnly(tuple("page1", "success"), tuple("broken", "error"));
+        ArgumentCaptor<Map<Path, Page>> saved = ArgumentCaptor.forClass(Map.class);
+        verify(persister).saveAll(saved.capture());
+        assertThat(saved.getValue().keySet()).containsOnly(folder.toPath().resolve("page1"));
+    }
+
+    @Test
+    public void should_migrate_other_artifacts_when_one_cannot_be_read() throws Exception {
+        Migration<Page> migration = new Migration<>("2.1", mock(MigrationStep.class));
+        LiveRepositoryUpdate<Page> liveRepositoryUpdate = new LiveRepositoryUpdate<>(repository, singletonList(migration));
+        createPage("page1", "2.0");
+        folder.newFolder("broken");
+        write(folder.toPath().resolve("broken").resolve("broken.json"), "{ not json".getBytes());
+
+        liveRepositoryUpdate.migrate();
+
+        ArgumentCaptor<Map<Path, Page>> saved = ArgumentCaptor.forClass(Map.class);
+        verify(persister).saveAll(saved.capture());
+        assertThat(saved.getValue().keySet()).containsOnly(folder.toPath().resolve("page1"));
+        assertThat(folder.toPath().resolve("broken").resolve("broken.json")).hasContent("{ not json");
+    }
+
+    @Test
+    public void should_migrate_fragments_after_the_fragments_they_use() throws Exception {
+        workspaceProperties.getFragments().setDir(folder.toPath());
+        FragmentRepository fragmentRepository = new FragmentRepository(workspaceProperties, new WorkspaceUidProperties(),
+                mock(JsonFileBasedPersister.class), new JsonFileBasedLoader<>(jsonHandler, Fragment.class), beanValidator, mock(Watcher.class));
+        List<String> migrated = new ArrayList<>();
+        Migration<Fragment> migration = new Migration<>("2.1", new MigrationStep<Fragment>() {
+
+            @Override
+            public Optional<MigrationStepReport> migrate(Fragment fragment) {
+                migrated.add(fragment.getId());
+                return Optional.empty();
+            }
+
+            @Override
+            public String getErrorMessage() {
+                return null;
+            }
+        });
+        createFragment("a", "b");
+        createFragment("b", "c");
+        createFragment("c", null);
+
+        new LiveRepositoryUpdate<>(fragmentRepository, singletonList(migration), null, new LoadExecutor(2)).migrate();
+
+        assertThat(migrated).containsExactly("c", "b", "a");
     }
 
     @Test
@@ -146,6 +252,31 @@ public class LiveRepositoryUpdateTest {
         verify(persister).updateMetadata(any(Path.class), any(Page.class));
     }
 
+    @Test
+    public void should_not_refresh_artifacts_whose_metadata_are_up_to_date_on_start() throws Exception {
+        createPage("1.7.25");
+        folder.newFolder(".metadata");
+        write(folder.toPath().resolve(".metadata").resolve("pageJson.json"), "{}".getBytes());
+
+        new LiveRepositoryUpdate<>(repository, EMPTY_LIST, new BuildManifest(manifestFolder.toPath().resolve("pages.json"), "1.0.0")).start();
+        new LiveRepositoryUpdate<>(repository, EMPTY_LIST, new BuildManifest(manifestFolder.toPath().resolve("pages.json"), "1.0.0")).start();
+
+        verify(persister, times(1)).updateMetadata(any(Path.class), any(Page.class));
+    }
+
+    @Test
+    public void should_refresh_artifacts_modified_since_last_start() throws Exception {
+        createPage("1.7.25");
+        folder.newFolder(".metadata");
+        write(folder.toPath().resolve(".metadata").resolve("pageJson.json"), "{}".getBytes());
+        new LiveRepositoryUpdate<>(repository, EMPTY_LIST, new BuildManifest(manifestFolder.toPath().resolve("pages.json"), "1.0.0")).start();
+
+        write(folder.toPath().resolve("pageJson").resolve("pageJson.json"), "{ \"id\": \"pageJson\", \"name\": \"changed\" }".getBytes());
+        new LiveRepositoryUpdate<>(repository, EMPTY_LIST, new BuildManifest(manifestFolder.toPath().resolve("pages.json"), "1.0.0")).start();
+
+        verify(persister, times(2)).updateMetadata(any(Path.class), any(Page.class));
+    }
+
     @Test
     public void should_order_LiveRepositoryUpdate() throws Exception {
         LiveRepositoryUpdate<Page> pageLiveRepositoryUpdate = new LiveRepositoryUpdate<>(repository, EMPTY_LIST);
@@ -162,6 +293,18 @@ public class LiveRepositoryUpdateTest {
         Assertions.assertThat(liveRepoList.stream().sorted().collect(Collectors.toList())).containsExactly(widgetLiveRepositoryUpdate, pageLiveRepositoryUpdate);
     }
 
+    private void createPage(String id, String version) throws IOException {
+        folder.newFolder(id);
+        write(folder.toPath().resolve(id).resolve(id + ".json"), format("{ \"id\": \"%s\", \"modelVersion\": \"%s\" }", id, version).getBytes());
+    }
+
+    private void createFragment(String id, String usedFragmentId) throws IOException {
+        String rows = usedFragmentId == null ? "[]" : format("[[{ \"type\": \"fragment\", \"id\": \"%s\" }]]", usedFragmentId);
+        folder.newFolder(id);
+        write(folder.toPath().resolve(id).resolve(id + ".json"),
+                format("{ \"id\": \"%s\", \"type\": \"fragment\", \"modelVersion\": \"2.0\", \"rows\": %s }", id, rows).getBytes());
+    }
+
     private Page createPage(String version) throws IOException {
         folder.newFolder("pageJson");
         File pageJson = folder.newFile("pageJson/pageJson.json");
@@ -0,0 +1,130 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.migration;
+
+import org.bonitasoft.web.designer.controller.MigrationStatusReport;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.model.widget.Widget;
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
+import org.bonitasoft.web.designer.service.FragmentService;
+import org.bonitasoft.web.designer.service.PageService;
+import org.bonitasoft.web.designer.service.WidgetService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MigrationPlannerTest {
+
+    @Mock
+    private WidgetRepository widgetRepository;
+
+    @Mock
+    private FragmentRepository fragmentRepository;
+
+    @Mock
+    private WidgetService widgetService;
+
+    @Mock
+    private FragmentService fragmentService;
+
+    @Mock
+    private PageService pageService;
+
+    private MigrationPlanner planner;
+
+    @Before
+    public void setUp() {
+        MigrationStep<Widget> widgetStep = mock(MigrationStep.class);
+        MigrationStep<Fragment> fragmentStep = mock(MigrationStep.class);
+        MigrationStep<Page> pageStep = mock(MigrationStep.class);
+        planner = new MigrationPlanner(widgetRepository, fragmentRepository, widgetService, fragmentService, pageService,
+                List.of(new Migration<>("2.1", widgetStep)),
+                List.of(new Migration<>("2.1", fragmentStep), new Migration<>("2.2", fragmentStep)),
+                List.of(new Migration<>("2.1", pageStep, pageStep), new Migration<>("2.2", pageStep)));
+    }
+
+    @Test
+    public void should_plan_the_migration_of_artifacts_needing_it() {
+        when(widgetRepository.getAllSummaries()).thenReturn(List.of(
+                ArtifactSummary.of(aWidget().withId("oldWidget").modelVersion("2.0").build()),
+                ArtifactSummary.of(aWidget().withId("upToDateWidget").modelVersion("2.1").build())));
+        when(widgetService.getMigrationStatusById()).thenReturn(Map.of(
+                "oldWidget", new MigrationStatusReport(true, true),
+                "upToDateWidget", new MigrationStatusReport(true, false)));
+        when(fragmentRepository.getAllSummaries()).thenReturn(List.of(
+                ArtifactSummary.of(aFragment().withId("oldFragment").withModelVersion("2.1").build())));
+        when(fragmentService.getMigrationStatusById()).thenReturn(Map.of("oldFragment", new MigrationStatusReport(true, true)));
+        when(pageService.getAllLight()).thenReturn(List.of(
+                aPage().withId("oldPage").withModelVersion("2.0").withMigrationStatusReport(new MigrationStatusReport(true, true)).build()));
+
+        MigrationPlan plan = planner.plan();
+
+        assertThat(plan.getToMigrate()).extracting(MigrationPlan.PlannedArtifact::getId, MigrationPlan.PlannedArtifact::getStepCount)
+                .containsExactly(tuple("oldWidget", 1), tuple("oldFragment", 1), tuple("oldPage", 3));
+        assertThat(plan.getIncompatible()).isEmpty();
+        assertThat(plan.getStepCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void should_not_compute_usages_of_widgets_and_fragments() {
+        planner.plan();
+
+        verify(widgetService, never()).getAllLight();
+        verify(fragmentService, never()).getAllLightNotUsingFragment(null);
+    }
+
+    @Test
+    public void should_plan_the_migration_of_artifacts_only_using_artifacts_needing_it() {
+        when(pageService.getAllLight()).thenReturn(List.of(
+                aPage().withId("page").withModelVersion("2.2").withMigrationStatusReport(new MigrationStatusReport(true, true)).build()));
+
+        MigrationPlan plan = planner.plan();
+
+        assertThat(plan.getToMigrate()).extracting(MigrationPlan.PlannedArtifact::getId, MigrationPlan.PlannedArtifact::getStepCount)
+                .containsExactly(tuple("page", 0));
+        assertThat(plan.getStepCount()).isZero();
+    }
+
+    @Test
+    public void should_list_incompatible_artifacts_apart() {
+        when(pageService.getAllLight()).thenReturn(List.of(
+                aPage().withId("newerPage").withModelVersion("3.0").withMigrationStatusReport(new MigrationStatusReport(false, false)).build()));
+
+        MigrationPlan plan = planner.plan();
+
+        assertThat(plan.getToMigrate()).isEmpty();
+        assertThat(plan.getIncompatible()).extracting(MigrationPlan.PlannedArtifact::getId, MigrationPlan.PlannedArtifact::getArtifactVersion)
+                .containsExactly(tuple("newerPage", "3.0"));
+    }
+}
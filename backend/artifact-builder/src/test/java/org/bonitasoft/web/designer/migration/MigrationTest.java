@@ -25,6 +25,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -72,4 +73,13 @@ public class MigrationTest {
 
         verify(migrationStep, never()).migrate(page);
     }
+
+    @Test
+    public void should_count_the_steps_executed_on_an_artifact_version() throws Exception {
+        Migration<Page> twoSteps = new Migration<>("1.0.1", migrationStep, migrationStep);
+
+        assertThat(twoSteps.getStepCount("1.0.0")).isEqualTo(2);
+        assertThat(twoSteps.getStepCount(null)).isEqualTo(2);
+        assertThat(twoSteps.getStepCount("1.0.1")).isZero();
+    }
 }
@@ -0,0 +1,55 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.migration;
+
+import org.bonitasoft.web.designer.model.migrationReport.MigrationReport;
+import org.bonitasoft.web.designer.model.migrationReport.MigrationStatus;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MigrationTrackerTest {
+
+    @Test
+    public void should_notify_the_progress_of_a_migration() {
+        List<MigrationProgress> progresses = new ArrayList<>();
+        MigrationTracker tracker = new MigrationTracker(2, progresses::add);
+        MigrationReport first = new MigrationReport(MigrationStatus.SUCCESS, "first");
+        MigrationReport second = new MigrationReport(MigrationStatus.NONE, "second");
+
+        tracker.start();
+        tracker.migrated(first);
+        tracker.migrated(second);
+        tracker.finish();
+
+        assertThat(progresses).containsExactly(
+                new MigrationProgress(0, 2, null, false),
+                new MigrationProgress(1, 2, first, false),
+                new MigrationProgress(2, 2, second, false),
+                new MigrationProgress(2, 2, null, true));
+    }
+
+    @Test
+    public void should_count_migrated_artifacts() {
+        MigrationTracker tracker = new MigrationTracker(3, MigrationListener.NONE);
+
+        tracker.migrated(new MigrationReport(MigrationStatus.SUCCESS, "first"));
+
+        assertThat(tracker.getDone()).isEqualTo(1);
+    }
+}
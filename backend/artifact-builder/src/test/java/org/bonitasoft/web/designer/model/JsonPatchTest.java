@@ -0,0 +1,122 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonPatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode json(String json) throws Exception {
+        return objectMapper.readTree(json.replace('\'', '"'));
+    }
+
+    private JsonNode apply(String patch, String document) throws Exception {
+        return JsonPatch.of(json(patch)).apply(json(document));
+    }
+
+    @Test
+    public void should_add_a_property() throws Exception {
+        JsonNode result = apply("[{'op': 'add', 'path': '/name', 'value': 'page'}]", "{'id': 'myPage'}");
+
+        assertThat(result).isEqualTo(json("{'id': 'myPage', 'name': 'page'}"));
+    }
+
+    @Test
+    public void should_insert_and_append_array_elements() throws Exception {
+        JsonNode result = apply("[{'op': 'add', 'path': '/rows/1', 'value': 'b'}, {'op': 'add', 'path': '/rows/-', 'value': 'd'}]",
+                "{'rows': ['a', 'c']}");
+
+        assertThat(result).isEqualTo(json("{'rows': ['a', 'b', 'c', 'd']}"));
+    }
+
+    @Test
+    public void should_remove_and_replace_values() throws Exception {
+        JsonNode result = apply("[{'op': 'remove', 'path': '/rows/0'}, {'op': 'replace', 'path': '/name', 'value': 'renamed'}]",
+                "{'name': 'page', 'rows': ['a', 'b']}");
+
+        assertThat(result).isEqualTo(json("{'name': 'renamed', 'rows': ['b']}"));
+    }
+
+    @Test
+    public void should_move_and_copy_values() throws Exception {
+        JsonNode result = apply("[{'op': 'move', 'from': '/rows/0', 'path': '/rows/-'}, {'op': 'copy', 'from': '/name', 'path': '/id'}]",
+                "{'name': 'page', 'rows': ['a', 'b']}");
+
+        assertThat(result).isEqualTo(json("{'name': 'page', 'id': 'page', 'rows': ['b', 'a']}"));
+    }
+
+    @Test
+    public void should_replace_the_whole_document() throws Exception {
+        JsonNode result = apply("[{'op': 'replace', 'path': '', 'value': {'id': 'other'}}]", "{'id': 'myPage'}");
+
+        assertThat(result).isEqualTo(json("{'id': 'other'}"));
+    }
+
+    @Test
+    public void should_leave_the_patched_document_untouched() throws Exception {
+        JsonNode document = json("{'name': 'page'}");
+
+        JsonPatch.of(json("[{'op': 'replace', 'path': '/name', 'value': 'renamed'}]")).apply(document);
+
+        assertThat(document).isEqualTo(json("{'name': 'page'}"));
+    }
+
+    @Test
+    public void should_pass_a_successful_test_operation() throws Exception {
+        JsonNode result = apply("[{'op': 'test', 'path': '/name', 'value': 'page'}, {'op': 'remove', 'path': '/name'}]",
+                "{'name': 'page'}");
+
+        assertThat(result).isEqualTo(json("{}"));
+    }
+
+    @Test
+    public void should_fail_when_a_test_operation_does_not_match() throws Exception {
+        assertThatThrownBy(() -> apply("[{'op': 'test', 'path': '/name', 'value': 'other'}]", "{'name': 'page'}"))
+                .isInstanceOf(JsonPatchException.class);
+    }
+
+    @Test
+    public void should_fail_when_removing_a_missing_value() throws Exception {
+        assertThatThrownBy(() -> apply("[{'op': 'remove', 'path': '/missing'}]", "{'name': 'page'}"))
+                .isInstanceOf(JsonPatchException.class);
+    }
+
+    @Test
+    public void should_fail_when_adding_out_of_array_bounds() throws Exception {
+        assertThatThrownBy(() -> apply("[{'op': 'add', 'path': '/rows/3', 'value': 'c'}]", "{'rows': ['a']}"))
+                .isInstanceOf(JsonPatchException.class);
+    }
+
+    @Test
+    public void should_reject_moving_a_value_into_one_of_its_children() throws Exception {
+        assertThatThrownBy(() -> JsonPatch.of(json("[{'op': 'move', 'from': '/rows', 'path': '/rows/0'}]")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void should_reject_a_malformed_patch() throws Exception {
+        assertThatThrownBy(() -> JsonPatch.of(json("{'op': 'add'}"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.of(json("[{'op': 'unknown', 'path': '/name'}]"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.of(json("[{'op': 'add', 'path': '/name'}]"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> JsonPatch.of(json("[{'op': 'move', 'path': '/name'}]"))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.nio.file.Files.write;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirectiveBundleCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final DirectiveBundleCache cache = new DirectiveBundleCache(2);
+
+    private final List<List<Path>> bundled = new ArrayList<>();
+
+    private final Function<List<Path>, byte[]> bundler = files -> {
+        bundled.add(files);
+        return files.toString().getBytes();
+    };
+
+    private Path widget1;
+    private Path widget2;
+    private Path widget3;
+
+    @Before
+    public void setUp() throws Exception {
+        widget1 = write(temporaryFolder.newFilePath("widget1.js"), "widget1".getBytes());
+        widget2 = write(temporaryFolder.newFilePath("widget2.js"), "widget2".getBytes());
+        widget3 = write(temporaryFolder.newFilePath("widget3.js"), "widget3".getBytes());
+    }
+
+    @Test
+    public void should_build_bundle_once_for_a_given_set_of_widgets() {
+        DirectiveBundle bundle = cache.get(List.of(widget2, widget1), bundler);
+
+        assertThat(cache.get(List.of(widget1, widget2, widget1), bundler)).isSameAs(bundle);
+        assertThat(bundled).containsExactly(List.of(widget1, widget2));
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_rebuild_bundle_when_a_directive_file_changed_on_disk() throws Exception {
+        DirectiveBundle bundle = cache.get(List.of(widget1, widget2), bundler);
+
+        write(widget1, "widget1 has been updated".getBytes());
+
+        assertThat(cache.get(List.of(widget1, widget2), bundler)).isNotSameAs(bundle);
+        assertThat(bundled).hasSize(2);
+    }
+
+    @Test
+    public void should_drop_bundles_containing_an_invalidated_directive() {
+        cache.get(List.of(widget1, widget2), bundler);
+        cache.get(List.of(widget3), bundler);
+
+        cache.invalidate(widget1);
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.get(List.of(widget3), bundler);
+        assertThat(bundled).hasSize(2);
+    }
+
+    @Test
+    public void should_evict_least_recently_used_bundles() {
+        cache.get(List.of(widget1), bundler);
+        cache.get(List.of(widget2), bundler);
+        cache.get(List.of(widget1), bundler);
+
+        cache.get(List.of(widget3), bundler);
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get(List.of(widget1), bundler);
+        assertThat(bundled).hasSize(3);
+    }
+
+    @Test
+    public void should_name_bundle_after_its_content() {
+        DirectiveBundle bundle = new DirectiveBundle("content".getBytes());
+
+        assertThat(bundle.getFileName()).isEqualTo("widgets-040f06fd774092478d450774f5ba30c5da78acc8.min.js");
+    }
+}
@@ -17,9 +17,9 @@ package org.bonitasoft.web.designer.rendering;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
 import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.model.widget.Widget;
-import org.bonitasoft.web.designer.repository.WidgetRepository;
 import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
-import org.bonitasoft.web.designer.visitor.WidgetIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -30,18 +30,19 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static java.nio.file.Files.readString;
+import static java.nio.file.Files.setLastModifiedTime;
 import static java.nio.file.Files.write;
-import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.builder.ContainerBuilder.aContainer;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 /**
@@ -55,25 +56,24 @@ public class DirectiveFileGeneratorTest {
 
     private DirectiveFileGenerator generator;
 
-    private WorkspaceProperties workspaceProperties = new WorkspaceProperties();
+    private DirectiveBundleCache bundleCache = new DirectiveBundleCache();
 
-    @Mock
-    private WidgetRepository widgetRepository;
+    private WorkspaceProperties workspaceProperties = new WorkspaceProperties();
 
     @Mock
-    private WidgetIdVisitor widgetIdVisitor;
+    private PageAnalyzer pageAnalyzer;
 
     @Before
     public void beforeEach() {
         workspaceProperties.getPages().setDir(Paths.get(temporaryFolder.toPath().toString()));
         workspaceProperties.getWidgets().setDir(Paths.get(temporaryFolder.toPath().toString()));
-        generator = new DirectiveFileGenerator(workspaceProperties, widgetRepository, widgetIdVisitor);
+        generator = new DirectiveFileGenerator(workspaceProperties, pageAnalyzer, bundleCache);
     }
 
     @Test
     public void should_list_all_widgets_except_container_used_in_page() throws Exception {
         Page page = aPage().with(aContainer().build()).build();
-        mockWidgetIdVisitorAndWidgetRepository(page, "pbLabel", "paragraph", "pbContainer");
+        mockPageAnalysis(page, "pbLabel", "paragraph", "pbContainer");
 
         List<Path> widgesFiles = generator.getWidgetsFilesUsedInPage(page);
 
@@ -86,27 +86,54 @@ public class DirectiveFileGeneratorTest {
     public void should_get_file_name_of_concatenation_widgets_directives_file_who_was_use_in_page() throws Exception {
         Page page = aPage().build();
         initWidgetsFileWhoUsedInPage(page);
-        mockWidgetIdVisitorAndWidgetRepository(page, "pbLabel", "paragraph");
+        mockPageAnalysis(page, "pbLabel", "paragraph");
         Path pagePath = temporaryFolder.toPath().resolve("pages").resolve(page.getId());
 
         String filename = generator.generateAllDirectivesFilesInOne(page, pagePath);
 
-        assertThat(filename).isEqualTo("widgets-f66d6f4cc38b2259ec29fa16e9f171251cd3d346.min.js");
+        assertThat(filename).isEqualTo("widgets-7d4c08879edbaa7f38393d400edaa050d268e1bf.min.js");
     }
 
     @Test
     public void should_concatenate_and_minify_widgets_directives_file_who_was_use_in_page() throws Exception {
         Page page = aPage().build();
         initFilesForConcatAndMinify(page);
-        mockWidgetIdVisitorAndWidgetRepository(page, "pbLabel", "paragraph");
+        mockPageAnalysis(page, "pbLabel", "paragraph");
         Path path = temporaryFolder.toPath().resolve("pages").resolve(page.getId());
-        String expected = "\nList<String>filename=getWidgetsFilesUsedInPage(previewable);" +
-                "byte[]content=getConcatenationWidgetsDirectives(filename);file2";
+        String expected = "\nfile2\nList<String>filename=getWidgetsFilesUsedInPage(previewable);" +
+                "byte[]content=getConcatenationWidgetsDirectives(filename);";
 
         String filename = generator.generateAllDirectivesFilesInOne(page, path);
 
         assertThat(readString(path.resolve(filename))).isEqualTo(expected);
-        assertThat(filename).isEqualTo("widgets-0f2d4ba1fa1992794df3dca7a9b8e4ec735b4746.min.js");
+        assertThat(filename).isEqualTo("widgets-6da03273ca4237de0b428f0721322e82805c293f.min.js");
+    }
+
+    @Test
+    public void should_share_bundle_between_previewables_using_the_same_widgets() throws Exception {
+        Page page = aPage().withId("page").build();
+        Page otherPage = aPage().withId("otherPage").build();
+        initWidgetsFileWhoUsedInPage(page);
+        mockPageAnalysis(page, "pbLabel", "paragraph");
+        mockPageAnalysis(otherPage, "paragraph", "pbLabel");
+
+        DirectiveBundle bundle = generator.getBundle(page);
+
+        assertThat(generator.getBundle(otherPage)).isSameAs(bundle);
+        assertThat(bundleCache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_rebuild_bundle_when_a_widget_directive_changed() throws Exception {
+        Page page = aPage().build();
+        initWidgetsFileWhoUsedInPage(page);
+        mockPageAnalysis(page, "pbLabel", "paragraph");
+        DirectiveBundle bundle = generator.getBundle(page);
+
+        Path directive = write(temporaryFolder.toPath().resolve("pbLabel/pbLabel.js"), "file1 has changed".getBytes());
+        setLastModifiedTime(directive, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        assertThat(new String(generator.getBundle(page).getContent())).isNotEqualTo(new String(bundle.getContent())).contains("file1 has changed");
     }
 
     private void initWidgetsFileWhoUsedInPage(Page page) throws IOException {
@@ -118,14 +145,13 @@ public class DirectiveFileGeneratorTest {
     }
 
 
-    private void mockWidgetIdVisitorAndWidgetRepository(Page page, String... ids) {
-        HashSet<String> widgetIds = new HashSet<>(asList(ids));
+    private void mockPageAnalysis(Page page, String... ids) {
         List<Widget> widgets = Arrays.asList(ids).stream()
                 .map(id -> aWidget().withId(id).build())
                 .collect(Collectors.toList());
-        when(widgetIdVisitor.visit(page)).thenReturn(widgetIds);
-        when(widgetRepository.getByIds(widgetIds))
-                .thenReturn(widgets);
+        PageAnalysis analysis = mock(PageAnalysis.class);
+        when(pageAnalyzer.analyze(page)).thenReturn(analysis);
+        when(analysis.getWidgets()).thenReturn(widgets);
     }
 
     private void initFilesForConcatAndMinify(Page page) throws IOException {
@@ -20,9 +20,9 @@ import org.bonitasoft.web.designer.builder.PageBuilder;
 import org.bonitasoft.web.designer.config.WorkspaceUidProperties;
 import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.Page;
-import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
-import org.bonitasoft.web.designer.visitor.FragmentIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,12 +33,13 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
@@ -58,10 +59,10 @@ public class DirectivesCollectorTest {
     private WorkspaceUidProperties workspaceUidProperties;
 
     @Mock
-    private FragmentRepository fragmentRepository;
+    private PageAnalyzer pageAnalyzer;
 
     @Mock
-    private FragmentIdVisitor fragmentIdVisitor;
+    private PageAnalysis pageAnalysis;
 
     @Mock
     private DirectiveFileGenerator directiveFileGenerator;
@@ -71,7 +72,9 @@ public class DirectivesCollectorTest {
         when(workspaceUidProperties.getTmpPagesRepositoryPath()).thenReturn(temporaryFolder.toPath().resolve("pages"));
         when(workspaceUidProperties.getTmpFragmentsRepositoryPath()).thenReturn(temporaryFolder.toPath().resolve("fragments"));
 
-        collector = new DirectivesCollector(workspaceUidProperties,directiveFileGenerator,fragmentIdVisitor,fragmentRepository);
+        lenient().when(pageAnalyzer.analyze(any())).thenReturn(pageAnalysis);
+
+        collector = new DirectivesCollector(workspaceUidProperties, directiveFileGenerator, pageAnalyzer);
 
     }
 
@@ -119,8 +122,6 @@ public class DirectivesCollectorTest {
         lenient().when(directiveFileGenerator.generateAllDirectivesFilesInOne(page, pagePathAsset)).thenReturn("widgets-123456.js");
         lenient().when(directiveFileGenerator.generateAllDirectivesFilesInOne(fragment, fragmentsPath)).thenReturn("widgets-654321.js");
 
-        HashSet<String> fragmentIds = new HashSet<>(asList(fragment.getId()));
-        when(fragmentIdVisitor.visit(page)).thenReturn(fragmentIds);
-        when(fragmentRepository.getByIds(fragmentIds)).thenReturn(asList(fragment));
+        when(pageAnalysis.getFragmentIds()).thenReturn(Set.of(fragment.getId()));
     }
 }
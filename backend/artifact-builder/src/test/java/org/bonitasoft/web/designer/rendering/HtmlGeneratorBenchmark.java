@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.model.page.Previewable;
+import org.bonitasoft.web.designer.utils.rule.TestResource;
+import org.bonitasoft.web.designer.visitor.AbstractBuilderVisitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+
+/**
+ * Generates the html of the test fixture pages with formatting, as export does, versus as rendered by templates, as
+ * preview does. Page bodies are repeated to also measure large pages.
+ * <p>
+ * Not run by the test suite. Launch {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn -pl artifact-builder test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.bonitasoft.web.designer.rendering.HtmlGeneratorBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HtmlGeneratorBenchmark {
+
+    @Param({"page.html", "pageCustomDisplayName.html", "fragment.html"})
+    private String fixture;
+
+    @Param({"1", "50"})
+    private int bodyRepeat;
+
+    private Page page;
+
+    private HtmlGenerator formatting;
+
+    private HtmlGenerator asRendered;
+
+    @Setup
+    public void setUp() {
+        var html = new TestResource(HtmlGenerator.class).load(fixture);
+        var bodyStart = html.indexOf("<body");
+        var bodyEnd = html.lastIndexOf("</body>");
+        if (bodyStart >= 0 && bodyEnd > bodyStart) {
+            var body = html.substring(html.indexOf('>', bodyStart) + 1, bodyEnd);
+            html = html.substring(0, bodyEnd) + body.repeat(bodyRepeat - 1) + html.substring(bodyEnd);
+        } else {
+            html = html.repeat(bodyRepeat);
+        }
+        var visitor = new FixtureVisitor(html);
+        page = aPage().build();
+        formatting = new HtmlGenerator(visitor, true);
+        asRendered = new HtmlGenerator(visitor, false);
+    }
+
+    @Benchmark
+    public String formatted() {
+        return formatting.generateHtml(page, "mycontext/");
+    }
+
+    @Benchmark
+    public String asRendered() {
+        return asRendered.generateHtml(page, "mycontext/");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HtmlGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static class FixtureVisitor implements AbstractBuilderVisitor<String> {
+
+        private final String html;
+
+        FixtureVisitor(String html) {
+            this.html = html;
+        }
+
+        @Override
+        public <P extends Previewable & Identifiable> String build(P previewable, String resourceContext) {
+            return html;
+        }
+    }
+}
@@ -18,9 +18,9 @@ import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.visitor.angularJS.AngularJsBuilderVisitor;
 import org.jsoup.Jsoup;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -35,9 +35,13 @@ public class HtmlGeneratorTest {
     @Mock
     private AngularJsBuilderVisitor angularJsHtmlBuilderVisitor;
 
-    @InjectMocks
     private HtmlGenerator generator;
 
+    @Before
+    public void setUp() throws Exception {
+        generator = new HtmlGenerator(angularJsHtmlBuilderVisitor);
+    }
+
     @Test
     public void should_generate_formatted_html_with_given_widgets() throws Exception {
         Page page = aPage().build();
@@ -68,6 +72,16 @@ public class HtmlGeneratorTest {
         assertThat(generateHtml).isEqualTo(format("foobar"));
     }
 
+    @Test
+    public void should_generate_html_as_rendered_by_templates_when_formatting_is_disabled() throws Exception {
+        Page page = aPage().build();
+        when(angularJsHtmlBuilderVisitor.build(page, "mycontext/")).thenReturn("<div>\n  foobar</div>");
+
+        String generateHtml = new HtmlGenerator(angularJsHtmlBuilderVisitor, false).generateHtml(page, "mycontext/");
+
+        assertThat(generateHtml).isEqualTo("<div>\n  foobar</div>");
+    }
+
     private String format(String html) {
         return Jsoup.parse(html).toString();
     }
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.readString;
+import static java.nio.file.Files.setLastModifiedTime;
+import static java.nio.file.Files.write;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MinifiedDirectivesTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path pbLabel;
+    private Path pbInput;
+
+    @Before
+    public void setUp() throws Exception {
+        pbLabel = write(temporaryFolder.newFolderPath("pbLabel").resolve("pbLabel.js"), "var   label = 1;".getBytes());
+        pbInput = write(temporaryFolder.newFolderPath("pbInput").resolve("pbInput.js"), "var   input = 2;".getBytes());
+    }
+
+    @Test
+    public void should_store_minified_directive_next_to_the_directive() throws Exception {
+        Path minified = MinifiedDirectives.write(pbLabel, "var   label = 3;".getBytes());
+
+        assertThat(minified).isEqualTo(pbLabel.resolveSibling("pbLabel.min.js"));
+        assertThat(readString(minified)).isEqualTo(new String(Minifier.minify("var   label = 3;".getBytes())));
+    }
+
+    @Test
+    public void should_minify_directive_when_its_minified_version_is_missing() throws Exception {
+        Path minified = MinifiedDirectives.resolve(pbLabel);
+
+        assertThat(readString(minified)).isEqualTo(new String(Minifier.minify("var   label = 1;".getBytes())));
+    }
+
+    @Test
+    public void should_minify_directive_again_when_its_minified_version_is_outdated() throws Exception {
+        Path minified = MinifiedDirectives.write(pbLabel, "var   label = 1;".getBytes());
+        setLastModifiedTime(minified, FileTime.fromMillis(0));
+        write(pbLabel, "var   label = 4;".getBytes());
+
+        assertThat(readString(MinifiedDirectives.resolve(pbLabel))).isEqualTo(new String(Minifier.minify("var   label = 4;".getBytes())));
+    }
+
+    @Test
+    public void should_use_stored_minified_directive_when_up_to_date() throws Exception {
+        Path minified = write(pbLabel.resolveSibling("pbLabel.min.js"), "already minified".getBytes());
+
+        assertThat(MinifiedDirectives.resolve(pbLabel)).isEqualTo(minified);
+        assertThat(readString(minified)).isEqualTo("already minified");
+    }
+
+    @Test
+    public void should_concatenate_minified_directives() {
+        byte[] bundle = MinifiedDirectives.concat(List.of(pbLabel, pbInput));
+
+        assertThat(new String(bundle)).isEqualTo(new String(Minifier.minify("var   label = 1;".getBytes()))
+                + new String(Minifier.minify("var   input = 2;".getBytes())));
+        assertThat(exists(pbInput.resolveSibling("pbInput.min.js"))).isTrue();
+    }
+
+    @Test
+    public void should_recognize_minified_directive_of_a_widget() {
+        assertThat(MinifiedDirectives.isMinifiedDirective(pbLabel.resolveSibling("pbLabel.min.js").toFile())).isTrue();
+        assertThat(MinifiedDirectives.isMinifiedDirective(pbLabel.toFile())).isFalse();
+        assertThat(MinifiedDirectives.isMinifiedDirective(pbLabel.resolveSibling("assets/js/lib.min.js").toFile())).isFalse();
+    }
+}
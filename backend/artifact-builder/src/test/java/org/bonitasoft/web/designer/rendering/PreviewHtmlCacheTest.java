@@ -0,0 +1,149 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PreviewHtmlCacheTest {
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Mock
+    private FragmentRepository fragmentRepository;
+
+    @Mock
+    private WidgetRepository widgetRepository;
+
+    @Mock
+    private PageAnalyzer pageAnalyzer;
+
+    private PreviewHtmlCache cache;
+
+    private final List<String> generated = new ArrayList<>();
+
+    private final BiFunction<Page, String, String> pageGenerator = (page, context) -> {
+        generated.add(page.getId() + "@" + context);
+        return "<html>" + page.getId() + "</html>";
+    };
+
+    private Page page;
+
+    @Before
+    public void setUp() {
+        cache = new PreviewHtmlCache(pageRepository, fragmentRepository, widgetRepository, pageAnalyzer);
+        page = aPage().withId("myPage").build();
+        when(pageRepository.getComponentName()).thenReturn("page");
+        when(pageRepository.get("myPage")).thenReturn(page);
+        PageAnalysis analysis = mock(PageAnalysis.class);
+        when(analysis.getWidgetIds()).thenReturn(Set.of("pbText"));
+        when(analysis.getFragmentIds()).thenReturn(Set.of("myFragment"));
+        when(pageAnalyzer.analyze(page)).thenReturn(analysis);
+    }
+
+    @Test
+    public void should_build_html_once_while_nothing_changes() {
+        PreviewHtml preview = cache.getPage("myPage", "/runtime/", pageGenerator);
+
+        assertThat(cache.getPage("myPage", "/runtime/", pageGenerator)).isSameAs(preview);
+        assertThat(preview.getHtml()).isEqualTo("<html>myPage</html>");
+        assertThat(generated).containsExactly("myPage@/runtime/");
+    }
+
+    @Test
+    public void should_build_html_again_when_page_is_modified() {
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+        when(pageRepository.getModificationCount("myPage")).thenReturn(1L);
+
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+
+        assertThat(generated).hasSize(2);
+    }
+
+    @Test
+    public void should_build_html_again_when_a_used_widget_is_modified() {
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+        when(widgetRepository.getModificationCount("pbText")).thenReturn(1L);
+
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+
+        assertThat(generated).hasSize(2);
+    }
+
+    @Test
+    public void should_build_html_again_when_a_used_fragment_is_modified() {
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+        when(fragmentRepository.getModificationCount("myFragment")).thenReturn(1L);
+
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+
+        assertThat(generated).hasSize(2);
+    }
+
+    @Test
+    public void should_not_build_html_again_when_an_unused_widget_is_modified() {
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+        when(widgetRepository.getModificationCount("pbButton")).thenReturn(1L);
+
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+
+        assertThat(generated).hasSize(1);
+    }
+
+    @Test
+    public void should_build_html_per_resource_context() {
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+        cache.getPage("myPage", "/bonita/runtime/", pageGenerator);
+
+        assertThat(generated).containsExactly("myPage@/runtime/", "myPage@/bonita/runtime/");
+    }
+
+    @Test
+    public void should_not_mix_pages_and_fragments_with_the_same_id() {
+        Fragment fragment = aFragment().withId("myPage").build();
+        when(fragmentRepository.getComponentName()).thenReturn("fragment");
+        when(fragmentRepository.get("myPage")).thenReturn(fragment);
+        when(pageAnalyzer.analyze(fragment)).thenReturn(mock(PageAnalysis.class));
+
+        PreviewHtml pagePreview = cache.getPage("myPage", "/runtime/", pageGenerator);
+        PreviewHtml fragmentPreview = cache.getFragment("myPage", "/runtime/", (f, context) -> "<div></div>");
+
+        assertThat(fragmentPreview.getHtml()).isEqualTo("<div></div>");
+        assertThat(fragmentPreview.getHash()).isNotEqualTo(pagePreview.getHash());
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.JsonHandlerFactory;
+import org.bonitasoft.web.designer.config.UiDesignerProperties;
+import org.bonitasoft.web.designer.livebuild.NativeWatcher;
+import org.bonitasoft.web.designer.livebuild.PathListener;
+import org.bonitasoft.web.designer.livebuild.Watcher;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.repository.BeanValidator;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.JsonFileBasedLoader;
+import org.bonitasoft.web.designer.repository.JsonFileBasedPersister;
+import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.validation.Validation;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Preview html cache against a page repository watching its folder, as when running the designer
+ */
+public class PreviewHtmlCacheWatchTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private NativeWatcher watcher;
+
+    private PreviewHtmlCache cache;
+
+    private Path asset;
+
+    private final List<String> generated = new CopyOnWriteArrayList<>();
+
+    private final BiFunction<Page, String, String> pageGenerator = (page, context) -> {
+        generated.add(page.getId());
+        return "<html>" + page.getId() + "</html>";
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        JsonHandler jsonHandler = new JsonHandlerFactory().create();
+        BeanValidator validator = new BeanValidator(Validation.buildDefaultValidatorFactory().getValidator());
+        Path pageDir = temporaryFolder.toPath();
+        UiDesignerProperties uiDesignerProperties = new UiDesignerProperties();
+        uiDesignerProperties.getWorkspace().getPages().setDir(pageDir);
+        uiDesignerProperties.getWorkspaceUid().setExtractPath(Path.of("./target/test-classes/"));
+        watcher = new NativeWatcher(FileSystems.getDefault().newWatchService(), mock(Watcher.class));
+        PageRepository pageRepository = new PageRepository(
+                uiDesignerProperties.getWorkspace(),
+                uiDesignerProperties.getWorkspaceUid(),
+                new JsonFileBasedPersister<>(jsonHandler, validator, uiDesignerProperties),
+                new JsonFileBasedLoader<>(jsonHandler, Page.class),
+                validator,
+                watcher);
+        PageAnalyzer pageAnalyzer = mock(PageAnalyzer.class);
+        when(pageAnalyzer.analyze(any(Page.class))).thenReturn(mock(PageAnalysis.class));
+        cache = new PreviewHtmlCache(pageRepository, mock(FragmentRepository.class), mock(WidgetRepository.class), pageAnalyzer);
+
+        pageRepository.updateLastUpdateAndSave(aPage().withId("myPage").withName("myPage").build());
+        asset = Files.createDirectories(pageDir.resolve("myPage").resolve("assets").resolve("js")).resolve("myScript.js");
+        Files.write(asset, "var a;".getBytes());
+
+        // the repository shares its folder with the live builders
+        pageRepository.watch(mock(PathListener.class));
+        watcher.watch(pageDir, mock(PathListener.class));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        watcher.close();
+    }
+
+    @Test
+    public void should_build_html_again_when_an_asset_of_the_page_changes_on_file_system() throws Exception {
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+        cache.getPage("myPage", "/runtime/", pageGenerator);
+        assertThat(generated).hasSize(1);
+
+        Files.write(asset, "var b;".getBytes());
+
+        await().until(() -> {
+            cache.getPage("myPage", "/runtime/", pageGenerator);
+            return generated.size() == 2;
+        });
+    }
+}
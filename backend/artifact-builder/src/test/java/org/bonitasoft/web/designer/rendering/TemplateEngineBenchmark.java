@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import org.bonitasoft.web.designer.model.page.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.bonitasoft.web.designer.builder.ComponentBuilder.aComponent;
+
+/**
+ * Renders the components of a page, compiling templates for each component as {@link TemplateEngine} used to do,
+ * versus using the shared {@link TemplateRegistry}.
+ * <p>
+ * Not run by the test suite. Launch {@link #main(String[])} from the IDE, or:
+ * <pre>
+ * mvn -pl artifact-builder test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.bonitasoft.web.designer.rendering.TemplateEngineBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateEngineBenchmark {
+
+    @Param({"50", "500"})
+    private int componentCount;
+
+    private List<Component> components;
+
+    @Setup
+    public void setUp() throws Exception {
+        components = new ArrayList<>();
+        for (var i = 0; i < componentCount; i++) {
+            components.add(aComponent("pbInput").withReference("input-" + i).build());
+        }
+    }
+
+    @Benchmark
+    public void compileForEachComponent(Blackhole blackhole) {
+        for (var component : components) {
+            blackhole.consume(new TemplateEngine("component.hbs.html", new TemplateRegistry())
+                    .with("template", "<pb-input></pb-input>")
+                    .build(component));
+        }
+    }
+
+    @Benchmark
+    public void sharedRegistry(Blackhole blackhole) {
+        for (var component : components) {
+            blackhole.consume(new TemplateEngine("component.hbs.html")
+                    .with("template", "<pb-input></pb-input>")
+                    .build(component));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TemplateEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -20,6 +20,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @RunWith(MockitoJUnitRunner.class)
 public class TemplateEngineTest {
@@ -71,6 +72,22 @@ public class TemplateEngineTest {
         assertThat(template.with("variable", "PAJAVASCRIPT").build(null)).isEmpty();
     }
 
+    @Test
+    public void should_split_template_output_around_slots() throws GenerationException {
+        TemplateEngine template = new TemplateEngine("template.html");
+
+        assertThat(template.with("variable", TemplateEngine.SLOT).buildAround(null, 1))
+                .containsExactly("<div>", "</div>");
+    }
+
+    @Test
+    public void should_fail_when_template_output_does_not_hold_expected_slots() {
+        TemplateEngine template = new TemplateEngine("template.html");
+
+        assertThatThrownBy(() -> template.with("variable", "foobar").buildAround(null, 1))
+                .isInstanceOf(GenerationException.class);
+    }
+
     class Bar {
 
         private String variable;
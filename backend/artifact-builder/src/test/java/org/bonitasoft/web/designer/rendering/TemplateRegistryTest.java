@@ -0,0 +1,81 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.rendering;
+
+import com.github.jknack.handlebars.Template;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TemplateRegistryTest {
+
+    private final TemplateRegistry registry = new TemplateRegistry();
+
+    @Test
+    public void should_compile_a_template_once() throws Exception {
+        Template template = registry.get("templates/template.html");
+
+        assertThat(registry.get("templates/template.html")).isSameAs(template);
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_keep_templates_which_failed_to_compile() {
+        assertThatThrownBy(() -> registry.get("templates/unknown.html")).isInstanceOf(IOException.class);
+
+        assertThat(registry.size()).isZero();
+    }
+
+    @Test
+    public void should_share_compiled_templates_between_engines() throws Exception {
+        new TemplateEngine("template.html", registry).with("variable", "foo").build(null);
+
+        String html = new TemplateEngine("template.html", registry).with("variable", "bar").build(null);
+
+        assertThat(html).isEqualTo("<div>bar</div>");
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_apply_a_template_concurrently() throws Exception {
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var tasks = IntStream.range(0, 200)
+                    .mapToObj(i -> (Callable<String>) () -> new TemplateEngine("template.html", registry).build(singletonMap("variable", i)))
+                    .collect(Collectors.toList());
+
+            var results = executor.invokeAll(tasks).stream().map(future -> {
+                try {
+                    return future.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }).collect(Collectors.toList());
+
+            assertThat(results).hasSize(200).contains("<div>0</div>", "<div>199</div>");
+            assertThat(registry.size()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
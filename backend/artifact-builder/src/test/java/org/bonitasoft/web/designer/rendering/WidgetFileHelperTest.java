@@ -19,7 +19,9 @@ import org.junit.Rule;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
 
 import static org.bonitasoft.web.designer.utils.assertions.CustomAssertions.assertThat;
 
@@ -41,16 +43,39 @@ public class WidgetFileHelperTest {
         assertThat(path.getFileName().toString()).isEqualTo("widgets-f8a4574.js");
     }
 
+    @Test
+    public void should_write_a_gzipped_copy_of_the_content() throws Exception {
+        byte[] content = "Mon content".getBytes();
+
+        Path path = WidgetFileHelper.writeFile(content, temporaryFolder.toPath(), "f8a4574");
+
+        Path gzipped = path.resolveSibling("widgets-f8a4574.js.gz");
+        try (GZIPInputStream in = new GZIPInputStream(Files.newInputStream(gzipped))) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    public void should_not_leave_staged_files_next_to_written_files() throws Exception {
+        WidgetFileHelper.writeFile("Mon content".getBytes(), temporaryFolder.toPath(), "f8a4574");
+
+        assertThat(temporaryFolder.getRoot().list()).containsOnly("widgets-f8a4574.js", "widgets-f8a4574.js.gz");
+    }
+
     @Test
     public void should_delete_on_folder_all_old_widgets_directives_file() throws Exception {
         File assetsFolder = temporaryFolder.newFolder("maPage", "assets");
         File expectToBeDeletedFile = temporaryFolder.newFile("maPage/assets/widgets-fdsf45741sf.min.js");
+        File expectToBeDeletedGzippedFile = temporaryFolder.newFile("maPage/assets/widgets-fdsf45741sf.min.js.gz");
+        File currentGzippedFile = temporaryFolder.newFile("maPage/assets/widgets-aa.min.js.gz");
         File fragment = temporaryFolder.newFile("maPage/assets/123456.js");
         File expectExistFile = temporaryFolder.newFile("maPage/assets/12345654.json");
 
         WidgetFileHelper.deleteOldConcatenateFiles(assetsFolder.toPath(), "aa");
 
         assertThat(expectToBeDeletedFile).doesNotExist();
+        assertThat(expectToBeDeletedGzippedFile).doesNotExist();
+        assertThat(currentGzippedFile).exists();
         assertThat(expectExistFile).exists();
         assertThat(fragment).exists();
     }
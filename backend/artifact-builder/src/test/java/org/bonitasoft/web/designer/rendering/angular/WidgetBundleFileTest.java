@@ -2,8 +2,8 @@ package org.bonitasoft.web.designer.rendering.angular;
 
 import org.bonitasoft.web.designer.builder.ContainerBuilder;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
-import org.bonitasoft.web.designer.repository.WidgetRepository;
-import org.bonitasoft.web.designer.visitor.WidgetIdVisitor;
+import org.bonitasoft.web.designer.visitor.PageAnalysis;
+import org.bonitasoft.web.designer.visitor.PageAnalyzer;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -18,7 +18,6 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
-import java.util.Set;
 
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
@@ -33,20 +32,20 @@ public class WidgetBundleFileTest {
     private WidgetBundleFile widgetBundleFile;
 
     @Mock
-    private WidgetRepository widgetRepository;
+    private WorkspaceProperties workspaceProperties;
 
     @Mock
-    private WorkspaceProperties workspaceProperties;
+    private PageAnalyzer pageAnalyzer;
 
     @Mock
-    private WidgetIdVisitor widgetIdVisitor;
+    private PageAnalysis pageAnalysis;
 
     @Before
     public void setup(){
         var widgets = new WorkspaceProperties.Widgets();
         widgets.setDir(Paths.get(temporaryFolder.getRoot().getPath()));
         when(workspaceProperties.getWidgets()).thenReturn(widgets);
-        widgetBundleFile = new WidgetBundleFile(workspaceProperties,widgetRepository,widgetIdVisitor);
+        widgetBundleFile = new WidgetBundleFile(workspaceProperties, pageAnalyzer);
     }
 
     @Test
@@ -60,8 +59,8 @@ public class WidgetBundleFileTest {
 
         createBundleAssetsForWidget("uidInput");
 
-        when(widgetIdVisitor.visit(myPage)).thenReturn(Set.of("uidInput","uidText"));
-        when(widgetRepository.getByIds(Set.of("uidInput","uidText"))).thenReturn(widgetsList);
+        when(pageAnalyzer.analyze(myPage)).thenReturn(pageAnalysis);
+        when(pageAnalysis.getWidgets()).thenReturn(widgetsList);
 
         var bundlePaths = widgetBundleFile.getWidgetsBundlePathUsedInArtifact(myPage);
 
@@ -84,8 +83,8 @@ public class WidgetBundleFileTest {
         createBundleAssetsForWidget("uidInput");
         createBundleAssetsForWidget("uidText");
 
-        when(widgetIdVisitor.visit(myPage)).thenReturn(Set.of("uidContainer","uidInput","uidText"));
-        when(widgetRepository.getByIds(Set.of("uidContainer","uidInput","uidText"))).thenReturn(widgetsList);
+        when(pageAnalyzer.analyze(myPage)).thenReturn(pageAnalysis);
+        when(pageAnalysis.getWidgets()).thenReturn(widgetsList);
 
         var bundlePaths = widgetBundleFile.getWidgetsBundlePathUsedInArtifact(myPage);
 
@@ -0,0 +1,141 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.JsonHandlerFactory;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.bonitasoft.web.designer.repository.exception.NotFoundException;
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Path;
+
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.delete;
+import static java.nio.file.Files.write;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ArtifactCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path repoDirectory;
+    private JsonHandler jsonHandler;
+    private JsonFileBasedLoader<SimpleDesignerArtifact> loader;
+    private ArtifactCache<SimpleDesignerArtifact> cache;
+
+    @Before
+    public void setUp() throws Exception {
+        repoDirectory = temporaryFolder.newFolderPath("jsonrepository");
+        jsonHandler = new JsonHandlerFactory().create();
+        loader = spy(new JsonFileBasedLoader<>(jsonHandler, SimpleDesignerArtifact.class));
+        cache = new ArtifactCache<>(2);
+    }
+
+    private Path addToRepository(SimpleDesignerArtifact artifact) throws Exception {
+        Path folder = createDirectories(repoDirectory.resolve(artifact.getId()));
+        return write(folder.resolve(artifact.getId() + ".json"), jsonHandler.toJson(artifact));
+    }
+
+    @Test
+    public void should_parse_a_component_only_once_while_it_is_unchanged() throws Exception {
+        Path path = addToRepository(new SimpleDesignerArtifact("id", "name", 1));
+
+        SimpleDesignerArtifact first = cache.get("id", path, loader);
+        SimpleDesignerArtifact second = cache.get("id", path, loader);
+
+        assertThat(second).isEqualTo(first);
+        verify(loader, times(1)).parse(path);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_give_a_new_instance_on_each_call() throws Exception {
+        Path path = addToRepository(new SimpleDesignerArtifact("id", "name", 1));
+
+        SimpleDesignerArtifact first = cache.get("id", path, loader);
+        first.setName("altered");
+
+        assertThat(cache.get("id", path, loader)).isNotSameAs(first);
+        assertThat(cache.get("id", path, loader).getName()).isEqualTo("name");
+    }
+
+    @Test
+    public void should_parse_a_component_again_when_its_file_changed() throws Exception {
+        Path path = addToRepository(new SimpleDesignerArtifact("id", "name", 1));
+        cache.get("id", path, loader);
+
+        addToRepository(new SimpleDesignerArtifact("id", "another name", 2));
+
+        assertThat(cache.get("id", path, loader).getName()).isEqualTo("another name");
+    }
+
+    @Test
+    public void should_parse_a_component_again_when_its_metadata_changed() throws Exception {
+        Path path = addToRepository(new SimpleDesignerArtifact("id", "name", 1));
+        cache.get("id", path, loader);
+
+        Path metadata = createDirectories(repoDirectory.resolve(".metadata"));
+        write(metadata.resolve("id.json"), "{\"favorite\": true}".getBytes());
+
+        assertThat(cache.get("id", path, loader).isFavorite()).isTrue();
+    }
+
+    @Test
+    public void should_parse_a_component_again_once_invalidated() throws Exception {
+        Path path = addToRepository(new SimpleDesignerArtifact("id", "name", 1));
+        cache.get("id", path, loader);
+
+        cache.invalidate("id");
+        cache.get("id", path, loader);
+
+        verify(loader, times(2)).parse(path);
+    }
+
+    @Test(expected = NotFoundException.class)
+    public void should_not_serve_a_component_which_has_been_deleted() throws Exception {
+        Path path = addToRepository(new SimpleDesignerArtifact("id", "name", 1));
+        cache.get("id", path, loader);
+
+        delete(path);
+
+        cache.get("id", path, loader);
+    }
+
+    @Test
+    public void should_evict_least_recently_used_components_when_full() throws Exception {
+        Path first = addToRepository(new SimpleDesignerArtifact("first", "name", 1));
+        Path second = addToRepository(new SimpleDesignerArtifact("second", "name", 1));
+        Path third = addToRepository(new SimpleDesignerArtifact("third", "name", 1));
+
+        cache.get("first", first, loader);
+        cache.get("second", second, loader);
+        cache.get("first", first, loader);
+        cache.get("third", third, loader);
+
+        assertThat(cache.size()).isEqualTo(2);
+        cache.get("second", second, loader);
+        verify(loader, times(2)).parse(second);
+        verify(loader, times(4)).parse(any(Path.class));
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.junit.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.web.designer.builder.ComponentBuilder.aComponent;
+import static org.bonitasoft.web.designer.builder.ContainerBuilder.aContainer;
+import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
+import static org.bonitasoft.web.designer.builder.FragmentElementBuilder.aFragmentElement;
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
+
+public class ArtifactSummaryTest {
+
+    @Test
+    public void should_summarize_a_page() throws Exception {
+        var page = aPage().withId("myPage").withName("My page").withType("form").withUUID("uuid")
+                .withModelVersion("2.1").favorite().build();
+        page.setLastUpdate(Instant.parse("2015-02-02T00:00:00.000Z"));
+        page.setHasValidationError(true);
+
+        var summary = ArtifactSummary.of(page);
+
+        assertThat(summary.getId()).isEqualTo("myPage");
+        assertThat(summary.getName()).isEqualTo("My page");
+        assertThat(summary.getType()).isEqualTo("form");
+        assertThat(summary.getUuid()).isEqualTo("uuid");
+        assertThat(summary.getArtifactVersion()).isEqualTo("2.1");
+        assertThat(summary.getLastUpdate()).isEqualTo(Instant.parse("2015-02-02T00:00:00.000Z"));
+        assertThat(summary.isFavorite()).isTrue();
+        assertThat(summary.isHasValidationError()).isTrue();
+    }
+
+    @Test
+    public void should_collect_widgets_and_fragments_directly_used() throws Exception {
+        var page = aPage().with(
+                aComponent("pbInput"),
+                aContainer().with(aComponent("customWidget"), aFragmentElement().withFragmentId("nestedFragment")),
+                aFragmentElement().withFragmentId("fragment")).build();
+
+        var summary = ArtifactSummary.of(page);
+
+        assertThat(summary.getWidgetIds()).containsOnly("pbInput", "pbContainer", "customWidget");
+        assertThat(summary.getFragmentIds()).containsOnly("fragment", "nestedFragment");
+    }
+
+    @Test
+    public void should_summarize_a_widget() throws Exception {
+        var widget = aWidget().withId("customWidget").withName("widget").custom().designerVersion("1.10.0").build();
+
+        var summary = ArtifactSummary.of(widget);
+
+        assertThat(summary.getId()).isEqualTo("customWidget");
+        assertThat(summary.isCustom()).isTrue();
+        assertThat(summary.getArtifactVersion()).isEqualTo("1.10.0");
+        assertThat(summary.getWidgetIds()).isEmpty();
+    }
+
+    @Test
+    public void should_assign_shared_fields_to_a_light_artifact() throws Exception {
+        var summary = ArtifactSummary.of(aFragment().withId("fragment").withModelVersion("2.0").favorite().build());
+
+        var fragment = summary.assignTo(new Fragment());
+
+        assertThat(fragment.isFavorite()).isTrue();
+        assertThat(fragment.getArtifactVersion()).isEqualTo("2.0");
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+public class AtomicFilesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void should_replace_file_content_leaving_no_staged_file() throws Exception {
+        Path file = folder.toPath().resolve("dir").resolve("page.json");
+
+        AtomicFiles.write(file, "first".getBytes(UTF_8));
+        AtomicFiles.write(file, "second".getBytes(UTF_8));
+
+        assertThat(file).hasContent("second");
+        assertThat(file.getParent().toFile().list()).containsOnly("page.json");
+    }
+
+    @Test
+    public void should_replace_file_content_written_by_a_writer() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+
+        AtomicFiles.write(file, staged -> Files.writeString(staged, "content"));
+
+        assertThat(file).hasContent("content");
+        assertThat(folder.toPath().toFile().list()).containsOnly("page.json");
+    }
+
+    @Test
+    public void should_write_whole_staged_content_over_a_longer_one() throws Exception {
+        Path staged = folder.toPath().resolve("page.json.tmp");
+        Files.writeString(staged, "a longer content");
+
+        AtomicFiles.writeAndForce(staged, "short".getBytes(UTF_8));
+
+        assertThat(staged).hasContent("short");
+    }
+
+    @Test
+    public void should_recognize_staged_files() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+
+        Path staged = AtomicFiles.createStagedFile(file);
+
+        assertThat(AtomicFiles.isStagedFile(staged)).isTrue();
+        assertThat(AtomicFiles.isStagedFile(file)).isFalse();
+        assertThat(AtomicFiles.isStagedFile(folder.toPath().resolve("page.tmp"))).isFalse();
+    }
+
+    @Test
+    public void should_keep_permissions_of_replaced_file() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+        Files.writeString(file, "first");
+        assumeTrue(Files.getFileAttributeView(file, PosixFileAttributeView.class) != null);
+        Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-rw-r--"));
+
+        AtomicFiles.write(file, "second".getBytes(UTF_8));
+
+        assertThat(PosixFilePermissions.toString(Files.getPosixFilePermissions(file))).isEqualTo("rw-rw-r--");
+    }
+
+    @Test
+    public void should_not_restrict_permissions_of_a_new_file_to_its_owner() throws Exception {
+        Path reference = Files.createFile(folder.toPath().resolve("reference"));
+        assumeTrue(Files.getFileAttributeView(reference, PosixFileAttributeView.class) != null);
+        Path file = folder.toPath().resolve("page.json");
+
+        AtomicFiles.write(file, "content".getBytes(UTF_8));
+
+        assertThat(Files.getPosixFilePermissions(file)).isEqualTo(Files.getPosixFilePermissions(reference));
+    }
+}
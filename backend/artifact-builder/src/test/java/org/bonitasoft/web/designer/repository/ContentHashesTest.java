@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ContentHashesTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ContentHashes contentHashes = new ContentHashes();
+
+    @Test
+    public void should_not_match_a_missing_file() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+
+        assertThat(contentHashes.matches(file, digest("content"))).isFalse();
+    }
+
+    @Test
+    public void should_match_a_file_with_the_same_content() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+        Files.writeString(file, "content");
+
+        assertThat(contentHashes.matches(file, digest("content"))).isTrue();
+        assertThat(contentHashes.matches(file, digest("other content"))).isFalse();
+    }
+
+    @Test
+    public void should_use_recorded_digest_while_file_is_unchanged() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+        Files.writeString(file, "content");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 10_000));
+        contentHashes.record(file, digest("recorded"));
+
+        assertThat(contentHashes.matches(file, digest("recorded"))).isTrue();
+        assertThat(contentHashes.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_digest_again_a_file_changed_since_recorded() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+        Files.writeString(file, "content");
+        contentHashes.record(file, digest("content"));
+
+        Files.writeString(file, "changed content");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+
+        assertThat(contentHashes.matches(file, digest("content"))).isFalse();
+        assertThat(contentHashes.matches(file, digest("changed content"))).isTrue();
+    }
+
+    @Test
+    public void should_digest_again_a_file_changed_within_the_timestamp_granularity() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+        Files.writeString(file, "content");
+        FileTime lastModifiedTime = Files.getLastModifiedTime(file);
+        contentHashes.record(file, digest("content"));
+
+        // same size, same modification time on a file system with coarse timestamps
+        Files.writeString(file, "CONTENT");
+        Files.setLastModifiedTime(file, lastModifiedTime);
+
+        assertThat(contentHashes.matches(file, digest("content"))).isFalse();
+    }
+
+    @Test
+    public void should_forget_digests_of_a_deleted_directory() throws Exception {
+        Path directory = folder.newFolderPath("page");
+        Files.writeString(directory.resolve("page.json"), "content");
+        contentHashes.record(directory.resolve("page.json"), digest("content"));
+        contentHashes.record(folder.toPath().resolve("other.json"), digest("other"));
+
+        contentHashes.forget(directory);
+
+        assertThat(contentHashes.size()).isEqualTo(1);
+    }
+
+    private byte[] digest(String content) {
+        return ContentHashes.digest(content.getBytes(UTF_8));
+    }
+}
@@ -141,31 +141,6 @@ public class JsonFileBasedLoaderTest {
         assertThat(all).containsOnly(object2);
     }
 
-    @Test
-    public void should_find_a_byte_array_in_an_another() {
-        assertThat(loader.indexOf("mon exemple complet".getBytes(), "exem".getBytes())).isEqualTo(4);
-    }
-
-    @Test
-    public void should_find_a_byte_array_in_an_another_on_start_position() {
-        assertThat(loader.indexOf("mon exemple complet".getBytes(), "mon ex".getBytes())).isEqualTo(0);
-    }
-
-    @Test
-    public void should_not_find_a_byte_array_in_an_another() {
-        assertThat(loader.indexOf("mon exemple complet".getBytes(), "rex".getBytes())).isEqualTo(-1);
-    }
-
-    @Test
-    public void should_not_find_null_in_byte_array() {
-        assertThat(loader.indexOf("mon exemple complet".getBytes(), null)).isEqualTo(-1);
-    }
-
-    @Test
-    public void should_not_find_occurence_in_byte_array_null() {
-        assertThat(loader.indexOf(null, "search".getBytes())).isEqualTo(-1);
-    }
-
     @Test
     public void should_find_one_object_included_in_another_and_deserialize_it() throws Exception {
         SimpleDesignerArtifact object1 = aSimpleObjectBuilder().id("objet1").build();
@@ -260,6 +235,16 @@ public class JsonFileBasedLoaderTest {
         assertThat(loader.contains(repoDirectory, "object2")).isFalse();
     }
 
+    @Test
+    public void should_not_find_an_object_whose_id_is_only_part_of_a_referenced_one() throws Exception {
+        SimpleDesignerArtifact object1 = aSimpleObjectBuilder().id("objet10").build();
+        SimpleDesignerArtifact object2 = aSimpleObjectBuilder().id("objet2").another(object1).build();
+
+        addToRepository(object1, object2);
+
+        assertThat(loader.contains(repoDirectory, "objet1")).isFalse();
+    }
+
     @Test
     public void should_load_a_single_page_in_the_import_folder() throws Exception {
         SimpleDesignerArtifact object1 = aFilledSimpleObject("objet1");
@@ -316,4 +301,34 @@ public class JsonFileBasedLoaderTest {
         Files.createDirectory(repoDirectory.resolve("pageNameToUseAsPrefix"));
         assertThat(loader.getNextAvailableObjectId(repoDirectory, "pageNameToUseAsPrefix")).isEqualTo("pageNameToUseAsPrefix1");
     }
+
+    @Test
+    public void should_get_all_objects_in_parallel_keeping_directory_order_and_skipping_corrupted_ones() throws Exception {
+        try (var loadExecutor = new LoadExecutor(4)) {
+            var parallelLoader = new JsonFileBasedLoader<>(jsonHandler, SimpleDesignerArtifact.class, loadExecutor);
+            SimpleDesignerArtifact object1 = aFilledSimpleObject("object1");
+            SimpleDesignerArtifact object2 = aFilledSimpleObject("object2");
+            SimpleDesignerArtifact object3 = aFilledSimpleObject("object3");
+            addToRepository(object1, object2, object3);
+            Files.write(repoDirectory.resolve("object2/object2.json"), "json corrupted".getBytes());
+
+            assertThat(parallelLoader.getAll(repoDirectory)).containsExactlyElementsOf(loader.getAll(repoDirectory))
+                    .containsOnly(object1, object3);
+        }
+    }
+
+    @Test
+    public void should_find_objects_by_ids_in_parallel() throws Exception {
+        try (var loadExecutor = new LoadExecutor(4)) {
+            var parallelLoader = new JsonFileBasedLoader<>(jsonHandler, SimpleDesignerArtifact.class, loadExecutor);
+            SimpleDesignerArtifact object1 = aSimpleObjectBuilder().id("object1").build();
+            SimpleDesignerArtifact object2 = aSimpleObjectBuilder().id("object2").another(object1).build();
+            SimpleDesignerArtifact object3 = aSimpleObjectBuilder().id("object3").another(object1).build();
+            addToRepository(object1, object2, object3);
+
+            var found = parallelLoader.findByObjectIds(repoDirectory, List.of("object1"));
+
+            assertThat(found.get("object1")).extracting(SimpleDesignerArtifact::getId).containsOnly("object2", "object3");
+        }
+    }
 }
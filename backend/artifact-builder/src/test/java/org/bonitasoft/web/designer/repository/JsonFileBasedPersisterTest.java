@@ -33,8 +33,12 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static java.nio.file.Files.readAllBytes;
@@ -44,7 +48,9 @@ import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.bonitasoft.web.designer.builder.SimpleObjectBuilder.aSimpleObjectBuilder;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyObject;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.spy;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -158,6 +164,110 @@ public class JsonFileBasedPersisterTest {
         }
     }
 
+    @Test
+    public void should_save_several_objects_at_once() throws Exception {
+        SimpleDesignerArtifact foo = new SimpleDesignerArtifact("foo", "foo", 1);
+        SimpleDesignerArtifact bar = new SimpleDesignerArtifact("bar", "bar", 2);
+        Map<Path, SimpleDesignerArtifact> contents = new LinkedHashMap<>();
+        contents.put(repoDirectory.resolve("foo"), foo);
+        contents.put(repoDirectory.resolve("bar"), bar);
+
+        jsonFileBasedPersister.saveAll(contents);
+
+        assertThat(jsonHandler.fromJson(readAllBytes(repoDirectory.resolve("foo/foo.json")), SimpleDesignerArtifact.class)).isEqualTo(foo);
+        assertThat(jsonHandler.fromJson(readAllBytes(repoDirectory.resolve("bar/bar.json")), SimpleDesignerArtifact.class)).isEqualTo(bar);
+        assertThat(repoDirectory.resolve(".metadata/foo.json")).exists();
+        assertThat(repoDirectory.resolve(".metadata/bar.json")).exists();
+        assertThat(repoDirectory.resolve("foo").toFile().list()).containsOnly("foo.json");
+    }
+
+    @Test
+    public void should_not_save_any_object_when_one_of_them_is_not_valid() throws Exception {
+        lenient().doThrow(ConstraintValidationException.class).when(validator).validate(argThat(bean -> "bar".equals(((SimpleDesignerArtifact) bean).getId())));
+        Map<Path, SimpleDesignerArtifact> contents = new LinkedHashMap<>();
+        contents.put(repoDirectory.resolve("foo"), new SimpleDesignerArtifact("foo", "foo", 1));
+        contents.put(repoDirectory.resolve("bar"), new SimpleDesignerArtifact("bar", "bar", 2));
+
+        try {
+            jsonFileBasedPersister.saveAll(contents);
+            failBecauseExceptionWasNotThrown(ConstraintValidationException.class);
+        } catch (ConstraintValidationException e) {
+            assertThat(repoDirectory.resolve("foo/foo.json")).doesNotExist();
+            assertThat(repoDirectory.resolve(".metadata/foo.json")).doesNotExist();
+        }
+    }
+
+    @Test
+    public void should_keep_previous_file_when_an_object_cannot_be_serialized() throws Exception {
+        SimpleDesignerArtifact foo = new SimpleDesignerArtifact("foo", "foo", 1);
+        jsonFileBasedPersister.save(repoDirectory.resolve("foo"), foo);
+        byte[] previous = readAllBytes(repoDirectory.resolve("foo/foo.json"));
+        doThrow(new RuntimeException()).when(jsonHandler).toJson(anyObject(), any(Class.class));
+        Map<Path, SimpleDesignerArtifact> contents = new LinkedHashMap<>();
+        contents.put(repoDirectory.resolve("foo"), new SimpleDesignerArtifact("foo", "renamed", 3));
+
+        try {
+            jsonFileBasedPersister.saveAll(contents);
+            failBecauseExceptionWasNotThrown(IOException.class);
+        } catch (IOException e) {
+            assertThat(readAllBytes(repoDirectory.resolve("foo/foo.json"))).isEqualTo(previous);
+            assertThat(repoDirectory.resolve("foo").toFile().list()).containsOnly("foo.json");
+        }
+    }
+
+    @Test
+    public void should_not_rewrite_an_object_which_did_not_change() throws Exception {
+        Path directory = repoDirectory.resolve("foo");
+        SimpleDesignerArtifact foo = new SimpleDesignerArtifact("foo", "foo", 1);
+        assertThat(jsonFileBasedPersister.save(directory, foo)).isTrue();
+        FileTime lastModified = Files.getLastModifiedTime(directory.resolve("foo.json"));
+
+        assertThat(jsonFileBasedPersister.save(directory, foo)).isFalse();
+
+        assertThat(Files.getLastModifiedTime(directory.resolve("foo.json"))).isEqualTo(lastModified);
+        assertThat(jsonFileBasedPersister.getSkippedWrites()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_only_return_objects_written_when_saving_several_objects() throws Exception {
+        SimpleDesignerArtifact foo = new SimpleDesignerArtifact("foo", "foo", 1);
+        SimpleDesignerArtifact bar = new SimpleDesignerArtifact("bar", "bar", 2);
+        jsonFileBasedPersister.save(repoDirectory.resolve("foo"), foo);
+        Map<Path, SimpleDesignerArtifact> contents = new LinkedHashMap<>();
+        contents.put(repoDirectory.resolve("foo"), foo);
+        contents.put(repoDirectory.resolve("bar"), bar);
+
+        Set<Path> written = jsonFileBasedPersister.saveAll(contents);
+
+        assertThat(written).containsOnly(repoDirectory.resolve("bar"));
+        assertThat(jsonFileBasedPersister.getSkippedWrites()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_rewrite_an_object_whose_file_changed_on_disk() throws Exception {
+        Path directory = repoDirectory.resolve("foo");
+        SimpleDesignerArtifact foo = new SimpleDesignerArtifact("foo", "foo", 1);
+        jsonFileBasedPersister.save(directory, foo);
+        Files.writeString(directory.resolve("foo.json"), "{}");
+
+        assertThat(jsonFileBasedPersister.save(directory, foo)).isTrue();
+
+        assertThat(getFromRepository("foo/foo")).isEqualTo(foo);
+    }
+
+    @Test
+    public void should_tell_whether_an_object_is_unchanged() throws Exception {
+        Path directory = repoDirectory.resolve("foo");
+        SimpleDesignerArtifact foo = new SimpleDesignerArtifact("foo", "foo", 1);
+        assertThat(jsonFileBasedPersister.skipIfUnchanged(directory, foo)).isFalse();
+        jsonFileBasedPersister.save(directory, foo);
+
+        assertThat(jsonFileBasedPersister.skipIfUnchanged(directory, foo)).isTrue();
+        foo.setName("renamed");
+        assertThat(jsonFileBasedPersister.skipIfUnchanged(directory, foo)).isFalse();
+        assertThat(jsonFileBasedPersister.getSkippedWrites()).isEqualTo(1);
+    }
+
     @Test
     public void should_persist_metadata_in_a_seperate_file() throws Exception {
         SimpleDesignerArtifact artifact = aSimpleObjectBuilder()
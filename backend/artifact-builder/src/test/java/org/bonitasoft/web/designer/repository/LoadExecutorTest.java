@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class LoadExecutorTest {
+
+    private final LoadExecutor loadExecutor = new LoadExecutor(4);
+
+    @After
+    public void tearDown() {
+        loadExecutor.close();
+    }
+
+    @Test
+    public void should_keep_items_order() throws Exception {
+        var items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+
+        var results = loadExecutor.map(items, item -> {
+            sleep(50 - item);
+            return "item" + item;
+        });
+
+        assertThat(results).containsExactlyElementsOf(items.stream().map(item -> "item" + item).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void should_load_items_on_several_threads() throws Exception {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        loadExecutor.map(List.of(1, 2, 3, 4, 5, 6, 7, 8), item -> {
+            threads.add(Thread.currentThread().getName());
+            sleep(20);
+            return item;
+        });
+
+        assertThat(threads).hasSizeGreaterThan(1).allMatch(name -> name.startsWith("ui-designer-loader-"));
+    }
+
+    @Test
+    public void should_throw_failure_of_the_first_failing_item() {
+        assertThatThrownBy(() -> loadExecutor.map(List.of(1, 2, 3, 4), item -> {
+            if (item == 2) {
+                sleep(50);
+                throw new IOException("item 2");
+            }
+            if (item == 3) {
+                throw new IllegalStateException("item 3");
+            }
+            return item;
+        })).isInstanceOf(IOException.class).hasMessage("item 2");
+    }
+
+    @Test
+    public void should_run_nested_loads_on_the_loading_thread() throws Exception {
+        try (var pool = new LoadExecutor(2)) {
+            var results = pool.map(List.of(1, 2), item -> {
+                var loadingThread = Thread.currentThread().getName();
+                return pool.map(List.of(item * 10, item * 10 + 1), nested -> Thread.currentThread().getName().equals(loadingThread));
+            });
+
+            assertThat(results).hasSize(2).allMatch(nested -> nested.equals(List.of(true, true)));
+        }
+    }
+
+    @Test
+    public void should_load_on_calling_thread_when_serial() throws Exception {
+        var caller = Thread.currentThread().getName();
+
+        var threads = LoadExecutor.serial().map(List.of(1, 2, 3), item -> Thread.currentThread().getName());
+
+        assertThat(threads).containsOnly(caller);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -42,11 +42,15 @@ import java.util.Collections;
 import java.util.List;
 
 import static java.nio.file.Files.exists;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aFilledPage;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.awaitility.Awaitility.await;
 
 @RunWith(MockitoJUnitRunner.class)
 public class PageRepositoryTest {
@@ -205,6 +209,81 @@ public class PageRepositoryTest {
         assertThat(expectedPage.getLastUpdate()).isAfter(Instant.now().minus(5000,ChronoUnit.MILLIS));
     }
 
+    @Test
+    public void should_not_update_last_update_date_of_a_page_saved_unchanged() throws Exception {
+        Page page = repository.updateLastUpdateAndSave(aPage().withId("page-id").withName("thePageName").build());
+        Page fetchedPage = repository.get(page.getId());
+        Instant lastUpdate = fetchedPage.getLastUpdate();
+
+        repository.updateLastUpdateAndSave(fetchedPage);
+
+        assertThat(fetchedPage.getLastUpdate()).isEqualTo(lastUpdate);
+        assertThat(repository.getWriteCount(page.getId())).isEqualTo(1);
+        assertThat(persister.getSkippedWrites()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_forget_write_count_of_a_deleted_page() throws Exception {
+        Page page = repository.updateLastUpdateAndSave(aPage().withId("page-id").withName("thePageName").build());
+
+        repository.delete(page.getId());
+
+        assertThat(repository.getWriteCount(page.getId())).isZero();
+    }
+
+    @Test
+    public void should_count_modifications_of_the_repository() throws Exception {
+        Page page = repository.updateLastUpdateAndSave(aPage().withId("page-id").withName("thePageName").build());
+        assertThat(repository.getModificationCount()).isEqualTo(1);
+
+        repository.updateLastUpdateAndSave(repository.get(page.getId()));
+        assertThat(repository.getModificationCount()).isEqualTo(1);
+
+        repository.delete(page.getId());
+        assertThat(repository.getModificationCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_count_modifications_of_each_page() throws Exception {
+        repository.updateLastUpdateAndSave(aPage().withId("page-id").withName("thePageName").build());
+        repository.updateLastUpdateAndSave(aPage().withId("other-page-id").withName("otherPageName").build());
+
+        repository.delete("other-page-id");
+
+        assertThat(repository.getModificationCount("page-id")).isEqualTo(1);
+        assertThat(repository.getModificationCount("other-page-id")).isEqualTo(2);
+        assertThat(repository.getModificationCount("unknown-page-id")).isZero();
+    }
+
+    @Test
+    public void should_save_a_batch_of_pages_without_updating_last_update_date() throws Exception {
+        Page page = repository.updateLastUpdateAndSave(aPage().withId("page-id").withName("thePageName").build());
+        Instant lastUpdate = page.getLastUpdate();
+        repository.get(page.getId());
+        page.setName("newName");
+        Page otherPage = aPage().withId("other-page-id").withName("otherPageName").build();
+
+        repository.saveBatch(asList(page, otherPage));
+
+        Page fetchedPage = repository.get(page.getId());
+        assertThat(fetchedPage.getLastUpdate()).isEqualTo(lastUpdate.truncatedTo(ChronoUnit.MILLIS));
+        assertThat(fetchedPage.getName()).isEqualTo("newName");
+        assertThat(repository.get(otherPage.getId()).getName()).isEqualTo("otherPageName");
+    }
+
+    @Test
+    public void should_not_save_any_page_of_a_batch_when_one_of_them_is_not_valid() throws Exception {
+        Page page = aPage().withId("page-id").withName("thePageName").build();
+        Page invalidPage = aPage().withId("invalid-page-id").withName("éé&é&z").build();
+
+        try {
+            repository.updateLastUpdateAndSaveBatch(asList(page, invalidPage));
+            failBecauseExceptionWasNotThrown(ConstraintValidationException.class);
+        } catch (ConstraintValidationException e) {
+            assertThat(pageDir.resolve("page-id").resolve("page-id.json")).doesNotExist();
+        }
+    }
+
     @Test
     public void should_delete_a_page_with_his_json_file_repository() throws Exception {
         Page expectedPage = aFilledPage("page-id");
@@ -268,7 +347,25 @@ public class PageRepositoryTest {
 
         Page fetchedPage = repository.get(page.getId());
         assertThat(fetchedPage.isFavorite()).isFalse();
-        assertThat(pageDir.resolve(".metadata").resolve(".index.json").toFile()).exists();
+        await().atMost(2, SECONDS).untilAsserted(() ->
+                assertThat(pageDir.resolve(".metadata").resolve(".index.json").toFile()).exists());
+    }
+
+    @Test
+    public void should_get_a_page_by_its_uuid() throws Exception {
+        Page page = addToRepository(aPage().withId("page1").withUUID("page1-uuid"));
+
+        assertThat(repository.getByUUID("page1-uuid")).isEqualTo(page);
+        assertThat(repository.getByUUID("unknown-uuid")).isNull();
+    }
+
+    @Test
+    public void should_not_get_a_page_by_uuid_once_deleted() throws Exception {
+        addToRepository(aPage().withId("page1").withUUID("page1-uuid"));
+
+        repository.delete("page1");
+
+        assertThat(repository.getByUUID("page1-uuid")).isNull();
     }
 
     @Test
@@ -0,0 +1,167 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.JsonHandlerFactory;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.bonitasoft.web.designer.model.JsonViewPersistence;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.write;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.web.designer.builder.ComponentBuilder.aComponent;
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+
+public class SummaryIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path repoDirectory;
+    private JsonHandler jsonHandler;
+    private List<Path> summarized;
+    private SummaryIndex summaryIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        repoDirectory = temporaryFolder.newFolderPath("jsonrepository");
+        jsonHandler = new JsonHandlerFactory().create();
+        summarized = new ArrayList<>();
+        summaryIndex = newSummaryIndex();
+    }
+
+    private SummaryIndex newSummaryIndex() {
+        return new SummaryIndex(repoDirectory, jsonHandler, LoadExecutor.serial(), path -> {
+            summarized.add(path);
+            if (!exists(path)) {
+                return null;
+            }
+            return ArtifactSummary.of(jsonHandler.fromJson(readAllBytes(path), Page.class));
+        });
+    }
+
+    private void addToRepository(Page... pages) throws Exception {
+        for (Page page : pages) {
+            Path folder = createDirectories(repoDirectory.resolve(page.getId()));
+            write(folder.resolve(page.getId() + ".json"), jsonHandler.toJson(page, JsonViewPersistence.class));
+        }
+    }
+
+    private void addMetadata(String id, String metadata) throws Exception {
+        Path metadataFolder = createDirectories(repoDirectory.resolve(".metadata"));
+        write(metadataFolder.resolve(id + ".json"), metadata.getBytes());
+    }
+
+    @Test
+    public void should_summarize_all_components() throws Exception {
+        addToRepository(aPage().withId("first").withName("First").build(), aPage().withId("second").with(aComponent("pbInput")).build());
+
+        var summaries = summaryIndex.getAll();
+
+        assertThat(summaries).extracting(ArtifactSummary::getId).containsOnly("first", "second");
+        assertThat(summaries).filteredOn(summary -> summary.getId().equals("second"))
+                .flatExtracting(ArtifactSummary::getWidgetIds).containsOnly("pbInput");
+    }
+
+    @Test
+    public void should_not_summarize_unchanged_components_again() throws Exception {
+        addToRepository(aPage().withId("first").build(), aPage().withId("second").build());
+        summaryIndex.getAll();
+        summarized.clear();
+
+        addToRepository(aPage().withId("second").withName("a longer name").build());
+
+        assertThat(summaryIndex.getAll()).extracting(ArtifactSummary::getName).contains("a longer name");
+        assertThat(summarized).containsOnly(repoDirectory.resolve("second/second.json"));
+    }
+
+    @Test
+    public void should_summarize_again_a_component_whose_metadata_changed() throws Exception {
+        addToRepository(aPage().withId("first").build());
+        summaryIndex.getAll();
+        summarized.clear();
+
+        addMetadata("first", "{\"favorite\":true}");
+
+        summaryIndex.getAll();
+        assertThat(summarized).containsOnly(repoDirectory.resolve("first/first.json"));
+    }
+
+    @Test
+    public void should_summarize_again_an_invalidated_component() throws Exception {
+        addToRepository(aPage().withId("first").build());
+        summaryIndex.getAll();
+        summarized.clear();
+
+        summaryIndex.invalidate("first");
+
+        summaryIndex.getAll();
+        assertThat(summarized).containsOnly(repoDirectory.resolve("first/first.json"));
+    }
+
+    @Test
+    public void should_forget_deleted_components() throws Exception {
+        addToRepository(aPage().withId("first").build(), aPage().withId("second").build());
+        summaryIndex.getAll();
+
+        deleteDirectory(repoDirectory.resolve("second").toFile());
+
+        assertThat(summaryIndex.getAll()).extracting(ArtifactSummary::getId).containsOnly("first");
+    }
+
+    @Test
+    public void should_skip_components_which_cannot_be_read() throws Exception {
+        addToRepository(aPage().withId("first").build());
+        createDirectories(repoDirectory.resolve("broken"));
+
+        assertThat(summaryIndex.getAll()).extracting(ArtifactSummary::getId).containsOnly("first");
+    }
+
+    @Test
+    public void should_persist_index_leaving_no_staged_file() throws Exception {
+        addToRepository(aPage().withId("first").withName("First").build());
+
+        summaryIndex.getAll();
+
+        assertThat(repoDirectory.resolve(".metadata").resolve(SummaryIndex.FILE_NAME)).exists();
+        assertThat(repoDirectory.resolve(".metadata")).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    public void should_reuse_persisted_index_for_unchanged_components() throws Exception {
+        addToRepository(aPage().withId("first").withName("First").build());
+        summaryIndex.getAll();
+        Path indexFile = repoDirectory.resolve(".metadata").resolve(SummaryIndex.FILE_NAME);
+        write(indexFile, new String(readAllBytes(indexFile)).replace("\"First\"", "\"Indexed\"").getBytes());
+        summarized.clear();
+
+        var reloaded = newSummaryIndex();
+
+        assertThat(reloaded.getAll()).extracting(ArtifactSummary::getName).containsOnly("Indexed");
+        assertThat(summarized).isEmpty();
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.JsonHandlerFactory;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.readAllBytes;
+import static java.nio.file.Files.setLastModifiedTime;
+import static java.nio.file.Files.write;
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.web.designer.builder.SimpleObjectBuilder.aSimpleObjectBuilder;
+
+public class UsageIndexTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path repoDirectory;
+    private JsonHandler jsonHandler;
+    private UsageIndex usageIndex;
+
+    @Before
+    public void setUp() throws Exception {
+        repoDirectory = temporaryFolder.newFolderPath("jsonrepository");
+        jsonHandler = new JsonHandlerFactory().create();
+        usageIndex = new UsageIndex(repoDirectory, jsonHandler);
+    }
+
+    private void addToRepository(SimpleDesignerArtifact... artifacts) throws Exception {
+        for (SimpleDesignerArtifact artifact : artifacts) {
+            Path folder = createDirectories(repoDirectory.resolve(artifact.getId()));
+            write(folder.resolve(artifact.getId() + ".json"), jsonHandler.toJson(artifact));
+        }
+    }
+
+    private SimpleDesignerArtifact using(String id, String usedId) {
+        return aSimpleObjectBuilder().id(id).another(aSimpleObjectBuilder().id(usedId).build()).build();
+    }
+
+    @Test
+    public void should_find_components_referencing_an_object() throws Exception {
+        addToRepository(using("first", "widget"), using("second", "widget"), using("third", "anotherWidget"));
+
+        assertThat(usageIndex.findUsages(List.of("widget", "anotherWidget", "unused")))
+                .containsOnlyKeys("widget", "anotherWidget")
+                .containsEntry("anotherWidget", Set.of("third"));
+        assertThat(usageIndex.findUsages(List.of("widget")).get("widget")).containsOnly("first", "second");
+    }
+
+    @Test
+    public void should_not_consider_a_component_as_using_itself() throws Exception {
+        addToRepository(using("first", "second"), using("second", "third"));
+
+        assertThat(usageIndex.findUsages(List.of("second")).get("second")).containsOnly("first");
+    }
+
+    @Test
+    public void should_take_in_account_components_updated_since_last_query() throws Exception {
+        addToRepository(using("first", "widget"));
+        usageIndex.findUsages(List.of("widget"));
+
+        addToRepository(using("first", "anotherWidgetWithALongerName"));
+        usageIndex.update("first");
+
+        assertThat(usageIndex.findUsages(List.of("widget"))).isEmpty();
+        assertThat(usageIndex.findUsages(List.of("anotherWidgetWithALongerName"))).containsKey("anotherWidgetWithALongerName");
+    }
+
+    @Test
+    public void should_take_in_account_an_update_keeping_size_and_modification_time() throws Exception {
+        addToRepository(using("first", "widget1"));
+        Path file = repoDirectory.resolve("first").resolve("first.json");
+        FileTime lastModifiedTime = getLastModifiedTime(file);
+        usageIndex.findUsages(List.of("widget1"));
+
+        // same size, same modification time on a file system with coarse timestamps
+        addToRepository(using("first", "widget2"));
+        setLastModifiedTime(file, lastModifiedTime);
+        usageIndex.update("first");
+
+        assertThat(usageIndex.findUsages(List.of("widget1"))).isEmpty();
+        assertThat(usageIndex.findUsages(List.of("widget2"))).containsKey("widget2");
+    }
+
+    @Test
+    public void should_forget_deleted_components() throws Exception {
+        addToRepository(using("first", "widget"), using("second", "widget"));
+        usageIndex.findUsages(List.of("widget"));
+
+        deleteDirectory(repoDirectory.resolve("second").toFile());
+        usageIndex.update("second");
+
+        assertThat(usageIndex.findUsages(List.of("widget")).get("widget")).containsOnly("first");
+    }
+
+    @Test
+    public void should_not_scan_components_again_once_loaded() throws Exception {
+        addToRepository(using("first", "widget"));
+        usageIndex.findUsages(List.of("widget"));
+
+        addToRepository(using("first", "anotherWidgetWithALongerName"));
+
+        assertThat(usageIndex.findUsages(List.of("widget"))).containsKey("widget");
+    }
+
+    @Test
+    public void should_index_a_new_component_when_updated() throws Exception {
+        addToRepository(using("first", "widget"));
+        usageIndex.findUsages(List.of("widget"));
+
+        addToRepository(using("second", "widget"));
+        usageIndex.update("second");
+
+        assertThat(usageIndex.findUsages(List.of("widget")).get("widget")).containsOnly("first", "second");
+        String index = new String(readAllBytes(repoDirectory.resolve(".metadata").resolve(UsageIndex.FILE_NAME)));
+        assertThat(index).contains("\"second\"");
+    }
+
+    @Test
+    public void should_persist_index_in_metadata_folder() throws Exception {
+        addToRepository(using("first", "widget"));
+
+        usageIndex.findUsages(List.of("widget"));
+
+        String index = new String(readAllBytes(repoDirectory.resolve(".metadata").resolve(UsageIndex.FILE_NAME)));
+        assertThat(index).contains("\"first\"").contains("\"widget\"");
+    }
+
+    @Test
+    public void should_reuse_persisted_index_for_unchanged_components() throws Exception {
+        addToRepository(using("first", "widget"));
+        usageIndex.findUsages(List.of("widget"));
+        Path indexFile = repoDirectory.resolve(".metadata").resolve(UsageIndex.FILE_NAME);
+        write(indexFile, new String(readAllBytes(indexFile)).replace("\"widget\"", "\"indexedWidget\"").getBytes());
+
+        UsageIndex reloaded = new UsageIndex(repoDirectory, jsonHandler);
+
+        assertThat(reloaded.findUsages(List.of("indexedWidget"))).containsKey("indexedWidget");
+    }
+
+    @Test
+    public void should_scan_all_components_again_when_rebuilt() throws Exception {
+        addToRepository(using("first", "widget"));
+        usageIndex.findUsages(List.of("widget"));
+        Path indexFile = repoDirectory.resolve(".metadata").resolve(UsageIndex.FILE_NAME);
+        write(indexFile, new String(readAllBytes(indexFile)).replace("\"widget\"", "\"indexedWidget\"").getBytes());
+        UsageIndex reloaded = new UsageIndex(repoDirectory, jsonHandler);
+
+        reloaded.rebuild();
+
+        assertThat(reloaded.findUsages(List.of("indexedWidget"))).isEmpty();
+        assertThat(reloaded.findUsages(List.of("widget"))).containsKey("widget");
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.JsonHandlerFactory;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.awaitility.Awaitility.await;
+
+public class UuidIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private JsonHandler jsonHandler = new JsonHandlerFactory().create();
+
+    private Path indexFile;
+
+    @Before
+    public void setUp() throws Exception {
+        indexFile = folder.toPath().resolve(".metadata").resolve(".index.json");
+    }
+
+    @Test
+    public void should_load_index_from_its_file() throws Exception {
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, "{\"page-uuid\":\"page\"}");
+
+        var index = new UuidIndex(indexFile, jsonHandler);
+
+        assertThat(index.get("page-uuid")).isEqualTo("page");
+        assertThat(index.get("unknown")).isNull();
+    }
+
+    @Test
+    public void should_start_from_an_empty_index_when_file_cannot_be_parsed() throws Exception {
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, "{not json");
+
+        var index = new UuidIndex(indexFile, jsonHandler);
+
+        assertThat(index.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void should_serve_changes_before_they_are_written() {
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+
+        index.put("page-uuid", "page");
+
+        assertThat(index.get("page-uuid")).isEqualTo("page");
+        assertThat(indexFile).doesNotExist();
+    }
+
+    @Test
+    public void should_write_all_pending_changes_at_once() throws Exception {
+        var index = new UuidIndex(indexFile, jsonHandler);
+
+        index.put("page1-uuid", "page1");
+        index.put("page2-uuid", "page2");
+        index.put("page3-uuid", "page3");
+        index.remove("page3-uuid", "page3");
+
+        await().atMost(2, SECONDS).untilAsserted(() ->
+                assertThat(jsonHandler.fromJsonToMap(Files.readAllBytes(indexFile)))
+                        .containsOnly(entry("page1-uuid", "page1"), entry("page2-uuid", "page2")));
+    }
+
+    @Test
+    public void should_write_pending_changes_on_flush() throws Exception {
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.put("page-uuid", "page");
+
+        index.flush();
+
+        assertThat(jsonHandler.fromJsonToMap(Files.readAllBytes(indexFile))).containsOnly(entry("page-uuid", "page"));
+        assertThat(folder.toPath().resolve(".metadata")).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    public void should_only_remove_an_uuid_still_bound_to_the_given_id() {
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.put("page-uuid", "renamed-page");
+
+        index.remove("page-uuid", "page");
+
+        assertThat(index.get("page-uuid")).isEqualTo("renamed-page");
+    }
+
+    @Test
+    public void should_replace_whole_index() {
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.put("old-uuid", "old");
+
+        index.replaceAll(Map.of("new-uuid", "new"));
+
+        assertThat(index.snapshot()).containsOnly(entry("new-uuid", "new"));
+    }
+
+    @Test
+    public void should_reload_index_changed_by_someone_else() throws Exception {
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.put("page-uuid", "page");
+        index.flush();
+
+        Files.writeString(indexFile, "{\"other-uuid\":\"other\"}");
+        Files.setLastModifiedTime(indexFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        index.reload();
+
+        assertThat(index.snapshot()).containsOnly(entry("other-uuid", "other"));
+    }
+
+    @Test
+    public void should_keep_pending_changes_when_reloading() throws Exception {
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, "{\"other-uuid\":\"other\"}");
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.put("page-uuid", "page");
+
+        index.reload();
+
+        assertThat(index.snapshot()).containsOnly(entry("other-uuid", "other"), entry("page-uuid", "page"));
+    }
+
+    @Test
+    public void should_keep_pending_removals_and_updates_when_reloading() throws Exception {
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, "{\"page-uuid\":\"page\",\"renamed-uuid\":\"before\"}");
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.remove("page-uuid", "page");
+        index.put("renamed-uuid", "after");
+
+        Files.writeString(indexFile, "{\"page-uuid\":\"page\",\"renamed-uuid\":\"before\",\"other-uuid\":\"other\"}");
+        Files.setLastModifiedTime(indexFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        index.reload();
+
+        assertThat(index.snapshot()).containsOnly(entry("renamed-uuid", "after"), entry("other-uuid", "other"));
+    }
+
+    @Test
+    public void should_not_replay_written_changes_when_reloading() throws Exception {
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.put("page-uuid", "page");
+        index.flush();
+
+        Files.writeString(indexFile, "{}");
+        Files.setLastModifiedTime(indexFile, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        index.reload();
+
+        assertThat(index.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void should_ignore_its_own_writes_when_reloading() throws Exception {
+        var index = new UuidIndex(indexFile, jsonHandler, 60_000);
+        index.put("page-uuid", "page");
+        index.flush();
+        index.put("pending-uuid", "pending");
+        index.remove("page-uuid", "page");
+
+        index.reload();
+
+        assertThat(index.snapshot()).containsOnly(entry("pending-uuid", "pending"));
+    }
+}
@@ -16,6 +16,7 @@ package org.bonitasoft.web.designer.repository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import org.bonitasoft.web.designer.JsonHandlerFactory;
 import org.bonitasoft.web.designer.builder.WidgetBuilder;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
@@ -36,6 +37,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
@@ -130,7 +132,7 @@ public class WidgetRepositoryTest {
 
     @Test(expected = RepositoryException.class)
     public void should_throw_RepositoryException_when_error_occurs_when_getting_a_widget() throws Exception {
-        doThrow(new IOException()).when(jsonHandler).fromJson(any(byte[].class), eq(Widget.class));
+        doThrow(new IOException()).when(jsonHandler).fromJson(any(TokenBuffer.class), eq(Widget.class));
         addToRepository(aWidget().withId("input").build());
 
         widgetRepository.get("input");
@@ -155,7 +157,7 @@ public class WidgetRepositoryTest {
 
     @Test(expected = RepositoryException.class)
     public void should_throw_RepositoryException_if_error_occurs_while_getting_all_widgets() throws Exception {
-        doThrow(new IOException()).when(jsonHandler).fromJson(any(byte[].class), eq(Widget.class));
+        doThrow(new IOException()).when(jsonHandler).fromJson(any(TokenBuffer.class), eq(Widget.class));
         addToRepository(aWidget().withId("input").build());
         widgetRepository.getAll();
         addToRepository(aWidgetWc().withId("input").build());
@@ -509,11 +511,28 @@ public class WidgetRepositoryTest {
 
     @Test
     public void should_watch_widget_repository() throws Exception {
-        PathListener pathListener = path -> System.out.println(path);
+        PathListener pathListener = mock(PathListener.class);
+        ArgumentCaptor<PathListener> listenerCaptor = ArgumentCaptor.forClass(PathListener.class);
 
         widgetRepository.watch(pathListener);
 
-        verify(watcher).watch(widgetDir, pathListener);
+        verify(watcher).watch(eq(widgetDir), listenerCaptor.capture());
+        listenerCaptor.getValue().onChange(widgetDir.resolve("input/input.json"));
+        verify(pathListener).onChange(widgetDir.resolve("input/input.json"));
+    }
+
+    @Test
+    public void should_not_serve_a_cached_widget_once_changed_on_file_system() throws Exception {
+        ArgumentCaptor<PathListener> listenerCaptor = ArgumentCaptor.forClass(PathListener.class);
+        widgetRepository.watch(mock(PathListener.class));
+        verify(watcher).watch(eq(widgetDir), listenerCaptor.capture());
+        addToRepository(aWidget().withId("input").build());
+        widgetRepository.get("input");
+
+        listenerCaptor.getValue().onChange(widgetDir.resolve("input/input.json"));
+        widgetRepository.get("input");
+
+        verify(widgetLoader, times(2)).parse(widgetDir.resolve("input/input.json"));
     }
 
     @Test
@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.repository;
+
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WriteBatchTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void should_not_touch_target_files_until_committed() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+        Files.writeString(file, "previous");
+
+        try (var batch = new WriteBatch()) {
+            batch.write(file, "next".getBytes(UTF_8));
+
+            assertThat(file).hasContent("previous");
+        }
+    }
+
+    @Test
+    public void should_move_all_staged_files_in_place_on_commit() throws Exception {
+        Path page = folder.toPath().resolve("page").resolve("page.json");
+        Path metadata = folder.toPath().resolve(".metadata").resolve("page.json");
+
+        try (var batch = new WriteBatch()) {
+            batch.write(page, "page".getBytes(UTF_8));
+            batch.write(metadata, "metadata".getBytes(UTF_8));
+            batch.commit();
+
+            assertThat(batch.isEmpty()).isTrue();
+        }
+
+        assertThat(page).hasContent("page");
+        assertThat(metadata).hasContent("metadata");
+        assertThat(page.getParent().toFile().list()).containsOnly("page.json");
+        assertThat(metadata.getParent().toFile().list()).containsOnly("page.json");
+    }
+
+    @Test
+    public void should_keep_last_content_staged_for_a_file() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+
+        try (var batch = new WriteBatch()) {
+            batch.write(file, "first".getBytes(UTF_8));
+            batch.write(file, "second".getBytes(UTF_8));
+            batch.commit();
+        }
+
+        assertThat(file).hasContent("second");
+        assertThat(folder.toPath().toFile().list()).containsOnly("page.json");
+    }
+
+    @Test
+    public void should_discard_staged_files_when_closed_without_commit() throws Exception {
+        Path file = folder.toPath().resolve("page.json");
+
+        try (var batch = new WriteBatch()) {
+            batch.write(file, "content".getBytes(UTF_8));
+        }
+
+        assertThat(file).doesNotExist();
+        assertThat(folder.toPath().toFile().list()).isEmpty();
+    }
+}
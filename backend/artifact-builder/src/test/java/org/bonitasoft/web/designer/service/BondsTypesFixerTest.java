@@ -51,6 +51,6 @@ public class BondsTypesFixerTest {
                 aProperty().name("text").bond(INTERPOLATION).build()));
 
         assertThat(labelComponent.getPropertyValues().get("text").getType()).isEqualTo(INTERPOLATION.toJson());
-        verify(pageRepository).save(page);
+        verify(pageRepository).saveBatch(singletonList(page));
     }
 }
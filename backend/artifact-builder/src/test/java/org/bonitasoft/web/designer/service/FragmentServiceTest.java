@@ -14,6 +14,9 @@
  */
 package org.bonitasoft.web.designer.service;
 
+import static org.bonitasoft.web.designer.builder.FragmentElementBuilder.aFragmentElement;
+import org.bonitasoft.web.designer.model.Identifiable;
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
 import org.assertj.core.api.Condition;
 import org.bonitasoft.web.designer.Version;
 import org.bonitasoft.web.designer.builder.ComponentBuilder;
@@ -112,7 +115,8 @@ public class FragmentServiceTest {
         pageHasValidationErrorVisitor = new PageHasValidationErrorVisitor();
         uiDesignerProperties = new UiDesignerPropertiesBuilder().build();
         fragmentService = new DefaultFragmentService(fragmentRepository, pageRepository, fragmentMigrationApplyer,
-                fragmentIdVisitor, fragmentChangeVisitor, pageHasValidationErrorVisitor, assetVisitor, uiDesignerProperties
+                fragmentIdVisitor, fragmentChangeVisitor, pageHasValidationErrorVisitor, assetVisitor, uiDesignerProperties,
+                new MigrationStatusCache(List.of(fragmentRepository))
         );
 
         when(fragmentRepository.getComponentName()).thenReturn("fragment");
@@ -205,6 +209,24 @@ public class FragmentServiceTest {
         Assert.assertEquals(getMigrationStatusReport(true, true), status.toString());
     }
 
+    @Test
+    public void should_compute_status_of_a_fragment_used_by_several_artifacts_once() {
+        Fragment fragment = aFragment().withId("fragment").withDesignerVersion("1.10.0").build();
+        Page page = PageBuilder.aPage().withId("myPage").build();
+        Page anotherPage = PageBuilder.aPage().withId("anotherPage").build();
+        Set<String> ids = new HashSet<>(singletonList("fragment"));
+        when(fragmentMigrationApplyer.getMigrationStatusOfCustomWidgetsUsed(fragment)).thenReturn(new MigrationStatusReport(true, false));
+        when(fragmentRepository.getByIds(ids)).thenReturn(singletonList(fragment));
+        when(fragmentIdVisitor.visit(page)).thenReturn(ids);
+        when(fragmentIdVisitor.visit(anotherPage)).thenReturn(ids);
+
+        fragmentService.getMigrationStatusOfFragmentUsed(page);
+        MigrationStatusReport status = fragmentService.getMigrationStatusOfFragmentUsed(anotherPage);
+
+        Assert.assertEquals(getMigrationStatusReport(true, true), status.toString());
+        verify(fragmentMigrationApplyer, times(1)).getMigrationStatusOfCustomWidgetsUsed(fragment);
+    }
+
     @Test
     public void should_get_correct_migration_status_when_dependency_is_not_compatible() {
         Page page = PageBuilder.aPage().withId("myPage").withModelVersion(uiDesignerProperties.getModelVersionLegacy()).build();
@@ -626,7 +648,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(newFragmentId);
         assertThat(savedFragment.getId()).isEqualTo(newFragmentId);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -664,7 +686,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(newFragmentId);
         assertThat(savedFragment.getId()).isEqualTo(newFragmentId);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -693,7 +715,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -722,7 +744,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -751,7 +773,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -780,7 +802,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -816,7 +838,7 @@ public class FragmentServiceTest {
         assertThat(fragmentRefInPage.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(fragmentToKeepRefInPage.getId()).isEqualTo(myFragmentToKeepId);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -847,7 +869,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(page);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(page));
     }
 
     @Test
@@ -874,7 +896,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInForm.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(form);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(form));
     }
 
     @Test
@@ -904,7 +926,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInPage.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(pageRepository).updateLastUpdateAndSave(layout);
+        verify(pageRepository).updateLastUpdateAndSaveBatch(singletonList(layout));
     }
 
     @Test
@@ -929,7 +951,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInFragment.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(fragmentRepository).updateLastUpdateAndSave(fragmentParent);
+        verify(fragmentRepository).updateLastUpdateAndSaveBatch(singletonList(fragmentParent));
         verify(fragmentRepository).updateLastUpdateAndSave(existingFragment);
         verify(fragmentRepository).delete(fragmentChildId);
 
@@ -962,7 +984,7 @@ public class FragmentServiceTest {
 
         assertThat(fragmentRefInFragment.getId()).isEqualTo(savedFragment.getId()).isEqualTo(newName);
         assertThat(savedFragment.getName()).isEqualTo(newName);
-        verify(fragmentRepository).updateLastUpdateAndSave(fragmentParent);
+        verify(fragmentRepository).updateLastUpdateAndSaveBatch(singletonList(fragmentParent));
         verify(fragmentRepository).delete(fragmentChildId);
     }
 
@@ -1223,4 +1245,42 @@ public class FragmentServiceTest {
                 fragmentService.getInfo(fragment2.getId()).getArtifactVersion(),
                 new ArtifactInfo(currentModelVersionLegacy).getArtifactVersion());
     }
+
+    private void givenLightFragments() {
+        var currentVersion = uiDesignerProperties.getModelVersionLegacy();
+        when(fragmentRepository.getAllSummaries()).thenReturn(List.of(
+                ArtifactSummary.of(aFragment().withId("outer").withModelVersion(currentVersion)
+                        .with(aFragmentElement().withFragmentId("inner")).build()),
+                ArtifactSummary.of(aFragment().withId("inner").withModelVersion(currentVersion)
+                        .with(ComponentBuilder.aComponent().withWidgetId("customOld")).build()),
+                ArtifactSummary.of(aFragment().withId("plain").withModelVersion(currentVersion).build())));
+        when(fragmentRepository.toLightArtifact(any())).thenCallRealMethod();
+        when(fragmentMigrationApplyer.getMigrationStatusOfWidgets()).thenReturn(Map.of("customOld", new MigrationStatusReport(true, true)));
+    }
+
+    @Test
+    public void should_get_all_light_fragments_with_their_status_and_usages() {
+        givenLightFragments();
+        when(pageRepository.getAllSummaries()).thenReturn(List.of(
+                ArtifactSummary.of(aPage().withId("page").with(aFragmentElement().withFragmentId("outer")).build())));
+        when(pageRepository.toLightArtifact(any())).thenCallRealMethod();
+
+        var fragments = fragmentService.getAllLightNotUsingFragment(null);
+
+        assertThat(fragments).extracting(Fragment::getId).containsExactly("outer", "inner", "plain");
+        assertThat(fragments).extracting(fragment -> fragment.getStatus().isMigration()).containsExactly(true, true, false);
+        assertThat(fragments.get(0).getUsedBy().get("page")).extracting(Identifiable::getId).containsExactly("page");
+        assertThat(fragments.get(1).getUsedBy().get("fragment")).extracting(Identifiable::getId).containsExactly("outer");
+        assertThat(fragments.get(2).getUsedBy()).isNull();
+        verify(fragmentRepository, never()).getAll();
+    }
+
+    @Test
+    public void should_get_all_light_fragments_not_using_a_fragment_id() {
+        givenLightFragments();
+
+        var fragments = fragmentService.getAllLightNotUsingFragment("inner");
+
+        assertThat(fragments).extracting(Fragment::getId).containsExactly("plain");
+    }
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.service;
+
+import org.bonitasoft.web.designer.controller.MigrationStatusReport;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MigrationStatusCacheTest {
+
+    @Mock
+    private FragmentRepository fragmentRepository;
+
+    private MigrationStatusCache cache;
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private final Function<Object, MigrationStatusReport> computation = artifact -> {
+        computations.incrementAndGet();
+        return new MigrationStatusReport(true, true);
+    };
+
+    @Before
+    public void setUp() {
+        cache = new MigrationStatusCache(List.of(fragmentRepository));
+    }
+
+    @Test
+    public void should_compute_the_status_of_an_artifact_version_once() {
+        Fragment fragment = aFragment().withId("fragment").withModelVersion("2.0").build();
+
+        MigrationStatusReport status = cache.get(fragment, computation::apply);
+
+        assertThat(cache.get(aFragment().withId("fragment").withModelVersion("2.0").build(), computation::apply)).isSameAs(status);
+        assertThat(computations).hasValue(1);
+    }
+
+    @Test
+    public void should_compute_again_the_status_of_another_version() {
+        cache.get(aFragment().withId("fragment").withModelVersion("2.0").build(), computation::apply);
+
+        cache.get(aFragment().withId("fragment").withModelVersion("2.1").build(), computation::apply);
+
+        assertThat(computations).hasValue(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_not_mix_artifacts_of_different_kinds_having_the_same_id() {
+        cache.get(aFragment().withId("same").withModelVersion("2.0").build(), computation::apply);
+
+        Page page = aPage().withId("same").withModelVersion("2.0").build();
+        cache.get(page, computation::apply);
+
+        assertThat(computations).hasValue(2);
+    }
+
+    @Test
+    public void should_drop_statuses_when_a_repository_is_modified() {
+        Fragment fragment = aFragment().withId("fragment").withModelVersion("2.0").build();
+        cache.get(fragment, computation::apply);
+
+        when(fragmentRepository.getModificationCount()).thenReturn(1L);
+        cache.get(fragment, computation::apply);
+
+        assertThat(computations).hasValue(2);
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_keep_a_status_computed_while_a_repository_was_modified() {
+        Fragment fragment = aFragment().withId("fragment").withModelVersion("2.0").build();
+
+        cache.get(fragment, artifact -> {
+            when(fragmentRepository.getModificationCount()).thenReturn(1L);
+            return new MigrationStatusReport(true, true);
+        });
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void should_not_keep_a_status_computed_before_statuses_were_dropped() {
+        Fragment fragment = aFragment().withId("fragment").withModelVersion("2.0").build();
+        Fragment other = aFragment().withId("other").withModelVersion("2.0").build();
+
+        cache.get(fragment, artifact -> {
+            when(fragmentRepository.getModificationCount()).thenReturn(1L);
+            // another thread drops the statuses and stores a fresh one
+            cache.get(other, computation::apply);
+            return new MigrationStatusReport(true, true);
+        });
+        cache.get(fragment, computation::apply);
+
+        assertThat(computations).hasValue(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+}
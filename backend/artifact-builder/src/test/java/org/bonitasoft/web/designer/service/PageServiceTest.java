@@ -14,6 +14,8 @@
  */
 package org.bonitasoft.web.designer.service;
 
+import static org.bonitasoft.web.designer.builder.FragmentElementBuilder.aFragmentElement;
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
 import com.fasterxml.jackson.core.FakeJsonProcessingException;
 import org.bonitasoft.web.designer.builder.AssetBuilder;
 import org.bonitasoft.web.designer.builder.PageBuilder;
@@ -937,4 +939,25 @@ public class PageServiceTest {
                 pageService.getInfo(page2.getId()).getArtifactVersion(),
                 new ArtifactInfo(currentModelVersionLegacy).getArtifactVersion());
     }
+
+    @Test
+    public void should_list_light_pages_from_summaries() throws Exception {
+        var currentVersion = uiDesignerProperties.getModelVersionLegacy();
+        var page = aPage().withId("page").withName("name").withModelVersion(currentVersion)
+                .with(aFragmentElement().withFragmentId("fragment")).build();
+        var anotherPage = aPage().withId("anotherPage").withModelVersion(currentVersion).build();
+        when(pageRepository.getAllSummaries()).thenReturn(List.of(ArtifactSummary.of(page), ArtifactSummary.of(anotherPage)));
+        when(pageRepository.toLightArtifact(any())).thenCallRealMethod();
+        when(pageMigrationApplyer.getMigrationStatusOfWidgets()).thenReturn(Map.of());
+        when(pageMigrationApplyer.getMigrationStatusOfFragments()).thenReturn(Map.of("fragment", new MigrationStatusReport(true, true)));
+
+        var pages = pageService.getAllLight();
+
+        assertThat(pages).extracting(Page::getId).containsExactly("page", "anotherPage");
+        assertThat(pages.get(0).getName()).isEqualTo("name");
+        assertThat(pages.get(0).getRows()).isEmpty();
+        assertThat(pages.get(0).getStatus()).usingRecursiveComparison().isEqualTo(new MigrationStatusReport(true, true));
+        assertThat(pages.get(1).getStatus()).usingRecursiveComparison().isEqualTo(new MigrationStatusReport(true, false));
+        verify(pageRepository, never()).getAll();
+    }
 }
@@ -14,6 +14,7 @@
  */
 package org.bonitasoft.web.designer.service;
 
+import org.bonitasoft.web.designer.repository.ArtifactSummary;
 import org.bonitasoft.web.designer.builder.PageBuilder;
 import org.bonitasoft.web.designer.builder.PropertyBuilder;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
@@ -785,4 +786,23 @@ public class WidgetServiceTest {
         return new MigrationStatusReport(compatible, migration).toString();
     }
 
+    @Test
+    public void should_serve_all_light_widgets_from_summaries() throws Exception {
+        var customWidget = aWidget().withId("customWidget").withName("custom").custom().modelVersion(uiDesignerProperties.getModelVersionLegacy()).build();
+        when(widgetRepository.getAllSummaries()).thenReturn(List.of(ArtifactSummary.of(customWidget)));
+        when(widgetRepository.toLightArtifact(any())).thenCallRealMethod();
+        when(pageRepository.getAllSummaries()).thenReturn(List.of(
+                ArtifactSummary.of(aPage().withId("page").withName("hello").with(aComponent().withWidgetId("customWidget")).build())));
+        when(pageRepository.toLightArtifact(any())).thenCallRealMethod();
+        when(pageRepository.getComponentName()).thenReturn("page");
+        when(fragmentRepository.getAllSummaries()).thenReturn(List.of());
+
+        var widgets = widgetService.getAllLight();
+
+        assertThat(widgets).hasSize(1);
+        assertThat(widgets.get(0).isCustom()).isTrue();
+        assertThat(widgets.get(0).getStatus()).usingRecursiveComparison().isEqualTo(new MigrationStatusReport(true, false));
+        assertThat(widgets.get(0).getUsedBy().get("page").get(0).getName()).isEqualTo("hello");
+        verify(widgetRepository, never()).getAll();
+    }
 }
@@ -21,6 +21,7 @@ import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.repository.exception.RepositoryException;
 
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -34,6 +35,12 @@ public class FakePageRepository extends PageRepository {
         repo = new HashMap<>();
     }
 
+    @Override
+    public Page updateLastUpdateAndSave(Page page) throws RepositoryException {
+        page.setLastUpdate(Instant.now());
+        return save(page);
+    }
+
     @Override
     public Page save(Page page) throws RepositoryException {
         repo.put(page.getId(), page);
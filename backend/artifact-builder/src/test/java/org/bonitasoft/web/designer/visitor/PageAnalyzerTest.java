@@ -0,0 +1,184 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.visitor;
+
+import org.bonitasoft.web.designer.model.asset.AssetType;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
+import org.bonitasoft.web.designer.model.page.Component;
+import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.repository.FragmentRepository;
+import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.repository.WidgetRepository;
+import org.bonitasoft.web.designer.visitor.angularJS.PropertyValuesVisitor;
+import org.bonitasoft.web.designer.visitor.angularJS.VariableModelVisitor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.bonitasoft.web.designer.builder.AssetBuilder.anAsset;
+import static org.bonitasoft.web.designer.builder.ComponentBuilder.aComponent;
+import static org.bonitasoft.web.designer.builder.ContainerBuilder.aContainer;
+import static org.bonitasoft.web.designer.builder.FormContainerBuilder.aFormContainer;
+import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
+import static org.bonitasoft.web.designer.builder.FragmentElementBuilder.aFragmentElement;
+import static org.bonitasoft.web.designer.builder.ModalContainerBuilder.aModalContainer;
+import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
+import static org.bonitasoft.web.designer.builder.TabContainerBuilder.aTabContainer;
+import static org.bonitasoft.web.designer.builder.TabsContainerBuilder.aTabsContainer;
+import static org.bonitasoft.web.designer.builder.VariableBuilder.aConstantVariable;
+import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PageAnalyzerTest {
+
+    @Mock
+    private PageRepository pageRepository;
+
+    @Mock
+    private WidgetRepository widgetRepository;
+
+    @Mock
+    private FragmentRepository fragmentRepository;
+
+    private PageAnalyzer pageAnalyzer;
+
+    private Page page;
+
+    @Before
+    public void setUp() throws Exception {
+        pageAnalyzer = new PageAnalyzer(pageRepository, widgetRepository, fragmentRepository);
+        when(widgetRepository.get(anyString())).thenAnswer(invocation -> {
+            String id = invocation.getArgument(0);
+            return aWidget().withId(id)
+                    .modules(id + "Module")
+                    .assets(anAsset().withName(id + ".js").withType(AssetType.JAVASCRIPT))
+                    .build();
+        });
+
+        Fragment address = aFragment().withId("address")
+                .withVariable("street", aConstantVariable().exposed(true))
+                .with(aComponent("pbInput").withReference("street-input"))
+                .build();
+        Fragment person = aFragment().withId("person")
+                .withVariable("name", aConstantVariable().exposed(true))
+                .with(aContainer().with(
+                        aComponent("pbText").withReference("name-text"),
+                        aFragmentElement().withFragmentId("address").withReference("person-address")))
+                .build();
+        when(fragmentRepository.get("address")).thenReturn(address);
+        when(fragmentRepository.get("person")).thenReturn(person);
+
+        page = aPage().withId("page")
+                .withVariable("foo", aConstantVariable().value("bar"))
+                .withAsset(anAsset().withName("page.css").withType(AssetType.CSS))
+                .with(
+                        aContainer().with(aComponent("pbTitle").withReference("title")).withReference("root"),
+                        aFormContainer().with(aContainer().with(
+                                aFragmentElement().withFragmentId("person").withBinding("name", "user").withReference("person"))),
+                        aTabsContainer().with(aTabContainer().withId("pbTabContainer").with(aContainer().with(
+                                aFragmentElement().withFragmentId("address").withBinding("street", "home").withReference("home-address")))),
+                        aModalContainer().with(aContainer().with(aComponent("pbButton").withReference("button"))))
+                .build();
+    }
+
+    @Test
+    public void should_collect_the_same_information_as_the_dedicated_visitors() {
+        PageAnalysis analysis = pageAnalyzer.analyze(page);
+
+        assertThat(analysis.getWidgetIds()).isEqualTo(new WidgetIdVisitor(fragmentRepository).visit(page));
+        assertThat(analysis.getFragmentIds()).isEqualTo(new FragmentIdVisitor(fragmentRepository).visit(page));
+        assertThat(analysis.getComponents()).isEqualTo(components(new ComponentVisitor(fragmentRepository).visit(page)));
+        assertThat(analysis.getAssets()).isEqualTo(new AssetVisitor(widgetRepository, fragmentRepository).visit(page));
+        assertThat(analysis.getRequiredModules()).isEqualTo(new RequiredModulesVisitor(widgetRepository, fragmentRepository).visit(page));
+        assertThat(analysis.getPropertyValues()).isEqualTo(new PropertyValuesVisitor(fragmentRepository).visit(page));
+        assertThat(analysis.getModelProperties()).isEqualTo(new ModelPropertiesVisitor(fragmentRepository).visit(page));
+        assertThat(analysis.getVariables()).isEqualTo(new VariableModelVisitor(fragmentRepository).visit(page));
+    }
+
+    @Test
+    public void should_not_collect_tab_container_assets_nor_modules() {
+        PageAnalysis analysis = pageAnalyzer.analyze(page);
+
+        assertThat(analysis.getWidgetIds()).contains("pbTabContainer");
+        assertThat(analysis.getRequiredModules()).doesNotContain("pbTabContainerModule").contains("pbTabsContainerModule");
+        assertThat(analysis.getAssets()).extracting("name").doesNotContain("pbTabContainer.js").contains("pbTabsContainer.js", "page.css");
+    }
+
+    @Test
+    public void should_resolve_each_fragment_and_widget_once() {
+        pageAnalyzer.analyze(page);
+
+        verify(fragmentRepository, times(1)).get("address");
+        verify(fragmentRepository, times(1)).get("person");
+        verify(widgetRepository, times(1)).get("pbInput");
+        verify(widgetRepository, times(1)).get("pbContainer");
+    }
+
+    @Test
+    public void should_reuse_analysis_of_a_same_artifact_version() {
+        PageAnalysis analysis = pageAnalyzer.analyze(page);
+
+        Page reloaded = aPage().withId("page").build();
+        reloaded.setRows(page.getRows());
+
+        assertThat(pageAnalyzer.analyze(reloaded)).isSameAs(analysis);
+        verify(fragmentRepository, times(1)).get("person");
+    }
+
+    @Test
+    public void should_analyse_again_an_artifact_modified_in_its_repository() {
+        PageAnalysis analysis = pageAnalyzer.analyze(page);
+
+        page.getRows().get(0).add(aComponent("pbLink").build());
+        when(pageRepository.getModificationCount("page")).thenReturn(1L);
+
+        assertThat(pageAnalyzer.analyze(page)).isNotSameAs(analysis);
+        assertThat(pageAnalyzer.analyze(page).getWidgetIds()).contains("pbLink");
+    }
+
+    @Test
+    public void should_analyse_again_an_artifact_when_a_fragment_is_modified() {
+        PageAnalysis analysis = pageAnalyzer.analyze(page);
+
+        when(fragmentRepository.getModificationCount()).thenReturn(1L);
+
+        assertThat(pageAnalyzer.analyze(page)).isNotSameAs(analysis);
+    }
+
+    @Test
+    public void should_not_share_analysis_between_artifacts_of_different_kinds() {
+        PageAnalysis analysis = pageAnalyzer.analyze(page);
+
+        Fragment fragment = aFragment().withId("page").build();
+
+        assertThat(pageAnalyzer.analyze(fragment)).isNotSameAs(analysis);
+    }
+
+    private List<Component> components(Iterable<Component> components) {
+        var list = new ArrayList<Component>();
+        components.forEach(list::add);
+        return list;
+    }
+}
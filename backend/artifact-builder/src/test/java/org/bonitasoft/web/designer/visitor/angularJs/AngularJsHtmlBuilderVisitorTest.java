@@ -47,6 +47,7 @@ import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -71,6 +72,7 @@ import static org.bonitasoft.web.designer.builder.VariableBuilder.aConstantVaria
 import static org.bonitasoft.web.designer.utils.assertions.CustomAssertions.*;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -85,10 +87,10 @@ public class AngularJsHtmlBuilderVisitorTest {
     private PageFactory pageFactory;
 
     @Mock
-    private RequiredModulesVisitor requiredModulesVisitor;
+    private PageAnalyzer pageAnalyzer;
 
     @Mock
-    private AssetVisitor assetVisitor;
+    private PageAnalysis pageAnalysis;
 
     @Mock
     private AssetRepository<Page> pageAssetRepository;
@@ -113,12 +115,12 @@ public class AngularJsHtmlBuilderVisitorTest {
     public void setUp() throws Exception {
         visitor = new AngularJsBuilderVisitor(
                 List.of(pageFactory),
-                requiredModulesVisitor,
+                pageAnalyzer,
                 directivesCollector,
                 fragmentRepository,
-                new AssetHtmlBuilder(assetVisitor,pageAssetRepository,widgetAssetRepository,workspaceProperties)
+                new AssetHtmlBuilder(pageAnalyzer,pageAssetRepository,widgetAssetRepository,workspaceProperties)
         );
-        when(requiredModulesVisitor.visit(any(Page.class))).thenReturn(Collections.emptySet());
+        lenient().when(pageAnalyzer.analyze(any())).thenReturn(pageAnalysis);
         when(pageAssetRepository.readAllBytes(anyString(), any(Asset.class))).thenReturn(assetsContent);
         when(widgetAssetRepository.readAllBytes(any(Asset.class))).thenReturn(assetsContent);
         assetSHA1 = DigestUtils.sha1Hex(assetsContent);
@@ -242,15 +244,31 @@ public class AngularJsHtmlBuilderVisitorTest {
     @Test
     public void should_build_a_container_fluid_for_a_previewable() throws Exception {
         Page page = aPage().build();
-        when(pageFactory.generate(page)).thenReturn("var foo = \"bar\";");
+        when(pageFactory.generate(page, pageAnalysis)).thenReturn("var foo = \"bar\";");
 
         assertThatHtmlBody(visitor.build(page, "mycontext/")).hasElement("div.container-fluid");
     }
 
+    @Test
+    public void should_write_nested_containers_into_the_given_output() throws Exception {
+        Container container = aContainer().withReference("container-0").with(aComponent("pbWidget").build()).build();
+        for (var i = 1; i < 20; i++) {
+            container = aContainer().withReference("container-" + i).with(container).build();
+        }
+        Page page = aPage().with(container).build();
+        when(pageFactory.generate(page, pageAnalysis)).thenReturn("var foo = \"bar\";");
+        StringWriter out = new StringWriter();
+
+        visitor.build(page, "mycontext/", out);
+
+        assertThat(out.toString()).isEqualTo(visitor.build(page, "mycontext/"));
+        assertThat(toBody(out.toString()).select("div[pb-property-values^=container-]")).hasSize(20);
+    }
+
     @Test
     public void should_generate_an_html_with_the_list_of_widgets() throws Exception {
         Page page = aPage().withId("page-id").build();
-        when(pageFactory.generate(page)).thenReturn("var foo = \"bar\";");
+        when(pageFactory.generate(page, pageAnalysis)).thenReturn("var foo = \"bar\";");
         when(directivesCollector.buildUniqueDirectivesFiles(page, page.getId())).thenReturn(Arrays.asList("assets/widgets.js"));
 
         // when we generate the html
@@ -282,10 +300,10 @@ public class AngularJsHtmlBuilderVisitorTest {
                                 aParagraph().withReference("paragraph-reference")))
                         .withReference("container-reference"))
                 .build();
-        when(pageFactory.generate(page)).thenReturn("var baz = \"qux\";");
+        when(pageFactory.generate(page, pageAnalysis)).thenReturn("var baz = \"qux\";");
         when(directivesCollector.buildUniqueDirectivesFiles(page, page.getId())).thenReturn(Arrays.asList
                 ("assets/widgets-f8b2ef17808cccb95dbf0973e7745cd53c29c684.js"));
-        when(assetVisitor.visit(page)).thenReturn(Set.of(assetRelative, assetJquery, assetLocal));
+        when(pageAnalysis.getAssets()).thenReturn(Set.of(assetRelative, assetJquery, assetLocal));
 
         String html = visitor.build(page, "mycontext/");
 
@@ -298,7 +316,7 @@ public class AngularJsHtmlBuilderVisitorTest {
         Page page = aPage().withId("page-id")
                 .withDisplayName("This is a beautiful title for this page")
                 .build();
-        when(pageFactory.generate(page)).thenReturn("var baz = \"qux\";");
+        when(pageFactory.generate(page, pageAnalysis)).thenReturn("var baz = \"qux\";");
 
         String html = visitor.build(page, "mycontext/");
 
@@ -363,7 +381,7 @@ public class AngularJsHtmlBuilderVisitorTest {
     @Test
     public void should_add_extra_modules_when_widgets_needs_them() throws Exception {
         Page page = aPage().build();
-        when(requiredModulesVisitor.visit(page)).thenReturn(Set.of("needed.module"));
+        when(pageAnalysis.getRequiredModules()).thenReturn(Set.of("needed.module"));
 
         String html = visitor.build(page, "");
 
@@ -374,7 +392,7 @@ public class AngularJsHtmlBuilderVisitorTest {
     @Test
     public void should_not_add_extra_modules_when_no_widgets_needs_them() throws Exception {
         Page page = aPage().build();
-        when(requiredModulesVisitor.visit(page)).thenReturn(Collections.<String>emptySet());
+        when(pageAnalysis.getRequiredModules()).thenReturn(Collections.<String>emptySet());
 
         String html = visitor.build(page, "");
 
@@ -386,7 +404,7 @@ public class AngularJsHtmlBuilderVisitorTest {
     public void should_add_asset_import_in_header() throws Exception {
         Page page = aPage().build();
 
-        when(assetVisitor.visit(page)).thenReturn(
+        when(pageAnalysis.getAssets()).thenReturn(
                 Set.of(
                         //A css file in the page
                         new Asset().setName("myfile.css").setType(AssetType.CSS),
@@ -417,7 +435,7 @@ public class AngularJsHtmlBuilderVisitorTest {
     public void should_add_active_and_ordered_asset_import_in_header() throws Exception {
         Page page = aPage().build();
 
-        when(assetVisitor.visit(page)).thenReturn(
+        when(pageAnalysis.getAssets()).thenReturn(
                 Set.of(
                         //Widgets assets
                         new Asset().setName("myfile3.js").setOrder(3).setType(AssetType.JAVASCRIPT).setScope(AssetScope.WIDGET).setComponentId("widget-id"),
@@ -454,7 +472,7 @@ public class AngularJsHtmlBuilderVisitorTest {
         assets.add(new Asset().setName("myfile3.js").setOrder(4).setType(AssetType.JAVASCRIPT).setScope(AssetScope.WIDGET).setComponentId("widget-id"));
         assets.add(new Asset().setName("myfile2.js").setOrder(5).setType(AssetType.JAVASCRIPT).setScope(AssetScope.WIDGET).setComponentId("widget-id"));
 
-        when(assetVisitor.visit(page)).thenReturn(assets);
+        when(pageAnalysis.getAssets()).thenReturn(assets);
 
         String html = visitor.build(page, "mycontext/");
 
@@ -479,7 +497,7 @@ public class AngularJsHtmlBuilderVisitorTest {
         assets.add(new Asset().setName("myfile1.js").setOrder(3).setType(AssetType.JAVASCRIPT).setScope(AssetScope.WIDGET).setComponentId("vidget-id"));
         assets.add(new Asset().setName("myfile1.js").setOrder(4).setType(AssetType.JAVASCRIPT).setScope(AssetScope.WIDGET).setComponentId("nidget-id"));
 
-        when(assetVisitor.visit(page)).thenReturn(assets);
+        when(pageAnalysis.getAssets()).thenReturn(assets);
 
         String html = visitor.build(page, "mycontext/");
 
@@ -15,6 +15,7 @@
 package org.bonitasoft.web.designer.workspace;
 
 import org.bonitasoft.web.designer.JsonHandlerFactory;
+import org.bonitasoft.web.designer.livebuild.BuildManifest;
 import org.bonitasoft.web.designer.livebuild.PathListener;
 import org.bonitasoft.web.designer.livebuild.Watcher;
 import org.bonitasoft.web.designer.model.JsonHandler;
@@ -32,6 +33,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 
 import static java.nio.file.Files.readAllBytes;
 import static java.nio.file.Files.write;
@@ -40,6 +42,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.builder.ComponentBuilder.anInput;
 import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
 import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -50,6 +53,9 @@ public class FragmentDirectiveBuilderTest {
     @Rule
     public TemporaryFolder repositoryDirectory = new TemporaryFolder();
 
+    @Rule
+    public TemporaryFolder otherDirectory = new TemporaryFolder();
+
     @Mock
     private Watcher watcher;
 
@@ -103,6 +109,46 @@ public class FragmentDirectiveBuilderTest {
         verify(watcher).watch(eq(repositoryDirectory.getRoot().toPath()), any(PathListener.class));
     }
 
+    @Test
+    public void should_not_rebuild_directives_which_are_up_to_date_on_start() throws Exception {
+        var widgetsDirectory = otherDirectory.newFolder("widgets").toPath();
+        fragmentDirectiveBuilder = incrementalBuilder(widgetsDirectory);
+        fragmentDirectiveBuilder.start(repositoryDirectory.getRoot().toPath());
+
+        fragmentDirectiveBuilder = incrementalBuilder(widgetsDirectory);
+        fragmentDirectiveBuilder.start(repositoryDirectory.getRoot().toPath());
+
+        verify(angularJsHtmlBuilderVisitor, times(1)).build(anyList());
+    }
+
+    @Test
+    public void should_rebuild_directives_modified_since_last_start() throws Exception {
+        var widgetsDirectory = otherDirectory.newFolder("widgets").toPath();
+        fragmentDirectiveBuilder = incrementalBuilder(widgetsDirectory);
+        fragmentDirectiveBuilder.start(repositoryDirectory.getRoot().toPath());
+        write(repositoryDirectory.getRoot().toPath().resolve("fragment.js"), "modified".getBytes());
+
+        fragmentDirectiveBuilder = incrementalBuilder(widgetsDirectory);
+        fragmentDirectiveBuilder.start(repositoryDirectory.getRoot().toPath());
+
+        verify(angularJsHtmlBuilderVisitor, times(2)).build(anyList());
+        assertThat(new String(readAllBytes(repositoryDirectory.getRoot().toPath().resolve("fragment.js"))))
+                .isEqualTo(generateDirective(fragment, ""));
+    }
+
+    @Test
+    public void should_rebuild_all_directives_when_a_widget_changed_since_last_start() throws Exception {
+        var widgetsDirectory = otherDirectory.newFolder("widgets").toPath();
+        fragmentDirectiveBuilder = incrementalBuilder(widgetsDirectory);
+        fragmentDirectiveBuilder.start(repositoryDirectory.getRoot().toPath());
+        write(widgetsDirectory.resolve("customWidget.json"), "{}".getBytes());
+
+        fragmentDirectiveBuilder = incrementalBuilder(widgetsDirectory);
+        fragmentDirectiveBuilder.start(repositoryDirectory.getRoot().toPath());
+
+        verify(angularJsHtmlBuilderVisitor, times(2)).build(anyList());
+    }
+
     @Test
     public void should_exclude_metadata_from_the_build() throws Exception {
 
@@ -111,6 +157,11 @@ public class FragmentDirectiveBuilderTest {
         assertThat(isBuildable).isFalse();
     }
 
+    private FragmentDirectiveBuilder incrementalBuilder(Path widgetsDirectory) {
+        var manifest = new BuildManifest(otherDirectory.getRoot().toPath().resolve("fragments.json"), "1.0.0");
+        return new FragmentDirectiveBuilder(watcher, jsonHandler, angularJsHtmlBuilderVisitor, htmlSanitizer, manifest, widgetsDirectory);
+    }
+
     /**
      * Generate directive
      *
@@ -24,6 +24,7 @@ import org.bonitasoft.web.designer.livebuild.PathListener;
 import org.bonitasoft.web.designer.livebuild.Watcher;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.widget.Widget;
+import org.bonitasoft.web.designer.rendering.DirectiveBundleCache;
 import org.bonitasoft.web.designer.rendering.TemplateEngine;
 import org.bonitasoft.web.designer.repository.BeanValidator;
 import org.bonitasoft.web.designer.repository.WidgetFileBasedLoader;
@@ -73,13 +74,16 @@ public class WidgetDirectiveBuilderTest {
 
     HtmlSanitizer htmlSanitizer = new HtmlSanitizer();
 
+    @Mock
+    DirectiveBundleCache bundleCache;
+
     TemplateEngine htmlBuilder = new TemplateEngine("widgetDirectiveTemplate.hbs.js");
 
     @Before
     public void setup() throws Exception {
         JsonHandler jsonHandler = new JsonHandlerFactory().create();
         final UiDesignerProperties uiDesignerProperties = new UiDesignerPropertiesBuilder().build();
-        widgetDirectiveBuilder = new WidgetDirectiveBuilder(watcher, new WidgetFileBasedLoader(jsonHandler), htmlSanitizer);
+        widgetDirectiveBuilder = new WidgetDirectiveBuilder(watcher, new WidgetFileBasedLoader(jsonHandler), htmlSanitizer, bundleCache);
 
         WidgetFileBasedLoader widgetLoader = new WidgetFileBasedLoader(jsonHandler);
         WorkspaceProperties workspaceProperties = new WorkspaceProperties();
@@ -150,6 +154,14 @@ public class WidgetDirectiveBuilderTest {
         assertThat(readDirective("pbInput")).isEqualTo(generateDirective(pbInput));
     }
 
+    @Test
+    public void should_drop_bundles_containing_a_rebuilt_directive() throws Exception {
+
+        widgetDirectiveBuilder.build(resolve("pbInput/pbInput.json"));
+
+        verify(bundleCache).invalidate(resolve("pbInput/pbInput.js"));
+    }
+
     @Test
     public void should_exclude_metadata_from_the_build() throws Exception {
 
@@ -113,6 +113,15 @@ public class WorkspaceInitializerTest {
         assertThat(workspace.initialized).isTrue();
     }
 
+    @Test
+    public void should_report_duration_of_each_initialization_step() throws Exception {
+        // When
+        workspace.initialize();
+        // Then
+        assertThat(workspace.getStartupTimings()).containsKeys("widgets", "fragments", "repositories", "clean pages");
+        assertThat(workspace.getStartupTimings().values()).allMatch(duration -> duration >= 0);
+    }
+
     @Test
     public void should_start_page_live_migration() throws Exception {
         // When
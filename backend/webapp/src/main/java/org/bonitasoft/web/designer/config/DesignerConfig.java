@@ -15,6 +15,9 @@
 package org.bonitasoft.web.designer.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.io.monitor.FileAlterationMonitor;
 import org.bonitasoft.web.designer.ArtifactBuilder;
@@ -23,6 +26,7 @@ import org.bonitasoft.web.designer.JsonHandlerFactory;
 import org.bonitasoft.web.designer.UiDesignerCore;
 import org.bonitasoft.web.designer.UiDesignerCoreFactory;
 import org.bonitasoft.web.designer.controller.asset.AssetService;
+import org.bonitasoft.web.designer.livebuild.DebouncedWatcher;
 import org.bonitasoft.web.designer.livebuild.Watcher;
 import org.bonitasoft.web.designer.model.JacksonJsonHandler;
 import org.bonitasoft.web.designer.model.JsonHandler;
@@ -94,6 +98,31 @@ public class DesignerConfig {
         return coreFactory.createWatcher(fileMonitor);
     }
 
+    /**
+     * Expose file change pipeline queue depth and lag through actuator metrics
+     */
+    @Bean
+    public MeterBinder watcherMetrics(Watcher watcher) {
+        return registry -> {
+            if (watcher instanceof DebouncedWatcher) {
+                var debouncedWatcher = (DebouncedWatcher) watcher;
+                Gauge.builder("designer.watcher.pending", debouncedWatcher, DebouncedWatcher::getPendingEvents)
+                        .description("Changed files waiting for their debounce delay to expire").register(registry);
+                Gauge.builder("designer.watcher.queued", debouncedWatcher, DebouncedWatcher::getQueuedBatches)
+                        .description("Batches of changed files waiting for a worker").register(registry);
+                Gauge.builder("designer.watcher.lag", debouncedWatcher, DebouncedWatcher::getLastLag)
+                        .description("Milliseconds between the first change of the last processed file and its processing")
+                        .baseUnit("milliseconds").register(registry);
+                FunctionCounter.builder("designer.watcher.events.received", debouncedWatcher, DebouncedWatcher::getReceivedEvents)
+                        .register(registry);
+                FunctionCounter.builder("designer.watcher.events.coalesced", debouncedWatcher, DebouncedWatcher::getCoalescedEvents)
+                        .register(registry);
+                FunctionCounter.builder("designer.watcher.events.processed", debouncedWatcher, DebouncedWatcher::getProcessedEvents)
+                        .register(registry);
+            }
+        };
+    }
+
     @Bean
     public ResourcesCopier resourcesCopier() {
         return new ResourcesCopier();
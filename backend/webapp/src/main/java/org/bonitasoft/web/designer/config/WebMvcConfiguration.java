@@ -37,6 +37,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
+import static org.bonitasoft.web.designer.controller.JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE;
 import static org.bonitasoft.web.designer.controller.preview.PreservingCookiePathProxyServlet.P_PORTAL_PASSWORD;
 import static org.bonitasoft.web.designer.controller.preview.PreservingCookiePathProxyServlet.P_PORTAL_USER;
 
@@ -66,7 +67,8 @@ public class WebMvcConfiguration implements WebMvcConfigurer {
     private UiDesignerProperties uiDesignerProperties;
 
     public static List<MediaType> supportedMediaTypes() {
-        return List.of(MediaType.APPLICATION_JSON_UTF8, new MediaType("text", "plain", StandardCharsets.UTF_8));
+        return List.of(MediaType.APPLICATION_JSON_UTF8, new MediaType("text", "plain", StandardCharsets.UTF_8),
+                MediaType.valueOf(APPLICATION_JSON_PATCH_VALUE));
     }
 
     /**
@@ -26,10 +26,11 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     public static final String PREVIEWABLE_UPDATE = "/previewableUpdates";
     public static final String PREVIEWABLE_REMOVAL = "/previewableRemoval";
+    public static final String MIGRATION_PROGRESS = "/migrationProgress";
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker(PREVIEWABLE_UPDATE, PREVIEWABLE_REMOVAL);
+        config.enableSimpleBroker(PREVIEWABLE_UPDATE, PREVIEWABLE_REMOVAL, MIGRATION_PROGRESS);
     }
 
     @Override
@@ -15,6 +15,7 @@
 package org.bonitasoft.web.designer.controller;
 
 import org.bonitasoft.web.designer.ArtifactBuilder;
+import org.bonitasoft.web.designer.controller.export.ExportArchive;
 import org.bonitasoft.web.designer.model.Identifiable;
 import org.bonitasoft.web.designer.model.ModelException;
 import org.bonitasoft.web.designer.service.FragmentService;
@@ -26,14 +27,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 import static java.lang.String.format;
 import static org.springframework.http.ContentDisposition.inline;
-import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
 
 @Controller
 public class ExportController {
@@ -55,39 +61,54 @@ public class ExportController {
     }
 
     @RequestMapping(value = "/export/page/{id}")
-    public ResponseEntity<?> handleFileExportPage(@PathVariable("id") String id) throws ModelException, IOException {
+    public ResponseEntity<StreamingResponseBody> handleFileExportPage(@PathVariable("id") String id, HttpServletRequest request)
+            throws ModelException, IOException {
         var artifact = pageService.get(id);
-        var zipContent = artifactBuilder.build(artifact);
+        var archive = artifactBuilder.export(artifact);
         var zipFileName = getZipFileName(artifact);
-        return sendFile(zipFileName, zipContent);
+        return sendFile(request, zipFileName, archive);
     }
 
 
     @RequestMapping(value = "/export/widget/{id}")
-    public ResponseEntity<?> handleFileExportWidget(@PathVariable("id") String id) throws ModelException, IOException {
+    public ResponseEntity<StreamingResponseBody> handleFileExportWidget(@PathVariable("id") String id, HttpServletRequest request)
+            throws ModelException, IOException {
         var artifact = widgetService.get(id);
-        var zipContent = artifactBuilder.build(artifact);
+        var archive = artifactBuilder.export(artifact);
         var zipFileName = getZipFileName(artifact);
-        return sendFile(zipFileName, zipContent);
+        return sendFile(request, zipFileName, archive);
     }
 
     @RequestMapping(value = "/export/fragment/{id}")
-    public ResponseEntity<?> handleFileExportFragment(@PathVariable("id") String id) throws ModelException, IOException {
+    public ResponseEntity<StreamingResponseBody> handleFileExportFragment(@PathVariable("id") String id, HttpServletRequest request)
+            throws ModelException, IOException {
         var artifact = fragmentService.get(id);
-        var zipContent = artifactBuilder.build(artifact);
+        var archive = artifactBuilder.export(artifact);
         var zipFileName = getZipFileName(artifact);
-        return sendFile(zipFileName, zipContent);
+        return sendFile(request, zipFileName, archive);
     }
 
-    private ResponseEntity<?> sendFile(String fileName, byte[] content) {
-        try {
-            var headers = new HttpHeaders();
-            headers.setContentDisposition(inline().filename(fileName).build());
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            return ResponseEntity.ok().headers(headers).body(content);
-        } catch (Exception e) {
-            return ResponseEntity.status(INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON_UTF8).body("Export failed. Check logs for more details");
-        }
+    /**
+     * Archive is fully built at this point, so streaming it can't end up in a partially sent zip because of an export error.
+     * It is released once sent, or when the request completes without the body being written (timeout, client gone...).
+     */
+    private ResponseEntity<StreamingResponseBody> sendFile(HttpServletRequest request, String fileName, ExportArchive archive) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(archive, new CallableProcessingInterceptor() {
+
+            @Override
+            public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) throws Exception {
+                archive.close();
+            }
+        });
+        var headers = new HttpHeaders();
+        headers.setContentDisposition(inline().filename(fileName).build());
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentLength(archive.size());
+        return ResponseEntity.ok().headers(headers).body(outputStream -> {
+            try (archive) {
+                archive.writeTo(outputStream);
+            }
+        });
     }
 
     protected String getZipFileName(Identifiable identifiable) {
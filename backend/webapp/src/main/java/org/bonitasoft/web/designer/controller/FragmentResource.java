@@ -14,8 +14,7 @@
  */
 package org.bonitasoft.web.designer.controller;
 
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.bonitasoft.web.designer.model.JsonHandler;
 import org.bonitasoft.web.designer.model.JsonViewLight;
 import org.bonitasoft.web.designer.model.ModelException;
@@ -23,16 +22,18 @@ import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.repository.exception.RepositoryException;
 import org.bonitasoft.web.designer.service.FragmentService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -45,6 +46,9 @@ import static java.lang.String.format;
 import static java.util.stream.Collectors.toList;
 import static org.bonitasoft.web.designer.config.WebSocketConfig.PREVIEWABLE_REMOVAL;
 import static org.bonitasoft.web.designer.config.WebSocketConfig.PREVIEWABLE_UPDATE;
+import static org.bonitasoft.web.designer.controller.JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE;
+import static org.bonitasoft.web.designer.controller.JsonPatchHelper.editorResponse;
+import static org.bonitasoft.web.designer.controller.JsonPatchHelper.withETag;
 import static org.bonitasoft.web.designer.controller.ResponseHeadersHelper.getMovedResourceResponse;
 import static org.springframework.http.HttpStatus.CREATED;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
@@ -76,41 +80,44 @@ public class FragmentResource {
 
     @PutMapping(value = "/{fragmentId}")
     public ResponseEntity<?> save(HttpServletRequest request, @PathVariable("fragmentId") String fragmentId, @RequestBody Fragment newFragment) throws RepositoryException {
-
-        Fragment savedFragment;
-        try {
-            savedFragment = fragmentService.save(fragmentId, newFragment);
-        } catch (ModelException e) {
-            return ResponseEntity.status(UNPROCESSABLE_ENTITY)
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .body(e.getMessage());
-        }
-
-        if (!fragmentId.equals(savedFragment.getId())) {
-            // Redirect to new fragment location
-            messagingTemplate.convertAndSend(PREVIEWABLE_REMOVAL, fragmentId);
-            return getMovedResourceResponse(request, savedFragment.getId());
-        } else {
-            messagingTemplate.convertAndSend(PREVIEWABLE_UPDATE, fragmentId);
-            return ResponseEntity.ok().build();
-        }
-    }
-
-    @PutMapping(value = "/{fragmentId}/name")
-    public ResponseEntity<?> rename(HttpServletRequest request, @PathVariable("fragmentId") String fragmentId, @RequestBody String name) throws RepositoryException {
-        var fragment = fragmentService.get(fragmentId);
-        if (!name.equals(fragment.getName())) {
+        return JsonPatchHelper.<ResponseEntity<?>, RuntimeException>locked("fragment", fragmentId, () -> {
+            Fragment savedFragment;
             try {
-                var savedFragment = fragmentService.rename(fragment, name);
-                // Redirect to new fragment location
-                return getMovedResourceResponse(request, savedFragment.getId(), "/name");
+                savedFragment = fragmentService.save(fragmentId, newFragment);
             } catch (ModelException e) {
                 return ResponseEntity.status(UNPROCESSABLE_ENTITY)
                         .contentType(MediaType.TEXT_PLAIN)
                         .body(e.getMessage());
             }
-        }
-        return ResponseEntity.ok().build();
+
+            if (!fragmentId.equals(savedFragment.getId())) {
+                // Redirect to new fragment location
+                messagingTemplate.convertAndSend(PREVIEWABLE_REMOVAL, fragmentId);
+                return getMovedResourceResponse(request, savedFragment.getId());
+            } else {
+                messagingTemplate.convertAndSend(PREVIEWABLE_UPDATE, fragmentId);
+                return ResponseEntity.ok().build();
+            }
+        });
+    }
+
+    @PutMapping(value = "/{fragmentId}/name")
+    public ResponseEntity<?> rename(HttpServletRequest request, @PathVariable("fragmentId") String fragmentId, @RequestBody String name) throws RepositoryException {
+        return JsonPatchHelper.<ResponseEntity<?>, RuntimeException>locked("fragment", fragmentId, () -> {
+            var fragment = fragmentService.get(fragmentId);
+            if (!name.equals(fragment.getName())) {
+                try {
+                    var savedFragment = fragmentService.rename(fragment, name);
+                    // Redirect to new fragment location
+                    return getMovedResourceResponse(request, savedFragment.getId(), "/name");
+                } catch (ModelException e) {
+                    return ResponseEntity.status(UNPROCESSABLE_ENTITY)
+                            .contentType(MediaType.TEXT_PLAIN)
+                            .body(e.getMessage());
+                }
+            }
+            return ResponseEntity.ok().build();
+        });
     }
 
     @GetMapping
@@ -119,14 +126,12 @@ public class FragmentResource {
             @RequestParam(value = "notUsedBy", required = false) String fragmentId)
             throws RepositoryException, IOException {
 
-        var fragments = fragmentService.getAllNotUsingFragment(fragmentId);
-
         String json;
         if ("light".equals(view)) {
-            json = jsonHandler.toJsonString(fragments, JsonViewLight.class);
+            json = jsonHandler.toJsonString(fragmentService.getAllLightNotUsingFragment(fragmentId), JsonViewLight.class);
         } else {
             json = jsonHandler.toJsonString(
-                    fragments.stream().map(fragment -> {
+                    fragmentService.getAllNotUsingFragment(fragmentId).stream().map(fragment -> {
                         fragment.setAssets(fragmentService.listAsset(fragment));
                         return fragment;
                     }).collect(toList())
@@ -139,23 +144,50 @@ public class FragmentResource {
     }
 
     @GetMapping(value = "/{fragmentId}")
-    public ResponseEntity<?> get(@PathVariable("fragmentId") String fragmentId) throws NotFoundException, RepositoryException {
+    public ResponseEntity<?> get(@PathVariable("fragmentId") String fragmentId) throws NotFoundException, RepositoryException, IOException {
 
         //@TODO Why don't we use "getWithAsset"? Possible side effect?
         var fragment = fragmentService.get(fragmentId);
 
         if (fragment.getStatus() != null && !fragment.getStatus().isCompatible()) {
-            return ResponseEntity.status(UNPROCESSABLE_ENTITY)
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .body(format("Fragment %s is in an incompatible version. Newer UI Designer version is required.", fragmentId));
+            return incompatibleFragmentResponse(fragmentId);
         }
         fragment.setAssets(fragmentService.listAsset(fragment));
+        return editorResponse(jsonHandler, fragment);
+    }
+
+    /**
+     * Apply a JSON patch to a fragment, as sent by {@link #get(String)}. The If-Match header must hold the ETag of the
+     * fragment the patch was built against.
+     */
+    @PatchMapping(value = "/{fragmentId}", consumes = APPLICATION_JSON_PATCH_VALUE)
+    public ResponseEntity<?> patch(HttpServletRequest request, @PathVariable("fragmentId") String fragmentId,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                   @RequestBody JsonNode patch) throws RepositoryException, IOException {
+        return JsonPatchHelper.<ResponseEntity<?>, IOException>locked("fragment", fragmentId, () -> {
+            var fragment = fragmentService.get(fragmentId);
+
+            if (fragment.getStatus() != null && !fragment.getStatus().isCompatible()) {
+                return incompatibleFragmentResponse(fragmentId);
+            }
+            fragment.setAssets(fragmentService.listAsset(fragment));
+
+            var patched = JsonPatchHelper.patch(jsonHandler, fragment, ifMatch, patch, Fragment.class);
+            // saving only keeps the fragment own assets, while the editor representation holds all of them
+            var assets = patched.getAssets();
+            var response = save(request, fragmentId, patched);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            patched.setAssets(assets);
+            return withETag(response, jsonHandler, patched);
+        });
+    }
 
-        var filters = new SimpleFilterProvider()
-                .addFilter("valueAsArray", SimpleBeanPropertyFilter.serializeAllExcept("value"));
-        var mapping = new MappingJacksonValue(fragment);
-        mapping.setFilters(filters);
-        return ResponseEntity.ok(mapping);
+    private ResponseEntity<String> incompatibleFragmentResponse(String fragmentId) {
+        return ResponseEntity.status(UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(format("Fragment %s is in an incompatible version. Newer UI Designer version is required.", fragmentId));
     }
 
     @GetMapping(value = "/info/{fragmentId}")
@@ -165,12 +197,18 @@ public class FragmentResource {
 
     @DeleteMapping(value = "/{fragmentId}")
     public void delete(@PathVariable("fragmentId") String fragmentId) throws RepositoryException {
-        fragmentService.delete(fragmentId);
+        JsonPatchHelper.<Void, RuntimeException>locked("fragment", fragmentId, () -> {
+            fragmentService.delete(fragmentId);
+            return null;
+        });
     }
 
     @PutMapping(value = "/{fragmentId}/favorite")
     public void favorite(@PathVariable("fragmentId") String pageId, @RequestBody Boolean favorite) throws
             RepositoryException {
-        fragmentService.markAsFavorite(pageId, favorite);
+        JsonPatchHelper.<Void, RuntimeException>locked("fragment", pageId, () -> {
+            fragmentService.markAsFavorite(pageId, favorite);
+            return null;
+        });
     }
 }
@@ -0,0 +1,136 @@
+/**
+ * Copyright (C) 2015 Bonitasoft S.A.
+ * Bonitasoft, 32 rue Gustave Eiffel - 38000 Grenoble
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2.0 of the License, or
+ * (at your option) any later version.
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU General Public License for more details.
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.bonitasoft.web.designer.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.bonitasoft.web.designer.model.JsonHandler;
+import org.bonitasoft.web.designer.model.JsonPatch;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
+import static org.springframework.http.HttpStatus.PRECONDITION_REQUIRED;
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * Editor representation of the artifacts, versioned with an ETag, and incremental edition of this representation
+ * through JSON patches
+ */
+public class JsonPatchHelper {
+
+    public static final String APPLICATION_JSON_PATCH_VALUE = "application/json-patch+json";
+
+    /**
+     * Locks serializing the writes of a same artifact, striped so that their number stays bounded
+     */
+    private static final Object[] LOCKS = new Object[64];
+
+    static {
+        for (var i = 0; i < LOCKS.length; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    @FunctionalInterface
+    public interface LockedAction<R, E extends Exception> {
+        R run() throws E;
+    }
+
+    private JsonPatchHelper() {
+        // Utility class
+    }
+
+    /**
+     * Filters applied to the artifacts sent to the editor, variables value being exposed through their display value
+     */
+    public static FilterProvider editorFilters() {
+        return new SimpleFilterProvider()
+                .addFilter("valueAsArray", SimpleBeanPropertyFilter.serializeAllExcept("value"));
+    }
+
+    public static byte[] toEditorJson(JsonHandler jsonHandler, Object artifact) throws IOException {
+        return jsonHandler.toJson(artifact, editorFilters());
+    }
+
+    public static String eTag(byte[] json) {
+        return "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+    }
+
+    /**
+     * Editor representation of an artifact along with its ETag
+     */
+    public static ResponseEntity<String> editorResponse(JsonHandler jsonHandler, Object artifact) throws IOException {
+        var json = toEditorJson(jsonHandler, artifact);
+        return ResponseEntity.ok().eTag(eTag(json)).contentType(MediaType.APPLICATION_JSON_UTF8).body(new String(json, UTF_8));
+    }
+
+    /**
+     * Add the ETag of the given artifact editor representation to a response
+     */
+    public static ResponseEntity<?> withETag(ResponseEntity<?> response, JsonHandler jsonHandler, Object artifact) throws IOException {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .eTag(eTag(toEditorJson(jsonHandler, artifact)))
+                .body(response.getBody());
+    }
+
+    /**
+     * Apply a JSON patch to the editor representation of an artifact, provided that the representation the patch was
+     * built against, identified by the If-Match header, is still the current one
+     */
+    public static <T> T patch(JsonHandler jsonHandler, T artifact, String ifMatch, JsonNode patch, Class<T> type) throws IOException {
+        if (!hasText(ifMatch)) {
+            throw new PreconditionException(PRECONDITION_REQUIRED, "An If-Match header is required to patch an artifact");
+        }
+        var operations = JsonPatch.of(patch);
+        var json = toEditorJson(jsonHandler, artifact);
+        var eTag = eTag(json);
+        if (!matches(ifMatch, eTag)) {
+            throw new PreconditionException(PRECONDITION_FAILED, format("Artifact has been modified, its version is now %s", eTag));
+        }
+        var patched = operations.apply(jsonHandler.toJsonTree(json));
+        try {
+            return jsonHandler.fromJson(patched, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Patched artifact is not valid: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Run the given action holding the lock of an artifact. Every write of an artifact takes it, so that the If-Match
+     * check of a patch and the save of the patched artifact are never interleaved with another write of the same artifact.
+     */
+    public static <R, E extends Exception> R locked(String type, String id, LockedAction<R, E> action) throws E {
+        synchronized (LOCKS[Math.floorMod((type + "/" + id).hashCode(), LOCKS.length)]) {
+            return action.run();
+        }
+    }
+
+    private static boolean matches(String ifMatch, String eTag) {
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> "*".equals(candidate) || eTag.equals(candidate));
+    }
+}
@@ -17,6 +17,8 @@ package org.bonitasoft.web.designer.controller;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
+import org.bonitasoft.web.designer.migration.MigrationPlan;
+import org.bonitasoft.web.designer.migration.MigrationPlanner;
 import org.bonitasoft.web.designer.migration.Version;
 import org.bonitasoft.web.designer.model.DesignerArtifact;
 import org.bonitasoft.web.designer.model.migrationReport.MigrationReport;
@@ -34,6 +36,7 @@ import org.bonitasoft.web.designer.workspace.Workspace;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -46,6 +49,8 @@ import org.springframework.web.bind.annotation.RestController;
 import javax.inject.Inject;
 import java.io.IOException;
 
+import static org.bonitasoft.web.designer.config.WebSocketConfig.MIGRATION_PROGRESS;
+
 @RestController
 @RequestMapping("/rest/migration")
 public class MigrationResource {
@@ -59,11 +64,14 @@ public class MigrationResource {
     private final PageService pageService;
     private final WidgetService widgetService;
     private final UiDesignerProperties uiDesignerProperties;
+    private final MigrationPlanner migrationPlanner;
+    private final SimpMessagingTemplate messagingTemplate;
 
     @Inject
     public MigrationResource(
             Workspace workspace, PageRepository pageRepository, WidgetRepository widgetRepository,
-            FragmentRepository fragmentRepository, PageService pageService, WidgetService widgetService, FragmentService fragmentService, UiDesignerProperties uiDesignerProperties) {
+            FragmentRepository fragmentRepository, PageService pageService, WidgetService widgetService, FragmentService fragmentService, UiDesignerProperties uiDesignerProperties,
+            MigrationPlanner migrationPlanner, SimpMessagingTemplate messagingTemplate) {
         this.workspace = workspace;
         this.pageRepository = pageRepository;
         this.widgetRepository = widgetRepository;
@@ -72,6 +80,8 @@ public class MigrationResource {
         this.widgetService = widgetService;
         this.fragmentService = fragmentService;
         this.uiDesignerProperties = uiDesignerProperties;
+        this.migrationPlanner = migrationPlanner;
+        this.messagingTemplate = messagingTemplate;
     }
 
     public static ResponseEntity<MigrationReport> migrateArtifact(String artifactId, DesignerArtifact designerArtifact, ArtifactService service) {
@@ -120,10 +130,16 @@ public class MigrationResource {
     @PostMapping
     @ResponseBody
     public String migrate() {
-        workspace.migrateWorkspace();
+        // Progress of the migration, artifact per artifact, is sent to the clients listening to MIGRATION_PROGRESS
+        workspace.migrateWorkspace(progress -> messagingTemplate.convertAndSend(MIGRATION_PROGRESS, progress));
         return "Migration has been triggered.";
     }
 
+    @GetMapping(value = "/plan", produces = MediaType.APPLICATION_JSON_VALUE)
+    public MigrationPlan plan() {
+        return migrationPlanner.plan();
+    }
+
     @PutMapping(value = "/page/{pageId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<MigrationReport> migratePage(@PathVariable("pageId") String pageId) throws RepositoryException {
         var page = pageRepository.get(pageId);
@@ -15,9 +15,7 @@
 package org.bonitasoft.web.designer.controller;
 
 import com.fasterxml.jackson.annotation.JsonView;
-import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.bonitasoft.web.designer.generator.mapping.ContractToPageMapper;
 import org.bonitasoft.web.designer.generator.mapping.FormScope;
 import org.bonitasoft.web.designer.model.JsonHandler;
@@ -31,17 +29,19 @@ import org.bonitasoft.web.designer.service.PageService;
 import org.bonitasoft.web.designer.service.exception.IncompatibleException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -49,12 +49,16 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 
 import static org.bonitasoft.web.designer.config.WebSocketConfig.PREVIEWABLE_REMOVAL;
 import static org.bonitasoft.web.designer.config.WebSocketConfig.PREVIEWABLE_UPDATE;
+import static org.bonitasoft.web.designer.controller.JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE;
+import static org.bonitasoft.web.designer.controller.JsonPatchHelper.editorResponse;
+import static org.bonitasoft.web.designer.controller.JsonPatchHelper.withETag;
 import static org.bonitasoft.web.designer.controller.ResponseHeadersHelper.getMovedResourceResponse;
 import static org.springframework.util.StringUtils.hasText;
 
@@ -80,7 +84,7 @@ public class PageResource extends AssetResource<Page, PageService> {
     @GetMapping
     @JsonView(JsonViewLight.class)
     public List<Page> list() throws RepositoryException {
-        return service.getAll();
+        return service.getAllLight();
     }
 
     @PostMapping
@@ -111,69 +115,99 @@ public class PageResource extends AssetResource<Page, PageService> {
 
     @PutMapping(value = "/{pageId}")
     public ResponseEntity<?> save(HttpServletRequest request, @PathVariable("pageId") String pageId, @RequestBody Page page) throws RepositoryException {
-        try {
-            var savedPage = service.save(pageId, page);
-
-            if (!savedPage.getId().equals(pageId)) {
-                // send notification of removal
-                messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_REMOVAL, pageId));
-                return getMovedResourceResponse(request, savedPage.getId());
-            } else {
-                // send notification of update
-                messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_UPDATE, pageId));
-                return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).build();
+        return JsonPatchHelper.<ResponseEntity<?>, RuntimeException>locked("page", pageId, () -> {
+            try {
+                var savedPage = service.save(pageId, page);
+
+                if (!savedPage.getId().equals(pageId)) {
+                    // send notification of removal
+                    messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_REMOVAL, pageId));
+                    return getMovedResourceResponse(request, savedPage.getId());
+                } else {
+                    // send notification of update
+                    messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_UPDATE, pageId));
+                    return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).build();
+                }
+
+            } catch (IncompatibleException e) {
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .body(e.getMessage());
             }
-
-        } catch (IncompatibleException e) {
-            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .body(e.getMessage());
-        }
+        });
     }
 
     @PutMapping(value = "/{pageId}/name")
     public ResponseEntity<?> rename(HttpServletRequest request, @PathVariable("pageId") String pageId, @RequestBody String name) throws RepositoryException {
+        return JsonPatchHelper.<ResponseEntity<?>, RuntimeException>locked("page", pageId, () -> {
+            var page = service.get(pageId);
 
-        var page = service.get(pageId);
-
-        if (!page.isCompatible()) {
-            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .body("Page " + page.getId() + " is in an incompatible version. Newer UI Designer version is required.");
-        }
+            if (!page.isCompatible()) {
+                return incompatiblePageResponse(page);
+            }
 
-        if (!page.getName().equals(name)) {
-            var renamedPage = service.rename(pageId, name);
-            // send notification of removal
-            messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_REMOVAL, pageId));
-            return getMovedResourceResponse(request, renamedPage.getId(), "/name");
-        }
+            if (!page.getName().equals(name)) {
+                var renamedPage = service.rename(pageId, name);
+                // send notification of removal
+                messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_REMOVAL, pageId));
+                return getMovedResourceResponse(request, renamedPage.getId(), "/name");
+            }
 
-        return ResponseEntity.ok().build();
+            return ResponseEntity.ok().build();
+        });
     }
 
     @PutMapping(value = "/{pageId}/favorite")
     public void favorite(@PathVariable("pageId") String pageId, @RequestBody boolean favorite)
             throws RepositoryException {
-        service.markAsFavorite(pageId, favorite);
+        JsonPatchHelper.<Void, RuntimeException>locked("page", pageId, () -> {
+            service.markAsFavorite(pageId, favorite);
+            return null;
+        });
     }
 
     @GetMapping(value = "/{pageId}")
-    public ResponseEntity<?> get(@PathVariable("pageId") String pageId) throws NotFoundException, RepositoryException {
+    public ResponseEntity<?> get(@PathVariable("pageId") String pageId) throws NotFoundException, RepositoryException, IOException {
         var page = service.getWithAsset(pageId);
 
         if (!page.isCompatible()) {
-            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
-                    .contentType(MediaType.TEXT_PLAIN)
-                    .body("Page " + page.getId() + " is in an incompatible version. Newer UI Designer version is required.");
+            return incompatiblePageResponse(page);
         }
 
-        FilterProvider filters = new SimpleFilterProvider()
-                .addFilter("valueAsArray", SimpleBeanPropertyFilter.serializeAllExcept("value"));
-        var mapping = new MappingJacksonValue(page);
-        mapping.setFilters(filters);
+        return editorResponse(jsonHandler, page);
+    }
 
-        return ResponseEntity.ok(mapping);
+    /**
+     * Apply a JSON patch to a page, as sent by {@link #get(String)}. The If-Match header must hold the ETag of the page
+     * the patch was built against.
+     */
+    @PatchMapping(value = "/{pageId}", consumes = APPLICATION_JSON_PATCH_VALUE)
+    public ResponseEntity<?> patch(HttpServletRequest request, @PathVariable("pageId") String pageId,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                   @RequestBody JsonNode patch) throws RepositoryException, IOException {
+        return JsonPatchHelper.<ResponseEntity<?>, IOException>locked("page", pageId, () -> {
+            var page = service.getWithAsset(pageId);
+
+            if (!page.isCompatible()) {
+                return incompatiblePageResponse(page);
+            }
+
+            var patched = JsonPatchHelper.patch(jsonHandler, page, ifMatch, patch, Page.class);
+            // saving only keeps the page own assets, while the editor representation holds all of them
+            var assets = patched.getAssets();
+            var response = save(request, pageId, patched);
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                return response;
+            }
+            patched.setAssets(assets);
+            return withETag(response, jsonHandler, patched);
+        });
+    }
+
+    private ResponseEntity<String> incompatiblePageResponse(Page page) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body("Page " + page.getId() + " is in an incompatible version. Newer UI Designer version is required.");
     }
 
     @GetMapping(value = "/info/{pageId}")
@@ -183,9 +217,12 @@ public class PageResource extends AssetResource<Page, PageService> {
 
     @DeleteMapping(value = "/{pageId}")
     public void delete(@PathVariable("pageId") String pageId) throws RepositoryException {
-        service.delete(pageId);
-        // send notification of removal
-        messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_REMOVAL, pageId));
+        JsonPatchHelper.<Void, RuntimeException>locked("page", pageId, () -> {
+            service.delete(pageId);
+            // send notification of removal
+            messagingTemplate.ifPresent(template -> template.convertAndSend(PREVIEWABLE_REMOVAL, pageId));
+            return null;
+        });
     }
 
     @GetMapping(value = "/{pageId}/resources")
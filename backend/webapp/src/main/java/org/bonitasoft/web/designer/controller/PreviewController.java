@@ -19,15 +19,16 @@ import org.bonitasoft.web.designer.config.WorkspaceProperties;
 import org.bonitasoft.web.designer.config.WorkspaceUidProperties;
 import org.bonitasoft.web.designer.controller.utils.HttpFile;
 import org.bonitasoft.web.designer.rendering.GenerationException;
-import org.bonitasoft.web.designer.repository.FragmentRepository;
-import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.rendering.PreviewHtml;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import javax.inject.Inject;
 import javax.servlet.ServletException;
@@ -49,8 +50,6 @@ public class PreviewController {
 
     protected static final Logger logger = LoggerFactory.getLogger(PreviewController.class);
 
-    private final PageRepository pageRepository;
-
     private final ArtifactBuilder artifactBuilder;
 
     private final Path widgetRepositoryPath;
@@ -61,15 +60,9 @@ public class PreviewController {
 
     private final WorkspaceUidProperties workspaceUidProperties;
 
-    private final FragmentRepository fragmentRepository;
-
     @Inject
-    public PreviewController(PageRepository pageRepository,
-                             FragmentRepository fragmentRepository,
-                             ArtifactBuilder artifactBuilder,
+    public PreviewController(ArtifactBuilder artifactBuilder,
                              WorkspaceProperties workspaceProperties, WorkspaceUidProperties workspaceUidProperties) {
-        this.pageRepository = pageRepository;
-        this.fragmentRepository = fragmentRepository;
         this.artifactBuilder = artifactBuilder;
 
         this.widgetRepositoryPath = workspaceProperties.getWidgets().getDir();
@@ -86,6 +79,18 @@ public class PreviewController {
         return isEmpty(contextPath) ? "/runtime/" : contextPath + "/runtime/";
     }
 
+    /**
+     * Answers with the preview html, or with a 304 when the browser already holds the same version
+     */
+    private ResponseEntity<String> previewResponse(PreviewHtml preview, HttpServletRequest httpServletRequest) {
+        var eTag = "\"" + preview.getHash() + "\"";
+        // Spring handles weak validators, lists of entity tags and wildcards
+        if (new ServletWebRequest(httpServletRequest).checkNotModified(eTag)) {
+            return ResponseEntity.status(NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(preview.getHtml());
+    }
+
     /**
      * Send redirect to the Rest API
      */
@@ -112,9 +117,8 @@ public class PreviewController {
         }
         try {
             var resourceContext = getResourceContext(httpServletRequest);
-            var page = pageRepository.get(id);
-            var html = artifactBuilder.buildHtml(page, resourceContext);
-            return ResponseEntity.ok(html);
+            var preview = artifactBuilder.buildPagePreview(id, resourceContext);
+            return previewResponse(preview, httpServletRequest);
         } catch (GenerationException e) {
             var message = "Error during page generation";
             logger.error(message, e);
@@ -152,9 +156,8 @@ public class PreviewController {
         }
         try {
             var resourceContext = getResourceContext(httpServletRequest);
-            var fragment = fragmentRepository.get(id);
-            var html = artifactBuilder.buildHtml(fragment, resourceContext);
-            return ResponseEntity.ok(html);
+            var preview = artifactBuilder.buildFragmentPreview(id, resourceContext);
+            return previewResponse(preview, httpServletRequest);
         } catch (GenerationException e) {
             var message = "Error during fragment generation";
             logger.error(message, e);
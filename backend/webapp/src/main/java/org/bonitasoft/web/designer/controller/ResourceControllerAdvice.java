@@ -16,6 +16,7 @@ package org.bonitasoft.web.designer.controller;
 
 import org.bonitasoft.web.designer.controller.asset.MalformedJsonException;
 import org.bonitasoft.web.designer.controller.importer.ImportException;
+import org.bonitasoft.web.designer.model.JsonPatchException;
 import org.bonitasoft.web.designer.repository.exception.ConstraintValidationException;
 import org.bonitasoft.web.designer.repository.exception.InUseException;
 import org.bonitasoft.web.designer.repository.exception.NotAllowedException;
@@ -87,6 +88,18 @@ public class ResourceControllerAdvice implements BonitaExceptionHandler {
         return ResponseEntity.status(CONFLICT).body(new ErrorMessage(exception));
     }
 
+    @ExceptionHandler(PreconditionException.class)
+    public ResponseEntity<ErrorMessage> handlePreconditionException(PreconditionException exception) {
+        logger.warn("Precondition Exception: {}", exception.getMessage());
+        return ResponseEntity.status(exception.getStatus()).body(new ErrorMessage(exception));
+    }
+
+    @ExceptionHandler(JsonPatchException.class)
+    public ResponseEntity<ErrorMessage> handleJsonPatchException(JsonPatchException exception) {
+        logger.warn("JSON Patch Exception: {}", exception.getMessage());
+        return ResponseEntity.status(CONFLICT).body(new ErrorMessage(exception));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<ErrorMessage> handleRepositoryException(RuntimeException exception) {
         logger.error("Internal Exception", exception);
@@ -63,7 +63,7 @@ public class WidgetResource extends AssetResource<Widget, WidgetService> {
 
         byte[] json;
         if ("light".equals(view)) {
-            var widgets = service.getAllWithUsedBy();
+            var widgets = service.getAllLight();
             json = jsonHandler.toJson(widgets, JsonViewLight.class);
         } else {
             var widgets = service.getAll();
@@ -14,6 +14,7 @@
  */
 package org.bonitasoft.web.designer.controller;
 
+import org.bonitasoft.web.designer.repository.FragmentRepository;
 import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.workspace.Workspace;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -28,10 +29,12 @@ public class WorkspaceResource {
 
     private final Workspace workspace;
     private final PageRepository pageRepository;
+    private final FragmentRepository fragmentRepository;
 
     @Inject
-    public WorkspaceResource(PageRepository pageRepository, Workspace workspace) {
+    public WorkspaceResource(PageRepository pageRepository, FragmentRepository fragmentRepository, Workspace workspace) {
         this.pageRepository = pageRepository;
+        this.fragmentRepository = fragmentRepository;
         this.workspace = workspace;
     }
 
@@ -39,6 +42,7 @@ public class WorkspaceResource {
     public String indexing() {
         var pages = pageRepository.getAll();
         workspace.indexingArtifacts(pages);
+        fragmentRepository.refreshUsageIndex();
         return "Workspace Indexing has been triggered.";
     }
 }
@@ -20,14 +20,46 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import static java.nio.file.Files.exists;
 
+/**
+ * Serve workspace files over HTTP.
+ * <p>
+ * Files served for the preview are revalidated on each request through a strong ETag and their last modification
+ * date, and only sent again when they changed. Files named after a hash of their content, like the widgets bundles
+ * or the assets requested with a <code>hash</code> parameter, are cached by browsers for good. A single byte range
+ * of a file can be requested, and when the servlet container supports it, files are sent by the container itself
+ * without being copied through the application. Files written with a gzipped copy next to them, like the widgets
+ * bundles, are sent compressed to the clients accepting it.
+ */
 public final class HttpFile {
 
+    /**
+     * Widgets bundles named after the sha1 of their content
+     */
+    private static final Pattern HASH_NAMED_FILE = Pattern.compile("^widgets-[0-9a-f]{40}\\.min\\.js$");
+    private static final Pattern BYTE_RANGE = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+
+    // Attributes of the Tomcat sendfile support, see org.apache.catalina.servlets.DefaultServlet
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private HttpFile() {
         // Utility class
     }
@@ -41,7 +73,7 @@ public final class HttpFile {
         if (mimeType == null || !mimeType.contains("image")) {
             mimeType = MediaType.TEXT_PLAIN_VALUE;
         }
-        writeFileInResponse(response, filePath, mimeType, "inline");
+        writeFileInResponse(request, response, filePath, mimeType, "inline");
     }
 
     public static void writeFileInResponseForDownload(HttpServletResponse response, Path filePath) throws IOException {
@@ -57,7 +89,95 @@ public final class HttpFile {
             response.sendError(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
-        writeFileInResponse(response, filePath, request.getServletContext().getMimeType(filePath.getFileName().toString()), "inline");
+        writeFileInResponse(request, response, filePath, request.getServletContext().getMimeType(filePath.getFileName().toString()), "inline");
+    }
+
+    /**
+     * Write caching headers and either a 304 (not modified), the requested range of the file or the whole file. The
+     * gzipped variant of the file is sent instead when there is one and the client accepts it.
+     */
+    private static void writeFileInResponse(HttpServletRequest request, HttpServletResponse response, Path filePath, String mimeType,
+                                            String contentDispositionType) throws IOException {
+        var servedPath = filePath;
+        var gzipped = gzippedVariant(filePath);
+        if (gzipped != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+            if (acceptsGzip(request)) {
+                response.setHeader("Content-Encoding", "gzip");
+                servedPath = gzipped;
+            }
+        }
+
+        var attributes = Files.readAttributes(servedPath, BasicFileAttributes.class);
+        var size = attributes.size();
+        // HTTP dates have a precision of one second
+        var lastModified = TimeUnit.SECONDS.toMillis(attributes.lastModifiedTime().to(TimeUnit.SECONDS));
+        var eTag = eTag(attributes);
+
+        response.setHeader("ETag", eTag);
+        response.setDateHeader("Last-Modified", lastModified);
+        response.setHeader("Cache-Control", isImmutable(request, filePath) ? IMMUTABLE : REVALIDATE);
+        response.setHeader("Accept-Ranges", "bytes");
+
+        if (isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        var start = 0L;
+        var end = size - 1;
+        var range = request.getHeader("Range");
+        if (range != null && isRangeApplicable(request, eTag, lastModified)) {
+            var matcher = BYTE_RANGE.matcher(range.trim());
+            // Several ranges are not supported, the whole file is sent instead as allowed by RFC 7233
+            if (matcher.matches()) {
+                var first = matcher.group(1);
+                var last = matcher.group(2);
+                if (first.isEmpty()) {
+                    // suffix range: the last bytes of the file
+                    start = last.isEmpty() ? size : Math.max(0, size - parseLong(last));
+                } else {
+                    start = parseLong(first);
+                    end = last.isEmpty() ? size - 1 : Math.min(parseLong(last), size - 1);
+                }
+                if (start < 0 || start > end) {
+                    response.setHeader("Content-Range", "bytes */" + size);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        response.setHeader("Content-Type", mimeType);
+        response.setHeader("Content-Length", String.valueOf(end - start + 1));
+        response.setHeader("Content-Disposition", contentDispositionType +
+                "; filename=\"" +
+                filePath.getFileName() +
+                "\"");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.toString());
+        if ("HEAD".equals(request.getMethod()) || end < start) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, servedPath.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(servedPath, StandardOpenOption.READ);
+             OutputStream out = response.getOutputStream()) {
+            var target = Channels.newChannel(out);
+            var position = start;
+            while (position <= end) {
+                var transferred = channel.transferTo(position, end - position + 1, target);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
     }
 
     /**
@@ -100,6 +220,98 @@ public final class HttpFile {
         }
     }
 
+    /**
+     * Strong ETag from the size, the modification date and, when the file system has one, the inode of the file
+     */
+    static String eTag(BasicFileAttributes attributes) {
+        var eTag = Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+        if (attributes.fileKey() != null) {
+            eTag += "-" + Integer.toHexString(attributes.fileKey().hashCode());
+        }
+        return "\"" + eTag + "\"";
+    }
+
+    /**
+     * Gzipped copy of the file written along with it, if it is up to date
+     */
+    private static Path gzippedVariant(Path filePath) throws IOException {
+        var gzipped = filePath.resolveSibling(filePath.getFileName() + ".gz");
+        if (Files.isRegularFile(gzipped)
+                && Files.getLastModifiedTime(gzipped).compareTo(Files.getLastModifiedTime(filePath)) >= 0) {
+            return gzipped;
+        }
+        return null;
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        var acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (var coding : acceptEncoding.split(",")) {
+            var parts = coding.trim().split(";");
+            var name = parts[0].trim();
+            var accepted = parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            if (name.equalsIgnoreCase("gzip")) {
+                // an explicit coding takes precedence over the wildcard, wherever it is in the header
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static boolean isImmutable(HttpServletRequest request, Path filePath) {
+        return request.getParameter("hash") != null || HASH_NAMED_FILE.matcher(filePath.getFileName().toString()).matches();
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        var ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-Modified-Since is ignored when If-None-Match is present
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag) || candidate.equals("W/" + eTag));
+        }
+        var ifModifiedSince = dateHeader(request, "If-Modified-Since");
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * A range is only sent when the client did not ask for it on condition the file is still the one it knows
+     */
+    private static boolean isRangeApplicable(HttpServletRequest request, String eTag, long lastModified) {
+        var ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.trim().startsWith("\"")) {
+            return ifRange.trim().equals(eTag);
+        }
+        return dateHeader(request, "If-Range") == lastModified;
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            // Malformed dates are ignored
+            return -1;
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // Too big to be a position in the file
+            return Long.MAX_VALUE;
+        }
+    }
+
     private static boolean notPathExists(Path filePath) {
         return filePath == null || !exists(filePath);
     }
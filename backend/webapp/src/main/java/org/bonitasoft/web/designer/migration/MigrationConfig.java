@@ -43,5 +43,11 @@ public class MigrationConfig {
         return new LiveRepositoryUpdate<>(widgetRepository, uiDesignerCore.getWidgetMigrationStepsList());
     }
 
+    @Bean
+    public MigrationPlanner migrationPlanner(WidgetRepository widgetRepository, FragmentRepository fragmentRepository, UiDesignerCore uiDesignerCore) {
+        return new MigrationPlanner(widgetRepository, fragmentRepository, uiDesignerCore.getWidgetService(), uiDesignerCore.getFragmentService(), uiDesignerCore.getPageService(),
+                uiDesignerCore.getWidgetMigrationStepsList(), uiDesignerCore.getFragmentMigrationStepsList(), uiDesignerCore.getPageMigrationStepsList());
+    }
+
 
 }
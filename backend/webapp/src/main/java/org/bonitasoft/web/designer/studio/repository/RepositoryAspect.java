@@ -17,7 +17,7 @@ package org.bonitasoft.web.designer.studio.repository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
@@ -34,6 +34,9 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.springframework.util.StringUtils.hasText;
 
@@ -60,20 +63,50 @@ public class RepositoryAspect {
         }
     }
 
-    @After("execution(* org.bonitasoft.web.designer.repository.Repository+.updateLastUpdateAndSave(..)) ")
-    public void postSaveAndUpdateDate(JoinPoint joinPoint) {
+    @Around("execution(* org.bonitasoft.web.designer.repository.Repository+.updateLastUpdateAndSave(..)) ")
+    public Object postSaveAndUpdateDate(ProceedingJoinPoint joinPoint) throws Throwable {
+        var repository = (AbstractRepository<?>) joinPoint.getThis();
+        var id = artifactId(joinPoint);
+        var writeCount = repository.getWriteCount(id);
+        var saved = joinPoint.proceed();
+        // a component saved unchanged is not written, there is nothing to synchronize
+        if (repository.getWriteCount(id) != writeCount) {
+            postSave(repository, id);
+        }
+        return saved;
+    }
+
+    @Around("execution(* org.bonitasoft.web.designer.repository.Repository+.save(..))")
+    public Object postSave(ProceedingJoinPoint joinPoint) throws Throwable {
+        return postSaveAndUpdateDate(joinPoint);
+    }
+
+    @Around("execution(* org.bonitasoft.web.designer.repository.Repository+.saveBatch(..)) "
+            + "|| execution(* org.bonitasoft.web.designer.repository.Repository+.updateLastUpdateAndSaveBatch(..))")
+    public Object postSaveBatch(ProceedingJoinPoint joinPoint) throws Throwable {
+        var repository = (AbstractRepository<?>) joinPoint.getThis();
+        var writeCounts = new LinkedHashMap<String, Long>();
+        for (Object component : (List<?>) joinPoint.getArgs()[0]) {
+            var id = ((Identifiable) component).getId();
+            writeCounts.put(id, repository.getWriteCount(id));
+        }
+        var saved = joinPoint.proceed();
+        for (Map.Entry<String, Long> writeCount : writeCounts.entrySet()) {
+            if (repository.getWriteCount(writeCount.getKey()) != writeCount.getValue()) {
+                postSave(repository, writeCount.getKey());
+            }
+        }
+        return saved;
+    }
+
+    private void postSave(Repository<?> repository, String id) {
         try {
-            handler.postSave(filePath(joinPoint));
+            handler.postSave(repository.resolvePath(id));
         } catch (ResourceNotFoundException e) {
             throw new RepositoryException("An error occured while proceeding post save action.", e);
         }
     }
 
-    @After("execution(* org.bonitasoft.web.designer.repository.Repository+.save(..))")
-    public void postSave(JoinPoint joinPoint) {
-        postSaveAndUpdateDate(joinPoint);
-    }
-
     @Around("execution(* org.bonitasoft.web.designer.repository.Repository+.delete(String))")
     public void delete(JoinPoint joinPoint) {
         try {
@@ -15,7 +15,11 @@
 package org.bonitasoft.web.designer.controller;
 
 import org.bonitasoft.web.designer.ArtifactBuilder;
+import org.bonitasoft.web.designer.controller.export.ExportArchive;
+import org.bonitasoft.web.designer.controller.export.ExportException;
+import org.bonitasoft.web.designer.model.fragment.Fragment;
 import org.bonitasoft.web.designer.model.page.Page;
+import org.bonitasoft.web.designer.model.widget.Widget;
 import org.bonitasoft.web.designer.repository.PageRepository;
 import org.bonitasoft.web.designer.service.FragmentService;
 import org.bonitasoft.web.designer.service.PageService;
@@ -29,18 +33,25 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
 
 import static java.lang.String.format;
 import static java.nio.file.Files.write;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.bonitasoft.web.designer.utils.UIDesignerMockMvcBuilder.mockServer;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(MockitoJUnitRunner.class)
 public class ExportControllerTest {
@@ -66,7 +77,7 @@ public class ExportControllerTest {
     private ExportController exportController;
 
     @Before
-    public void setUp() {
+    public void setUp() throws Exception {
         exportController = spy(new ExportController(
                 pageService,
                 fragmentService,
@@ -74,6 +85,17 @@ public class ExportControllerTest {
                 artifactBuilder
         ));
         mockMvc = mockServer(exportController).build();
+        lenient().when(artifactBuilder.export(any(Page.class))).thenAnswer(invocation -> anArchive("page content"));
+        lenient().when(artifactBuilder.export(any(Widget.class))).thenAnswer(invocation -> anArchive("widget content"));
+        lenient().when(artifactBuilder.export(any(Fragment.class))).thenAnswer(invocation -> anArchive("fragment content"));
+    }
+
+    private ExportArchive anArchive(String content) throws IOException {
+        var archive = new ExportArchive();
+        try (var stream = archive.getOutputStream()) {
+            stream.write(content.getBytes());
+        }
+        return archive;
     }
 
     @Test
@@ -136,4 +158,53 @@ public class ExportControllerTest {
 // TODO: check with content-type should be used .andExpect(content().contentType("application/zip"));
     }
 
+    @Test
+    public void should_stream_exported_archive() throws Exception {
+        create(aPage().withId("myPage").build());
+
+        MvcResult result = mockMvc.perform(get("/export/page/myPage"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().longValue("Content-Length", "page content".length()))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().bytes("page content".getBytes()));
+    }
+
+    @Test
+    public void should_release_exported_archive_when_request_completes_before_it_is_sent() throws Exception {
+        create(aPage().withId("myPage").build());
+        var tempDir = repositoryFolder.newFolderPath("export");
+        var archive = spy(new ExportArchive(0, tempDir));
+        try (var stream = archive.getOutputStream()) {
+            stream.write("page content".getBytes());
+        }
+        var sending = new CountDownLatch(1);
+        lenient().doAnswer(invocation -> {
+            sending.await();
+            return null;
+        }).when(archive).writeTo(any(OutputStream.class));
+        when(artifactBuilder.export(any(Page.class))).thenReturn(archive);
+
+        MvcResult result = mockMvc.perform(get("/export/page/myPage"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(tempDir).isNotEmptyDirectory();
+        // e.g. on timeout, or when client is gone
+        result.getRequest().getAsyncContext().complete();
+
+        assertThat(tempDir).isEmptyDirectory();
+        sending.countDown();
+    }
+
+    @Test
+    public void should_not_start_streaming_when_export_fails() throws Exception {
+        create(aPage().withId("myPage").build());
+        when(artifactBuilder.export(any(Page.class))).thenThrow(new ExportException("zip creation failed", new IOException()));
+
+        mockMvc.perform(get("/export/page/myPage"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isInternalServerError());
+    }
+
 }
@@ -222,7 +222,7 @@ public class FragmentResourceTest {
         Fragment fragment2 = aFragment().withId("fragment2").withName("fragment2").build();
         var lastUpdate = Instant.parse("2015-02-02T00:00:00.000Z");
         fragment2.setLastUpdate(lastUpdate);
-        when(fragmentService.getAllNotUsingFragment(null)).thenReturn(asList(fragment1, fragment2));
+        when(fragmentService.getAllLightNotUsingFragment(null)).thenReturn(asList(fragment1, fragment2));
 
         mockMvc.perform(get("/rest/fragments").param("view", "light"))
                 .andExpect(status().isOk())
@@ -240,7 +240,7 @@ public class FragmentResourceTest {
         fragment1.addUsedBy("page",singletonList(page1));
         fragment2.addUsedBy("fragment",singletonList(fragment1));
 
-        when(fragmentService.getAllNotUsingFragment(null)).thenReturn(asList(fragment1,fragment2));
+        when(fragmentService.getAllLightNotUsingFragment(null)).thenReturn(asList(fragment1,fragment2));
 
         mockMvc.perform(get("/rest/fragments").param("view", "light"))
                 .andExpect(status().isOk())
@@ -284,7 +284,7 @@ public class FragmentResourceTest {
 
         fragment1.addUsedBy("page",singletonList(page));
         fragment2.addUsedBy("fragment",singletonList(fragment1));
-        when(fragmentService.getAllNotUsingFragment(fragmentId)).thenReturn(
+        when(fragmentService.getAllLightNotUsingFragment(fragmentId)).thenReturn(
                 asList(fragment1,fragment2));
 
         mockMvc.perform(get("/rest/fragments").param("notUsedBy", fragmentId).param("view", "light"))
@@ -310,6 +310,41 @@ public class FragmentResourceTest {
                 .andExpect(jsonPath("$.assets[0].id").value("myAsset"));
     }
 
+    @Test
+    public void should_patch_a_fragment() throws Exception {
+        Fragment fragment = aFragment().withId("fragment1").withName("Person").build();
+        when(fragmentService.get("fragment1")).thenReturn(fragment);
+        when(fragmentService.listAsset(any())).thenReturn(Set.of(anAsset().withId("myAsset").build()));
+        when(fragmentService.save(eq("fragment1"), any())).thenAnswer(invocation -> invocation.getArgument(1));
+        fragment.setAssets(Set.of(anAsset().withId("myAsset").build()));
+        String eTag = JsonPatchHelper.eTag(JsonPatchHelper.toEditorJson(jsonHandler, fragment));
+
+        mockMvc
+                .perform(patch("/rest/fragments/fragment1")
+                        .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content("[{\"op\": \"replace\", \"path\": \"/name\", \"value\": \"Customer\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        verify(fragmentService).save(eq("fragment1"), argThat(patched -> "Customer".equals(patched.getName())));
+    }
+
+    @Test
+    public void should_respond_412_when_patching_a_fragment_modified_since_its_version() throws Exception {
+        Fragment fragment = aFragment().withId("fragment1").withName("Person").build();
+        when(fragmentService.get("fragment1")).thenReturn(fragment);
+
+        mockMvc
+                .perform(patch("/rest/fragments/fragment1")
+                        .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                        .header(HttpHeaders.IF_MATCH, "\"outdated\"")
+                        .content("[{\"op\": \"replace\", \"path\": \"/name\", \"value\": \"Customer\"}]"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(fragmentService, never()).save(anyString(), any());
+    }
+
     @Test
     public void should_delete_a_fragment() throws Exception {
         String fragmentId = "my-fragment";
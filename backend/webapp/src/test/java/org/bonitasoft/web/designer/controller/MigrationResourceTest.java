@@ -18,8 +18,14 @@ import org.bonitasoft.web.designer.JsonHandlerFactory;
 import org.bonitasoft.web.designer.builder.PageBuilder;
 import org.bonitasoft.web.designer.builder.WidgetBuilder;
 import org.bonitasoft.web.designer.config.UiDesignerProperties;
+import org.bonitasoft.web.designer.config.WebSocketConfig;
+import org.bonitasoft.web.designer.migration.MigrationListener;
+import org.bonitasoft.web.designer.migration.MigrationPlan;
+import org.bonitasoft.web.designer.migration.MigrationPlanner;
+import org.bonitasoft.web.designer.migration.MigrationProgress;
 import org.bonitasoft.web.designer.model.DesignerArtifact;
 import org.bonitasoft.web.designer.model.JsonHandler;
+import org.bonitasoft.web.designer.model.migrationReport.MigrationReport;
 import org.bonitasoft.web.designer.model.migrationReport.MigrationResult;
 import org.bonitasoft.web.designer.model.migrationReport.MigrationStatus;
 import org.bonitasoft.web.designer.model.migrationReport.MigrationStepReport;
@@ -30,6 +36,7 @@ import org.bonitasoft.web.designer.repository.WidgetRepository;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.bonitasoft.web.designer.service.DefaultWidgetService;
 import org.bonitasoft.web.designer.service.PageService;
+import org.bonitasoft.web.designer.workspace.Workspace;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -38,6 +45,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.MediaType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
@@ -50,6 +58,7 @@ import static org.bonitasoft.web.designer.builder.WidgetBuilder.aWidget;
 import static org.bonitasoft.web.designer.utils.UIDesignerMockMvcBuilder.mockServer;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -74,6 +83,15 @@ public class MigrationResourceTest {
     @Mock
     private DefaultWidgetService widgetService;
 
+    @Mock
+    private Workspace workspace;
+
+    @Mock
+    private MigrationPlanner migrationPlanner;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
     @InjectMocks
     private MigrationResource MigrationResource;
 
@@ -429,4 +447,33 @@ public class MigrationResourceTest {
             Assert.assertEquals(result.getResponse().getContentAsString(), "{\"comments\":\"No migration is needed\",\"status\":\"none\",\"elementId\":\"my-widget\",\"migrationStepReport\":[]}");
             verify(widgetService, never()).migrateWithReport(widget);
     }
+
+    @Test
+    public void should_send_the_progress_of_the_workspace_migration() throws Exception {
+        MigrationProgress progress = new MigrationProgress(1, 2, new MigrationReport(MigrationStatus.SUCCESS, "myPage"), false);
+        doAnswer(invocation -> {
+            invocation.<MigrationListener>getArgument(0).onProgress(progress);
+            return null;
+        }).when(workspace).migrateWorkspace(any(MigrationListener.class));
+
+        mockMvc.perform(post("/rest/migration")).andExpect(status().isOk());
+
+        verify(messagingTemplate).convertAndSend(WebSocketConfig.MIGRATION_PROGRESS, progress);
+    }
+
+    @Test
+    public void should_return_the_migration_plan_of_the_workspace() throws Exception {
+        MigrationPlan plan = new MigrationPlan();
+        plan.getToMigrate().add(new MigrationPlan.PlannedArtifact("myPage", "myPage", "page", "2.0", 2));
+        plan.getIncompatible().add(new MigrationPlan.PlannedArtifact("myFragment", "myFragment", "fragment", "3.0", 0));
+        plan.setStepCount(2);
+        when(migrationPlanner.plan()).thenReturn(plan);
+
+        mockMvc.perform(get("/rest/migration/plan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.toMigrate[0].id").value("myPage"))
+                .andExpect(jsonPath("$.toMigrate[0].stepCount").value(2))
+                .andExpect(jsonPath("$.incompatible[0].artifactVersion").value("3.0"))
+                .andExpect(jsonPath("$.stepCount").value(2));
+    }
 }
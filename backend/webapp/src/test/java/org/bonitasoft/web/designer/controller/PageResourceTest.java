@@ -57,12 +57,18 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.jayway.jsonassert.impl.matcher.IsCollectionWithSize.hasSize;
 import static java.nio.file.Files.readAllBytes;
 import static java.nio.file.Files.readAllLines;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.bonitasoft.web.designer.builder.AssetBuilder.aFilledAsset;
 import static org.bonitasoft.web.designer.builder.AssetBuilder.anAsset;
 import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
@@ -141,7 +147,7 @@ public class PageResourceTest {
         page.setName("name");
         var lastUpdate = Instant.parse("2015-02-02T00:00:00.000Z");
         page.setLastUpdate(lastUpdate);
-        when(pageService.getAll()).thenReturn(Arrays.asList(page));
+        when(pageService.getAllLight()).thenReturn(Arrays.asList(page));
 
         mockMvc.perform(get("/rest/pages"))
                 .andExpect(status().isOk())
@@ -356,6 +362,145 @@ public class PageResourceTest {
         mockMvc.perform(get("/rest/pages/my-page")).andExpect(status().is(422));
     }
 
+    @Test
+    public void should_send_the_page_version_as_an_etag() throws Exception {
+        Page page = mockPageOfId("my-page");
+
+        mockMvc
+                .perform(get("/rest/pages/my-page"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, JsonPatchHelper.eTag(JsonPatchHelper.toEditorJson(jsonHandler, page))));
+    }
+
+    @Test
+    public void should_patch_a_page() throws Exception {
+        Page page = mockPageOfId("my-page");
+        page.setName("myPage");
+        String eTag = JsonPatchHelper.eTag(JsonPatchHelper.toEditorJson(jsonHandler, page));
+        when(pageService.save(eq("my-page"), any())).thenAnswer(invocation -> invocation.getArgument(1));
+
+        mockMvc
+                .perform(patch("/rest/pages/my-page")
+                        .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content("[{\"op\": \"replace\", \"path\": \"/name\", \"value\": \"myPatchedPage\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+
+        verify(pageService).save(eq("my-page"), argThat(patched -> "myPatchedPage".equals(patched.getName())));
+        verify(messagingTemplate).convertAndSend("/previewableUpdates", "my-page");
+    }
+
+    @Test
+    public void should_not_lose_an_update_when_a_page_is_patched_concurrently_from_a_same_version() throws Exception {
+        Page page = aPage().withId("my-page").withName("myPage").build();
+        AtomicReference<Page> stored = new AtomicReference<>(page);
+        when(pageService.getWithAsset("my-page")).thenAnswer(invocation -> stored.get());
+        when(pageService.save(eq("my-page"), any())).thenAnswer(invocation -> {
+            // leave time for the other patch to check its version
+            Thread.sleep(200);
+            stored.set(invocation.getArgument(1));
+            return invocation.getArgument(1);
+        });
+        String eTag = JsonPatchHelper.eTag(JsonPatchHelper.toEditorJson(jsonHandler, page));
+        Callable<Integer> patchName = () -> mockMvc
+                .perform(patch("/rest/pages/my-page")
+                        .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content("[{\"op\": \"replace\", \"path\": \"/name\", \"value\": \"" + UUID.randomUUID() + "\"}]"))
+                .andReturn().getResponse().getStatus();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(patchName);
+            Future<Integer> second = executor.submit(patchName);
+
+            assertThat(List.of(first.get(), second.get())).containsExactlyInAnyOrder(200, 412);
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(pageService, times(1)).save(eq("my-page"), any());
+    }
+
+    @Test
+    public void should_not_save_a_page_between_the_version_check_and_the_save_of_a_patch() throws Exception {
+        Page page = aPage().withId("my-page").withName("myPage").build();
+        AtomicReference<Page> stored = new AtomicReference<>(page);
+        when(pageService.getWithAsset("my-page")).thenAnswer(invocation -> stored.get());
+        when(pageService.save(eq("my-page"), any())).thenAnswer(invocation -> {
+            Page saved = invocation.getArgument(1);
+            if ("patchedPage".equals(saved.getName())) {
+                // leave time for the put to be saved
+                Thread.sleep(200);
+            }
+            stored.set(saved);
+            return saved;
+        });
+        String eTag = JsonPatchHelper.eTag(JsonPatchHelper.toEditorJson(jsonHandler, page));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> patched = executor.submit(() -> mockMvc
+                    .perform(patch("/rest/pages/my-page")
+                            .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                            .header(HttpHeaders.IF_MATCH, eTag)
+                            .content("[{\"op\": \"replace\", \"path\": \"/name\", \"value\": \"patchedPage\"}]"))
+                    .andReturn().getResponse().getStatus());
+            Thread.sleep(50);
+            mockMvc.perform(put("/rest/pages/my-page")
+                            .contentType(APPLICATION_JSON_VALUE)
+                            .content(jsonHandler.toJson(aPage().withId("my-page").withName("putPage").build())))
+                    .andExpect(status().isOk());
+
+            assertThat(patched.get()).isIn(200, 412);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(stored.get().getName()).isEqualTo("putPage");
+    }
+
+    @Test
+    public void should_respond_428_when_patching_a_page_without_if_match_header() throws Exception {
+        mockPageOfId("my-page");
+
+        mockMvc
+                .perform(patch("/rest/pages/my-page")
+                        .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                        .content("[{\"op\": \"remove\", \"path\": \"/name\"}]"))
+                .andExpect(status().is(428));
+
+        verify(pageService, never()).save(anyString(), any());
+    }
+
+    @Test
+    public void should_respond_412_when_patching_a_page_modified_since_its_version() throws Exception {
+        mockPageOfId("my-page");
+
+        mockMvc
+                .perform(patch("/rest/pages/my-page")
+                        .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                        .header(HttpHeaders.IF_MATCH, "\"outdated\"")
+                        .content("[{\"op\": \"remove\", \"path\": \"/name\"}]"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(pageService, never()).save(anyString(), any());
+    }
+
+    @Test
+    public void should_respond_409_when_page_patch_cannot_be_applied() throws Exception {
+        Page page = mockPageOfId("my-page");
+        String eTag = JsonPatchHelper.eTag(JsonPatchHelper.toEditorJson(jsonHandler, page));
+
+        mockMvc
+                .perform(patch("/rest/pages/my-page")
+                        .contentType(JsonPatchHelper.APPLICATION_JSON_PATCH_VALUE)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .content("[{\"op\": \"remove\", \"path\": \"/unknown\"}]"))
+                .andExpect(status().isConflict());
+
+        verify(pageService, never()).save(anyString(), any());
+    }
+
     @Test
     public void should_respond_422_on_save_when_page_is_incompatible() throws Exception {
         Page pageToBeSaved = mockPageOfId("my-page");
@@ -17,11 +17,8 @@ package org.bonitasoft.web.designer.controller;
 import org.bonitasoft.web.designer.ArtifactBuilder;
 import org.bonitasoft.web.designer.config.WorkspaceProperties;
 import org.bonitasoft.web.designer.config.WorkspaceUidProperties;
-import org.bonitasoft.web.designer.model.fragment.Fragment;
-import org.bonitasoft.web.designer.model.page.Page;
 import org.bonitasoft.web.designer.rendering.GenerationException;
-import org.bonitasoft.web.designer.repository.FragmentRepository;
-import org.bonitasoft.web.designer.repository.PageRepository;
+import org.bonitasoft.web.designer.rendering.PreviewHtml;
 import org.bonitasoft.web.designer.repository.exception.NotFoundException;
 import org.junit.Before;
 import org.junit.Test;
@@ -36,8 +33,6 @@ import java.nio.file.Paths;
 import static java.nio.file.Files.readAllBytes;
 import static javax.servlet.http.HttpServletResponse.SC_TEMPORARY_REDIRECT;
 import static junit.framework.Assert.assertEquals;
-import static org.bonitasoft.web.designer.builder.FragmentBuilder.aFragment;
-import static org.bonitasoft.web.designer.builder.PageBuilder.aPage;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.when;
@@ -54,12 +49,6 @@ public class PreviewControllerTest {
     @Mock
     private ArtifactBuilder artifactBuilder;
 
-    @Mock
-    private PageRepository pageRepository;
-
-    @Mock
-    private FragmentRepository fragmentRepository;
-
     private Path tmpWorkspacePath;
 
     private WorkspaceProperties workspaceProperties;
@@ -77,14 +66,12 @@ public class PreviewControllerTest {
         workspaceProperties.getWidgets().setDir(Paths.get(getClass().getResource("/workspace/widgets").toURI()));
         workspaceProperties.getFragments().setDir(Paths.get(getClass().getResource("/workspace/fragments").toURI()));
 
-        mockMvc = standaloneSetup(new PreviewController(pageRepository, fragmentRepository, artifactBuilder, workspaceProperties, workspaceUidProperties)).build();
+        mockMvc = standaloneSetup(new PreviewController(artifactBuilder, workspaceProperties, workspaceUidProperties)).build();
     }
 
     @Test
     public void should_call_the_previewer() throws Exception {
-        final Page page = aPage().withId("my-page").withName("my-page").build();
-        when(pageRepository.get("my-page")).thenReturn(page);
-        when(artifactBuilder.buildHtml(eq(page), anyString())).thenReturn("Everything ok");
+        when(artifactBuilder.buildPagePreview(eq("my-page"), anyString())).thenReturn(new PreviewHtml("Everything ok"));
 
         mockMvc
                 .perform(get("/preview/page/no-app-selected/my-page"))
@@ -94,11 +81,42 @@ public class PreviewControllerTest {
 
     }
 
+    @Test
+    public void should_tag_preview_with_the_hash_of_its_html() throws Exception {
+        var preview = new PreviewHtml("Everything ok");
+        when(artifactBuilder.buildPagePreview(eq("my-page"), anyString())).thenReturn(preview);
+
+        mockMvc
+                .perform(get("/preview/page/no-app-selected/my-page"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + preview.getHash() + "\""))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    public void should_respond_304_when_preview_has_not_changed() throws Exception {
+        var preview = new PreviewHtml("Everything ok");
+        when(artifactBuilder.buildPagePreview(eq("my-page"), anyString())).thenReturn(preview);
+
+        mockMvc
+                .perform(get("/preview/page/no-app-selected/my-page").header("If-None-Match", "\"" + preview.getHash() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void should_respond_304_when_preview_matches_one_of_weak_entity_tags() throws Exception {
+        var preview = new PreviewHtml("Everything ok");
+        when(artifactBuilder.buildPagePreview(eq("my-page"), anyString())).thenReturn(preview);
+
+        mockMvc
+                .perform(get("/preview/page/no-app-selected/my-page").header("If-None-Match", "\"other\", W/\"" + preview.getHash() + "\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     public void should_return_error_response_when_error_occur_on_generation() throws Exception {
-        final Page page = aPage().withId("my-page").withName("my-page").build();
-        when(pageRepository.get("my-page")).thenReturn(page);
-        when(artifactBuilder.buildHtml(eq(page), eq("/runtime/"))).thenThrow(new GenerationException("error", new Exception()));
+        when(artifactBuilder.buildPagePreview("my-page", "/runtime/")).thenThrow(new GenerationException("error", new Exception()));
 
         mockMvc
                 .perform(get("/preview/page/no-app-selected/my-page"))
@@ -111,7 +129,7 @@ public class PreviewControllerTest {
     @Test
     public void should_return_error_response_when_page_is_not_found() throws Exception {
 
-        when(pageRepository.get("unexisting-page")).thenThrow(new NotFoundException("page not found"));
+        when(artifactBuilder.buildPagePreview(eq("unexisting-page"), anyString())).thenThrow(new NotFoundException("page not found"));
 
         mockMvc
                 .perform(get("/preview/page/no-app-selected/unexisting-page"))
@@ -273,9 +291,7 @@ public class PreviewControllerTest {
 
     @Test
     public void should_call_the_previewer_for_fragments() throws Exception {
-        final Fragment fragment = aFragment().withId("my-fragment").withName("my-fragment").build();
-        when(fragmentRepository.get("my-fragment")).thenReturn(fragment);
-        when(artifactBuilder.buildHtml(eq(fragment), anyString())).thenReturn("Everything ok");
+        when(artifactBuilder.buildFragmentPreview(eq("my-fragment"), anyString())).thenReturn(new PreviewHtml("Everything ok"));
 
         mockMvc
                 .perform(get("/preview/fragment/no-app-selected/my-fragment"))
@@ -706,7 +706,7 @@ public class WidgetResourceTest {
 
         List<Widget> returnedWidgets = asList(input,label);
 
-        when(widgetService.getAllWithUsedBy()).thenReturn(returnedWidgets);
+        when(widgetService.getAllLight()).thenReturn(returnedWidgets);
 
         mockMvc.perform(get("/rest/widgets?view=light")).andDo(print())
                 .andExpect(status().isOk())
@@ -14,12 +14,37 @@
  */
 package org.bonitasoft.web.designer.controller.utils;
 
+import org.bonitasoft.web.designer.utils.rule.TemporaryFolder;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class HttpFileTest {
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.toPath().resolve("file.js");
+        Files.write(file, "0123456789".getBytes());
+    }
+
     @Test(expected = NullPointerException.class)
     public void should_throw_NullPointerException_when_filename_is_null(){
         HttpFile.getOriginalFilename(null);
@@ -39,4 +64,189 @@ public class HttpFileTest {
     public void should_find_filename_when_no_full_path(){
         assertThat(HttpFile.getOriginalFilename("myfile.js")).isEqualTo("myfile.js");
     }
+
+    @Test
+    public void should_write_file_with_validation_headers() throws Exception {
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+        assertThat(response.getHeader("ETag")).startsWith("\"a-");
+        assertThat(response.getDateHeader("Last-Modified")).isEqualTo(Files.getLastModifiedTime(file).toMillis() / 1000 * 1000);
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache");
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+    }
+
+    @Test
+    public void should_respond_304_when_etag_matches() throws Exception {
+        HttpFile.writeFileInResponse(request, response, file);
+        MockHttpServletRequest conditionalRequest = new MockHttpServletRequest();
+        conditionalRequest.addHeader("If-None-Match", "\"other\", " + response.getHeader("ETag"));
+        MockHttpServletResponse conditionalResponse = new MockHttpServletResponse();
+
+        HttpFile.writeFileInResponse(conditionalRequest, conditionalResponse, file);
+
+        assertThat(conditionalResponse.getStatus()).isEqualTo(304);
+        assertThat(conditionalResponse.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void should_respond_304_when_file_is_not_modified_since() throws Exception {
+        request.addHeader("If-Modified-Since", Files.getLastModifiedTime(file).toMillis() + 1000);
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    public void should_write_file_when_etag_does_not_match() throws Exception {
+        request.addHeader("If-None-Match", "\"other\"");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void should_cache_for_good_files_named_after_their_hash() throws Exception {
+        Path bundle = folder.toPath().resolve("widgets-0123456789abcdef0123456789abcdef01234567.min.js");
+        Files.write(bundle, "bundle".getBytes());
+
+        HttpFile.writeFileInResponse(request, response, bundle);
+
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("public, max-age=31536000, immutable");
+    }
+
+    @Test
+    public void should_cache_for_good_files_requested_with_their_hash() throws Exception {
+        request.setParameter("hash", "0123456789abcdef0123456789abcdef01234567");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("public, max-age=31536000, immutable");
+    }
+
+    @Test
+    public void should_write_requested_range() throws Exception {
+        request.addHeader("Range", "bytes=2-4");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("234");
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 2-4/10");
+        assertThat(response.getHeader("Content-Length")).isEqualTo("3");
+    }
+
+    @Test
+    public void should_write_last_bytes_for_a_suffix_range() throws Exception {
+        request.addHeader("Range", "bytes=-3");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("789");
+    }
+
+    @Test
+    public void should_respond_416_when_range_is_not_satisfiable() throws Exception {
+        request.addHeader("Range", "bytes=20-");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */10");
+    }
+
+    @Test
+    public void should_write_whole_file_when_range_condition_does_not_match() throws Exception {
+        request.addHeader("Range", "bytes=2-4");
+        request.addHeader("If-Range", "\"other\"");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void should_let_the_container_send_the_file_when_supported() throws Exception {
+        request.setAttribute("org.apache.tomcat.sendfile.support", true);
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isEqualTo(file.toAbsolutePath().toString());
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(0L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(10L);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    public void should_write_gzipped_copy_when_accepted() throws Exception {
+        Path gzipped = writeGzippedCopy();
+        request.addHeader("Accept-Encoding", "deflate, gzip;q=0.8");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Files.readAllBytes(gzipped));
+        assertThat(response.getHeader("Content-Disposition")).isEqualTo("inline; filename=\"file.js\"");
+    }
+
+    @Test
+    public void should_write_file_when_gzip_is_refused() throws Exception {
+        writeGzippedCopy();
+        request.addHeader("Accept-Encoding", "gzip;q=0");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void should_write_file_when_gzip_is_refused_but_any_coding_is_accepted() throws Exception {
+        writeGzippedCopy();
+        request.addHeader("Accept-Encoding", "*;q=1, gzip;q=0");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void should_write_gzipped_copy_when_any_coding_is_accepted() throws Exception {
+        Path gzipped = writeGzippedCopy();
+        request.addHeader("Accept-Encoding", "br, *");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getContentAsByteArray()).isEqualTo(Files.readAllBytes(gzipped));
+    }
+
+    @Test
+    public void should_ignore_outdated_gzipped_copy() throws Exception {
+        Path gzipped = writeGzippedCopy();
+        Files.setLastModifiedTime(gzipped, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() - 10000));
+        request.addHeader("Accept-Encoding", "gzip");
+
+        HttpFile.writeFileInResponse(request, response, file);
+
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo("0123456789");
+    }
+
+    private Path writeGzippedCopy() throws Exception {
+        Path gzipped = folder.toPath().resolve("file.js.gz");
+        try (GZIPOutputStream out = new GZIPOutputStream(Files.newOutputStream(gzipped))) {
+            out.write(Files.readAllBytes(file));
+        }
+        return gzipped;
+    }
 }
@@ -84,6 +84,27 @@ public class RepositoryAspectTest {
         verify(workspaceResourceHandler, never()).postSave(any(Path.class));
     }
 
+    @Test
+    public void should_not_trigger_postSave_on_workspaceResourceHandler_when_saving_an_unchanged_page() throws Exception {
+        Page page = formRepository.updateLastUpdateAndSave(aPage().withId("anUnchangedPageId").build());
+
+        formRepository.updateLastUpdateAndSave(page);
+        formRepository.save(page);
+
+        verify(workspaceResourceHandler, times(1)).postSave(formRepository.resolvePath("anUnchangedPageId"));
+    }
+
+    @Test
+    public void should_trigger_postSave_on_workspaceResourceHandler_for_each_page_saved_in_a_batch() throws Exception {
+        formRepository.updateLastUpdateAndSaveBatch(Arrays.asList(
+                aPage().withId("aPageId").build(),
+                aPage().withId("anotherPageId").build())
+        );
+
+        verify(workspaceResourceHandler).postSave(formRepository.resolvePath("aPageId"));
+        verify(workspaceResourceHandler).postSave(formRepository.resolvePath("anotherPageId"));
+    }
+
     @Test
     public void should_trigger_delete_on_workspaceResourceHandler_when_deleting_a_widget() throws Exception {
         widgetRepository.save(aWidget().withId("widgetId1").custom().build());